@@ -0,0 +1,180 @@
+package com.kylekriskovich.perworldhardcore.benchmark;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreDimension;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.storage.YamlPlayerDataBackend;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Synthetic plugin environment for benchmarks: a {@link Plugin} proxy with a
+ * silent logger, a temp data folder and a scheduler that runs every task
+ * inline, plus deterministic hardcore worlds and player data.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    // ------------------------------------------------------------------------
+    // Fake server
+    // ------------------------------------------------------------------------
+
+    static Plugin fakePlugin(File dataFolder) {
+        Logger logger = Logger.getLogger("PerWorldHardcore-benchmark");
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.OFF);
+
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (method, args) -> {
+            // runTask / runTaskAsynchronously / runTaskLater ...: run now on this thread
+            if (method.getName().startsWith("runTask") && args.length > 1 && args[1] instanceof Runnable task) {
+                task.run();
+            }
+            return null;
+        });
+
+        Server server = proxy(Server.class, (method, args) ->
+                method.getName().equals("getScheduler") ? scheduler : null);
+
+        return proxy(Plugin.class, (method, args) -> switch (method.getName()) {
+            case "getLogger" -> logger;
+            case "getDataFolder" -> dataFolder;
+            case "getServer" -> server;
+            case "getName" -> "PerWorldHardcore";
+            case "getResource" -> BenchmarkFixtures.class.getClassLoader().getResourceAsStream((String) args[0]);
+            default -> null;
+        });
+    }
+
+    static File tempDataFolder() {
+        try {
+            File folder = Files.createTempDirectory("pwhc-bench").toFile();
+            folder.deleteOnExit();
+            return folder;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create temp data folder", e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Synthetic hardcore worlds and players
+    // ------------------------------------------------------------------------
+
+    static String worldId(int index) {
+        return "hc-" + index;
+    }
+
+    /**
+     * Register {@code worldCount} three-dimension hardcore worlds.
+     */
+    static HardcoreWorldRegistry registry(int worldCount) {
+        HardcoreWorldRegistry registry = new HardcoreWorldRegistry();
+
+        for (int i = 0; i < worldCount; i++) {
+            String worldId = worldId(i);
+            List<String> dimensions = new ArrayList<>();
+            for (HardcoreDimension dim : HardcoreDimension.values()) {
+                dimensions.add(dim.worldNameForWorld(worldId));
+            }
+            registry.register(worldId, dimensions, new HardcoreWorldSettings(worldId));
+        }
+        return registry;
+    }
+
+    /**
+     * Every player visits one or two hardcore worlds (all dimensions) and
+     * dies in roughly a third of them. Returns the generated player ids.
+     */
+    static List<UUID> populate(HardcoreDataStorage storage, HardcoreWorldRegistry registry,
+                               int worldCount, int players, long seed) {
+        Random random = new Random(seed);
+        List<UUID> ids = new ArrayList<>(players);
+
+        for (int p = 0; p < players; p++) {
+            UUID playerId = new UUID(random.nextLong(), random.nextLong());
+            ids.add(playerId);
+
+            int visits = 1 + random.nextInt(2);
+            for (int v = 0; v < visits; v++) {
+                String worldId = worldId(random.nextInt(worldCount));
+                boolean dead = random.nextInt(3) == 0;
+                for (String dimensionName : registry.getDimensionNames(worldId)) {
+                    storage.markPlayerVisitedWorld(playerId, dimensionName);
+                    if (dead) {
+                        storage.markPlayerDeadInWorld(playerId, dimensionName);
+                    }
+                }
+            }
+        }
+        // Written straight to storage, so the registry indexes (and death filter) start empty
+        registry.rebuildPlayerIndexes(storage);
+        return ids;
+    }
+
+    /**
+     * YAML-backed storage in the plugin's data folder, loaded synchronously.
+     */
+    static HardcoreDataStorage loadedStorage(Plugin plugin) {
+        HardcoreDataStorage storage = new HardcoreDataStorage(
+                new YamlPlayerDataBackend(new File(plugin.getDataFolder(), "data.yml"), plugin.getLogger()),
+                Runnable::run,
+                Runnable::run,
+                plugin.getLogger());
+        storage.init(() -> { });
+        return storage;
+    }
+
+    // ------------------------------------------------------------------------
+    // Proxy helper
+    // ------------------------------------------------------------------------
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        Object instance = Proxy.newProxyInstance(
+                BenchmarkFixtures.class.getClassLoader(),
+                new Class<?>[]{type},
+                (self, method, args) -> {
+                    Object[] safeArgs = args != null ? args : new Object[0];
+                    switch (method.getName()) {
+                        case "equals":
+                            return self == safeArgs[0];
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "toString":
+                            return type.getSimpleName() + "(benchmark)";
+                        default:
+                            break;
+                    }
+                    Object result = handler.handle(method, safeArgs);
+                    return result != null ? result : defaultValue(method.getReturnType());
+                });
+        return type.cast(instance);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        return 0;
+    }
+}
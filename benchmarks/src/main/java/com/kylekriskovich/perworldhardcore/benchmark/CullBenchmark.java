@@ -0,0 +1,43 @@
+package com.kylekriskovich.perworldhardcore.benchmark;
+
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findCullableWorlds (what /hardcore cull and the dead-world freezer run)
+ * as the number of hardcore worlds grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CullBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int worldCount;
+
+    @Param({"10000"})
+    public int players;
+
+    private HardcoreWorldRegistry registry;
+    private HardcoreDataStorage storage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = BenchmarkFixtures.registry(worldCount);
+        storage = BenchmarkFixtures.loadedStorage(
+                BenchmarkFixtures.fakePlugin(BenchmarkFixtures.tempDataFolder()));
+        BenchmarkFixtures.populate(storage, registry, worldCount, players, 7L);
+    }
+
+    @Benchmark
+    public Set<String> findCullableWorlds() {
+        return registry.findCullableWorlds(storage, "world");
+    }
+}
@@ -0,0 +1,79 @@
+package com.kylekriskovich.perworldhardcore.benchmark;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreDimension;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event lookups done on every join, world change, death and respawn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    private static final int WORLD_COUNT = 20;
+
+    @Param({"10000"})
+    public int players;
+
+    private HardcoreWorldRegistry registry;
+    private HardcoreDataStorage storage;
+    private UUID[] playerIds;
+    private UUID[] newPlayerIds;
+    private String[] dimensions;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = BenchmarkFixtures.registry(WORLD_COUNT);
+        storage = BenchmarkFixtures.loadedStorage(
+                BenchmarkFixtures.fakePlugin(BenchmarkFixtures.tempDataFolder()));
+        List<UUID> ids = BenchmarkFixtures.populate(storage, registry, WORLD_COUNT, players, 13L);
+
+        playerIds = ids.toArray(new UUID[0]);
+        newPlayerIds = new UUID[1024];
+        for (int i = 0; i < newPlayerIds.length; i++) {
+            newPlayerIds[i] = UUID.randomUUID();
+        }
+        dimensions = new String[WORLD_COUNT * HardcoreDimension.values().length];
+        int i = 0;
+        for (int w = 0; w < WORLD_COUNT; w++) {
+            for (HardcoreDimension dim : HardcoreDimension.values()) {
+                dimensions[i++] = dim.worldNameForWorld(BenchmarkFixtures.worldId(w));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean hasDiedInWorld() {
+        int n = cursor++;
+        return registry.hasDiedInWorld(storage,
+                playerIds[n % playerIds.length],
+                dimensions[n % dimensions.length]);
+    }
+
+    /**
+     * Players who never died anywhere; answered by the death filter.
+     */
+    @Benchmark
+    public boolean hasDiedInWorldNeverDied() {
+        int n = cursor++;
+        return registry.hasDiedInWorld(storage,
+                newPlayerIds[n % newPlayerIds.length],
+                dimensions[n % dimensions.length]);
+    }
+
+    @Benchmark
+    public List<String> getDimensionNamesForWorld() {
+        return registry.getDimensionNames(BenchmarkFixtures.worldId(cursor++ % WORLD_COUNT));
+    }
+}
@@ -0,0 +1,43 @@
+package com.kylekriskovich.perworldhardcore.benchmark;
+
+import com.kylekriskovich.perworldhardcore.util.MessageManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageManager rendering with and without placeholders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark {
+
+    private MessageManager messages;
+    private Map<String, String> placeholders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        messages = new MessageManager(BenchmarkFixtures.fakePlugin(BenchmarkFixtures.tempDataFolder()));
+        placeholders = Map.of("world", "hc-1", "position", "3", "eta", "4");
+    }
+
+    @Benchmark
+    public String constant() {
+        return messages.get("hardcore.cull.none");
+    }
+
+    @Benchmark
+    public String placeholderPairs() {
+        return messages.get("enter.queued", "world", "hc-1", "position", "3", "eta", "4");
+    }
+
+    @Benchmark
+    public String placeholderMap() {
+        return messages.get("enter.queued", placeholders);
+    }
+}
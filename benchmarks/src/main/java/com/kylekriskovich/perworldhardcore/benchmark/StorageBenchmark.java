@@ -0,0 +1,49 @@
+package com.kylekriskovich.perworldhardcore.benchmark;
+
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full data.yml save and load cost at different player counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    private static final int WORLD_COUNT = 20;
+
+    @Param({"1000", "10000", "100000"})
+    public int players;
+
+    private Plugin plugin;
+    private HardcoreDataStorage storage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        plugin = BenchmarkFixtures.fakePlugin(BenchmarkFixtures.tempDataFolder());
+        HardcoreWorldRegistry registry = BenchmarkFixtures.registry(WORLD_COUNT);
+
+        storage = BenchmarkFixtures.loadedStorage(plugin);
+        BenchmarkFixtures.populate(storage, registry, WORLD_COUNT, players, 42L);
+        storage.shutdown(); // writes data.yml for the load benchmark
+    }
+
+    @Benchmark
+    public HardcoreDataStorage save() {
+        storage.shutdown();
+        return storage;
+    }
+
+    @Benchmark
+    public boolean load() {
+        return BenchmarkFixtures.loadedStorage(plugin).isLoaded();
+    }
+}
@@ -0,0 +1,52 @@
+package com.kylekriskovich.perworldhardcore.simulator;
+
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+import com.kylekriskovich.perworldhardcore.storage.PlayerDataBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Wraps a file-backed {@link PlayerDataBackend} and adds up how much each save wrote.
+ */
+final class CountingBackend implements PlayerDataBackend {
+
+    private final PlayerDataBackend delegate;
+    private final File dataFile;
+
+    private long saves;
+    private long bytesWritten;
+
+    CountingBackend(PlayerDataBackend delegate, File dataFile) {
+        this.delegate = delegate;
+        this.dataFile = dataFile;
+    }
+
+    @Override
+    public Map<UUID, PlayerWorldState> load() throws IOException {
+        return delegate.load();
+    }
+
+    @Override
+    public long save(Collection<PlayerWorldState> players) throws IOException {
+        long written = delegate.save(players);
+        saves++;
+        bytesWritten += written >= 0 ? written : dataFile.length();
+        return written;
+    }
+
+    long saves() {
+        return saves;
+    }
+
+    long bytesWritten() {
+        return bytesWritten;
+    }
+
+    long lastFileSize() {
+        return dataFile.length();
+    }
+}
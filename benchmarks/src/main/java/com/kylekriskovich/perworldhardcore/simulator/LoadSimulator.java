@@ -0,0 +1,467 @@
+package com.kylekriskovich.perworldhardcore.simulator;
+
+import com.kylekriskovich.perworldhardcore.metrics.LatencyHistogram;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import com.kylekriskovich.perworldhardcore.simulator.SimulatedServer.SimulatedPlayer;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.storage.YamlPlayerDataBackend;
+import com.kylekriskovich.perworldhardcore.trace.TraceReader;
+import com.kylekriskovich.perworldhardcore.trace.TraceRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless load simulator: replays synthetic player traffic (joins, quits,
+ * world changes, deaths, respawns, creates and culls) against the core
+ * registry and storage through {@link SimulatedPlayerFlow}, then reports
+ * throughput, per-operation latency percentiles, allocation and bytes
+ * written to data.yml.
+ * <p>
+ * Events run back to back on one thread (the "main thread"); simulated time
+ * only decides when dirty player data is flushed. With --trace, the events
+ * come from a recorded event trace instead of the synthetic mix, and flushes
+ * follow the recorded timestamps. See {@link SimulationConfig} for options.
+ */
+public final class LoadSimulator {
+
+    private static final String HUB_WORLD = "world";
+    private static final double HUB_TRAVEL_CHANCE = 0.25;
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final SimulationConfig config;
+    private final Random random;
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Long> skipped = new EnumMap<>(Operation.class);
+    private final Deque<UUID> awaitingRespawn = new ArrayDeque<>();
+    private long worldsCulled;
+    private long traceSpanMillis;
+
+    private LoadSimulator(SimulationConfig config) {
+        this.config = config;
+        this.random = new Random(config.seed());
+        for (Operation op : Operation.values()) {
+            latencies.put(op, new LatencyHistogram());
+            skipped.put(op, 0L);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        SimulationConfig config;
+        try {
+            config = SimulationConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Options: --players --worlds --rate --duration --flush-interval-ticks "
+                    + "--max-spectators --mix --seed --trace");
+            System.exit(2);
+            return;
+        }
+
+        new LoadSimulator(config).run();
+    }
+
+    private void run() throws IOException {
+        Logger logger = Logger.getLogger("PerWorldHardcore-simulator");
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.OFF);
+
+        File dataFolder = Files.createTempDirectory("pwhc-sim").toFile();
+        File dataFile = new File(dataFolder, "data.yml");
+        dataFile.deleteOnExit();
+        dataFolder.deleteOnExit();
+
+        CountingBackend backend = new CountingBackend(new YamlPlayerDataBackend(dataFile, logger), dataFile);
+        HardcoreDataStorage storage = new HardcoreDataStorage(backend, Runnable::run, Runnable::run, logger);
+        storage.init(() -> { });
+
+        SimulatedServer server = new SimulatedServer(HUB_WORLD);
+        HardcoreWorldRegistry registry = new HardcoreWorldRegistry();
+        SimulatedPlayerFlow flow = new SimulatedPlayerFlow(server, registry, storage, config.maxSpectators());
+
+        if (config.trace() != null) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            replay(server, flow, storage);
+            long wallNanos = System.nanoTime() - start;
+            long allocated = allocatedBefore >= 0 ? allocatedBytes() - allocatedBefore : -1L;
+
+            report(server, backend, wallNanos, allocated);
+            return;
+        }
+
+        for (int i = 0; i < config.worlds(); i++) {
+            flow.createWorld();
+        }
+
+        List<UUID> playerIds = new ArrayList<>(config.players());
+        for (int i = 0; i < config.players(); i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            playerIds.add(id);
+            server.addPlayer(id);
+        }
+
+        Operation[] ops = config.mix().keySet().toArray(new Operation[0]);
+        double[] cumulative = new double[ops.length];
+        double sum = 0;
+        for (int i = 0; i < ops.length; i++) {
+            sum += config.mix().get(ops[i]);
+            cumulative[i] = sum;
+        }
+
+        long totalEvents = config.totalEvents();
+        double ticksPerEvent = 20.0 / config.rate();
+        long nextFlushTick = config.flushIntervalTicks();
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        // Ramp up: everyone logs in once so the run starts at full concurrency
+        for (UUID id : playerIds) {
+            SimulatedPlayer player = server.getPlayer(id);
+            long t0 = System.nanoTime();
+            flow.onJoin(player);
+            latencies.get(Operation.JOIN).record(System.nanoTime() - t0);
+        }
+
+        for (long i = 0; i < totalEvents; i++) {
+            long tick = (long) (i * ticksPerEvent);
+            if (tick >= nextFlushTick) {
+                flush(storage);
+                nextFlushTick = tick + config.flushIntervalTicks();
+            }
+
+            double pick = random.nextDouble() * sum;
+            int index = Arrays.binarySearch(cumulative, pick);
+            Operation op = ops[index >= 0 ? Math.min(index + 1, ops.length - 1) : -index - 1];
+            step(op, server, flow);
+        }
+        flush(storage);
+
+        long wallNanos = System.nanoTime() - start;
+        long allocated = allocatedBefore >= 0 ? allocatedBytes() - allocatedBefore : -1L;
+
+        report(server, backend, wallNanos, allocated);
+    }
+
+    private void step(Operation op, SimulatedServer server, SimulatedPlayerFlow flow) {
+        long t0;
+        switch (op) {
+            case JOIN -> {
+                SimulatedPlayer player = server.randomOffline(random);
+                if (player == null) {
+                    skip(op);
+                    return;
+                }
+                t0 = System.nanoTime();
+                flow.onJoin(player);
+            }
+            case QUIT -> {
+                SimulatedPlayer player = server.randomOnline(random);
+                if (player == null) {
+                    skip(op);
+                    return;
+                }
+                t0 = System.nanoTime();
+                flow.onQuit(player);
+            }
+            case CHANGE -> {
+                SimulatedPlayer player = server.randomOnline(random);
+                if (player == null) {
+                    skip(op);
+                    return;
+                }
+                String target = random.nextDouble() < HUB_TRAVEL_CHANCE
+                        ? null
+                        : flow.randomHardcoreDimension(random);
+                if (target == null) {
+                    target = server.getHubWorldName();
+                }
+                if (target.equals(player.dimension)) {
+                    skip(op);
+                    return;
+                }
+                t0 = System.nanoTime();
+                flow.onChangedWorld(player, target);
+            }
+            case DEATH -> {
+                SimulatedPlayer player = server.randomOnline(random);
+                if (player == null || player.spectator || player.lastDeathDimension != null) {
+                    skip(op);
+                    return;
+                }
+                t0 = System.nanoTime();
+                if (!flow.onDeath(player)) {
+                    skip(op);
+                    return;
+                }
+                awaitingRespawn.add(player.id);
+            }
+            case RESPAWN -> {
+                UUID id = awaitingRespawn.poll();
+                if (id == null) {
+                    skip(op);
+                    return;
+                }
+                t0 = System.nanoTime();
+                flow.onRespawn(server.getPlayer(id));
+            }
+            case CREATE -> {
+                t0 = System.nanoTime();
+                flow.createWorld();
+            }
+            case CULL -> {
+                t0 = System.nanoTime();
+                worldsCulled += flow.cull();
+            }
+            default -> {
+                return;
+            }
+        }
+        latencies.get(op).record(System.nanoTime() - t0);
+    }
+
+    // ------------------------------------------------------------------------
+    // Trace replay
+    // ------------------------------------------------------------------------
+
+    private void replay(SimulatedServer server, SimulatedPlayerFlow flow, HardcoreDataStorage storage)
+            throws IOException {
+        long[] firstMillis = {-1L};
+        long[] lastMillis = {0L};
+        long[] nextFlushTick = {config.flushIntervalTicks()};
+
+        TraceReader.read(config.trace(), record -> {
+            if (firstMillis[0] < 0) {
+                firstMillis[0] = record.timestampMillis();
+            }
+            lastMillis[0] = Math.max(lastMillis[0], record.timestampMillis());
+
+            long tick = (record.timestampMillis() - firstMillis[0]) / MILLIS_PER_TICK;
+            if (tick >= nextFlushTick[0]) {
+                flush(storage);
+                nextFlushTick[0] = tick + config.flushIntervalTicks();
+            }
+            replayStep(record, server, flow);
+        });
+        flush(storage);
+
+        traceSpanMillis = firstMillis[0] < 0 ? 0L : lastMillis[0] - firstMillis[0];
+    }
+
+    /**
+     * Feed one recorded event through the same flow as synthetic traffic.
+     * Records describe what the plugin did, so the simulator recreates the
+     * state the event needs (player known and online, world registered,
+     * player standing in the dimension) untimed, then times only the handler.
+     * Queued entries and admin commands other than cull are skipped.
+     */
+    private void replayStep(TraceRecord record, SimulatedServer server, SimulatedPlayerFlow flow) {
+        SimulatedPlayer player = null;
+        if (record.player() != null) {
+            player = server.getPlayer(record.player());
+            if (player == null) {
+                player = server.addPlayer(record.player());
+            }
+        }
+
+        switch (record.type()) {
+            case JOIN -> {
+                if (player == null || player.online) {
+                    skip(Operation.JOIN);
+                    return;
+                }
+                placeInWorld(record, server, flow);
+                if (server.worldExists(record.world())) {
+                    player.dimension = record.world();
+                }
+                long t0 = System.nanoTime();
+                flow.onJoin(player);
+                latencies.get(Operation.JOIN).record(System.nanoTime() - t0);
+            }
+            case QUIT -> {
+                if (player == null || !player.online) {
+                    skip(Operation.QUIT);
+                    return;
+                }
+                long t0 = System.nanoTime();
+                flow.onQuit(player);
+                latencies.get(Operation.QUIT).record(System.nanoTime() - t0);
+            }
+            case CHANGE_WORLD -> {
+                if (player == null || record.world() == null) {
+                    skip(Operation.CHANGE);
+                    return;
+                }
+                placeInWorld(record, server, flow);
+                if (!player.online) {
+                    server.join(player);
+                }
+                long t0 = System.nanoTime();
+                flow.onChangedWorld(player, record.world());
+                latencies.get(Operation.CHANGE).record(System.nanoTime() - t0);
+            }
+            case DEATH -> {
+                if (player == null || record.world() == null) {
+                    skip(Operation.DEATH);
+                    return;
+                }
+                placeInWorld(record, server, flow);
+                if (!player.online) {
+                    server.join(player);
+                }
+                if (!record.world().equals(player.dimension)) {
+                    server.teleport(player, record.world());
+                }
+                long t0 = System.nanoTime();
+                if (!flow.onDeath(player)) {
+                    skip(Operation.DEATH);
+                    return;
+                }
+                latencies.get(Operation.DEATH).record(System.nanoTime() - t0);
+            }
+            case RESPAWN_SPECTATE, RESPAWN_HUB -> {
+                // Also recorded when entering a dead world; only replay real respawns
+                if (player == null || player.lastDeathDimension == null) {
+                    skip(Operation.RESPAWN);
+                    return;
+                }
+                long t0 = System.nanoTime();
+                flow.onRespawn(player);
+                latencies.get(Operation.RESPAWN).record(System.nanoTime() - t0);
+            }
+            case WORLD_CREATE -> {
+                if (record.world() == null || flow.isRegistered(record.world())) {
+                    skip(Operation.CREATE);
+                    return;
+                }
+                List<String> dimensions = record.detail() == null || record.detail().isEmpty()
+                        ? List.of(record.world())
+                        : Arrays.asList(record.detail().split(","));
+                long t0 = System.nanoTime();
+                flow.registerWorld(record.world(), dimensions);
+                latencies.get(Operation.CREATE).record(System.nanoTime() - t0);
+            }
+            case ADMIN_COMMAND -> {
+                if (record.detail() == null || !record.detail().startsWith("cull")) {
+                    return;
+                }
+                long t0 = System.nanoTime();
+                worldsCulled += flow.cull();
+                latencies.get(Operation.CULL).record(System.nanoTime() - t0);
+            }
+            case WORLD_CULL -> {
+                // The cull command above decides from simulated state; keep the two in step
+                if (record.world() != null && flow.isRegistered(record.world())) {
+                    flow.removeWorld(record.world());
+                    worldsCulled++;
+                }
+            }
+            default -> {
+                // ENTER_QUEUED: admission control depends on MSPT and isn't simulated
+            }
+        }
+    }
+
+    /**
+     * Make the recorded world exist: register the hardcore group named in
+     * the record's detail, or just create a plain world.
+     */
+    private static void placeInWorld(TraceRecord record, SimulatedServer server, SimulatedPlayerFlow flow) {
+        String world = record.world();
+        if (world == null) {
+            return;
+        }
+        if (record.detail() != null && !record.detail().isEmpty()) {
+            flow.ensureWorld(record.detail(), world);
+        } else if (!server.worldExists(world)) {
+            server.createWorld(world);
+        }
+    }
+
+    private void flush(HardcoreDataStorage storage) {
+        if (!storage.isDirty()) {
+            return;
+        }
+        long t0 = System.nanoTime();
+        storage.flush();
+        latencies.get(Operation.FLUSH).record(System.nanoTime() - t0);
+    }
+
+    private void skip(Operation op) {
+        skipped.merge(op, 1L, Long::sum);
+    }
+
+    // ------------------------------------------------------------------------
+    // Report
+    // ------------------------------------------------------------------------
+
+    private void report(SimulatedServer server, CountingBackend backend, long wallNanos, long allocated) {
+        double wallSeconds = wallNanos / 1_000_000_000.0;
+        long completed = 0;
+        for (Operation op : Operation.values()) {
+            if (op != Operation.FLUSH) {
+                completed += latencies.get(op).count();
+            }
+        }
+
+        double simulatedSeconds = config.trace() != null
+                ? traceSpanMillis / 1000.0
+                : config.durationSeconds();
+
+        System.out.printf(Locale.ROOT, "PerWorldHardcore load simulation%n");
+        if (config.trace() != null) {
+            System.out.printf(Locale.ROOT, "  trace=%s (%.1fs recorded) flush=%d ticks%n",
+                    config.trace(), simulatedSeconds, config.flushIntervalTicks());
+        } else {
+            System.out.printf(Locale.ROOT, "  players=%d worlds=%d rate=%.1f/s duration=%ds flush=%d ticks seed=%d%n",
+                    config.players(), config.worlds(), config.rate(), config.durationSeconds(),
+                    config.flushIntervalTicks(), config.seed());
+            System.out.printf(Locale.ROOT, "  mix=%s%n", config.mix());
+        }
+        System.out.printf(Locale.ROOT, "  online at end=%d, worlds culled=%d%n", server.onlineCount(), worldsCulled);
+        System.out.printf(Locale.ROOT, "  throughput: %d events in %.2fs wall (%.0f events/s, %.0fx real time)%n",
+                completed, wallSeconds, completed / wallSeconds, simulatedSeconds / wallSeconds);
+
+        if (allocated >= 0) {
+            System.out.printf(Locale.ROOT, "  allocation: %.1f MB (%.1f MB/s, %.0f bytes/event)%n",
+                    allocated / 1048576.0, allocated / 1048576.0 / wallSeconds,
+                    completed > 0 ? (double) allocated / completed : 0.0);
+        } else {
+            System.out.printf(Locale.ROOT, "  allocation: not supported by this JVM%n");
+        }
+
+        System.out.printf(Locale.ROOT, "  storage: %d writes, %.1f MB written, data.yml %.1f KB at end%n",
+                backend.saves(), backend.bytesWritten() / 1048576.0, backend.lastFileSize() / 1024.0);
+
+        System.out.printf(Locale.ROOT, "%n  %-8s %10s %8s %10s %10s %10s %10s %10s%n",
+                "op", "count", "skipped", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        for (Operation op : Operation.values()) {
+            LatencyHistogram h = latencies.get(op);
+            System.out.printf(Locale.ROOT, "  %-8s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    op.key(), h.count(), skipped.get(op),
+                    h.percentile(50) / 1000.0, h.percentile(90) / 1000.0,
+                    h.percentile(99) / 1000.0, h.percentile(99.9) / 1000.0, h.max() / 1000.0);
+        }
+    }
+
+    /**
+     * Bytes allocated by this thread so far, or -1 if the JVM can't tell.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kylekriskovich.perworldhardcore.simulator;
+
+/**
+ * Simulated traffic, one value per listener/command path that is timed.
+ */
+enum Operation {
+    JOIN("join"),
+    QUIT("quit"),
+    CHANGE("change"),
+    DEATH("death"),
+    RESPAWN("respawn"),
+    CREATE("create"),
+    CULL("cull"),
+    // Not part of the mix: dirty player data written on the flush interval
+    FLUSH("flush");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation op : values()) {
+            if (op.key.equalsIgnoreCase(key)) {
+                return op;
+            }
+        }
+        return null;
+    }
+}
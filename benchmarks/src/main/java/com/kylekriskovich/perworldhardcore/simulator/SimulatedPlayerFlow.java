@@ -0,0 +1,255 @@
+package com.kylekriskovich.perworldhardcore.simulator;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreDimension;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import com.kylekriskovich.perworldhardcore.simulator.SimulatedServer.SimulatedPlayer;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+
+import java.util.*;
+
+/**
+ * The decisions HardcorePlayerListener, SpectatorLimiter and the cull/create
+ * commands make, run against {@link SimulatedServer} instead of Paper.
+ * <p>
+ * Storage and registry calls are the real core classes, so their cost is what
+ * gets measured. Admission control is left out: it keys off server MSPT, which
+ * a headless run does not have. The dead-world freezer's check is kept (it
+ * runs on every death) but there is no world to freeze.
+ */
+final class SimulatedPlayerFlow {
+
+    private final SimulatedServer server;
+    private final HardcoreWorldRegistry registry;
+    private final HardcoreDataStorage storage;
+    private final int maxSpectators;
+
+    // Hardcore world ids in creation order, for picking travel targets
+    private final List<String> worldIds = new ArrayList<>();
+    private int nextWorldIndex;
+
+    SimulatedPlayerFlow(SimulatedServer server,
+                        HardcoreWorldRegistry registry,
+                        HardcoreDataStorage storage,
+                        int maxSpectators) {
+        this.server = server;
+        this.registry = registry;
+        this.storage = storage;
+        this.maxSpectators = maxSpectators;
+    }
+
+    // ------------------------------------------------------------------------
+    // Listener paths
+    // ------------------------------------------------------------------------
+
+    void onJoin(SimulatedPlayer player) {
+        server.join(player);
+        handleEnterWorld(player, player.dimension);
+    }
+
+    void onQuit(SimulatedPlayer player) {
+        server.quit(player);
+    }
+
+    void onChangedWorld(SimulatedPlayer player, String target) {
+        server.teleport(player, target);
+        player.spectator = false;
+        handleEnterWorld(player, target);
+    }
+
+    /**
+     * @return true if the death counted (player was in a hardcore world)
+     */
+    boolean onDeath(SimulatedPlayer player) {
+        String dimensionName = player.dimension;
+        if (!registry.isHardcoreDimension(dimensionName)) {
+            return false;
+        }
+
+        player.lastDeathDimension = dimensionName;
+        registry.markDeadInWorld(storage, player.id, dimensionName);
+        registry.markVisitedWorld(storage, player.id, dimensionName);
+
+        // DeadWorldFreezer.freezeIfFullyDead
+        registry.isFullyDead(storage, registry.getWorldId(dimensionName), server.getHubWorldName());
+        return true;
+    }
+
+    /**
+     * @return true if a hardcore death was handled
+     */
+    boolean onRespawn(SimulatedPlayer player) {
+        String basis = player.lastDeathDimension;
+        player.lastDeathDimension = null;
+        if (basis == null || !server.worldExists(basis) || !registry.isHardcoreDimension(basis)) {
+            return false;
+        }
+
+        HardcoreWorldSettings settings = registry.getSettings(basis);
+        if (settings == null || !registry.hasDiedInWorld(storage, player.id, basis)) {
+            return false;
+        }
+
+        if (settings.isAllowSpectatorOnDeath() && hasSpectatorSlot(player, basis, settings)) {
+            server.teleport(player, basis);
+            player.spectator = true;
+        } else {
+            server.teleport(player, server.getHubWorldName());
+            player.spectator = false;
+        }
+        return true;
+    }
+
+    private void handleEnterWorld(SimulatedPlayer player, String dimensionName) {
+        if (!storage.isLoaded() || !registry.isHardcoreDimension(dimensionName)) {
+            return;
+        }
+
+        HardcoreWorldSettings settings = registry.getSettings(dimensionName);
+        if (settings == null) {
+            return;
+        }
+
+        boolean dead = registry.hasDiedInWorld(storage, player.id, dimensionName);
+        registry.markVisitedWorld(storage, player.id, dimensionName);
+        if (!dead) {
+            return;
+        }
+
+        if (settings.isAllowSpectatorOnDeath() && hasSpectatorSlot(player, dimensionName, settings)) {
+            player.spectator = true;
+        } else {
+            server.teleport(player, server.getHubWorldName());
+            player.spectator = false;
+        }
+    }
+
+    private boolean hasSpectatorSlot(SimulatedPlayer player, String anyDimension, HardcoreWorldSettings settings) {
+        int max = settings.getMaxSpectators();
+        if (max <= 0) {
+            return true;
+        }
+
+        int spectators = 0;
+        for (String dimensionName : registry.getDimensionNames(registry.getWorldId(anyDimension))) {
+            for (SimulatedPlayer other : server.getPlayersIn(dimensionName)) {
+                if (!other.spectator) continue;
+                if (other.id.equals(player.id)) {
+                    return true;
+                }
+                spectators++;
+            }
+        }
+        return spectators < max;
+    }
+
+    // ------------------------------------------------------------------------
+    // Command paths
+    // ------------------------------------------------------------------------
+
+    /**
+     * /hardcore create: all three dimensions, registered like loadHardcoreWorlds does.
+     */
+    String createWorld() {
+        String worldId = "sim-" + nextWorldIndex++;
+        List<String> dimensions = new ArrayList<>();
+        for (HardcoreDimension dim : HardcoreDimension.values()) {
+            dimensions.add(dim.worldNameForWorld(worldId));
+        }
+        registerWorld(worldId, dimensions);
+        return worldId;
+    }
+
+    void registerWorld(String worldId, List<String> dimensions) {
+        for (String dimensionName : dimensions) {
+            server.createWorld(dimensionName);
+        }
+
+        HardcoreWorldSettings settings = new HardcoreWorldSettings(worldId);
+        settings.setMaxSpectators(maxSpectators);
+        registry.register(worldId, dimensions, settings);
+        if (!worldIds.contains(worldId)) {
+            worldIds.add(worldId);
+        }
+    }
+
+    /**
+     * Replay: make sure a hardcore world seen in a trace is registered and
+     * includes the given dimension (traces may start after it was created).
+     */
+    void ensureWorld(String worldId, String dimensionName) {
+        if (worldId == null) {
+            return;
+        }
+        if (worldId.equals(registry.getWorldId(dimensionName))) {
+            return;
+        }
+
+        List<String> dimensions = new ArrayList<>();
+        if (registry.getWorldIds().contains(worldId)) {
+            dimensions.addAll(registry.getDimensionNames(worldId));
+        } else {
+            for (HardcoreDimension dim : HardcoreDimension.values()) {
+                dimensions.add(dim.worldNameForWorld(worldId));
+            }
+        }
+        if (dimensionName != null && !dimensions.contains(dimensionName)) {
+            dimensions.add(dimensionName);
+        }
+        registerWorld(worldId, dimensions);
+    }
+
+    boolean isRegistered(String worldId) {
+        return registry.getWorldIds().contains(worldId);
+    }
+
+    /**
+     * /hardcore cull confirm: delete every cullable world nobody is standing in.
+     *
+     * @return number of worlds deleted
+     */
+    int cull() {
+        Set<String> candidates = registry.findCullableWorlds(storage, server.getHubWorldName());
+        int culled = 0;
+
+        for (String worldId : candidates) {
+            List<String> dimensionNames = registry.getDimensionNames(worldId);
+
+            boolean hasPlayers = false;
+            for (String dimensionName : dimensionNames) {
+                if (!server.getPlayersIn(dimensionName).isEmpty()) {
+                    hasPlayers = true;
+                    break;
+                }
+            }
+            if (hasPlayers) continue;
+
+            removeWorld(worldId);
+            culled++;
+        }
+        return culled;
+    }
+
+    /**
+     * Delete a hardcore world and its player data, like removeHardcoreWorld.
+     */
+    void removeWorld(String worldId) {
+        for (String dimensionName : registry.getDimensionNames(worldId)) {
+            server.deleteWorld(dimensionName);
+            storage.removeWorldData(dimensionName);
+        }
+        registry.unregister(worldId);
+        worldIds.remove(worldId);
+    }
+
+    /**
+     * A random dimension of a random hardcore world, or null if there are none.
+     */
+    String randomHardcoreDimension(Random random) {
+        if (worldIds.isEmpty()) {
+            return null;
+        }
+        List<String> names = registry.getDimensionNames(worldIds.get(random.nextInt(worldIds.size())));
+        return names.get(random.nextInt(names.size()));
+    }
+}
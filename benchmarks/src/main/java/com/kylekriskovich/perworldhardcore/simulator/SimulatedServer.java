@@ -0,0 +1,185 @@
+package com.kylekriskovich.perworldhardcore.simulator;
+
+import java.util.*;
+
+/**
+ * Server and world facade for the load simulator: which worlds exist, who is
+ * online, and which dimension and game mode each player is in. Just enough
+ * state for the listener logic to make the same decisions it makes on Paper.
+ */
+final class SimulatedServer {
+
+    static final class SimulatedPlayer {
+        final UUID id;
+        String dimension;
+        boolean spectator;
+        boolean online;
+        String lastDeathDimension;
+
+        SimulatedPlayer(UUID id) {
+            this.id = id;
+        }
+    }
+
+    private final String hubWorldName;
+    private final Set<String> worlds = new HashSet<>();
+    private final Map<UUID, SimulatedPlayer> players = new HashMap<>();
+    private final Map<String, Set<UUID>> playersByDimension = new HashMap<>();
+
+    private final IndexedIds online = new IndexedIds();
+    private final IndexedIds offline = new IndexedIds();
+
+    SimulatedServer(String hubWorldName) {
+        this.hubWorldName = hubWorldName;
+        worlds.add(hubWorldName);
+    }
+
+    // ------------------------------------------------------------------------
+    // Worlds
+    // ------------------------------------------------------------------------
+
+    String getHubWorldName() {
+        return hubWorldName;
+    }
+
+    void createWorld(String name) {
+        worlds.add(name);
+    }
+
+    boolean worldExists(String name) {
+        return name != null && worlds.contains(name);
+    }
+
+    /**
+     * Unload a world; anyone still inside ends up at the hub, like a
+     * Multiverse delete.
+     */
+    void deleteWorld(String name) {
+        if (!worlds.remove(name)) return;
+
+        Set<UUID> inside = playersByDimension.remove(name);
+        if (inside == null) return;
+
+        for (UUID id : new ArrayList<>(inside)) {
+            SimulatedPlayer player = players.get(id);
+            player.dimension = null;
+            teleport(player, hubWorldName);
+            player.spectator = false;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Players
+    // ------------------------------------------------------------------------
+
+    SimulatedPlayer addPlayer(UUID id) {
+        SimulatedPlayer player = new SimulatedPlayer(id);
+        players.put(id, player);
+        offline.add(id);
+        return player;
+    }
+
+    SimulatedPlayer getPlayer(UUID id) {
+        return players.get(id);
+    }
+
+    SimulatedPlayer randomOnline(Random random) {
+        UUID id = online.random(random);
+        return id != null ? players.get(id) : null;
+    }
+
+    SimulatedPlayer randomOffline(Random random) {
+        UUID id = offline.random(random);
+        return id != null ? players.get(id) : null;
+    }
+
+    int onlineCount() {
+        return online.size();
+    }
+
+    /**
+     * Player logs in where they logged out, or at the hub if that world is gone.
+     */
+    void join(SimulatedPlayer player) {
+        if (player.online) return;
+        player.online = true;
+        offline.remove(player.id);
+        online.add(player.id);
+
+        String target = worldExists(player.dimension) ? player.dimension : hubWorldName;
+        player.dimension = null;
+        teleport(player, target);
+    }
+
+    void quit(SimulatedPlayer player) {
+        if (!player.online) return;
+        player.online = false;
+        online.remove(player.id);
+        offline.add(player.id);
+        leaveDimension(player);
+    }
+
+    void teleport(SimulatedPlayer player, String dimension) {
+        leaveDimension(player);
+        player.dimension = dimension;
+        if (player.online && dimension != null) {
+            playersByDimension.computeIfAbsent(dimension, k -> new HashSet<>()).add(player.id);
+        }
+    }
+
+    /**
+     * Online players in a dimension (what World#getPlayers() returns).
+     */
+    Collection<SimulatedPlayer> getPlayersIn(String dimension) {
+        Set<UUID> ids = playersByDimension.get(dimension);
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<SimulatedPlayer> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            result.add(players.get(id));
+        }
+        return result;
+    }
+
+    private void leaveDimension(SimulatedPlayer player) {
+        if (player.dimension == null) return;
+        Set<UUID> ids = playersByDimension.get(player.dimension);
+        if (ids != null) {
+            ids.remove(player.id);
+        }
+    }
+
+    /**
+     * Id set with O(1) add, remove and uniform random pick.
+     */
+    private static final class IndexedIds {
+        private final List<UUID> ids = new ArrayList<>();
+        private final Map<UUID, Integer> index = new HashMap<>();
+
+        void add(UUID id) {
+            if (index.putIfAbsent(id, ids.size()) == null) {
+                ids.add(id);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer i = index.remove(id);
+            if (i == null) return;
+
+            UUID last = ids.remove(ids.size() - 1);
+            if (i < ids.size()) {
+                ids.set(i, last);
+                index.put(last, i);
+            }
+        }
+
+        UUID random(Random random) {
+            return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+        }
+
+        int size() {
+            return ids.size();
+        }
+    }
+}
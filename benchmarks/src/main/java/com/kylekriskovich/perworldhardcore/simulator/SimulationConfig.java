@@ -0,0 +1,106 @@
+package com.kylekriskovich.perworldhardcore.simulator;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load simulator options, parsed from {@code --name value} pairs.
+ * <pre>
+ * --players 5000           synthetic players (all cycle between online and offline)
+ * --worlds 20              hardcore worlds registered at startup
+ * --rate 50                events per simulated second
+ * --duration 3600          simulated seconds (86400 = a day)
+ * --flush-interval-ticks 20   how often dirty player data is written, like staggered-autosave
+ * --max-spectators 0       per hardcore world, 0 = no limit
+ * --mix join=10,quit=10,change=70,death=2,respawn=2,create=0.002,cull=0.001
+ * --seed 1
+ * --trace traces/          replay a recorded event trace (file or segment directory)
+ *                          instead of synthetic traffic; rate, duration and mix are ignored
+ * </pre>
+ */
+record SimulationConfig(int players,
+                        int worlds,
+                        double rate,
+                        long durationSeconds,
+                        int flushIntervalTicks,
+                        int maxSpectators,
+                        Map<Operation, Double> mix,
+                        long seed,
+                        Path trace) {
+
+    static final String DEFAULT_MIX = "join=10,quit=10,change=70,death=2,respawn=2,create=0.002,cull=0.001";
+
+    static SimulationConfig parse(String[] args) {
+        int players = 5000;
+        int worlds = 20;
+        double rate = 50;
+        long duration = 3600;
+        int flushInterval = 20;
+        int maxSpectators = 0;
+        String mix = DEFAULT_MIX;
+        long seed = 1L;
+        Path trace = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+
+            switch (name) {
+                case "--players" -> players = Integer.parseInt(value);
+                case "--worlds" -> worlds = Integer.parseInt(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--duration" -> duration = Long.parseLong(value);
+                case "--flush-interval-ticks" -> flushInterval = Integer.parseInt(value);
+                case "--max-spectators" -> maxSpectators = Integer.parseInt(value);
+                case "--mix" -> mix = value;
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--trace" -> trace = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+
+        if (players <= 0 || worlds < 0 || rate <= 0 || duration <= 0 || flushInterval <= 0) {
+            throw new IllegalArgumentException("players, rate, duration and flush-interval-ticks must be positive");
+        }
+
+        return new SimulationConfig(players, worlds, rate, duration, flushInterval, maxSpectators,
+                parseMix(mix), seed, trace);
+    }
+
+    /**
+     * {@code join=12,death=8,...}: relative weights, operations left out are never picked.
+     */
+    static Map<Operation, Double> parseMix(String spec) {
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) continue;
+
+            int eq = trimmed.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Bad mix entry '" + trimmed + "', expected op=weight");
+            }
+            Operation op = Operation.fromKey(trimmed.substring(0, eq).trim());
+            if (op == null || op == Operation.FLUSH) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + trimmed);
+            }
+            double weight = Double.parseDouble(trimmed.substring(eq + 1).trim());
+            if (weight > 0) {
+                weights.put(op, weight);
+            }
+        }
+
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Event mix is empty");
+        }
+        return weights;
+    }
+
+    long totalEvents() {
+        return Math.round(rate * durationSeconds);
+    }
+}
@@ -0,0 +1,97 @@
+package com.kylekriskovich.perworldhardcore.simulator;
+
+import com.kylekriskovich.perworldhardcore.trace.TraceEventType;
+import com.kylekriskovich.perworldhardcore.trace.TraceReader;
+import com.kylekriskovich.perworldhardcore.trace.TraceRecord;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Offline reader for event traces written by the plugin (event-trace in
+ * config.yml). Works on a single segment or the whole trace directory.
+ * <pre>
+ * summary &lt;path&gt;               counts per event type, time span, players and worlds
+ * dump &lt;path&gt; [limit]          one line per record, oldest first
+ * </pre>
+ * To replay a trace against the storage layer, use the simulator's --trace option.
+ */
+public final class TraceTool {
+
+    private TraceTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("summary") || args[0].equals("dump"))) {
+            System.err.println("Usage: summary <trace dir|segment> | dump <trace dir|segment> [limit]");
+            System.exit(2);
+            return;
+        }
+
+        Path path = Path.of(args[1]);
+        if (args[0].equals("summary")) {
+            summary(path);
+        } else {
+            long limit = args.length > 2 ? Long.parseLong(args[2]) : Long.MAX_VALUE;
+            dump(path, limit);
+        }
+    }
+
+    private static void summary(Path path) throws IOException {
+        Map<TraceEventType, Long> counts = new EnumMap<>(TraceEventType.class);
+        Set<UUID> players = new HashSet<>();
+        Set<String> worlds = new HashSet<>();
+        long[] span = {Long.MAX_VALUE, Long.MIN_VALUE};
+
+        List<Path> segments = TraceReader.segments(path);
+        long total = TraceReader.read(path, record -> {
+            counts.merge(record.type(), 1L, Long::sum);
+            if (record.player() != null) {
+                players.add(record.player());
+            }
+            if (record.world() != null) {
+                worlds.add(record.world());
+            }
+            span[0] = Math.min(span[0], record.timestampMillis());
+            span[1] = Math.max(span[1], record.timestampMillis());
+        });
+
+        System.out.printf(Locale.ROOT, "%s: %d segments, %d records%n", path, segments.size(), total);
+        if (total == 0) {
+            return;
+        }
+        System.out.printf(Locale.ROOT, "  from %s to %s (%.1fs)%n",
+                Instant.ofEpochMilli(span[0]), Instant.ofEpochMilli(span[1]), (span[1] - span[0]) / 1000.0);
+        System.out.printf(Locale.ROOT, "  %d players, %d worlds%n", players.size(), worlds.size());
+        for (Map.Entry<TraceEventType, Long> entry : counts.entrySet()) {
+            System.out.printf(Locale.ROOT, "  %-18s %10d%n", entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void dump(Path path, long limit) throws IOException {
+        long[] printed = {0};
+        TraceReader.read(path, record -> {
+            if (printed[0]++ >= limit) {
+                return;
+            }
+            System.out.println(format(record));
+        });
+    }
+
+    private static String format(TraceRecord record) {
+        StringBuilder line = new StringBuilder(96);
+        line.append(Instant.ofEpochMilli(record.timestampMillis())).append(' ').append(record.type());
+        if (record.player() != null) {
+            line.append(" player=").append(record.player());
+        }
+        if (record.world() != null) {
+            line.append(" world=").append(record.world());
+        }
+        if (record.detail() != null) {
+            line.append(" detail=").append(record.detail());
+        }
+        return line.toString();
+    }
+}
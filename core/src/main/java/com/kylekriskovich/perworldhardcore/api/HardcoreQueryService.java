@@ -0,0 +1,48 @@
+package com.kylekriskovich.perworldhardcore.api;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-only view of hardcore world state for other plugins, registered with
+ * Bukkit's ServicesManager:
+ * <pre>
+ * HardcoreQueryService hardcore = Bukkit.getServicesManager().load(HardcoreQueryService.class);
+ * hardcore.getAliveWorlds(partyMembers).thenAccept(alive -&gt; ...);
+ * </pre>
+ * Safe to call from any thread. Answers come from a snapshot that the
+ * plugin updates on every visit and death; queries never run on or wait for
+ * the server thread. Futures made before player data has loaded complete
+ * once it has. Callbacks may run on any thread, so hop back to the server
+ * thread before touching Bukkit state.
+ * <p>
+ * World ids are hardcore world (group) names as in config.yml, not the
+ * Bukkit names of their dimensions.
+ */
+public interface HardcoreQueryService {
+
+    /**
+     * Registered hardcore world ids.
+     */
+    CompletableFuture<Set<String>> getHardcoreWorlds();
+
+    CompletableFuture<WorldStatus> getStatus(UUID playerId, String worldId);
+
+    /**
+     * Many players in one world.
+     */
+    CompletableFuture<Map<UUID, WorldStatus>> getStatuses(Collection<UUID> playerIds, String worldId);
+
+    /**
+     * One player in every registered world.
+     */
+    CompletableFuture<Map<String, WorldStatus>> getStatuses(UUID playerId);
+
+    /**
+     * For each player, the worlds they have entered and not died in.
+     */
+    CompletableFuture<Map<UUID, Set<String>>> getAliveWorlds(Collection<UUID> playerIds);
+}
@@ -0,0 +1,13 @@
+package com.kylekriskovich.perworldhardcore.api;
+
+/**
+ * A player's standing in one hardcore world.
+ */
+public enum WorldStatus {
+    /** Never entered the world (or the world is not a hardcore world). */
+    NEVER_VISITED,
+    /** Entered the world and has not died there. */
+    ALIVE,
+    /** Died in the world; may only spectate or is kept out. */
+    DEAD
+}
@@ -0,0 +1,183 @@
+package com.kylekriskovich.perworldhardcore.backup;
+
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One backup generation on disk: gzip-compressed, named
+ * {@code state-<sequence>-<full|delta>.pwbk.gz}.
+ * <p>
+ * A full generation holds every player record. A delta holds the records
+ * changed since the previous generation (sequence - 1) plus the ids removed
+ * since then, so a state is rebuilt from the newest full at or before it and
+ * every delta after that. The gzip trailer CRC covers the whole content, so
+ * reading a file to the end verifies it.
+ */
+public final class BackupFile {
+
+    private static final byte[] MAGIC = "PWBK".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+
+    private static final Pattern NAME = Pattern.compile("state-(\\d+)-(full|delta)\\.pwbk\\.gz");
+
+    /**
+     * Contents of one generation.
+     *
+     * @param players full: every record; delta: records changed since the previous generation
+     * @param removed delta only: players gone since the previous generation
+     */
+    public record Generation(long sequence,
+                             boolean full,
+                             long createdMillis,
+                             Collection<PlayerWorldState> players,
+                             Set<UUID> removed) {
+    }
+
+    private BackupFile() {
+    }
+
+    public static String fileName(long sequence, boolean full) {
+        return String.format(Locale.ROOT, "state-%08d-%s.pwbk.gz", sequence, full ? "full" : "delta");
+    }
+
+    /**
+     * Sequence number from a backup file name, or -1 if it is not one.
+     */
+    public static long sequenceOf(String fileName) {
+        Matcher matcher = NAME.matcher(fileName);
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    public static boolean isFull(String fileName) {
+        Matcher matcher = NAME.matcher(fileName);
+        return matcher.matches() && matcher.group(2).equals("full");
+    }
+
+    // ------------------------------------------------------------------------
+    // Writing
+    // ------------------------------------------------------------------------
+
+    /**
+     * Write a generation into {@code directory} (via a temporary file and
+     * atomic rename).
+     *
+     * @return the written file
+     */
+    public static Path write(Path directory, Generation generation) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(fileName(generation.sequence(), generation.full()));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(generation.sequence());
+            out.writeBoolean(generation.full());
+            out.writeLong(generation.createdMillis());
+
+            out.writeInt(generation.players().size());
+            for (PlayerWorldState state : generation.players()) {
+                writeUuid(out, state.getPlayerId());
+                out.writeLong(state.getLastSeenMillis());
+                writeNames(out, state.getDeadWorlds());
+                writeNames(out, state.getVisitedWorlds());
+            }
+
+            out.writeInt(generation.removed().size());
+            for (UUID playerId : generation.removed()) {
+                writeUuid(out, playerId);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static void writeNames(DataOutputStream out, Set<String> names) throws IOException {
+        out.writeShort(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Reading
+    // ------------------------------------------------------------------------
+
+    /**
+     * Read a whole generation; fails on a truncated or corrupted file.
+     */
+    public static Generation read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException(file.getFileName() + " is not a hardcore state backup");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException(file.getFileName() + " has unsupported backup version " + version);
+            }
+
+            long sequence = in.readLong();
+            boolean full = in.readBoolean();
+            long createdMillis = in.readLong();
+
+            int playerCount = in.readInt();
+            if (playerCount < 0) {
+                throw new IOException(file.getFileName() + " is corrupt: " + playerCount + " players");
+            }
+            List<PlayerWorldState> players = new ArrayList<>(Math.min(playerCount, 1 << 16));
+            for (int i = 0; i < playerCount; i++) {
+                PlayerWorldState state = new PlayerWorldState(readUuid(in));
+                state.setLastSeenMillis(in.readLong());
+                for (int n = in.readUnsignedShort(); n > 0; n--) {
+                    state.markDeadIn(in.readUTF());
+                }
+                for (int n = in.readUnsignedShort(); n > 0; n--) {
+                    state.markVisited(in.readUTF());
+                }
+                players.add(state);
+            }
+
+            int removedCount = in.readInt();
+            if (removedCount < 0) {
+                throw new IOException(file.getFileName() + " is corrupt: " + removedCount + " removed ids");
+            }
+            Set<UUID> removed = new HashSet<>();
+            for (int i = 0; i < removedCount; i++) {
+                removed.add(readUuid(in));
+            }
+
+            // Reaching the end makes GZIPInputStream check the CRC and length trailer
+            if (in.read() != -1) {
+                throw new IOException(file.getFileName() + " has trailing data");
+            }
+            return new Generation(sequence, full, createdMillis, players, removed);
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
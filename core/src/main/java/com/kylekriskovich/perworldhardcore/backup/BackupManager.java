@@ -0,0 +1,431 @@
+package com.kylekriskovich.perworldhardcore.backup;
+
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Point-in-time backups of {@link HardcoreDataStorage}, written as rotated
+ * {@link BackupFile} generations.
+ * <p>
+ * Capturing never pauses the main thread for long:
+ * <ul>
+ *   <li>A full generation copies records in slices of {@code budgetNanos}
+ *   per {@link #tick} while storage records which players change. The last
+ *   slice re-copies exactly those players, so the result is the state as of
+ *   that tick.</li>
+ *   <li>A delta generation only copies the players changed since the
+ *   previous generation, in one tick.</li>
+ * </ul>
+ * Compression, writing and rotation run on {@code asyncExecutor}. The first
+ * generation after startup or a restore, and one every {@code fullEvery},
+ * is full. If a write fails, the next generation is full too.
+ * <p>
+ * Main thread only, except where noted.
+ */
+public class BackupManager {
+
+    public record BackupInfo(String name, long sequence, boolean full, long sizeBytes, long modifiedMillis) {
+    }
+
+    /**
+     * @param playerCount players in the state rebuilt up to the checked generation (-1 if not rebuilt)
+     */
+    public record VerifyResult(int generationsChecked, int playerCount, List<String> problems) {
+        public boolean ok() {
+            return problems.isEmpty();
+        }
+    }
+
+    private static final int CLOCK_CHECK_INTERVAL = 64;
+
+    private final Path directory;
+    private final HardcoreDataStorage storage;
+    private final int keep;
+    private final int fullEvery;
+    private final long intervalMillis;
+    private final long budgetNanos;
+    private final Executor asyncExecutor;
+    private final Executor mainThreadExecutor;
+    private final Runnable onRestored;
+    private final Logger logger;
+    private final MetricsRegistry metrics;
+
+    private boolean ready;
+    private long nextSequence = 1;
+    private int deltasSinceFull;
+    private boolean forceFull = true;
+    private long nextScheduledMillis;
+
+    // Capture in progress; future == null when idle
+    private CompletableFuture<BackupInfo> future;
+    private boolean writing;
+    private List<UUID> ids;
+    private int position;
+    private Map<UUID, PlayerWorldState> copies;
+    private long captureStartNanos;
+
+    /**
+     * @param keep           generations to keep (more if needed for a delta's base)
+     * @param fullEvery      every n-th generation is full
+     * @param intervalMillis scheduled backup interval (0 = only on request)
+     * @param budgetNanos    copy work per tick during a full capture
+     * @param onRestored     run after a restore replaced storage, to rebuild derived indexes
+     */
+    public BackupManager(Path directory,
+                         HardcoreDataStorage storage,
+                         int keep,
+                         int fullEvery,
+                         long intervalMillis,
+                         long budgetNanos,
+                         Executor asyncExecutor,
+                         Executor mainThreadExecutor,
+                         Runnable onRestored,
+                         Logger logger,
+                         MetricsRegistry metrics) {
+        this.directory = directory;
+        this.storage = storage;
+        this.keep = Math.max(1, keep);
+        this.fullEvery = Math.max(1, fullEvery);
+        this.intervalMillis = intervalMillis;
+        this.budgetNanos = budgetNanos;
+        this.asyncExecutor = asyncExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.onRestored = onRestored;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // ------------------------------------------------------------------------
+    // Lifecycle
+    // ------------------------------------------------------------------------
+
+    /**
+     * Find the last sequence number on disk (async), then accept backups.
+     */
+    public void init(long nowMillis) {
+        nextScheduledMillis = intervalMillis > 0 ? nowMillis + intervalMillis : Long.MAX_VALUE;
+        asyncExecutor.execute(() -> {
+            long last = 0;
+            try {
+                for (BackupInfo info : listNow()) {
+                    last = Math.max(last, info.sequence());
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not list backups in " + directory, e);
+            }
+            long found = last;
+            mainThreadExecutor.execute(() -> {
+                nextSequence = found + 1;
+                ready = true;
+            });
+        });
+    }
+
+    /**
+     * Start a backup now; completes on the main thread once it is written.
+     * Returns the running backup's future if one is in progress.
+     */
+    public CompletableFuture<BackupInfo> requestBackup() {
+        if (future != null) {
+            return future;
+        }
+        if (!ready || !storage.isLoaded()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Player data is still loading"));
+        }
+
+        future = new CompletableFuture<>();
+        captureStartNanos = System.nanoTime();
+        copies = new HashMap<>();
+        if (forceFull || !storage.isBackupTracking() || deltasSinceFull + 1 >= fullEvery) {
+            storage.startBackupTracking();
+            ids = storage.getPlayerIds();
+            position = 0;
+        } else {
+            ids = null;
+        }
+        return future;
+    }
+
+    /**
+     * Run a scheduled backup when due and advance a running capture (main thread).
+     */
+    public void tick(long nowMillis) {
+        if (future == null && nowMillis >= nextScheduledMillis && ready && storage.isLoaded()) {
+            nextScheduledMillis = nowMillis + intervalMillis;
+            requestBackup();
+        }
+        if (future == null || writing) {
+            return;
+        }
+
+        if (ids != null) {
+            long deadline = System.nanoTime() + budgetNanos;
+            while (position < ids.size()) {
+                UUID playerId = ids.get(position++);
+                PlayerWorldState copy = storage.copyPlayerState(playerId);
+                if (copy != null) {
+                    copies.put(playerId, copy);
+                }
+                if (position % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() >= deadline) {
+                    return;
+                }
+            }
+        }
+
+        finishCapture();
+    }
+
+    /**
+     * Make the last slice consistent and hand the generation to the writer.
+     */
+    private void finishCapture() {
+        boolean full = ids != null;
+        Set<UUID> removed = new HashSet<>();
+        for (UUID playerId : storage.drainBackupChanges()) {
+            PlayerWorldState copy = storage.copyPlayerState(playerId);
+            if (copy != null) {
+                copies.put(playerId, copy);
+            } else {
+                copies.remove(playerId);
+                removed.add(playerId);
+            }
+        }
+        metrics.timer("backup_capture").recordSince(captureStartNanos);
+
+        BackupFile.Generation generation = new BackupFile.Generation(
+                nextSequence++,
+                full,
+                System.currentTimeMillis(),
+                List.copyOf(copies.values()),
+                full ? Set.of() : removed);
+        ids = null;
+        copies = null;
+        writing = true;
+
+        CompletableFuture<BackupInfo> result = future;
+        asyncExecutor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                Path file = BackupFile.write(directory, generation);
+                BackupInfo info = new BackupInfo(file.getFileName().toString(), generation.sequence(),
+                        generation.full(), Files.size(file), generation.createdMillis());
+                rotate();
+                metrics.timer("backup_write").recordSince(start);
+                mainThreadExecutor.execute(() -> completed(result, info, null));
+            } catch (IOException | RuntimeException e) {
+                mainThreadExecutor.execute(() -> completed(result, null, e));
+            }
+        });
+    }
+
+    private void completed(CompletableFuture<BackupInfo> result, BackupInfo info, Throwable error) {
+        writing = false;
+        future = null;
+        if (error != null) {
+            // The drained changes are not on disk; only a full generation is safe now
+            forceFull = true;
+            metrics.counter("backup_failures").increment();
+            logger.log(Level.WARNING, "Could not write hardcore state backup", error);
+            result.completeExceptionally(error);
+            return;
+        }
+
+        forceFull = false;
+        deltasSinceFull = info.full() ? 0 : deltasSinceFull + 1;
+        metrics.counter(info.full() ? "backups_full" : "backups_delta").increment();
+        result.complete(info);
+    }
+
+    // ------------------------------------------------------------------------
+    // Listing, verifying, restoring (async)
+    // ------------------------------------------------------------------------
+
+    public CompletableFuture<List<BackupInfo>> list() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return listNow();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, asyncExecutor);
+    }
+
+    /**
+     * Read every generation needed to rebuild {@code name} (all generations if
+     * null) and check names, sequence numbers and delta chains.
+     */
+    public CompletableFuture<VerifyResult> verify(String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<String> problems = new ArrayList<>();
+            List<BackupInfo> all;
+            try {
+                all = listNow();
+            } catch (IOException e) {
+                return new VerifyResult(0, -1, List.of("Cannot list " + directory + ": " + e.getMessage()));
+            }
+            if (name == null) {
+                int checked = 0;
+                for (BackupInfo info : all) {
+                    checked++;
+                    checkFile(info, problems);
+                }
+                return new VerifyResult(checked, -1, problems);
+            }
+
+            try {
+                List<BackupInfo> chain = chainFor(all, name);
+                Map<UUID, PlayerWorldState> state = rebuild(chain);
+                return new VerifyResult(chain.size(), state.size(), problems);
+            } catch (IOException e) {
+                problems.add(e.getMessage());
+                return new VerifyResult(0, -1, problems);
+            }
+        }, asyncExecutor);
+    }
+
+    /**
+     * Rebuild the state as of {@code name} off the main thread, then replace
+     * storage with it on the main thread and run {@code onRestored}.
+     *
+     * @return number of players restored
+     */
+    public CompletableFuture<Integer> restore(String name) {
+        if (future != null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("A backup is being written"));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return rebuild(chainFor(listNow(), name));
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }, asyncExecutor).thenApplyAsync(state -> {
+            if (future != null && !writing) {
+                // Half-captured pre-restore state; storage stops tracking below anyway
+                future.completeExceptionally(new IllegalStateException("Backup interrupted by a restore"));
+                future = null;
+                ids = null;
+                copies = null;
+            }
+            storage.restore(state);
+            forceFull = true;
+            onRestored.run();
+            return state.size();
+        }, mainThreadExecutor);
+    }
+
+    private void checkFile(BackupInfo info, List<String> problems) {
+        try {
+            BackupFile.Generation generation = BackupFile.read(directory.resolve(info.name()));
+            if (generation.sequence() != info.sequence() || generation.full() != info.full()) {
+                problems.add(info.name() + ": contents do not match its name");
+            }
+        } catch (IOException e) {
+            problems.add(info.name() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The newest full generation at or before {@code name}, then every
+     * generation after it up to {@code name}.
+     */
+    private List<BackupInfo> chainFor(List<BackupInfo> all, String name) throws IOException {
+        BackupInfo target = null;
+        for (BackupInfo info : all) {
+            if (info.name().equals(name) || String.valueOf(info.sequence()).equals(name)) {
+                target = info;
+            }
+        }
+        if (target == null) {
+            throw new NoSuchFileException("No backup named " + name);
+        }
+
+        Deque<BackupInfo> chain = new ArrayDeque<>();
+        long expected = target.sequence();
+        for (int i = all.size() - 1; i >= 0; i--) {
+            BackupInfo info = all.get(i);
+            if (info.sequence() > expected) {
+                continue;
+            }
+            if (info.sequence() != expected) {
+                throw new IOException("Backup " + expected + " needed by " + target.name() + " is missing");
+            }
+            chain.addFirst(info);
+            if (info.full()) {
+                return new ArrayList<>(chain);
+            }
+            expected--;
+        }
+        throw new IOException("No full backup found before " + target.name());
+    }
+
+    private Map<UUID, PlayerWorldState> rebuild(List<BackupInfo> chain) throws IOException {
+        Map<UUID, PlayerWorldState> state = new HashMap<>();
+        for (BackupInfo info : chain) {
+            BackupFile.Generation generation = BackupFile.read(directory.resolve(info.name()));
+            if (generation.sequence() != info.sequence()) {
+                throw new IOException(info.name() + ": contents do not match its name");
+            }
+            for (UUID removed : generation.removed()) {
+                state.remove(removed);
+            }
+            for (PlayerWorldState player : generation.players()) {
+                state.put(player.getPlayerId(), player);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Delete all but the newest {@code keep} generations, keeping older ones
+     * a kept delta still builds on (async).
+     */
+    private void rotate() throws IOException {
+        List<BackupInfo> all = listNow();
+        int first = Math.max(0, all.size() - keep);
+        while (first > 0 && !all.get(first).full()) {
+            first--;
+        }
+        for (int i = 0; i < first; i++) {
+            Files.deleteIfExists(directory.resolve(all.get(i).name()));
+        }
+    }
+
+    /**
+     * Backup files sorted by sequence (blocking).
+     */
+    private List<BackupInfo> listNow() throws IOException {
+        List<BackupInfo> result = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "state-*.pwbk.gz")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long sequence = BackupFile.sequenceOf(name);
+                if (sequence > 0) {
+                    result.add(new BackupInfo(name, sequence, BackupFile.isFull(name),
+                            Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong(BackupInfo::sequence));
+        return result;
+    }
+}
@@ -0,0 +1,153 @@
+package com.kylekriskovich.perworldhardcore.export;
+
+import com.kylekriskovich.perworldhardcore.registry.StateSnapshot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Output formats of {@link StateExporter}. Both list, per hardcore world
+ * id, the players alive (entered, not died) and dead in it.
+ */
+public enum SnapshotFormat {
+
+    /**
+     * {@code {"generated":<millis>,"worlds":{"<id>":{"alive":[uuid...],"dead":[uuid...]}}}}
+     */
+    JSON("json") {
+        @Override
+        void write(long generatedMillis, Map<String, WorldPlayers> worlds, Writer out) throws IOException {
+            out.write("{\"generated\":");
+            out.write(Long.toString(generatedMillis));
+            out.write(",\"worlds\":{");
+            boolean firstWorld = true;
+            for (Map.Entry<String, WorldPlayers> world : worlds.entrySet()) {
+                if (!firstWorld) {
+                    out.write(',');
+                }
+                firstWorld = false;
+                writeString(world.getKey(), out);
+                out.write(":{\"alive\":");
+                writeArray(world.getValue().alive, out);
+                out.write(",\"dead\":");
+                writeArray(world.getValue().dead, out);
+                out.write('}');
+            }
+            out.write("}}\n");
+        }
+    },
+
+    /**
+     * One {@code world,player,status} row per player and world, with a header row.
+     */
+    CSV("csv") {
+        @Override
+        void write(long generatedMillis, Map<String, WorldPlayers> worlds, Writer out) throws IOException {
+            out.write("world,player,status\n");
+            for (Map.Entry<String, WorldPlayers> world : worlds.entrySet()) {
+                String worldId = csvField(world.getKey());
+                for (UUID player : world.getValue().alive) {
+                    out.write(worldId + "," + player + ",alive\n");
+                }
+                for (UUID player : world.getValue().dead) {
+                    out.write(worldId + "," + player + ",dead\n");
+                }
+            }
+        }
+    };
+
+    private final String extension;
+
+    SnapshotFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Case-insensitive lookup by name; JSON if unknown.
+     */
+    public static SnapshotFormat fromName(String name) {
+        for (SnapshotFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * Group the snapshot by world and write it.
+     */
+    public void write(StateSnapshot snapshot, Writer out) throws IOException {
+        Map<String, WorldPlayers> worlds = new TreeMap<>();
+        for (String worldId : snapshot.getWorldIds()) {
+            worlds.put(worldId, new WorldPlayers());
+        }
+        snapshot.forEachPlayer((playerId, visited, dead) -> {
+            for (String worldId : dead) {
+                WorldPlayers players = worlds.get(worldId);
+                if (players != null) {
+                    players.dead.add(playerId);
+                }
+            }
+            for (String worldId : visited) {
+                WorldPlayers players = worlds.get(worldId);
+                if (players != null && !dead.contains(worldId)) {
+                    players.alive.add(playerId);
+                }
+            }
+        });
+        write(snapshot.getTakenMillis(), worlds, out);
+    }
+
+    abstract void write(long generatedMillis, Map<String, WorldPlayers> worlds, Writer out) throws IOException;
+
+    static final class WorldPlayers {
+        final List<UUID> alive = new ArrayList<>();
+        final List<UUID> dead = new ArrayList<>();
+    }
+
+    // ------------------------------------------------------------------------
+    // Escaping
+    // ------------------------------------------------------------------------
+
+    private static void writeArray(List<UUID> players, Writer out) throws IOException {
+        out.write('[');
+        for (int i = 0; i < players.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write('"');
+            out.write(players.get(i).toString());
+            out.write('"');
+        }
+        out.write(']');
+    }
+
+    private static void writeString(String value, Writer out) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
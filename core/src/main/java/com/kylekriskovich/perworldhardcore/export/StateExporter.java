@@ -0,0 +1,128 @@
+package com.kylekriskovich.perworldhardcore.export;
+
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import com.kylekriskovich.perworldhardcore.registry.StateSnapshot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes who is alive / dead in each hardcore world to a file for outside
+ * readers (web dashboards), without them having to parse data.yml while
+ * it is being rewritten.
+ * <p>
+ * {@link #tick} runs on the main thread; when an export is due it only takes
+ * a {@link StateSnapshot} (O(1)). Grouping, serializing and writing happen
+ * on {@code asyncExecutor}; the file is written next to the target and
+ * atomically moved over it, so readers always see a complete file.
+ */
+public class StateExporter {
+
+    private final HardcoreWorldRegistry registry;
+    private final Path output;
+    private final SnapshotFormat format;
+    private final long intervalMillis;
+    private final long afterChanges;
+    private final Executor asyncExecutor;
+    private final Logger logger;
+    private final MetricsRegistry metrics;
+
+    private final AtomicBoolean writing = new AtomicBoolean();
+
+    private long lastExportMillis;
+    private long lastChangeCount = -1;
+
+    /**
+     * @param intervalMillis export at most this often when something changed (0 = only by change count)
+     * @param afterChanges   also export as soon as this many marks changed (0 = off)
+     */
+    public StateExporter(HardcoreWorldRegistry registry,
+                         Path output,
+                         SnapshotFormat format,
+                         long intervalMillis,
+                         long afterChanges,
+                         Executor asyncExecutor,
+                         Logger logger,
+                         MetricsRegistry metrics) {
+        this.registry = registry;
+        this.output = output;
+        this.format = format;
+        this.intervalMillis = intervalMillis;
+        this.afterChanges = afterChanges;
+        this.asyncExecutor = asyncExecutor;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    /**
+     * Start an export if one is due and none is running (main thread).
+     */
+    public void tick(long nowMillis) {
+        if (writing.get()) {
+            return;
+        }
+
+        long changes = registry.getChangeCount();
+        if (changes == lastChangeCount) {
+            return;
+        }
+        long changed = changes - lastChangeCount;
+        boolean intervalDue = intervalMillis > 0 && nowMillis - lastExportMillis >= intervalMillis;
+        boolean changesDue = afterChanges > 0 && changed >= afterChanges;
+        if (lastChangeCount >= 0 && !intervalDue && !changesDue) {
+            return;
+        }
+
+        lastChangeCount = changes;
+        lastExportMillis = nowMillis;
+        StateSnapshot snapshot = registry.snapshot();
+        writing.set(true);
+        asyncExecutor.execute(() -> {
+            try {
+                write(snapshot);
+            } finally {
+                writing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Export synchronously if anything changed since the last export (on disable).
+     */
+    public void exportNow() {
+        if (writing.get() || registry.getChangeCount() == lastChangeCount) {
+            return;
+        }
+        lastChangeCount = registry.getChangeCount();
+        write(registry.snapshot());
+    }
+
+    private void write(StateSnapshot snapshot) {
+        long start = System.nanoTime();
+        Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+        try (snapshot) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                format.write(snapshot, out);
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            metrics.timer("state_export").recordSince(start);
+        } catch (IOException | RuntimeException e) {
+            metrics.counter("state_export_failures").increment();
+            logger.log(Level.WARNING, "Could not export hardcore state to " + output, e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.kylekriskovich.perworldhardcore.handoff;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A hardcore world group packed into one zip file: the
+ * {@link HandoffManifest} first, then every dimension folder under
+ * {@code worlds/<dimension>/}.
+ * <p>
+ * Files are streamed straight from disk into the archive and back, so
+ * memory use does not grow with world size. All methods do blocking I/O
+ * and belong off the main thread; the dimension folders must not be
+ * written to (i.e. the worlds unloaded) while a bundle is written.
+ */
+public final class HandoffBundle {
+
+    public static final String EXTENSION = ".pwhb";
+
+    private static final String MANIFEST_ENTRY = "manifest";
+    private static final String WORLDS_PREFIX = "worlds/";
+
+    /**
+     * Server-specific files the target server recreates (uid.dat would
+     * clash if the bundle is imported next to the original world).
+     */
+    private static final Set<String> SKIPPED_FILES = Set.of("session.lock", "uid.dat");
+
+    private HandoffBundle() {
+    }
+
+    /**
+     * Write the bundle to a temporary file and move it into place.
+     *
+     * @param worldContainer folder holding the dimension folders
+     * @return number of world files packed
+     */
+    public static int write(Path target, HandoffManifest manifest, Path worldContainer) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        int[] files = {0};
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            manifest.writeTo(zip);
+            zip.closeEntry();
+
+            for (String dimensionName : manifest.dimensionNames()) {
+                Path folder = worldContainer.resolve(dimensionName);
+                if (!Files.isDirectory(folder)) {
+                    throw new FileNotFoundException("Dimension folder " + folder + " does not exist");
+                }
+
+                Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        if (SKIPPED_FILES.contains(file.getFileName().toString())) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        String relative = folder.relativize(file).toString().replace(File.separatorChar, '/');
+                        zip.putNextEntry(new ZipEntry(WORLDS_PREFIX + dimensionName + "/" + relative));
+                        Files.copy(file, zip);
+                        zip.closeEntry();
+                        files[0]++;
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return files[0];
+    }
+
+    public static HandoffManifest readManifest(Path bundle) throws IOException {
+        try (ZipFile zip = new ZipFile(bundle.toFile())) {
+            ZipEntry entry = zip.getEntry(MANIFEST_ENTRY);
+            if (entry == null) {
+                throw new IOException(bundle + " has no handoff manifest");
+            }
+            try (InputStream in = new BufferedInputStream(zip.getInputStream(entry))) {
+                return HandoffManifest.readFrom(in);
+            }
+        }
+    }
+
+    /**
+     * Unpack the dimension folders into {@code worldContainer}. Refuses to
+     * touch a folder that already exists, and removes what it unpacked if
+     * anything fails.
+     *
+     * @return number of world files unpacked
+     */
+    public static int extract(Path bundle, HandoffManifest manifest, Path worldContainer) throws IOException {
+        Path container = worldContainer.toAbsolutePath().normalize();
+        Set<String> dimensionNames = new HashSet<>(manifest.dimensionNames());
+
+        for (String dimensionName : dimensionNames) {
+            Path folder = container.resolve(dimensionName).normalize();
+            if (!folder.getParent().equals(container)) {
+                throw new IOException("Invalid dimension name '" + dimensionName + "' in bundle");
+            }
+            if (Files.exists(folder)) {
+                throw new FileAlreadyExistsException(folder.toString());
+            }
+        }
+
+        int files = 0;
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(bundle)))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || !entry.getName().startsWith(WORLDS_PREFIX)) {
+                    continue;
+                }
+                String name = entry.getName().substring(WORLDS_PREFIX.length());
+                int slash = name.indexOf('/');
+                if (slash <= 0 || !dimensionNames.contains(name.substring(0, slash))) {
+                    throw new IOException("Unexpected bundle entry " + entry.getName());
+                }
+
+                Path dimensionFolder = container.resolve(name.substring(0, slash));
+                Path target = dimensionFolder.resolve(name.substring(slash + 1)).normalize();
+                // No "../" escapes out of the dimension folder
+                if (!target.startsWith(dimensionFolder)) {
+                    throw new IOException("Bundle entry escapes its world folder: " + entry.getName());
+                }
+
+                Files.createDirectories(target.getParent());
+                Files.copy(zip, target);
+                files++;
+            }
+        } catch (IOException | RuntimeException e) {
+            for (String dimensionName : dimensionNames) {
+                deleteRecursively(container.resolve(dimensionName));
+            }
+            throw e;
+        }
+        return files;
+    }
+
+    private static void deleteRecursively(Path root) {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (var paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                    // Best effort; the import already failed
+                }
+            });
+        } catch (IOException ignored) {
+            // Best effort; the import already failed
+        }
+    }
+}
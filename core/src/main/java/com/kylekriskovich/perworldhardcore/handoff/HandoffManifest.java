@@ -0,0 +1,157 @@
+package com.kylekriskovich.perworldhardcore.handoff;
+
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Everything about a hardcore world group that is not in its dimension
+ * folders: dimension names, per-world settings and each player's
+ * visited / dead marks.
+ * <p>
+ * Player marks are bit masks over {@link #dimensions()} (bit i = dimension i),
+ * so a player costs 20 bytes however long the dimension names are.
+ *
+ * @param dimensions config key (overworld / nether / end) and world name, in config order
+ * @param settings   the group's hardcore-worlds.&lt;id&gt;.settings values, as strings
+ */
+public record HandoffManifest(String worldId,
+                              long exportedMillis,
+                              List<Dimension> dimensions,
+                              Map<String, String> settings,
+                              List<PlayerMarks> players) {
+
+    /**
+     * Masks are written as shorts.
+     */
+    public static final int MAX_DIMENSIONS = 16;
+
+    private static final byte[] MAGIC = "PWHB".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+
+    public record Dimension(String key, String worldName) {
+    }
+
+    public record PlayerMarks(UUID player, int visitedMask, int deadMask) {
+    }
+
+    public HandoffManifest {
+        dimensions = List.copyOf(dimensions);
+        settings = Collections.unmodifiableMap(new LinkedHashMap<>(settings));
+        players = List.copyOf(players);
+        if (dimensions.size() > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Too many dimensions: " + dimensions.size());
+        }
+    }
+
+    public List<String> dimensionNames() {
+        List<String> names = new ArrayList<>(dimensions.size());
+        for (Dimension dimension : dimensions) {
+            names.add(dimension.worldName());
+        }
+        return names;
+    }
+
+    /**
+     * Marks of every player who visited or died in any of these dimensions
+     * (main thread, like all storage access).
+     */
+    public static List<PlayerMarks> collectMarks(HardcoreDataStorage storage, List<String> dimensionNames) {
+        List<PlayerMarks> result = new ArrayList<>();
+        storage.forEachPlayer(state -> {
+            int visited = 0;
+            int dead = 0;
+            for (int i = 0; i < dimensionNames.size(); i++) {
+                if (state.hasVisited(dimensionNames.get(i))) {
+                    visited |= 1 << i;
+                }
+                if (state.isDeadIn(dimensionNames.get(i))) {
+                    dead |= 1 << i;
+                }
+            }
+            if ((visited | dead) != 0) {
+                result.add(new PlayerMarks(state.getPlayerId(), visited, dead));
+            }
+        });
+        return result;
+    }
+
+    // ------------------------------------------------------------------------
+    // Encoding
+    // ------------------------------------------------------------------------
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(worldId);
+        out.writeLong(exportedMillis);
+
+        out.writeByte(dimensions.size());
+        for (Dimension dimension : dimensions) {
+            out.writeUTF(dimension.key());
+            out.writeUTF(dimension.worldName());
+        }
+
+        out.writeShort(settings.size());
+        for (Map.Entry<String, String> entry : settings.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+
+        out.writeInt(players.size());
+        for (PlayerMarks marks : players) {
+            out.writeLong(marks.player().getMostSignificantBits());
+            out.writeLong(marks.player().getLeastSignificantBits());
+            out.writeShort(marks.visitedMask());
+            out.writeShort(marks.deadMask());
+        }
+        out.flush();
+    }
+
+    public static HandoffManifest readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a hardcore handoff manifest");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported handoff manifest version " + version);
+        }
+
+        String worldId = in.readUTF();
+        long exportedMillis = in.readLong();
+
+        int dimensionCount = in.readUnsignedByte();
+        List<Dimension> dimensions = new ArrayList<>(dimensionCount);
+        for (int i = 0; i < dimensionCount; i++) {
+            dimensions.add(new Dimension(in.readUTF(), in.readUTF()));
+        }
+
+        int settingCount = in.readUnsignedShort();
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (int i = 0; i < settingCount; i++) {
+            settings.put(in.readUTF(), in.readUTF());
+        }
+
+        int playerCount = in.readInt();
+        if (playerCount < 0) {
+            throw new IOException("Corrupt handoff manifest: " + playerCount + " players");
+        }
+        List<PlayerMarks> players = new ArrayList<>(Math.min(playerCount, 1 << 16));
+        for (int i = 0; i < playerCount; i++) {
+            UUID player = new UUID(in.readLong(), in.readLong());
+            players.add(new PlayerMarks(player, in.readUnsignedShort(), in.readUnsignedShort()));
+        }
+
+        try {
+            return new HandoffManifest(worldId, exportedMillis, dimensions, settings, players);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt handoff manifest", e);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.kylekriskovich.perworldhardcore.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per player, per world group: when they first entered, when and how they
+ * died and how long they survived. Kept in append-only columns
+ * ({@link HistoryColumns}) and appended to a binary file ({@link HistoryFile}).
+ * <p>
+ * A cull ends the group's current run: first visits before it no longer
+ * count, so a world re-created under the same name measures survival from
+ * the first visit to the new world.
+ * <p>
+ * {@link #getTop} and {@link #getDeaths} read incrementally maintained
+ * indexes, so they cost the same however long the history gets.
+ * <p>
+ * Not thread-safe: like {@code HardcoreDataStorage}, everything except the
+ * file load runs on the thread behind {@code mainThreadExecutor}.
+ */
+public class DeathHistory {
+
+    public static final String UNKNOWN_CAUSE = "unknown";
+
+    private final Path file;
+    private final int topSize;
+    private final Executor asyncExecutor;
+    private final Executor mainThreadExecutor;
+    private final Logger logger;
+
+    private HistoryColumns columns;
+
+    /**
+     * What the file already holds; everything past these is appended by {@link #flush()}.
+     */
+    private int persistedStrings;
+    private int persistedVisits;
+    private int persistedDeaths;
+    private int persistedCulls;
+    private boolean fileHasHeader;
+
+    private CompletableFuture<HistoryColumns> pendingLoad;
+    private long storedBytes;
+    private boolean loaded;
+
+    public DeathHistory(Path file,
+                        int topSize,
+                        Executor asyncExecutor,
+                        Executor mainThreadExecutor,
+                        Logger logger) {
+        this.file = file;
+        this.topSize = Math.max(1, topSize);
+        this.asyncExecutor = asyncExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.logger = logger;
+        this.columns = new HistoryColumns(this.topSize);
+    }
+
+    // -----------------------------------------------------------------------
+    // Lifecycle
+    // -----------------------------------------------------------------------
+
+    /**
+     * Read the history file on {@code asyncExecutor} and merge it in on the
+     * main thread. Until then, recorded entries are kept in memory only.
+     */
+    public void init() {
+        CompletableFuture<HistoryColumns> load = new CompletableFuture<>();
+        pendingLoad = load;
+
+        asyncExecutor.execute(() -> {
+            try {
+                HistoryColumns stored = new HistoryColumns(topSize);
+                long valid = HistoryFile.read(file, stored);
+                dropTornTail(valid);
+                // Published to the main thread by completing the future
+                storedBytes = valid;
+                load.complete(stored);
+            } catch (IOException | RuntimeException e) {
+                load.completeExceptionally(e);
+            }
+        });
+
+        load.whenComplete((data, error) -> mainThreadExecutor.execute(this::finishLoad));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void shutdown() {
+        finishLoad();
+        flush();
+    }
+
+    public boolean isDirty() {
+        return columns.stringCount() > persistedStrings
+                || columns.visitCount() > persistedVisits
+                || columns.deathCount() > persistedDeaths
+                || columns.cullCount() > persistedCulls;
+    }
+
+    /**
+     * Append rows recorded since the last flush to the history file.
+     */
+    public void flush() {
+        if (!loaded || !isDirty()) {
+            return;
+        }
+
+        ByteBuffer bytes = HistoryFile.encode(columns, persistedStrings, persistedVisits, persistedDeaths,
+                persistedCulls, !fileHasHeader);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not write death history to " + file, e);
+            return;
+        }
+
+        fileHasHeader = true;
+        persistedStrings = columns.stringCount();
+        persistedVisits = columns.visitCount();
+        persistedDeaths = columns.deathCount();
+        persistedCulls = columns.cullCount();
+    }
+
+    // -----------------------------------------------------------------------
+    // Recording
+    // -----------------------------------------------------------------------
+
+    /**
+     * Remember when the player first entered the world group. Later calls
+     * for the same player and group do nothing until the group is culled.
+     */
+    public void recordVisit(UUID playerId, String worldGroup, long millis) {
+        if (playerId == null || worldGroup == null) return;
+
+        int group = columns.lookup(worldGroup);
+        if (group >= 0 && columns.firstVisit(playerId, group, millis) >= 0) {
+            return;
+        }
+        columns.appendVisit(playerId, group >= 0 ? group : columns.intern(worldGroup), millis);
+    }
+
+    public DeathRecord recordDeath(UUID playerId, String worldGroup, long millis, String cause) {
+        if (playerId == null || worldGroup == null) return null;
+
+        int group = columns.intern(worldGroup);
+        int causeId = columns.intern(cause != null ? cause : UNKNOWN_CAUSE);
+        columns.appendDeath(playerId, group, columns.firstVisit(playerId, group, millis), millis, causeId);
+        return columns.death(columns.deathCount() - 1);
+    }
+
+    /**
+     * The world group was culled; a group created later under the same name
+     * starts over.
+     */
+    public void recordCull(String worldGroup, long millis) {
+        if (worldGroup == null) return;
+
+        columns.appendCull(columns.intern(worldGroup), millis);
+    }
+
+    // -----------------------------------------------------------------------
+    // Queries
+    // -----------------------------------------------------------------------
+
+    public int getTopSize() {
+        return topSize;
+    }
+
+    /**
+     * Longest survivals in the world group, longest first (at most
+     * {@link #getTopSize()}).
+     */
+    public List<DeathRecord> getTop(String worldGroup, int limit) {
+        int group = worldGroup != null ? columns.lookup(worldGroup) : -1;
+        if (group < 0 || limit <= 0) {
+            return List.of();
+        }
+
+        List<DeathRecord> result = new ArrayList<>();
+        for (int row : columns.topDeathRows(group, limit)) {
+            result.add(columns.death(row));
+        }
+        return result;
+    }
+
+    /**
+     * The player's deaths, oldest first.
+     */
+    public List<DeathRecord> getDeaths(UUID playerId) {
+        if (playerId == null) return List.of();
+
+        List<DeathRecord> result = new ArrayList<>();
+        for (int row : columns.deathRows(playerId)) {
+            result.add(columns.death(row));
+        }
+        return result;
+    }
+
+    /**
+     * World group → first visit time for every group the player has entered
+     * since it was last culled.
+     */
+    public Map<String, Long> getFirstVisits(UUID playerId) {
+        if (playerId == null) return Map.of();
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int row : columns.visitRows(playerId)) {
+            int group = columns.visitGroup(row);
+            long firstVisit = columns.firstVisit(playerId, group, Long.MAX_VALUE);
+            if (firstVisit >= 0) {
+                result.putIfAbsent(columns.string(group), firstVisit);
+            }
+        }
+        return result;
+    }
+
+    // -----------------------------------------------------------------------
+    // Internals
+    // -----------------------------------------------------------------------
+
+    /**
+     * Cut a record left half-written by a crash, so appends follow the last
+     * complete one. Runs before anything is appended (flush waits for the load).
+     */
+    private void dropTornTail(long valid) throws IOException {
+        if (!Files.exists(file) || Files.size(file) <= valid) {
+            return;
+        }
+        logger.warning("Dropping " + (Files.size(file) - valid) + " bytes of incomplete death history at the end of "
+                + file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(valid);
+        }
+    }
+
+    /**
+     * Swap in the loaded columns and re-append what was recorded while the
+     * file was loading.
+     */
+    private void finishLoad() {
+        if (loaded || pendingLoad == null) {
+            return;
+        }
+
+        HistoryColumns stored;
+        try {
+            stored = pendingLoad.join();
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Could not load death history; it will not be saved", e);
+            pendingLoad = null;
+            return;
+        }
+        pendingLoad = null;
+
+        HistoryColumns live = columns;
+        persistedStrings = stored.stringCount();
+        persistedVisits = stored.visitCount();
+        persistedDeaths = stored.deathCount();
+        persistedCulls = stored.cullCount();
+        fileHasHeader = storedBytes >= HistoryFile.HEADER_BYTES;
+        columns = stored;
+
+        // Culls first, so visits are checked against the run they belong to
+        for (int row = 0; row < live.cullCount(); row++) {
+            stored.appendCull(stored.intern(live.string(live.cullGroup(row))), live.cullTime(row));
+        }
+        for (int row = 0; row < live.visitCount(); row++) {
+            recordVisit(live.visitPlayer(row), live.string(live.visitGroup(row)), live.visitTime(row));
+        }
+        for (int row = 0; row < live.deathCount(); row++) {
+            UUID playerId = live.deathPlayer(row);
+            int group = stored.intern(live.string(live.deathGroup(row)));
+            long firstVisit = stored.firstVisit(playerId, group, live.deathTime(row));
+            stored.appendDeath(playerId, group,
+                    firstVisit >= 0 ? firstVisit : live.deathFirstVisit(row),
+                    live.deathTime(row),
+                    stored.intern(live.string(live.deathCause(row))));
+        }
+
+        loaded = true;
+        logger.info("Loaded death history: " + persistedDeaths + " deaths, " + persistedVisits + " visits.");
+    }
+}
@@ -0,0 +1,23 @@
+package com.kylekriskovich.perworldhardcore.history;
+
+import java.util.UUID;
+
+/**
+ * One hardcore death: who died in which world group, when they first
+ * entered it, when they died and how.
+ *
+ * @param firstVisitMillis -1 if the first visit predates the history
+ */
+public record DeathRecord(UUID player,
+                          String worldGroup,
+                          long firstVisitMillis,
+                          long deathMillis,
+                          String cause) {
+
+    /**
+     * Time from first visit to death, or -1 if the first visit is unknown.
+     */
+    public long survivalMillis() {
+        return firstVisitMillis < 0 ? -1L : Math.max(0L, deathMillis - firstVisitMillis);
+    }
+}
@@ -0,0 +1,258 @@
+package com.kylekriskovich.perworldhardcore.history;
+
+import java.util.*;
+
+/**
+ * In-memory columns of the death history, plus the indexes that keep
+ * lookups independent of its size: rows per player and a
+ * {@link SurvivalLeaderboard} per world group.
+ * <p>
+ * Rows are only ever appended. World group names and death causes are
+ * dictionary-encoded into one string table, so a row is a handful of
+ * primitives.
+ */
+final class HistoryColumns {
+
+    private static final int INITIAL_ROWS = 256;
+
+    private final int topSize;
+
+    // Dictionary: world groups and death causes
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    // Visit rows: first time a player entered a world group
+    private long[] visitMost = new long[INITIAL_ROWS];
+    private long[] visitLeast = new long[INITIAL_ROWS];
+    private int[] visitGroup = new int[INITIAL_ROWS];
+    private long[] visitTime = new long[INITIAL_ROWS];
+    private int visitCount;
+
+    // Death rows
+    private long[] deathMost = new long[INITIAL_ROWS];
+    private long[] deathLeast = new long[INITIAL_ROWS];
+    private int[] deathGroup = new int[INITIAL_ROWS];
+    private long[] deathFirstVisit = new long[INITIAL_ROWS];
+    private long[] deathTime = new long[INITIAL_ROWS];
+    private int[] deathCause = new int[INITIAL_ROWS];
+    private int deathCount;
+
+    // Cull rows: the group was culled, so visits before this no longer count
+    private int[] cullGroup = new int[16];
+    private long[] cullTime = new long[16];
+    private int cullCount;
+
+    // Indexes
+    private final Map<UUID, int[]> visitsByPlayer = new HashMap<>();
+    private final Map<UUID, int[]> deathsByPlayer = new HashMap<>();
+    private final Map<Integer, SurvivalLeaderboard> leaderboards = new HashMap<>();
+
+    HistoryColumns(int topSize) {
+        this.topSize = topSize;
+    }
+
+    // ------------------------------------------------------------------------
+    // Dictionary
+    // ------------------------------------------------------------------------
+
+    int intern(String value) {
+        Integer id = stringIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        int next = strings.size();
+        strings.add(value);
+        stringIds.put(value, next);
+        return next;
+    }
+
+    /**
+     * Id of an already interned string, or -1.
+     */
+    int lookup(String value) {
+        Integer id = stringIds.get(value);
+        return id != null ? id : -1;
+    }
+
+    String string(int id) {
+        return strings.get(id);
+    }
+
+    int stringCount() {
+        return strings.size();
+    }
+
+    // ------------------------------------------------------------------------
+    // Appends
+    // ------------------------------------------------------------------------
+
+    void appendVisit(UUID player, int group, long millis) {
+        if (visitCount == visitTime.length) {
+            int capacity = visitCount * 2;
+            visitMost = Arrays.copyOf(visitMost, capacity);
+            visitLeast = Arrays.copyOf(visitLeast, capacity);
+            visitGroup = Arrays.copyOf(visitGroup, capacity);
+            visitTime = Arrays.copyOf(visitTime, capacity);
+        }
+
+        int row = visitCount++;
+        visitMost[row] = player.getMostSignificantBits();
+        visitLeast[row] = player.getLeastSignificantBits();
+        visitGroup[row] = group;
+        visitTime[row] = millis;
+        visitsByPlayer.merge(player, new int[]{row}, HistoryColumns::concat);
+    }
+
+    void appendDeath(UUID player, int group, long firstVisitMillis, long millis, int cause) {
+        if (deathCount == deathTime.length) {
+            int capacity = deathCount * 2;
+            deathMost = Arrays.copyOf(deathMost, capacity);
+            deathLeast = Arrays.copyOf(deathLeast, capacity);
+            deathGroup = Arrays.copyOf(deathGroup, capacity);
+            deathFirstVisit = Arrays.copyOf(deathFirstVisit, capacity);
+            deathTime = Arrays.copyOf(deathTime, capacity);
+            deathCause = Arrays.copyOf(deathCause, capacity);
+        }
+
+        int row = deathCount++;
+        deathMost[row] = player.getMostSignificantBits();
+        deathLeast[row] = player.getLeastSignificantBits();
+        deathGroup[row] = group;
+        deathFirstVisit[row] = firstVisitMillis;
+        deathTime[row] = millis;
+        deathCause[row] = cause;
+        deathsByPlayer.merge(player, new int[]{row}, HistoryColumns::concat);
+
+        // Deaths without a known first visit have no survival time to rank
+        if (firstVisitMillis >= 0) {
+            leaderboards.computeIfAbsent(group, g -> new SurvivalLeaderboard(topSize))
+                    .offer(row, Math.max(0L, millis - firstVisitMillis));
+        }
+    }
+
+    void appendCull(int group, long millis) {
+        if (cullCount == cullTime.length) {
+            cullGroup = Arrays.copyOf(cullGroup, cullCount * 2);
+            cullTime = Arrays.copyOf(cullTime, cullCount * 2);
+        }
+        cullGroup[cullCount] = group;
+        cullTime[cullCount] = millis;
+        cullCount++;
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookups
+    // ------------------------------------------------------------------------
+
+    /**
+     * First visit of the player to the group as it existed at {@code atMillis}:
+     * at or before that time and after the group's last cull before it. -1 if none.
+     */
+    long firstVisit(UUID player, int group, long atMillis) {
+        int[] rows = visitsByPlayer.get(player);
+        if (rows == null) {
+            return -1L;
+        }
+        long since = lastCull(group, atMillis);
+        long first = -1L;
+        for (int row : rows) {
+            long time = visitTime[row];
+            if (visitGroup[row] == group && time > since && time <= atMillis && (first < 0 || time < first)) {
+                first = time;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Latest cull of the group at or before {@code atMillis}, or Long.MIN_VALUE.
+     * Culls are rare, so a scan is fine.
+     */
+    long lastCull(int group, long atMillis) {
+        long last = Long.MIN_VALUE;
+        for (int row = 0; row < cullCount; row++) {
+            if (cullGroup[row] == group && cullTime[row] <= atMillis && cullTime[row] > last) {
+                last = cullTime[row];
+            }
+        }
+        return last;
+    }
+
+    int[] visitRows(UUID player) {
+        int[] rows = visitsByPlayer.get(player);
+        return rows != null ? rows : new int[0];
+    }
+
+    int[] deathRows(UUID player) {
+        int[] rows = deathsByPlayer.get(player);
+        return rows != null ? rows : new int[0];
+    }
+
+    int[] topDeathRows(int group, int limit) {
+        SurvivalLeaderboard leaderboard = leaderboards.get(group);
+        return leaderboard != null ? leaderboard.top(limit) : new int[0];
+    }
+
+    int visitCount() {
+        return visitCount;
+    }
+
+    int deathCount() {
+        return deathCount;
+    }
+
+    int cullCount() {
+        return cullCount;
+    }
+
+    int cullGroup(int row) {
+        return cullGroup[row];
+    }
+
+    long cullTime(int row) {
+        return cullTime[row];
+    }
+
+    UUID visitPlayer(int row) {
+        return new UUID(visitMost[row], visitLeast[row]);
+    }
+
+    int visitGroup(int row) {
+        return visitGroup[row];
+    }
+
+    long visitTime(int row) {
+        return visitTime[row];
+    }
+
+    UUID deathPlayer(int row) {
+        return new UUID(deathMost[row], deathLeast[row]);
+    }
+
+    int deathGroup(int row) {
+        return deathGroup[row];
+    }
+
+    long deathFirstVisit(int row) {
+        return deathFirstVisit[row];
+    }
+
+    long deathTime(int row) {
+        return deathTime[row];
+    }
+
+    int deathCause(int row) {
+        return deathCause[row];
+    }
+
+    DeathRecord death(int row) {
+        return new DeathRecord(deathPlayer(row), strings.get(deathGroup[row]),
+                deathFirstVisit[row], deathTime[row], strings.get(deathCause[row]));
+    }
+
+    private static int[] concat(int[] rows, int[] added) {
+        int[] result = Arrays.copyOf(rows, rows.length + added.length);
+        System.arraycopy(added, 0, result, rows.length, added.length);
+        return result;
+    }
+}
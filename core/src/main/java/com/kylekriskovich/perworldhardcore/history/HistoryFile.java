@@ -0,0 +1,213 @@
+package com.kylekriskovich.perworldhardcore.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * On-disk form of {@link HistoryColumns}: an append-only log, big-endian.
+ * <pre>
+ * header   int magic "PWHD", int version
+ * string   byte 1, short length, UTF-8 bytes        (next dictionary id)
+ * visit    byte 2, long uuid msb, long uuid lsb, int group, long millis
+ * death    byte 3, long uuid msb, long uuid lsb, int group,
+ *          long first visit millis, long millis, int cause
+ * cull     byte 4, int group, long millis
+ * </pre>
+ * A flush appends new strings before the rows that use them, so a record
+ * cut off by a crash is always at the end and is dropped on the next load.
+ */
+final class HistoryFile {
+
+    static final int MAGIC = 0x50574844; // "PWHD"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_VISIT = 2;
+    private static final byte TAG_DEATH = 3;
+    private static final byte TAG_CULL = 4;
+
+    private static final int VISIT_BYTES = 1 + 8 + 8 + 4 + 8;
+    private static final int DEATH_BYTES = 1 + 8 + 8 + 4 + 8 + 8 + 4;
+    private static final int CULL_BYTES = 1 + 4 + 8;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private HistoryFile() {
+    }
+
+    /**
+     * Read every complete record into {@code columns}.
+     *
+     * @return bytes of the file that hold complete records (including the
+     *         header), or 0 if the file does not exist
+     */
+    static long read(Path file, HistoryColumns columns) throws IOException {
+        if (!Files.exists(file)) {
+            return 0L;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return 0L;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not a death history file (version " + VERSION + "): " + file);
+            }
+
+            long valid = buffer.position();
+            while (buffer.hasRemaining()) {
+                if (!readRecord(buffer, columns)) {
+                    break;
+                }
+                valid = buffer.position();
+            }
+            return valid;
+        }
+    }
+
+    private static boolean readRecord(ByteBuffer buffer, HistoryColumns columns) {
+        int start = buffer.position();
+        byte tag = buffer.get();
+        int remaining = buffer.remaining();
+
+        switch (tag) {
+            case TAG_STRING -> {
+                if (remaining < 2) {
+                    break;
+                }
+                int length = Short.toUnsignedInt(buffer.getShort());
+                if (buffer.remaining() < length) {
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                columns.intern(new String(bytes, StandardCharsets.UTF_8));
+                return true;
+            }
+            case TAG_VISIT -> {
+                if (remaining < VISIT_BYTES - 1) {
+                    break;
+                }
+                UUID player = new UUID(buffer.getLong(), buffer.getLong());
+                int group = buffer.getInt();
+                long millis = buffer.getLong();
+                if (group < 0 || group >= columns.stringCount()) {
+                    break;
+                }
+                columns.appendVisit(player, group, millis);
+                return true;
+            }
+            case TAG_DEATH -> {
+                if (remaining < DEATH_BYTES - 1) {
+                    break;
+                }
+                UUID player = new UUID(buffer.getLong(), buffer.getLong());
+                int group = buffer.getInt();
+                long firstVisit = buffer.getLong();
+                long millis = buffer.getLong();
+                int cause = buffer.getInt();
+                if (group < 0 || group >= columns.stringCount()
+                        || cause < 0 || cause >= columns.stringCount()) {
+                    break;
+                }
+                columns.appendDeath(player, group, firstVisit, millis, cause);
+                return true;
+            }
+            case TAG_CULL -> {
+                if (remaining < CULL_BYTES - 1) {
+                    break;
+                }
+                int group = buffer.getInt();
+                long millis = buffer.getLong();
+                if (group < 0 || group >= columns.stringCount()) {
+                    break;
+                }
+                columns.appendCull(group, millis);
+                return true;
+            }
+            default -> {
+            }
+        }
+
+        buffer.position(start);
+        return false;
+    }
+
+    /**
+     * Encode everything from the given dictionary id / row numbers onwards,
+     * with the header in front if {@code withHeader}.
+     */
+    static ByteBuffer encode(HistoryColumns columns, int fromString, int fromVisit, int fromDeath, int fromCull,
+                             boolean withHeader) {
+        int size = withHeader ? HEADER_BYTES : 0;
+        for (int id = fromString; id < columns.stringCount(); id++) {
+            size += 3 + stringBytes(columns.string(id)).length;
+        }
+        size += (columns.visitCount() - fromVisit) * VISIT_BYTES;
+        size += (columns.deathCount() - fromDeath) * DEATH_BYTES;
+        size += (columns.cullCount() - fromCull) * CULL_BYTES;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        if (withHeader) {
+            buffer.putInt(MAGIC).putInt(VERSION);
+        }
+
+        for (int id = fromString; id < columns.stringCount(); id++) {
+            byte[] bytes = stringBytes(columns.string(id));
+            buffer.put(TAG_STRING).putShort((short) bytes.length).put(bytes);
+        }
+
+        for (int row = fromVisit; row < columns.visitCount(); row++) {
+            UUID player = columns.visitPlayer(row);
+            buffer.put(TAG_VISIT)
+                    .putLong(player.getMostSignificantBits())
+                    .putLong(player.getLeastSignificantBits())
+                    .putInt(columns.visitGroup(row))
+                    .putLong(columns.visitTime(row));
+        }
+
+        for (int row = fromDeath; row < columns.deathCount(); row++) {
+            UUID player = columns.deathPlayer(row);
+            buffer.put(TAG_DEATH)
+                    .putLong(player.getMostSignificantBits())
+                    .putLong(player.getLeastSignificantBits())
+                    .putInt(columns.deathGroup(row))
+                    .putLong(columns.deathFirstVisit(row))
+                    .putLong(columns.deathTime(row))
+                    .putInt(columns.deathCause(row));
+        }
+
+        for (int row = fromCull; row < columns.cullCount(); row++) {
+            buffer.put(TAG_CULL)
+                    .putInt(columns.cullGroup(row))
+                    .putLong(columns.cullTime(row));
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * UTF-8, cut to what the 16-bit length prefix can hold.
+     */
+    private static byte[] stringBytes(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING_BYTES) {
+            return bytes;
+        }
+        byte[] cut = new byte[MAX_STRING_BYTES];
+        System.arraycopy(bytes, 0, cut, 0, MAX_STRING_BYTES);
+        return cut;
+    }
+}
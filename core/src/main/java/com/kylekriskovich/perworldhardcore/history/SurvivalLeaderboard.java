@@ -0,0 +1,50 @@
+package com.kylekriskovich.perworldhardcore.history;
+
+import java.util.Arrays;
+
+/**
+ * Top-K death rows of one world group by survival time, longest first.
+ * Updated on every death, so reading it never touches the full history.
+ */
+final class SurvivalLeaderboard {
+
+    private final int[] rows;
+    private final long[] survival;
+    private int size;
+
+    SurvivalLeaderboard(int capacity) {
+        this.rows = new int[capacity];
+        this.survival = new long[capacity];
+    }
+
+    void offer(int row, long survivalMillis) {
+        int capacity = rows.length;
+        if (size == capacity && survivalMillis <= survival[capacity - 1]) {
+            return;
+        }
+
+        // Insert after entries with equal survival so earlier deaths keep their rank
+        int position = size;
+        while (position > 0 && survival[position - 1] < survivalMillis) {
+            position--;
+        }
+
+        int moved = Math.min(size, capacity - 1) - position;
+        if (moved > 0) {
+            System.arraycopy(rows, position, rows, position + 1, moved);
+            System.arraycopy(survival, position, survival, position + 1, moved);
+        }
+        rows[position] = row;
+        survival[position] = survivalMillis;
+        if (size < capacity) {
+            size++;
+        }
+    }
+
+    /**
+     * Death rows of the best {@code limit} entries, longest survival first.
+     */
+    int[] top(int limit) {
+        return Arrays.copyOf(rows, Math.min(limit, size));
+    }
+}
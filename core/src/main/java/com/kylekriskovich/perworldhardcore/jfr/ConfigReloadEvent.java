@@ -0,0 +1,20 @@
+package com.kylekriskovich.perworldhardcore.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Hardcore world definitions (re)built from config.yml.
+ */
+@Name("perworldhardcore.ConfigReload")
+@Label("Config Reload")
+@Category({"PerWorldHardcore", "Config"})
+@Description("Hardcore worlds reloaded from config.yml")
+@StackTrace(false)
+public class ConfigReloadEvent extends Event {
+
+    @Label("Hardcore Worlds")
+    public int worlds;
+
+    @Label("Dimensions")
+    public int dimensions;
+}
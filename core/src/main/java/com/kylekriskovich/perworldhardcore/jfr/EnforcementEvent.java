@@ -0,0 +1,50 @@
+package com.kylekriskovich.perworldhardcore.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The plugin acting on a player or world because of hardcore rules:
+ * spectator on death, sending a dead player back to the hub, queueing an
+ * entry, freezing or thawing a dead world, forcing HARD difficulty.
+ */
+@Name("perworldhardcore.Enforcement")
+@Label("Hardcore Enforcement")
+@Category({"PerWorldHardcore", "Enforcement"})
+@Description("A hardcore rule applied to a player or world")
+@StackTrace(false)
+public class EnforcementEvent extends Event {
+
+    public static final String SPECTATE = "spectate";
+    public static final String RETURN_TO_HUB = "return-to-hub";
+    public static final String QUEUE = "queue";
+    public static final String FREEZE = "freeze";
+    public static final String THAW = "thaw";
+    public static final String DIFFICULTY = "difficulty";
+
+    @Label("Action")
+    public String action;
+
+    @Label("World Group")
+    public String worldGroup;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Players Online")
+    public int playersOnline;
+
+    /**
+     * Instant event for a decision whose effect runs later (e.g. a delayed
+     * teleport). Only allocates and fills fields when the event is enabled.
+     */
+    public static void emit(String action, String worldGroup, String player, int playersOnline) {
+        EnforcementEvent event = new EnforcementEvent();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.worldGroup = worldGroup;
+            event.player = player;
+            event.playersOnline = playersOnline;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.kylekriskovich.perworldhardcore.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Stored player data read from the backend (off the main thread).
+ */
+@Name("perworldhardcore.StorageLoad")
+@Label("Storage Load")
+@Category({"PerWorldHardcore", "Storage"})
+@Description("Dead/visited player data read from the storage backend")
+@StackTrace(false)
+public class StorageLoadEvent extends Event {
+
+    @Label("Players")
+    public int players;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,24 @@
+package com.kylekriskovich.perworldhardcore.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Player data written to the storage backend (data.yml in the plugin).
+ */
+@Name("perworldhardcore.StorageSave")
+@Label("Storage Save")
+@Category({"PerWorldHardcore", "Storage"})
+@Description("Dead/visited player data written to the storage backend")
+@StackTrace(false)
+public class StorageSaveEvent extends Event {
+
+    @Label("Players")
+    public int players;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,35 @@
+package com.kylekriskovich.perworldhardcore.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One stage of creating or culling a hardcore world, e.g. the mv create of
+ * a single dimension or the candidate scan of a cull.
+ */
+@Name("perworldhardcore.WorldStage")
+@Label("Hardcore World Stage")
+@Category({"PerWorldHardcore", "Worlds"})
+@Description("A stage of /hardcore create or /hardcore cull")
+@StackTrace(false)
+public class WorldStageEvent extends Event {
+
+    public static final String CREATE = "create";
+    public static final String CULL = "cull";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("World Group")
+    @Description("Hardcore world id, if the stage is about a single world")
+    public String worldGroup;
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Worlds")
+    @Description("Hardcore worlds affected by this stage")
+    public int worlds;
+}
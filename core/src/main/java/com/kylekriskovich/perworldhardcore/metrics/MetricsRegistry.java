@@ -0,0 +1,104 @@
+package com.kylekriskovich.perworldhardcore.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named latency timers, counters and gauges.
+ * <p>
+ * Everything is lock-free: handlers record on the main thread and readers
+ * (the /hardcore metrics command, the Prometheus exporter) may run anywhere.
+ * Gauges are plain values that the owner sets; they are never computed on
+ * the reading thread. Totals kept elsewhere (e.g. by the death filter) are
+ * copied into sampled counters the same way, but exported as counters.
+ */
+public class MetricsRegistry {
+
+    public static final String PREFIX = "perworldhardcore_";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> sampledCounters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+
+    public LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    /**
+     * A counter whose running total is owned by another component and set
+     * here when sampled; it must only ever grow.
+     */
+    public AtomicLong sampledCounter(String name) {
+        return sampledCounters.computeIfAbsent(name, k -> new AtomicLong());
+    }
+
+    public AtomicLong gauge(String name) {
+        return gauges.computeIfAbsent(name, k -> new AtomicLong());
+    }
+
+    public Map<String, LatencyHistogram> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((name, adder) -> result.put(name, adder.sum()));
+        sampledCounters.forEach((name, value) -> result.put(name, value.get()));
+        return result;
+    }
+
+    public Map<String, Long> getGauges() {
+        Map<String, Long> result = new TreeMap<>();
+        gauges.forEach((name, value) -> result.put(name, value.get()));
+        return result;
+    }
+
+    /**
+     * Prometheus text exposition format (version 0.0.4). Timers are summaries
+     * in seconds, counters get a {@code _total} suffix.
+     */
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(2048);
+
+        for (Map.Entry<String, LatencyHistogram> entry : getTimers().entrySet()) {
+            String name = PREFIX + entry.getKey() + "_seconds";
+            LatencyHistogram histogram = entry.getValue();
+
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double q : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(q).append("\"} ")
+                        .append(seconds(histogram.percentile(q * 100.0))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(histogram.sumNanos())).append('\n');
+            out.append(name).append("_count ").append(histogram.count()).append('\n');
+        }
+
+        for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+            String name = PREFIX + entry.getKey() + "_total";
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(entry.getValue()).append('\n');
+        }
+
+        for (Map.Entry<String, Long> entry : getGauges().entrySet()) {
+            String name = PREFIX + entry.getKey();
+            out.append("# TYPE ").append(name).append(" gauge\n");
+            out.append(name).append(' ').append(entry.getValue()).append('\n');
+        }
+
+        return out.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.kylekriskovich.perworldhardcore.model;
+
+public class HardcoreWorldSettings {
+
+    private final String worldName;
+
+    private boolean allowSpectatorOnDeath;
+    private boolean allowTpAfterDeath;
+
+    // Spectator budget for dead players (0 = no limit)
+    private int spectatorViewDistance;
+    private int maxSpectators;
+    private boolean blockSpectatorChunkGeneration;
+
+    // Admission control: refuse new entries while MSPT is above this (0 = disabled)
+    private double admissionMaxMspt;
+
+    // When this server registered the world (epoch millis, 0 = unknown)
+    private long createdMillis;
+
+    /**
+     * Settings with built-in defaults; the plugin fills them in from config.yml.
+     */
+    public HardcoreWorldSettings(String worldName) {
+        this.worldName = worldName;
+        this.allowSpectatorOnDeath = true;
+    }
+
+    @SuppressWarnings("unused")
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public boolean isAllowSpectatorOnDeath() {
+        return allowSpectatorOnDeath;
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isAllowTpAfterDeath() {
+        return allowTpAfterDeath;
+    }
+
+    public int getSpectatorViewDistance() {
+        return spectatorViewDistance;
+    }
+
+    public int getMaxSpectators() {
+        return maxSpectators;
+    }
+
+    public boolean isBlockSpectatorChunkGeneration() {
+        return blockSpectatorChunkGeneration;
+    }
+
+    public double getAdmissionMaxMspt() {
+        return admissionMaxMspt;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    public void setAllowSpectatorOnDeath(boolean allowSpectatorOnDeath) {
+        this.allowSpectatorOnDeath = allowSpectatorOnDeath;
+    }
+
+    public void setAllowTpAfterDeath(boolean allowTpAfterDeath) {
+        this.allowTpAfterDeath = allowTpAfterDeath;
+    }
+
+    public void setSpectatorViewDistance(int spectatorViewDistance) {
+        this.spectatorViewDistance = spectatorViewDistance;
+    }
+
+    public void setMaxSpectators(int maxSpectators) {
+        this.maxSpectators = maxSpectators;
+    }
+
+    public void setBlockSpectatorChunkGeneration(boolean blockSpectatorChunkGeneration) {
+        this.blockSpectatorChunkGeneration = blockSpectatorChunkGeneration;
+    }
+
+    public void setAdmissionMaxMspt(double admissionMaxMspt) {
+        this.admissionMaxMspt = admissionMaxMspt;
+    }
+
+    public void setCreatedMillis(long createdMillis) {
+        this.createdMillis = createdMillis;
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public class PlayerWorldState {
 
@@ -17,15 +18,30 @@ public class PlayerWorldState {
     private final Set<String> deadWorlds = new HashSet<>();
     private final Set<String> visitedWorlds = new HashSet<>();
 
+    /**
+     * Epoch millis the player was last online (join / quit), 0 if unknown.
+     */
+    private long lastSeenMillis;
+
     public PlayerWorldState(UUID playerId) {
         this.playerId = playerId;
     }
 
-    @SuppressWarnings("unused")
     public UUID getPlayerId() {
         return playerId;
     }
 
+    /**
+     * Independent copy, e.g. for a backup taken while this one keeps changing.
+     */
+    public PlayerWorldState copy() {
+        PlayerWorldState copy = new PlayerWorldState(playerId);
+        copy.deadWorlds.addAll(deadWorlds);
+        copy.visitedWorlds.addAll(visitedWorlds);
+        copy.lastSeenMillis = lastSeenMillis;
+        return copy;
+    }
+
     // --- Dead worlds --------------------------------------------------------
 
     public boolean isDeadIn(String worldName) {
@@ -58,8 +74,34 @@ public class PlayerWorldState {
         return Collections.unmodifiableSet(visitedWorlds);
     }
 
+    // --- Last seen ----------------------------------------------------------
+
+    public long getLastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    public void setLastSeenMillis(long lastSeenMillis) {
+        this.lastSeenMillis = lastSeenMillis;
+    }
+
     // --- Helpers for cleanup ------------------------------------------------
 
+    public boolean isEmpty() {
+        return deadWorlds.isEmpty() && visitedWorlds.isEmpty();
+    }
+
+    /**
+     * Drop every dimension matching {@code remove}.
+     *
+     * @return number of world entries removed
+     */
+    public int removeWorldsIf(Predicate<String> remove) {
+        int before = deadWorlds.size() + visitedWorlds.size();
+        deadWorlds.removeIf(remove);
+        visitedWorlds.removeIf(remove);
+        return before - deadWorlds.size() - visitedWorlds.size();
+    }
+
     public void removeWorld(String worldName) {
         if (worldName == null) return;
         deadWorlds.remove(worldName);
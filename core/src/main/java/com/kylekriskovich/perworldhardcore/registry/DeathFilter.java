@@ -0,0 +1,183 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bloom filter of players with a death in any hardcore world, so
+ * {@link HardcoreWorldRegistry#hasDiedInWorld} can answer "never died" -
+ * the common case - with a few bit probes and no map lookups.
+ * <p>
+ * A "no" is exact; a "maybe" falls through to the full check. Entries cannot
+ * be removed, so players that lose their death marks (retention, world
+ * removal) stay in until the next {@link #rebuild}, which the registry does
+ * whenever it rebuilds its other indexes and when the filter fills up.
+ * <p>
+ * Probe outcomes are counted to report the observed false-positive rate.
+ * Main thread only.
+ */
+public final class DeathFilter {
+
+    /**
+     * Target false-positive rate at capacity: about 9.6 bits per player, 7 probes.
+     */
+    private static final double TARGET_FPP = 0.01;
+
+    /**
+     * Sized for at least this many players, so a small server does not
+     * rebuild on every new death.
+     */
+    private static final int MIN_CAPACITY = 1024;
+
+    private long[] bits;
+    private int mask;
+    private int hashCount;
+    private int capacity;
+    private int insertions;
+
+    private long rejected;
+    private long passed;
+    private long falsePositives;
+    private long rebuilds;
+
+    public DeathFilter() {
+        rebuild(List.of());
+    }
+
+    // ------------------------------------------------------------------------
+    // Membership
+    // ------------------------------------------------------------------------
+
+    /**
+     * False only if the player has never been {@link #add added} since the last rebuild.
+     */
+    public boolean mightContain(UUID playerId) {
+        long h1 = mix(playerId.getMostSignificantBits() ^ playerId.getLeastSignificantBits());
+        long h2 = mix(playerId.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                rejected++;
+                return false;
+            }
+        }
+        passed++;
+        return true;
+    }
+
+    public void add(UUID playerId) {
+        long h1 = mix(playerId.getMostSignificantBits() ^ playerId.getLeastSignificantBits());
+        long h2 = mix(playerId.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1L;
+        boolean added = false;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) (h1 + i * h2) & mask;
+            long word = bits[bit >>> 6];
+            if ((word & (1L << bit)) == 0) {
+                bits[bit >>> 6] = word | (1L << bit);
+                added = true;
+            }
+        }
+        if (added) {
+            insertions++;
+        }
+    }
+
+    /**
+     * The caller found no death after {@link #mightContain} said maybe.
+     */
+    public void recordFalsePositive() {
+        falsePositives++;
+    }
+
+    /**
+     * More players than it was sized for; the false-positive rate is above target.
+     */
+    public boolean isOverCapacity() {
+        return insertions > capacity;
+    }
+
+    /**
+     * Replace the contents with exactly these players, sized for twice as
+     * many so deaths until the next rebuild stay under the target rate.
+     * Probe counters are kept.
+     */
+    public void rebuild(Collection<UUID> playersWithDeaths) {
+        capacity = Math.max(MIN_CAPACITY, playersWithDeaths.size() * 2);
+        double ln2 = Math.log(2);
+        long wanted = (long) Math.ceil(-capacity * Math.log(TARGET_FPP) / (ln2 * ln2));
+        int bitCount = Integer.highestOneBit((int) Math.min(1L << 30, Math.max(64L, wanted)) - 1) << 1;
+        bits = new long[bitCount >>> 6];
+        mask = bitCount - 1;
+        // Bits were rounded up to a power of two, so recompute the optimal probe count
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+        insertions = 0;
+        for (UUID playerId : playersWithDeaths) {
+            add(playerId);
+        }
+        rebuilds++;
+    }
+
+    // ------------------------------------------------------------------------
+    // Stats
+    // ------------------------------------------------------------------------
+
+    public int getBitCount() {
+        return mask + 1;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public int getInsertions() {
+        return insertions;
+    }
+
+    /**
+     * Lookups answered "no" by the filter alone.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Lookups that fell through to the full check.
+     */
+    public long getPassed() {
+        return passed;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    /**
+     * Observed share of players without deaths that the filter let through.
+     */
+    public double getObservedFalsePositiveRate() {
+        long negatives = rejected + falsePositives;
+        return negatives == 0 ? 0.0 : (double) falsePositives / negatives;
+    }
+
+    /**
+     * Theoretical false-positive rate at the current fill, (1 - e^(-kn/m))^k.
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions / getBitCount()), hashCount);
+    }
+
+    /**
+     * Stafford variant 13 of the SplitMix64 finalizer; player UUIDs are
+     * random (v4) or MD5 (offline v3), but mixing keeps probes independent.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,462 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+
+import java.util.*;
+
+/**
+ * Groups Bukkit worlds (dimensions) into hardcore worlds.
+ * <p>
+ * Built from config by the plugin and queried on every join, world change
+ * and death, so both directions (dimension → hardcore world id and
+ * hardcore world id → dimensions) are precomputed maps. They live in an
+ * immutable {@link Layout} that is replaced whole, so a lookup sees either
+ * the old or the new set of worlds, never a half-built one.
+ */
+public class HardcoreWorldRegistry {
+
+    /**
+     * Immutable world definitions; build with {@link #builder()}.
+     */
+    public static final class Layout {
+
+        private static final Layout EMPTY = new Layout(Map.of(), Map.of(), List.of());
+
+        /**
+         * Dimension (Bukkit world name) → settings of the hardcore world it belongs to.
+         */
+        private final Map<String, HardcoreWorldSettings> dimensions;
+
+        /**
+         * Hardcore world id → its dimensions, in config order.
+         */
+        private final Map<String, List<String>> worlds;
+
+        private final List<String> problems;
+
+        private Layout(Map<String, HardcoreWorldSettings> dimensions,
+                       Map<String, List<String>> worlds,
+                       List<String> problems) {
+            this.dimensions = dimensions;
+            this.worlds = worlds;
+            this.problems = problems;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public Set<String> getWorldIds() {
+            return worlds.keySet();
+        }
+
+        public Set<String> getDimensionNames() {
+            return dimensions.keySet();
+        }
+
+        /**
+         * Definitions the builder skipped, e.g. a dimension claimed by two worlds.
+         */
+        public List<String> getProblems() {
+            return problems;
+        }
+
+        private Builder toBuilder() {
+            Builder builder = new Builder();
+            for (Map.Entry<String, List<String>> entry : worlds.entrySet()) {
+                builder.add(entry.getKey(), entry.getValue(), dimensions.get(entry.getValue().get(0)));
+            }
+            return builder;
+        }
+    }
+
+    /**
+     * Collects world definitions; not thread-safe, but needs no registry,
+     * so a layout can be built off the main thread.
+     */
+    public static final class Builder {
+
+        private final Map<String, HardcoreWorldSettings> dimensions = new HashMap<>();
+        private final Map<String, List<String>> worlds = new LinkedHashMap<>();
+        private final List<String> problems = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add (or replace) a hardcore world. Dimensions already owned by
+         * another world are skipped and reported in {@link Layout#getProblems()}.
+         */
+        public Builder add(String worldId, List<String> dimensionNames, HardcoreWorldSettings settings) {
+            if (worldId == null || worldId.isBlank()) {
+                return this;
+            }
+            // Replacing keeps the world's place in the order
+            List<String> previous = worlds.get(worldId);
+            if (previous != null) {
+                for (String dimensionName : previous) {
+                    dimensions.remove(dimensionName);
+                }
+            }
+
+            List<String> names = new ArrayList<>();
+            for (String dimensionName : dimensionNames == null || dimensionNames.isEmpty()
+                    ? List.of(worldId)
+                    : dimensionNames) {
+                HardcoreWorldSettings owner = dimensions.get(dimensionName);
+                if (owner != null) {
+                    problems.add("Dimension '" + dimensionName + "' of hardcore world '" + worldId
+                            + "' already belongs to '" + owner.getWorldName() + "'");
+                    continue;
+                }
+                dimensions.put(dimensionName, settings);
+                names.add(dimensionName);
+            }
+            if (names.isEmpty()) {
+                worlds.remove(worldId);
+                problems.add("Hardcore world '" + worldId + "' has no dimensions of its own");
+                return this;
+            }
+            worlds.put(worldId, List.copyOf(names));
+            return this;
+        }
+
+        public Builder remove(String worldId) {
+            List<String> names = worlds.remove(worldId);
+            if (names != null) {
+                for (String dimensionName : names) {
+                    dimensions.remove(dimensionName);
+                }
+            }
+            return this;
+        }
+
+        public Layout build() {
+            return new Layout(
+                    Map.copyOf(dimensions),
+                    Collections.unmodifiableMap(new LinkedHashMap<>(worlds)),
+                    List.copyOf(problems));
+        }
+    }
+
+    /**
+     * Current definitions; written on the main thread, readable from any.
+     */
+    private volatile Layout layout = Layout.EMPTY;
+
+    /**
+     * Alive/dead counts per hardcore world id, updated by the mark* methods.
+     */
+    private final WorldPopulation population = new WorldPopulation();
+
+    /**
+     * Thread-safe visited/dead copy for {@link IndexedQueryService}.
+     */
+    private final PlayerStatusIndex statusIndex = new PlayerStatusIndex();
+
+    /**
+     * Players with a death in any dimension; checked before everything else.
+     */
+    private final DeathFilter deathFilter = new DeathFilter();
+
+    public void clear() {
+        replaceLayout(Layout.EMPTY);
+    }
+
+    public void register(String worldId, List<String> dimensionNames, HardcoreWorldSettings settings) {
+        if (worldId == null || worldId.isBlank()) {
+            return;
+        }
+        replaceLayout(layout.toBuilder().add(worldId, dimensionNames, settings).build());
+    }
+
+    public void unregister(String worldId) {
+        if (worldId == null || !layout.worlds.containsKey(worldId)) {
+            return;
+        }
+        replaceLayout(layout.toBuilder().remove(worldId).build());
+        population.forget(worldId);
+        statusIndex.forgetWorld(worldId);
+    }
+
+    /**
+     * Publish a new set of worlds in one step (main thread). Per-player
+     * counts are not recomputed; follow with {@link #rebuildPlayerIndexes}
+     * once player data is loaded.
+     */
+    public void replaceLayout(Layout newLayout) {
+        layout = newLayout;
+        statusIndex.setWorldIds(newLayout.worlds.keySet());
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookups
+    // ------------------------------------------------------------------------
+
+    public boolean isHardcoreDimension(String dimensionName) {
+        return dimensionName != null && layout.dimensions.containsKey(dimensionName);
+    }
+
+    public HardcoreWorldSettings getSettings(String dimensionName) {
+        return dimensionName != null ? layout.dimensions.get(dimensionName) : null;
+    }
+
+    /**
+     * Settings of a registered hardcore world, or null.
+     */
+    public HardcoreWorldSettings getWorldSettings(String worldId) {
+        Layout current = layout;
+        List<String> names = worldId != null ? current.worlds.get(worldId) : null;
+        return names != null && !names.isEmpty() ? current.dimensions.get(names.get(0)) : null;
+    }
+
+    /**
+     * Given a dimension name (Bukkit world), return the hardcore world id.
+     */
+    public String getWorldId(String dimensionName) {
+        HardcoreWorldSettings settings = getSettings(dimensionName);
+        return settings != null ? settings.getWorldName() : null;
+    }
+
+    /**
+     * Given a hardcore world id, return all its backing dimension names.
+     * Unknown ids are treated as a legacy single-dimension world.
+     */
+    public List<String> getDimensionNames(String worldId) {
+        if (worldId == null || worldId.isBlank()) {
+            return List.of();
+        }
+        List<String> names = layout.worlds.get(worldId);
+        return names != null ? names : List.of(worldId);
+    }
+
+    public Set<String> getDimensionNames() {
+        return layout.getDimensionNames();
+    }
+
+    public Set<String> getWorldIds() {
+        return layout.getWorldIds();
+    }
+
+    public WorldPopulation getPopulation() {
+        return population;
+    }
+
+    public DeathFilter getDeathFilter() {
+        return deathFilter;
+    }
+
+    PlayerStatusIndex getStatusIndex() {
+        return statusIndex;
+    }
+
+    // ------------------------------------------------------------------------
+    // Player state across a hardcore world's dimensions
+    // ------------------------------------------------------------------------
+
+    /**
+     * Has the player died in the hardcore world that owns this dimension
+     * (in any of its dimensions)?
+     */
+    public boolean hasDiedInWorld(HardcoreDataStorage storage, UUID playerId, String dimensionName) {
+        // Most players have never died anywhere
+        if (!deathFilter.mightContain(playerId)) return false;
+
+        String worldId = getWorldId(dimensionName);
+        if (worldId == null) return false;
+
+        for (String dimName : getDimensionNames(worldId)) {
+            if (storage.isPlayerDeadInWorld(playerId, dimName)) {
+                return true;
+            }
+        }
+        if (!storage.hasDiedAnywhere(playerId)) {
+            deathFilter.recordFalsePositive();
+        }
+        return false;
+    }
+
+    /**
+     * Mark the player dead in every dimension of the hardcore world that owns
+     * this dimension. Does nothing for non-hardcore dimensions.
+     */
+    public void markDeadInWorld(HardcoreDataStorage storage, UUID playerId, String dimensionName) {
+        String worldId = getWorldId(dimensionName);
+        if (worldId == null) return;
+
+        boolean wasDead = hasDiedInWorld(storage, playerId, dimensionName);
+        boolean wasVisitor = hasVisitedWorld(storage, playerId, worldId);
+
+        for (String dimName : getDimensionNames(worldId)) {
+            storage.markPlayerDeadInWorld(playerId, dimName);
+        }
+        deathFilter.add(playerId);
+        if (deathFilter.isOverCapacity()) {
+            rebuildDeathFilter(storage);
+        }
+
+        if (!wasDead) {
+            population.died(worldId, wasVisitor);
+            statusIndex.markDead(playerId, worldId);
+        }
+    }
+
+    /**
+     * Mark the player as a visitor of every dimension of the hardcore world
+     * that owns this dimension. Does nothing for non-hardcore dimensions.
+     */
+    public void markVisitedWorld(HardcoreDataStorage storage, UUID playerId, String dimensionName) {
+        String worldId = getWorldId(dimensionName);
+        if (worldId == null) return;
+
+        boolean wasVisitor = hasVisitedWorld(storage, playerId, worldId);
+
+        for (String dimName : getDimensionNames(worldId)) {
+            storage.markPlayerVisitedWorld(playerId, dimName);
+        }
+
+        if (!wasVisitor) {
+            statusIndex.markVisited(playerId, worldId);
+            if (!hasDiedInWorld(storage, playerId, dimensionName)) {
+                population.firstVisit(worldId);
+            }
+        }
+    }
+
+    /**
+     * O(1) point-in-time copy of all visited / dead marks for off-thread
+     * readers (main thread). Close it when done.
+     */
+    public StateSnapshot snapshot() {
+        return statusIndex.snapshot();
+    }
+
+    /**
+     * Marks added or removed since startup; lets callers tell whether
+     * anything changed without taking a snapshot (main thread).
+     */
+    public long getChangeCount() {
+        return statusIndex.changeCount();
+    }
+
+    /**
+     * Rebuild the per-world alive/dead counts, the status index and the
+     * death filter from storage in one pass over all players (after loading
+     * player data, reloading the config or removing players).
+     */
+    public void rebuildPlayerIndexes(HardcoreDataStorage storage) {
+        Set<String> worldIds = layout.getWorldIds();
+        Map<String, int[]> counts = new HashMap<>();
+        for (String worldId : worldIds) {
+            counts.put(worldId, new int[2]);
+        }
+        Map<UUID, Set<String>> visitedByPlayer = new HashMap<>();
+        Map<UUID, Set<String>> deadByPlayer = new HashMap<>();
+        List<UUID> diedAnywhere = new ArrayList<>();
+
+        storage.forEachPlayer(state -> {
+            // Any stored death, even in dimensions not registered (yet)
+            if (!state.getDeadWorlds().isEmpty()) {
+                diedAnywhere.add(state.getPlayerId());
+            }
+            Set<String> visited = toWorldIds(state.getVisitedWorlds());
+            Set<String> dead = toWorldIds(state.getDeadWorlds());
+            if (!visited.isEmpty()) {
+                visitedByPlayer.put(state.getPlayerId(), visited);
+            }
+            if (!dead.isEmpty()) {
+                deadByPlayer.put(state.getPlayerId(), dead);
+            }
+
+            for (String worldId : dead) {
+                counts.get(worldId)[1]++;
+            }
+            for (String worldId : visited) {
+                if (!dead.contains(worldId)) {
+                    counts.get(worldId)[0]++;
+                }
+            }
+        });
+
+        population.retainOnly(worldIds);
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            population.set(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+        }
+        statusIndex.replaceAll(visitedByPlayer, deadByPlayer);
+        deathFilter.rebuild(diedAnywhere);
+    }
+
+    private void rebuildDeathFilter(HardcoreDataStorage storage) {
+        List<UUID> diedAnywhere = new ArrayList<>();
+        storage.forEachPlayer(state -> {
+            if (!state.getDeadWorlds().isEmpty()) {
+                diedAnywhere.add(state.getPlayerId());
+            }
+        });
+        deathFilter.rebuild(diedAnywhere);
+    }
+
+    /**
+     * Registered hardcore world ids owning any of these dimensions.
+     */
+    private Set<String> toWorldIds(Set<String> dimensionNames) {
+        if (dimensionNames.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> result = new HashSet<>();
+        for (String dimensionName : dimensionNames) {
+            String worldId = getWorldId(dimensionName);
+            if (worldId != null) {
+                result.add(worldId);
+            }
+        }
+        return result;
+    }
+
+    private boolean hasVisitedWorld(HardcoreDataStorage storage, UUID playerId, String worldId) {
+        for (String dimName : getDimensionNames(worldId)) {
+            if (storage.hasPlayerVisitedWorld(playerId, dimName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Has every visitor of this hardcore world died in it?
+     */
+    public boolean isFullyDead(HardcoreDataStorage storage, String worldId, String hubWorldName) {
+        if (worldId == null || worldId.isBlank()) {
+            return false;
+        }
+        Set<String> dimensionsInWorld = new HashSet<>(getDimensionNames(worldId));
+        return !storage.findCullableWorlds(dimensionsInWorld, hubWorldName).isEmpty();
+    }
+
+    /**
+     * Hardcore world ids with at least one dimension where every visitor died.
+     */
+    public Set<String> findCullableWorlds(HardcoreDataStorage storage, String hubWorldName) {
+        Layout current = layout;
+        Set<String> dimensionCandidates = storage.findCullableWorlds(current.getDimensionNames(), hubWorldName);
+        if (dimensionCandidates.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new HashSet<>();
+        for (Map.Entry<String, List<String>> entry : current.worlds.entrySet()) {
+            for (String dimensionName : entry.getValue()) {
+                if (dimensionCandidates.contains(dimensionName)) {
+                    result.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import com.kylekriskovich.perworldhardcore.api.HardcoreQueryService;
+import com.kylekriskovich.perworldhardcore.api.WorldStatus;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * {@link HardcoreQueryService} backed by the registry's {@link PlayerStatusIndex}.
+ * <p>
+ * Single-player lookups are a couple of hash lookups and complete on the
+ * calling thread; bulk lookups run on {@code asyncExecutor}. Queries made
+ * before player data has loaded wait for it on {@code asyncExecutor}.
+ */
+public class IndexedQueryService implements HardcoreQueryService {
+
+    private final PlayerStatusIndex index;
+    private final Executor asyncExecutor;
+
+    public IndexedQueryService(HardcoreWorldRegistry registry, Executor asyncExecutor) {
+        this.index = registry.getStatusIndex();
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> getHardcoreWorlds() {
+        return query(false, index::worldIds);
+    }
+
+    @Override
+    public CompletableFuture<WorldStatus> getStatus(UUID playerId, String worldId) {
+        return query(false, () -> index.status(playerId, worldId));
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, WorldStatus>> getStatuses(Collection<UUID> playerIds, String worldId) {
+        List<UUID> ids = List.copyOf(playerIds);
+        return query(true, () -> {
+            Map<UUID, WorldStatus> result = new HashMap<>(ids.size() * 2);
+            for (UUID id : ids) {
+                result.put(id, index.status(id, worldId));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, WorldStatus>> getStatuses(UUID playerId) {
+        return query(false, () -> {
+            Map<String, WorldStatus> result = new HashMap<>();
+            for (String worldId : index.worldIds()) {
+                result.put(worldId, index.status(playerId, worldId));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, Set<String>>> getAliveWorlds(Collection<UUID> playerIds) {
+        List<UUID> ids = List.copyOf(playerIds);
+        return query(true, () -> {
+            Map<UUID, Set<String>> result = new HashMap<>(ids.size() * 2);
+            for (UUID id : ids) {
+                result.put(id, index.aliveWorlds(id));
+            }
+            return result;
+        });
+    }
+
+    private <T> CompletableFuture<T> query(boolean bulk, Supplier<T> lookup) {
+        if (!index.ready().isDone()) {
+            return index.ready().thenApplyAsync(ignored -> lookup.get(), asyncExecutor);
+        }
+        if (bulk) {
+            return CompletableFuture.supplyAsync(lookup, asyncExecutor);
+        }
+        return CompletableFuture.completedFuture(lookup.get());
+    }
+}
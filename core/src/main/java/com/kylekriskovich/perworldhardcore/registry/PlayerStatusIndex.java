@@ -0,0 +1,200 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import com.kylekriskovich.perworldhardcore.api.WorldStatus;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe copy of who visited / died in which hardcore world, at world
+ * id level. Written on the main thread by {@link HardcoreWorldRegistry},
+ * read from any thread by {@link IndexedQueryService} and {@link StateSnapshot}.
+ * <p>
+ * Per-player entries are immutable and replaced whole, so readers never see
+ * a half-applied update; a full rebuild swaps in a new map.
+ * <p>
+ * Entries carry the version they were written at. {@link #snapshot()} pins
+ * the current version in O(1); while it is pinned, replacing an entry keeps
+ * the pinned-time entry as {@code previous}, so the snapshot can still read
+ * the state as of the pin. At most one older entry is kept per player.
+ */
+final class PlayerStatusIndex {
+
+    record Entry(Set<String> visited, Set<String> dead, long version, Entry previous) {
+        static final Entry EMPTY = new Entry(Set.of(), Set.of(), 0L, null);
+    }
+
+    private volatile Map<UUID, Entry> players = new ConcurrentHashMap<>();
+    private volatile Set<String> worldIds = Set.of();
+
+    /**
+     * Version new entries are written at; main thread only.
+     */
+    private long version = 1;
+
+    /**
+     * Version pinned by the open snapshot, or -1. Set on the main thread,
+     * cleared by whichever thread closes the snapshot.
+     */
+    private volatile long pinned = -1;
+
+    /**
+     * Number of changes to visited/dead marks since start; main thread only.
+     */
+    private long changes;
+
+    /**
+     * Completed by the first {@link #replaceAll}, i.e. once player data has loaded.
+     */
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    // ------------------------------------------------------------------------
+    // Writes (main thread)
+    // ------------------------------------------------------------------------
+
+    void setWorldIds(Set<String> ids) {
+        worldIds = Set.copyOf(ids);
+    }
+
+    void markVisited(UUID playerId, String worldId) {
+        update(playerId, current -> current.visited.contains(worldId)
+                ? current
+                : successor(current, plus(current.visited, worldId), current.dead));
+    }
+
+    void markDead(UUID playerId, String worldId) {
+        update(playerId, current -> current.dead.contains(worldId)
+                ? current
+                : successor(current, current.visited, plus(current.dead, worldId)));
+    }
+
+    void forgetWorld(String worldId) {
+        for (UUID playerId : players.keySet()) {
+            update(playerId, current -> current.visited.contains(worldId) || current.dead.contains(worldId)
+                    ? successor(current, minus(current.visited, worldId), minus(current.dead, worldId))
+                    : current);
+        }
+    }
+
+    /**
+     * Swap in a freshly built index: player → {visited world ids, dead world ids}.
+     */
+    void replaceAll(Map<UUID, Set<String>> visited, Map<UUID, Set<String>> dead) {
+        // An open snapshot keeps reading the old map, which is not written again
+        long at = version;
+        Map<UUID, Entry> rebuilt = new ConcurrentHashMap<>();
+        Set<UUID> ids = new HashSet<>(visited.keySet());
+        ids.addAll(dead.keySet());
+        for (UUID id : ids) {
+            rebuilt.put(id, new Entry(
+                    Set.copyOf(visited.getOrDefault(id, Set.of())),
+                    Set.copyOf(dead.getOrDefault(id, Set.of())),
+                    at,
+                    null));
+        }
+        players = rebuilt;
+        changes++;
+        ready.complete(null);
+    }
+
+    long changeCount() {
+        return changes;
+    }
+
+    /**
+     * Point-in-time view of the index; O(1) on the calling (main) thread.
+     * Only one snapshot may be open at a time.
+     */
+    StateSnapshot snapshot() {
+        if (pinned >= 0) {
+            throw new IllegalStateException("A state snapshot is already open");
+        }
+        long at = version++;
+        pinned = at;
+        return new StateSnapshot(this, players, worldIds, at, System.currentTimeMillis());
+    }
+
+    void release(long snapshotVersion) {
+        if (pinned == snapshotVersion) {
+            pinned = -1;
+        }
+    }
+
+    private void update(UUID playerId, UnaryOperator<Entry> change) {
+        players.compute(playerId, (id, entry) -> {
+            Entry current = entry != null ? entry : Entry.EMPTY;
+            Entry next = change.apply(current);
+            if (next != current) {
+                changes++;
+            }
+            return next == Entry.EMPTY ? null : next;
+        });
+    }
+
+    private Entry successor(Entry current, Set<String> visited, Set<String> dead) {
+        long snapshotVersion = pinned;
+        Entry previous = null;
+        if (snapshotVersion >= 0) {
+            // Keep exactly the entry the open snapshot sees (null if the player is newer than it)
+            previous = current.version <= snapshotVersion
+                    ? (current == Entry.EMPTY ? null : new Entry(current.visited, current.dead, current.version, null))
+                    : current.previous;
+        }
+        return new Entry(visited, dead, version, previous);
+    }
+
+    // ------------------------------------------------------------------------
+    // Reads (any thread)
+    // ------------------------------------------------------------------------
+
+    Set<String> worldIds() {
+        return worldIds;
+    }
+
+    WorldStatus status(UUID playerId, String worldId) {
+        Entry entry = playerId != null ? players.get(playerId) : null;
+        if (entry == null || worldId == null) {
+            return WorldStatus.NEVER_VISITED;
+        }
+        if (entry.dead.contains(worldId)) {
+            return WorldStatus.DEAD;
+        }
+        return entry.visited.contains(worldId) ? WorldStatus.ALIVE : WorldStatus.NEVER_VISITED;
+    }
+
+    Set<String> aliveWorlds(UUID playerId) {
+        Entry entry = playerId != null ? players.get(playerId) : null;
+        if (entry == null) {
+            return Set.of();
+        }
+        Set<String> registered = worldIds;
+        Set<String> alive = new HashSet<>();
+        for (String worldId : entry.visited) {
+            if (!entry.dead.contains(worldId) && registered.contains(worldId)) {
+                alive.add(worldId);
+            }
+        }
+        return Set.copyOf(alive);
+    }
+
+    private static Set<String> plus(Set<String> set, String value) {
+        Set<String> copy = new HashSet<>(set);
+        copy.add(value);
+        return Set.copyOf(copy);
+    }
+
+    private static Set<String> minus(Set<String> set, String value) {
+        if (!set.contains(value)) {
+            return set;
+        }
+        Set<String> copy = new HashSet<>(set);
+        copy.remove(value);
+        return Set.copyOf(copy);
+    }
+}
@@ -0,0 +1,71 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Consistent view of every player's visited / dead hardcore worlds at one
+ * moment, taken on the main thread by {@link HardcoreWorldRegistry#snapshot()}
+ * and readable from any thread while the server keeps changing state.
+ * <p>
+ * Must be closed once read: while it is open, each player changed since
+ * keeps one extra entry in memory, and no other snapshot can be taken.
+ */
+public final class StateSnapshot implements AutoCloseable {
+
+    public interface PlayerVisitor {
+        /**
+         * @param visited hardcore world ids the player has entered
+         * @param dead    hardcore world ids the player has died in
+         */
+        void visit(UUID playerId, Set<String> visited, Set<String> dead);
+    }
+
+    private final PlayerStatusIndex index;
+    private final Map<UUID, PlayerStatusIndex.Entry> players;
+    private final Set<String> worldIds;
+    private final long version;
+    private final long takenMillis;
+
+    StateSnapshot(PlayerStatusIndex index, Map<UUID, PlayerStatusIndex.Entry> players,
+                  Set<String> worldIds, long version, long takenMillis) {
+        this.index = index;
+        this.players = players;
+        this.worldIds = worldIds;
+        this.version = version;
+        this.takenMillis = takenMillis;
+    }
+
+    public long getTakenMillis() {
+        return takenMillis;
+    }
+
+    /**
+     * Hardcore world ids registered when the snapshot was taken.
+     */
+    public Set<String> getWorldIds() {
+        return worldIds;
+    }
+
+    /**
+     * Every player with at least one mark, as of the snapshot.
+     */
+    public void forEachPlayer(PlayerVisitor visitor) {
+        for (Map.Entry<UUID, PlayerStatusIndex.Entry> mapping : players.entrySet()) {
+            PlayerStatusIndex.Entry entry = mapping.getValue();
+            if (entry.version() > version) {
+                // Changed after the snapshot; previous is null for players added since
+                entry = entry.previous();
+            }
+            if (entry != null && !(entry.visited().isEmpty() && entry.dead().isEmpty())) {
+                visitor.visit(mapping.getKey(), entry.visited(), entry.dead());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        index.release(version);
+    }
+}
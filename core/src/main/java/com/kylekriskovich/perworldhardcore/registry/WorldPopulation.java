@@ -0,0 +1,83 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import java.util.*;
+
+/**
+ * Alive / dead player counts per hardcore world id, kept up to date by
+ * {@link HardcoreWorldRegistry} on every first visit and death so reading
+ * them never scans player data.
+ * <p>
+ * Alive: visited the world and has not died there. Dead: died there.
+ * Worlds whose counts changed are collected until {@link #drainChanged()}
+ * so displays can update once per tick at most.
+ */
+public class WorldPopulation {
+
+    private final Map<String, int[]> counts = new HashMap<>();
+    private final Set<String> changed = new LinkedHashSet<>();
+
+    public int getAlive(String worldId) {
+        int[] c = worldId != null ? counts.get(worldId) : null;
+        return c != null ? c[0] : 0;
+    }
+
+    public int getDead(String worldId) {
+        int[] c = worldId != null ? counts.get(worldId) : null;
+        return c != null ? c[1] : 0;
+    }
+
+    /**
+     * World ids whose counts changed since the last call.
+     */
+    public Set<String> drainChanged() {
+        if (changed.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new LinkedHashSet<>(changed);
+        changed.clear();
+        return result;
+    }
+
+    // ------------------------------------------------------------------------
+    // Updates (registry only)
+    // ------------------------------------------------------------------------
+
+    void set(String worldId, int alive, int dead) {
+        int[] c = counts.computeIfAbsent(worldId, k -> new int[2]);
+        if (c[0] != alive || c[1] != dead) {
+            c[0] = alive;
+            c[1] = dead;
+            changed.add(worldId);
+        }
+    }
+
+    void firstVisit(String worldId) {
+        counts.computeIfAbsent(worldId, k -> new int[2])[0]++;
+        changed.add(worldId);
+    }
+
+    void died(String worldId, boolean wasAlive) {
+        int[] c = counts.computeIfAbsent(worldId, k -> new int[2]);
+        if (wasAlive && c[0] > 0) {
+            c[0]--;
+        }
+        c[1]++;
+        changed.add(worldId);
+    }
+
+    void forget(String worldId) {
+        if (counts.remove(worldId) != null) {
+            changed.add(worldId);
+        }
+    }
+
+    void retainOnly(Set<String> worldIds) {
+        for (Iterator<String> it = counts.keySet().iterator(); it.hasNext(); ) {
+            String worldId = it.next();
+            if (!worldIds.contains(worldId)) {
+                it.remove();
+                changed.add(worldId);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.kylekriskovich.perworldhardcore.season;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * Five-field cron expression: {@code minute hour day-of-month month day-of-week}.
+ * Fields take {@code *}, numbers, ranges ({@code 1-5}), lists ({@code 1,15})
+ * and steps ({@code *}{@code /15}, {@code 0-30/10}); day-of-week is 0-7 with
+ * both 0 and 7 meaning Sunday. {@code @weekly}, {@code @daily},
+ * {@code @hourly} and {@code @monthly} are accepted too.
+ * <p>
+ * As in cron, if both day fields are restricted a day matches either.
+ */
+public final class CronSchedule {
+
+    /**
+     * A year of minutes; enough to find any valid schedule.
+     */
+    private static final int MAX_STEPS = 366 * 24 * 60;
+
+    private final String expression;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    private CronSchedule(String expression, String[] fields) {
+        this.expression = expression;
+        this.minutes = parseField(fields[0], 0, 59, "minute");
+        this.hours = parseField(fields[1], 0, 23, "hour");
+        this.daysOfMonth = parseField(fields[2], 1, 31, "day of month");
+        this.months = parseField(fields[3], 1, 12, "month");
+        BitSet dow = parseField(fields[4], 0, 7, "day of week");
+        if (dow.get(7)) {
+            dow.set(0);
+        }
+        this.daysOfWeek = dow;
+        this.anyDayOfMonth = fields[2].equals("*");
+        this.anyDayOfWeek = fields[4].equals("*");
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static CronSchedule parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Empty schedule");
+        }
+        String trimmed = expression.trim();
+        String expanded;
+        switch (trimmed.toLowerCase(Locale.ROOT)) {
+            case "@hourly":
+                expanded = "0 * * * *";
+                break;
+            case "@daily":
+                expanded = "0 0 * * *";
+                break;
+            case "@weekly":
+                expanded = "0 0 * * 0";
+                break;
+            case "@monthly":
+                expanded = "0 0 1 * *";
+                break;
+            default:
+                expanded = trimmed;
+        }
+        String[] fields = expanded.split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Schedule '" + expression + "' needs 5 fields, has " + fields.length);
+        }
+        return new CronSchedule(expression, fields);
+    }
+
+    /**
+     * First matching minute strictly after {@code after}.
+     *
+     * @throws IllegalStateException if nothing matches within a year (e.g. 31 February)
+     */
+    public ZonedDateTime next(ZonedDateTime after) {
+        ZonedDateTime time = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        for (int i = 0; i < MAX_STEPS; i++) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.withDayOfMonth(1).withHour(0).withMinute(0).plusMonths(1);
+                continue;
+            }
+            if (!dayMatches(time)) {
+                time = time.withHour(0).withMinute(0).plusDays(1);
+                continue;
+            }
+            if (!hours.get(time.getHour())) {
+                time = time.withMinute(0).plusHours(1);
+                continue;
+            }
+            if (!minutes.get(time.getMinute())) {
+                time = time.plusMinutes(1);
+                continue;
+            }
+            return time;
+        }
+        throw new IllegalStateException("Schedule '" + expression + "' never fires");
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private boolean dayMatches(ZonedDateTime time) {
+        boolean dom = daysOfMonth.get(time.getDayOfMonth());
+        boolean dow = daysOfWeek.get(time.getDayOfWeek().getValue() % 7);
+        if (anyDayOfMonth || anyDayOfWeek) {
+            return dom && dow;
+        }
+        return dom || dow;
+    }
+
+    private static BitSet parseField(String field, int min, int max, String name) {
+        BitSet result = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseNumber(part.substring(slash + 1), 1, max, name);
+                part = part.substring(0, slash);
+            }
+
+            int from;
+            int to;
+            if (part.equals("*")) {
+                from = min;
+                to = max;
+            } else if (part.indexOf('-') > 0) {
+                int dash = part.indexOf('-');
+                from = parseNumber(part.substring(0, dash), min, max, name);
+                to = parseNumber(part.substring(dash + 1), min, max, name);
+                if (to < from) {
+                    throw new IllegalArgumentException("Bad " + name + " range '" + part + "'");
+                }
+            } else {
+                from = parseNumber(part, min, max, name);
+                to = slash >= 0 ? max : from;
+            }
+
+            for (int value = from; value <= to; value += step) {
+                result.set(value);
+            }
+        }
+        return result;
+    }
+
+    private static int parseNumber(String text, int min, int max, String name) {
+        try {
+            int value = Integer.parseInt(text);
+            if (value < min || value > max) {
+                throw new IllegalArgumentException(name + " " + value + " is outside " + min + "-" + max);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad " + name + " '" + text + "'");
+        }
+    }
+}
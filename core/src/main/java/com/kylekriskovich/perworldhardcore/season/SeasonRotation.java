@@ -0,0 +1,234 @@
+package com.kylekriskovich.perworldhardcore.season;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decides what a seasonal rotation of hardcore worlds should do next; the
+ * plugin carries the steps out and reports back.
+ * <ol>
+ *   <li>{@link Step#PREPARE}: create the next season's world ahead of the
+ *   boundary, preferably during off-peak hours.</li>
+ *   <li>{@link Step#ACTIVATE}: at the boundary, make the prepared world the
+ *   active one.</li>
+ *   <li>{@link Step#RETIRE}: during off-peak hours, remove seasons beyond
+ *   the newest {@code keepLast}, oldest first.</li>
+ * </ol>
+ * The first season starts as soon as the rotation first runs. Missed
+ * boundaries (server offline) collapse into one.
+ * <p>
+ * Not thread-safe; the plugin uses it on the main thread.
+ */
+public final class SeasonRotation {
+
+    /**
+     * If the world has not been prepared off-peak, prepare it anyway this
+     * long before the boundary.
+     */
+    private static final long LAST_CHANCE_MILLIS = 30 * 60_000L;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd", Locale.ROOT);
+
+    public enum Step {
+        PREPARE, ACTIVATE, RETIRE
+    }
+
+    /**
+     * @param worldId hardcore world id the step applies to
+     */
+    public record Action(Step step, String worldId) {
+    }
+
+    /**
+     * Off-peak hours, e.g. 02:00-06:00; may wrap past midnight. Null bounds
+     * mean always off-peak.
+     */
+    public record Window(LocalTime start, LocalTime end) {
+
+        public static final Window ALWAYS = new Window(null, null);
+
+        /**
+         * @param text {@code HH:mm-HH:mm}, or blank for {@link #ALWAYS}
+         */
+        public static Window parse(String text) {
+            if (text == null || text.isBlank()) {
+                return ALWAYS;
+            }
+            String[] parts = text.trim().split("-");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Off-peak window '" + text + "' is not HH:mm-HH:mm");
+            }
+            try {
+                return new Window(LocalTime.parse(parts[0].trim()), LocalTime.parse(parts[1].trim()));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Off-peak window '" + text + "' is not HH:mm-HH:mm");
+            }
+        }
+
+        public boolean contains(LocalTime time) {
+            if (start == null || end == null) {
+                return true;
+            }
+            return start.isBefore(end)
+                    ? !time.isBefore(start) && time.isBefore(end)
+                    : !time.isBefore(start) || time.isBefore(end);
+        }
+    }
+
+    /**
+     * Persisted progress.
+     *
+     * @param season       number of the active season (0 before the first)
+     * @param active       active world id, or null
+     * @param prepared     world created for the next season, or null
+     * @param nextBoundary epoch millis the next season starts (0 = right away)
+     * @param seasons      world ids created by the rotation and not retired, oldest first
+     */
+    public record State(int season, String active, String prepared, long nextBoundary, List<String> seasons) {
+
+        public static final State INITIAL = new State(0, null, null, 0L, List.of());
+
+        public State {
+            seasons = List.copyOf(seasons);
+        }
+    }
+
+    private final CronSchedule schedule;
+    private final String namePattern;
+    private final int keepLast;
+    private final long prepareAheadMillis;
+    private final Window offPeak;
+    private final ZoneId zone;
+
+    private State state;
+
+    /**
+     * @param namePattern        world id with {@code {n}} (season number) and/or {@code {date}}
+     *                           (yyyy-MM-dd the season starts)
+     * @param keepLast           seasons kept, including the active one
+     * @param prepareAheadMillis how long before the boundary the next world may be created
+     */
+    public SeasonRotation(CronSchedule schedule,
+                          String namePattern,
+                          int keepLast,
+                          long prepareAheadMillis,
+                          Window offPeak,
+                          ZoneId zone,
+                          State state) {
+        if (!namePattern.contains("{n}") && !namePattern.contains("{date}")) {
+            throw new IllegalArgumentException("Season name pattern '" + namePattern + "' needs {n} or {date}");
+        }
+        this.schedule = schedule;
+        this.namePattern = namePattern;
+        this.keepLast = Math.max(1, keepLast);
+        this.prepareAheadMillis = Math.max(0L, prepareAheadMillis);
+        this.offPeak = offPeak;
+        this.zone = zone;
+        this.state = state;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public CronSchedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * World id the next season will use.
+     */
+    public String nextWorldId() {
+        return worldId(state.season() + 1, state.nextBoundary());
+    }
+
+    public boolean isOffPeak(long nowMillis) {
+        return offPeak.contains(ZonedDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), zone).toLocalTime());
+    }
+
+    /**
+     * What to do now, or null if nothing is due.
+     */
+    public Action next(long nowMillis) {
+        if (state.nextBoundary() == 0L) {
+            // First run: the first season starts now
+            state = new State(state.season(), state.active(), state.prepared(), nowMillis, state.seasons());
+        }
+        long boundary = state.nextBoundary();
+        if (state.prepared() == null) {
+            long prepareFrom = boundary - prepareAheadMillis;
+            boolean due = nowMillis >= boundary - LAST_CHANCE_MILLIS
+                    || (nowMillis >= prepareFrom && isOffPeak(nowMillis));
+            return due ? new Action(Step.PREPARE, nextWorldId()) : retireCandidate(nowMillis);
+        }
+        if (nowMillis >= boundary) {
+            return new Action(Step.ACTIVATE, state.prepared());
+        }
+        return retireCandidate(nowMillis);
+    }
+
+    /**
+     * Start the next season now instead of at the boundary; it still needs
+     * to be prepared first.
+     */
+    public void advanceNow(long nowMillis) {
+        state = new State(state.season(), state.active(), state.prepared(),
+                Math.min(state.nextBoundary(), nowMillis), state.seasons());
+    }
+
+    public void prepared(String worldId) {
+        List<String> seasons = new ArrayList<>(state.seasons());
+        if (!seasons.contains(worldId)) {
+            seasons.add(worldId);
+        }
+        state = new State(state.season(), state.active(), worldId, state.nextBoundary(), seasons);
+    }
+
+    public void activated(String worldId, long nowMillis) {
+        long after = Math.max(nowMillis, state.nextBoundary());
+        long next = schedule.next(ZonedDateTime.ofInstant(Instant.ofEpochMilli(after), zone))
+                .toInstant().toEpochMilli();
+        state = new State(state.season() + 1, worldId, null, next, state.seasons());
+    }
+
+    /**
+     * The world is gone, whether retired by the rotation or removed by hand.
+     */
+    public void retired(String worldId) {
+        List<String> seasons = new ArrayList<>(state.seasons());
+        seasons.remove(worldId);
+        state = new State(state.season(),
+                worldId.equals(state.active()) ? null : state.active(),
+                worldId.equals(state.prepared()) ? null : state.prepared(),
+                state.nextBoundary(),
+                seasons);
+    }
+
+    private Action retireCandidate(long nowMillis) {
+        List<String> seasons = state.seasons();
+        int retained = state.prepared() != null ? keepLast + 1 : keepLast;
+        if (seasons.size() <= retained || !isOffPeak(nowMillis)) {
+            return null;
+        }
+        for (int i = 0; i < seasons.size() - retained; i++) {
+            String worldId = seasons.get(i);
+            if (!worldId.equals(state.active()) && !worldId.equals(state.prepared())) {
+                return new Action(Step.RETIRE, worldId);
+            }
+        }
+        return null;
+    }
+
+    private String worldId(int season, long startMillis) {
+        ZonedDateTime start = ZonedDateTime.ofInstant(Instant.ofEpochMilli(Math.max(0L, startMillis)), zone);
+        return namePattern
+                .replace("{n}", String.valueOf(season))
+                .replace("{date}", DATE.format(start));
+    }
+}
@@ -0,0 +1,529 @@
+package com.kylekriskovich.perworldhardcore.storage;
+
+import com.kylekriskovich.perworldhardcore.jfr.StorageLoadEvent;
+import com.kylekriskovich.perworldhardcore.jfr.StorageSaveEvent;
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dead/visited state per player, persisted through a {@link PlayerDataBackend}.
+ * <p>
+ * Not thread-safe: everything except the backend load runs on the thread
+ * behind {@code mainThreadExecutor} (the server thread in the plugin).
+ */
+public class HardcoreDataStorage {
+
+    private final PlayerDataBackend backend;
+    private final Executor asyncExecutor;
+    private final Executor mainThreadExecutor;
+    private final Logger logger;
+    private final MetricsRegistry metrics;
+
+    /**
+     * All per-player state lives here.
+     * Note: in this storage layer, "worldName" refers to the underlying
+     * Bukkit world name (i.e. a single dimension such as "hc-1_nether").
+     * The plugin layer is responsible for grouping these into hardcore worlds.
+     */
+    private final Map<UUID, PlayerWorldState> players = new HashMap<>();
+
+    /**
+     * Set when in-memory state differs from the backend. The actual write is
+     * scheduled by {@link #flush()} so it can be spread away from world saves.
+     */
+    private boolean dirty;
+
+    /**
+     * Set by a new death mark. Deaths are written on the next tick rather than
+     * batched with visits: a mark lost in a crash lets the player back in.
+     */
+    private boolean unsavedDeaths;
+
+    /**
+     * Stored state is loaded off the main thread; until the result has been merged
+     * in, lookups only see state recorded since startup and nothing is written.
+     */
+    private CompletableFuture<Map<UUID, PlayerWorldState>> pendingLoad;
+    private boolean loaded;
+
+    /**
+     * Set when the last load attempt failed; cleared by the next {@link #init}.
+     */
+    private boolean loadFailed;
+
+    private StorageChangeListener changeListener;
+
+    /**
+     * Players changed since the last {@link #drainBackupChanges()}, for
+     * incremental backups; null until {@link #startBackupTracking()}.
+     */
+    private Set<UUID> backupChanges;
+
+    public HardcoreDataStorage(PlayerDataBackend backend,
+                               Executor asyncExecutor,
+                               Executor mainThreadExecutor,
+                               Logger logger) {
+        this(backend, asyncExecutor, mainThreadExecutor, logger, new MetricsRegistry());
+    }
+
+    /**
+     * Records storage_load / storage_save timers, storage_saves and
+     * storage_bytes_written counters and the players_tracked gauge.
+     */
+    public HardcoreDataStorage(PlayerDataBackend backend,
+                               Executor asyncExecutor,
+                               Executor mainThreadExecutor,
+                               Logger logger,
+                               MetricsRegistry metrics) {
+        this.backend = backend;
+        this.asyncExecutor = asyncExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    // -----------------------------------------------------------------------
+    // Lifecycle
+    // -----------------------------------------------------------------------
+
+    /**
+     * Load stored state on {@code asyncExecutor} and merge it in on the main
+     * thread, then run {@code onLoaded} (also on the main thread).
+     */
+    public void init(Runnable onLoaded) {
+        init(onLoaded, () -> {
+        });
+    }
+
+    /**
+     * Like {@link #init(Runnable)}, but run {@code onLoadFailed} on the main
+     * thread if the backend cannot be read. Nothing is saved until a later
+     * call succeeds, so a failed read never overwrites the stored data; marks
+     * recorded meanwhile are merged in then. Ignored while a load is in
+     * flight or once loaded.
+     */
+    public void init(Runnable onLoaded, Runnable onLoadFailed) {
+        if (loaded || pendingLoad != null) {
+            return;
+        }
+        loadFailed = false;
+        CompletableFuture<Map<UUID, PlayerWorldState>> load = new CompletableFuture<>();
+        pendingLoad = load;
+
+        asyncExecutor.execute(() -> {
+            StorageLoadEvent event = new StorageLoadEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try {
+                Map<UUID, PlayerWorldState> stored = backend.load();
+                metrics.timer("storage_load").recordSince(start);
+                event.players = stored.size();
+                event.succeeded = true;
+                event.commit();
+                load.complete(stored);
+            } catch (IOException | RuntimeException e) {
+                event.commit();
+                load.completeExceptionally(e);
+            }
+        });
+
+        load.whenComplete((data, error) -> mainThreadExecutor.execute(() -> {
+            if (finishLoad()) {
+                onLoaded.run();
+            } else if (loadFailed) {
+                onLoadFailed.run();
+            }
+        }));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * True after a failed load until the next {@link #init} attempt.
+     */
+    public boolean isLoadFailed() {
+        return loadFailed;
+    }
+
+    public void shutdown() {
+        // Disabled before the async load finished: merge it now so the save
+        // below does not drop every stored player.
+        finishLoad();
+        if (loaded) {
+            savePlayerData();
+        }
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public boolean hasUnsavedDeaths() {
+        return unsavedDeaths && loaded;
+    }
+
+    /**
+     * At most one listener (replication); null to remove it.
+     */
+    public void setChangeListener(StorageChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Write player data if anything changed since the last write.
+     */
+    public void flush() {
+        if (dirty && loaded) {
+            savePlayerData();
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Public API used by plugin
+    // -----------------------------------------------------------------------
+
+    /**
+     * Check if the player is marked as dead in the given Bukkit world name
+     * (dimension). The plugin layer interprets these per-dimension flags
+     * as hardcore-world-wide death state.
+     */
+    public boolean isPlayerDeadInWorld(UUID uuid, String worldName) {
+        if (uuid == null || worldName == null) return false;
+        PlayerWorldState state = players.get(uuid);
+        return state != null && state.isDeadIn(worldName);
+    }
+
+    /**
+     * Dead in any dimension at all, registered or not.
+     */
+    public boolean hasDiedAnywhere(UUID uuid) {
+        PlayerWorldState state = uuid != null ? players.get(uuid) : null;
+        return state != null && !state.getDeadWorlds().isEmpty();
+    }
+
+    /**
+     * Mark the player as dead in the given Bukkit world name (dimension).
+     */
+    public void markPlayerDeadInWorld(UUID uuid, String worldName) {
+        if (uuid == null || worldName == null) return;
+        PlayerWorldState state = getOrCreateState(uuid);
+        if (state.isDeadIn(worldName)) {
+            return;
+        }
+        state.markDeadIn(worldName);
+        logger.info("Marked " + uuid + " as dead in hardcore world '" + worldName + "'.");
+        changed(uuid);
+        unsavedDeaths = true;
+        if (changeListener != null) {
+            changeListener.died(uuid, worldName);
+        }
+    }
+
+    public boolean hasPlayerVisitedWorld(UUID uuid, String worldName) {
+        if (uuid == null || worldName == null) return false;
+        PlayerWorldState state = players.get(uuid);
+        return state != null && state.hasVisited(worldName);
+    }
+
+    public void markPlayerVisitedWorld(UUID uuid, String worldName) {
+        if (uuid == null || worldName == null) return;
+        PlayerWorldState state = getOrCreateState(uuid);
+        if (!state.hasVisited(worldName)) {
+            state.markVisited(worldName);
+            changed(uuid);
+            if (changeListener != null) {
+                changeListener.visited(uuid, worldName);
+            }
+        }
+    }
+
+    public Set<String> findCullableWorlds(Set<String> hardcoreWorlds, String hubWorldName) {
+        Set<String> result = new HashSet<>();
+
+        for (String worldName : hardcoreWorlds) {
+            if (worldName.equalsIgnoreCase(hubWorldName)) {
+                continue;
+            }
+
+            List<PlayerWorldState> visitors = new ArrayList<>();
+            for (PlayerWorldState state : players.values()) {
+                if (state.hasVisited(worldName)) {
+                    visitors.add(state);
+                }
+            }
+
+            if (visitors.isEmpty()) {
+                continue;
+            }
+
+            boolean allDead = true;
+            for (PlayerWorldState state : visitors) {
+                if (!state.isDeadIn(worldName)) {
+                    allDead = false;
+                    break;
+                }
+            }
+
+            if (allDead) {
+                result.add(worldName);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Record that a tracked player was online now. Players without any
+     * hardcore state are not tracked and are ignored.
+     * <p>
+     * Does not mark storage dirty or the player changed for backups: last
+     * seen only matters to retention, days later, so it is written with the
+     * next save for a real change (or on shutdown) rather than on every join.
+     */
+    public void touchPlayer(UUID uuid, long nowMillis) {
+        PlayerWorldState state = uuid != null ? players.get(uuid) : null;
+        if (state != null) {
+            state.setLastSeenMillis(nowMillis);
+        }
+    }
+
+    /**
+     * Copy of the tracked player ids, for incremental passes that must
+     * survive changes to the map between steps.
+     */
+    public List<UUID> getPlayerIds() {
+        return new ArrayList<>(players.keySet());
+    }
+
+    /**
+     * Null if the player is not tracked. Read only; change state through
+     * this class so it is saved.
+     */
+    public PlayerWorldState getPlayerState(UUID uuid) {
+        return players.get(uuid);
+    }
+
+    /**
+     * Forget a player entirely (retention). Not reported to the change
+     * listener: every server applies its own retention policy.
+     */
+    public boolean removePlayer(UUID uuid) {
+        if (players.remove(uuid) == null) {
+            return false;
+        }
+        changed(uuid);
+        metrics.gauge("players_tracked").set(players.size());
+        return true;
+    }
+
+    /**
+     * Drop a player's entries for dimensions matching {@code stale} (worlds
+     * removed from config); removes the player if nothing is left.
+     *
+     * @return number of world entries removed
+     */
+    public int removeStaleWorlds(UUID uuid, Predicate<String> stale) {
+        PlayerWorldState state = players.get(uuid);
+        if (state == null) {
+            return 0;
+        }
+        int removed = state.removeWorldsIf(stale);
+        if (removed > 0) {
+            changed(uuid);
+        }
+        if (state.isEmpty()) {
+            removePlayer(uuid);
+        }
+        return removed;
+    }
+
+    /**
+     * Independent copy of one player's state, null if not tracked.
+     */
+    public PlayerWorldState copyPlayerState(UUID uuid) {
+        PlayerWorldState state = players.get(uuid);
+        return state != null ? state.copy() : null;
+    }
+
+    // -----------------------------------------------------------------------
+    // Backup support
+    // -----------------------------------------------------------------------
+
+    /**
+     * Start (or restart) recording which players change, from now on.
+     */
+    public void startBackupTracking() {
+        backupChanges = new HashSet<>();
+    }
+
+    /**
+     * Players changed (or removed) since tracking started or the last drain.
+     * Empty if tracking is not running.
+     */
+    public Set<UUID> drainBackupChanges() {
+        if (backupChanges == null) {
+            return Set.of();
+        }
+        Set<UUID> drained = backupChanges;
+        backupChanges = new HashSet<>();
+        return drained;
+    }
+
+    public boolean isBackupTracking() {
+        return backupChanges != null;
+    }
+
+    /**
+     * Replace all player state with a restored backup. Stops backup
+     * tracking, so the next backup is a full one. Not reported to the
+     * change listener.
+     */
+    public void restore(Map<UUID, PlayerWorldState> restored) {
+        players.clear();
+        for (PlayerWorldState state : restored.values()) {
+            players.put(state.getPlayerId(), state.copy());
+        }
+        backupChanges = null;
+        dirty = true;
+        metrics.gauge("players_tracked").set(players.size());
+        logger.info("Restored dead/visited data for " + players.size() + " players from backup.");
+    }
+
+    /**
+     * Full scan over every tracked player, for rebuilding derived indexes.
+     */
+    public void forEachPlayer(Consumer<PlayerWorldState> action) {
+        for (PlayerWorldState state : players.values()) {
+            action.accept(state);
+        }
+    }
+
+    /**
+     * Remove all stored state for a world (Bukkit world name / dimension)
+     * after it has been deleted.
+     *
+     * Does NOT touch the hardcore-worlds config list – plugin handles that.
+     */
+    public void removeWorldData(String worldName) {
+        if (worldName == null) return;
+
+        for (PlayerWorldState state : players.values()) {
+            if (state.hasVisited(worldName) || state.isDeadIn(worldName)) {
+                state.removeWorld(worldName);
+                changed(state.getPlayerId());
+            }
+        }
+        dirty = true;
+        if (changeListener != null) {
+            changeListener.worldRemoved(worldName);
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Persistence internals
+    // -----------------------------------------------------------------------
+
+    /**
+     * Merge the async load result into the live map (main thread). State
+     * recorded before the load finished is kept on top of the stored state.
+     *
+     * @return true if this call completed the load
+     */
+    private boolean finishLoad() {
+        if (loaded || pendingLoad == null) {
+            return false;
+        }
+
+        Map<UUID, PlayerWorldState> stored;
+        try {
+            stored = pendingLoad.join();
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Could not load player data; nothing is saved until it loads", e);
+            pendingLoad = null;
+            loadFailed = true;
+            return false;
+        }
+        pendingLoad = null;
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, PlayerWorldState> entry : stored.entrySet()) {
+            // Records from before last-seen was tracked count from now, not from 1970
+            if (entry.getValue().getLastSeenMillis() <= 0) {
+                entry.getValue().setLastSeenMillis(now);
+            }
+            PlayerWorldState live = players.get(entry.getKey());
+            if (live == null) {
+                players.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            for (String w : entry.getValue().getDeadWorlds()) {
+                live.markDeadIn(w);
+            }
+            for (String w : entry.getValue().getVisitedWorlds()) {
+                live.markVisited(w);
+            }
+            live.setLastSeenMillis(Math.max(live.getLastSeenMillis(), entry.getValue().getLastSeenMillis()));
+        }
+
+        loaded = true;
+        metrics.gauge("players_tracked").set(players.size());
+        logger.info("Loaded dead/visited data for " + players.size() + " players.");
+        return true;
+    }
+
+    private void savePlayerData() {
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        // Cleared even if the write fails; dirty stays set so the regular flush retries
+        unsavedDeaths = false;
+        try {
+            long written = backend.save(players.values());
+            dirty = false;
+            metrics.timer("storage_save").recordSince(start);
+            metrics.counter("storage_saves").increment();
+            if (written > 0) {
+                metrics.counter("storage_bytes_written").add(written);
+            }
+            event.bytes = written;
+            event.succeeded = true;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not save player data", e);
+        }
+        event.players = players.size();
+        event.commit();
+    }
+
+    // -----------------------------------------------------------------------
+    // Private helpers
+    // -----------------------------------------------------------------------
+
+    private void changed(UUID uuid) {
+        dirty = true;
+        if (backupChanges != null) {
+            backupChanges.add(uuid);
+        }
+    }
+
+    private PlayerWorldState getOrCreateState(UUID uuid) {
+        PlayerWorldState state = players.get(uuid);
+        if (state == null) {
+            state = new PlayerWorldState(uuid);
+            state.setLastSeenMillis(System.currentTimeMillis());
+            players.put(uuid, state);
+            metrics.gauge("players_tracked").set(players.size());
+        }
+        return state;
+    }
+}
@@ -0,0 +1,24 @@
+package com.kylekriskovich.perworldhardcore.storage;
+
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Where {@link HardcoreDataStorage} reads and writes per-player state.
+ * <p>
+ * {@link #load()} may be called off the main thread; {@link #save(Collection)}
+ * is called on the main thread with the live state objects.
+ */
+public interface PlayerDataBackend {
+
+    Map<UUID, PlayerWorldState> load() throws IOException;
+
+    /**
+     * @return bytes written, or -1 if the backend cannot tell
+     */
+    long save(Collection<PlayerWorldState> players) throws IOException;
+}
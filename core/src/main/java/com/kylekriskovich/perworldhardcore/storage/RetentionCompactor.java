@@ -0,0 +1,203 @@
+package com.kylekriskovich.perworldhardcore.storage;
+
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Retention policy for {@link HardcoreDataStorage}: every so often, walk all
+ * player records and
+ * <ul>
+ *   <li>drop entries for dimensions that have not been hardcore dimensions
+ *   for a grace period (removed from config by hand; culls already remove
+ *   their data), removing records left empty;</li>
+ *   <li>optionally remove players not seen for a configured time. Their
+ *   death marks go with them, so this is off unless configured.</li>
+ * </ul>
+ * Storage is main-thread only, so a pass runs in slices: each
+ * {@link #tick} handles records until its time budget is spent. The pass
+ * works on a copy of the player ids taken when it starts, but reads the
+ * registered dimensions for every record, so worlds added mid-pass are kept.
+ */
+public class RetentionCompactor {
+
+    /**
+     * Records between clock reads; one record takes well under a microsecond.
+     */
+    private static final int CLOCK_CHECK_INTERVAL = 64;
+
+    private final HardcoreDataStorage storage;
+    private final Supplier<Set<String>> hardcoreDimensions;
+    private final Predicate<UUID> isOnline;
+    private final Runnable onPlayersRemoved;
+    private final boolean dropDeletedWorlds;
+    private final long deletedWorldGraceMillis;
+    private final long maxInactiveMillis;
+    private final long intervalMillis;
+    private final long budgetNanos;
+    private final Logger logger;
+    private final MetricsRegistry metrics;
+
+    private long nextPassMillis;
+
+    /**
+     * Dimension → when a pass first found data for it while it was not
+     * registered. In memory only, so a restart starts the grace period over.
+     */
+    private final Map<String, Long> missingSince = new HashMap<>();
+
+    // Current pass; ids == null when idle
+    private List<UUID> ids;
+    private int position;
+    private long passStartMillis;
+    private long inactiveBefore;
+    private long passStartNanos;
+    private int passSlices;
+    private int playersRemoved;
+    private int worldsRemoved;
+
+    /**
+     * @param hardcoreDimensions currently registered dimensions (registry)
+     * @param isOnline           players never removed for inactivity
+     * @param onPlayersRemoved   run after a pass that removed players, to rebuild derived indexes
+     * @param deletedWorldGraceMillis keep data of an unregistered dimension this long
+     * @param maxInactiveMillis  remove players unseen for this long (0 = never)
+     * @param intervalMillis     time between pass starts
+     * @param budgetNanos        work per {@link #tick}
+     */
+    public RetentionCompactor(HardcoreDataStorage storage,
+                              Supplier<Set<String>> hardcoreDimensions,
+                              Predicate<UUID> isOnline,
+                              Runnable onPlayersRemoved,
+                              boolean dropDeletedWorlds,
+                              long deletedWorldGraceMillis,
+                              long maxInactiveMillis,
+                              long intervalMillis,
+                              long budgetNanos,
+                              Logger logger,
+                              MetricsRegistry metrics) {
+        this.storage = storage;
+        this.hardcoreDimensions = hardcoreDimensions;
+        this.isOnline = isOnline;
+        this.onPlayersRemoved = onPlayersRemoved;
+        this.dropDeletedWorlds = dropDeletedWorlds;
+        this.deletedWorldGraceMillis = deletedWorldGraceMillis;
+        this.maxInactiveMillis = maxInactiveMillis;
+        this.intervalMillis = intervalMillis;
+        this.budgetNanos = budgetNanos;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    public boolean isRunning() {
+        return ids != null;
+    }
+
+    /**
+     * Start a pass on the next {@link #tick} instead of waiting for the interval.
+     */
+    public void requestPass() {
+        nextPassMillis = 0;
+    }
+
+    /**
+     * Start a pass when due, or continue the current one (main thread,
+     * after storage has loaded).
+     */
+    public void tick(long nowMillis) {
+        if (ids == null) {
+            if (nowMillis < nextPassMillis) {
+                return;
+            }
+            startPass(nowMillis);
+        }
+
+        long deadline = System.nanoTime() + budgetNanos;
+        passSlices++;
+        while (position < ids.size()) {
+            compact(ids.get(position++));
+            if (position % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+        finishPass();
+    }
+
+    private void startPass(long nowMillis) {
+        nextPassMillis = nowMillis + intervalMillis;
+        ids = storage.getPlayerIds();
+        position = 0;
+        passStartMillis = nowMillis;
+        // Registered again since the last pass
+        missingSince.keySet().removeAll(hardcoreDimensions.get());
+        inactiveBefore = maxInactiveMillis > 0 ? nowMillis - maxInactiveMillis : Long.MIN_VALUE;
+        passStartNanos = System.nanoTime();
+        passSlices = 0;
+        playersRemoved = 0;
+        worldsRemoved = 0;
+    }
+
+    private void compact(UUID playerId) {
+        PlayerWorldState state = storage.getPlayerState(playerId);
+        if (state == null) {
+            return;
+        }
+
+        if (state.getLastSeenMillis() < inactiveBefore && !isOnline.test(playerId)) {
+            if (storage.removePlayer(playerId)) {
+                playersRemoved++;
+            }
+            return;
+        }
+
+        if (!dropDeletedWorlds) {
+            return;
+        }
+        // Immutable registry layout; read per record since worlds come and go mid-pass
+        Set<String> liveDimensions = hardcoreDimensions.get();
+        // An empty registry is more likely a broken config than every world being culled
+        if (!liveDimensions.isEmpty()) {
+            worldsRemoved += storage.removeStaleWorlds(playerId, dimension -> isStale(dimension, liveDimensions));
+            if (storage.getPlayerState(playerId) == null) {
+                playersRemoved++;
+            }
+        }
+    }
+
+    private boolean isStale(String dimension, Set<String> liveDimensions) {
+        if (liveDimensions.contains(dimension)) {
+            missingSince.remove(dimension);
+            return false;
+        }
+        long since = missingSince.computeIfAbsent(dimension, d -> passStartMillis);
+        return passStartMillis - since >= deletedWorldGraceMillis;
+    }
+
+    private void finishPass() {
+        long elapsedNanos = System.nanoTime() - passStartNanos;
+        int scanned = ids.size();
+        ids = null;
+
+        metrics.timer("retention_pass").record(elapsedNanos);
+        metrics.counter("retention_players_removed").add(playersRemoved);
+        metrics.counter("retention_world_entries_removed").add(worldsRemoved);
+
+        if (playersRemoved > 0) {
+            // Removed players may have counted as alive/dead somewhere
+            onPlayersRemoved.run();
+        }
+        if (playersRemoved > 0 || worldsRemoved > 0) {
+            logger.info("Retention pass over " + scanned + " players: removed " + playersRemoved
+                    + " players and " + worldsRemoved + " stale world entries ("
+                    + passSlices + " slices over " + elapsedNanos / 1_000_000 + " ms).");
+        }
+    }
+}
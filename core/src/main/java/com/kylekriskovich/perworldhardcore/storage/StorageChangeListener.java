@@ -0,0 +1,17 @@
+package com.kylekriskovich.perworldhardcore.storage;
+
+import java.util.UUID;
+
+/**
+ * Told about every change {@link HardcoreDataStorage} makes to player state,
+ * on the thread that made it. Only real changes are reported: marking a
+ * player dead twice reports once.
+ */
+public interface StorageChangeListener {
+
+    void visited(UUID playerId, String worldName);
+
+    void died(UUID playerId, String worldName);
+
+    void worldRemoved(String worldName);
+}
@@ -0,0 +1,71 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deltas published together by one server. {@code origin} identifies the
+ * server and its current run; {@code sequence} counts its batches from 1.
+ * <pre>
+ * int magic "PWHS", byte version, UTF origin, long sequence, int count,
+ * then per delta: byte kind, byte hasPlayer, [long msb, long lsb], UTF world, long millis
+ * </pre>
+ */
+public record DeltaBatch(String origin, long sequence, List<StateDelta> deltas) {
+
+    private static final int MAGIC = 0x50574853; // "PWHS"
+    private static final byte VERSION = 1;
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + deltas.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(origin);
+            out.writeLong(sequence);
+            out.writeInt(deltas.size());
+            for (StateDelta delta : deltas) {
+                out.writeByte(delta.kind().ordinal());
+                out.writeBoolean(delta.player() != null);
+                if (delta.player() != null) {
+                    out.writeLong(delta.player().getMostSignificantBits());
+                    out.writeLong(delta.player().getLeastSignificantBits());
+                }
+                out.writeUTF(delta.worldName());
+                out.writeLong(delta.timestampMillis());
+            }
+        } catch (IOException e) {
+            // In-memory stream
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static DeltaBatch decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Not a hardcore sync batch (version " + VERSION + ")");
+            }
+            String origin = in.readUTF();
+            long sequence = in.readLong();
+            int count = in.readInt();
+            if (count < 0 || count > payload.length) {
+                throw new IOException("Corrupt sync batch: " + count + " deltas");
+            }
+
+            StateDelta.Kind[] kinds = StateDelta.Kind.values();
+            List<StateDelta> deltas = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int kind = in.readUnsignedByte();
+                if (kind >= kinds.length) {
+                    throw new IOException("Corrupt sync batch: unknown delta kind " + kind);
+                }
+                UUID player = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+                deltas.add(new StateDelta(kinds[kind], player, in.readUTF(), in.readLong()));
+            }
+            return new DeltaBatch(origin, sequence, deltas);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link SyncTransport} over a directory every server can reach (NFS mount,
+ * or just a local folder when several test servers run on one machine).
+ * <p>
+ * Each batch is one file, written under a temporary name and then renamed,
+ * so readers never see a partial batch. A daemon thread polls for files
+ * from other servers; files older than the retention period are deleted by
+ * whoever sees them first, so a server that was down briefly still catches up.
+ * <p>
+ * Files are named {@code <server-id>@<run>-<n>.batch}; a server skips every
+ * file with its own server id, including those from its earlier runs.
+ */
+public class DirectorySyncTransport implements SyncTransport {
+
+    private static final String SUFFIX = ".batch";
+
+    private final Path directory;
+    private final String filePrefix;
+    private final String runPrefix;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+    private final Logger logger;
+
+    private final AtomicLong fileCounter = new AtomicLong();
+    private final Set<Path> seen = new HashSet<>();
+
+    private volatile boolean running;
+    private Thread poller;
+
+    /**
+     * @param serverId stable across restarts (sync.server-id)
+     */
+    public DirectorySyncTransport(Path directory, String serverId, long pollIntervalMillis, long retentionMillis,
+                                  Logger logger) {
+        this.directory = directory;
+        // '@' never survives the sanitizing, so no server id is a prefix of another's files
+        this.filePrefix = serverId.replaceAll("[^A-Za-z0-9._-]", "_") + "@";
+        this.runPrefix = filePrefix + System.currentTimeMillis() + "-";
+        this.pollIntervalMillis = Math.max(50L, pollIntervalMillis);
+        this.retentionMillis = retentionMillis;
+        this.logger = logger;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        Files.createDirectories(directory);
+
+        running = true;
+        poller = new Thread(() -> pollLoop(receiver), "PerWorldHardcore-sync");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @Override
+    public void publish(byte[] payload) throws IOException {
+        String name = runPrefix + fileCounter.incrementAndGet() + SUFFIX;
+        Path temp = directory.resolve("." + name + ".tmp");
+        Files.write(temp, payload);
+        Files.move(temp, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (poller == null) {
+            return;
+        }
+        try {
+            poller.join(pollIntervalMillis * 2 + 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        poller = null;
+    }
+
+    // ------------------------------------------------------------------------
+    // Polling thread
+    // ------------------------------------------------------------------------
+
+    private void pollLoop(Consumer<byte[]> receiver) {
+        while (running) {
+            try {
+                poll(receiver);
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Could not read hardcore sync directory " + directory, e);
+            }
+
+            try {
+                Thread.sleep(pollIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void poll(Consumer<byte[]> receiver) throws IOException {
+        Set<Path> present = new HashSet<>();
+        long expireBefore = System.currentTimeMillis() - retentionMillis;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                present.add(file);
+                String name = file.getFileName().toString();
+
+                if (name.startsWith(".") || name.startsWith(filePrefix) || seen.contains(file)) {
+                    expireIfOld(file, expireBefore);
+                    continue;
+                }
+
+                byte[] payload;
+                try {
+                    payload = Files.readAllBytes(file);
+                } catch (NoSuchFileException e) {
+                    // Expired by another server in the meantime
+                    continue;
+                }
+                seen.add(file);
+                receiver.accept(payload);
+            }
+        }
+
+        // Forget files that are gone so the set stays bounded
+        seen.retainAll(present);
+    }
+
+    private void expireIfOld(Path file, long expireBefore) {
+        try {
+            if (Files.getLastModifiedTime(file).toMillis() < expireBefore) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // Deleted concurrently or not ours to delete; try again next poll
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.storage.StorageChangeListener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replicates dead/visited marks between servers sharing hardcore worlds.
+ * <p>
+ * Local changes reported by {@link HardcoreDataStorage} are queued and sent
+ * as a {@link DeltaBatch} on every {@link #flush()}. Remote batches are
+ * applied on the main thread:
+ * <ul>
+ *   <li>Marks only ever get set, so applying them is idempotent and needs
+ *   no ordering; a {@link VersionVector} per origin still drops duplicate
+ *   batches before they touch storage.</li>
+ *   <li>A cull is replicated as a tombstone with the origin's timestamp;
+ *   marks for that dimension stamped at or before it are ignored, so a late
+ *   batch can't bring a culled world's data back. Tombstones are kept in a
+ *   file, so batches re-read after a restart are held to them too.</li>
+ *   <li>A cull never applies to a world this server registered after it
+ *   (re-created under the same name).</li>
+ *   <li>Marks for dimensions that are not a hardcore dimension here are
+ *   skipped; each server's own data.yml only tracks worlds it knows.</li>
+ * </ul>
+ * Not thread-safe apart from the transport callback, like the storage it wraps.
+ */
+public class ReplicationService implements StorageChangeListener {
+
+    /**
+     * Keeps an encoded batch well under plugin-messaging's 32 KB limit.
+     */
+    public static final int MAX_BATCH_DELTAS = 500;
+
+    private final String origin;
+    private final SyncTransport transport;
+    private final Path tombstoneFile;
+    private final HardcoreWorldRegistry registry;
+    private final HardcoreDataStorage storage;
+    private final Executor asyncExecutor;
+    private final Executor mainThreadExecutor;
+    private final Logger logger;
+    private final MetricsRegistry metrics;
+
+    private final List<StateDelta> pending = new ArrayList<>();
+    private final VersionVector applied = new VersionVector();
+
+    /**
+     * Dimension → newest cull time seen (local or remote).
+     */
+    private final Map<String, Long> tombstones = new HashMap<>();
+    private boolean tombstonesChanged;
+
+    private long nextSequence = 1;
+    private boolean applyingRemote;
+
+    /**
+     * @param tombstoneFile this server's own file (not in a shared sync directory)
+     */
+    public ReplicationService(String origin,
+                              SyncTransport transport,
+                              Path tombstoneFile,
+                              HardcoreWorldRegistry registry,
+                              HardcoreDataStorage storage,
+                              Executor asyncExecutor,
+                              Executor mainThreadExecutor,
+                              Logger logger,
+                              MetricsRegistry metrics) {
+        this.origin = origin;
+        this.transport = transport;
+        this.tombstoneFile = tombstoneFile;
+        this.registry = registry;
+        this.storage = storage;
+        this.asyncExecutor = asyncExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    // -----------------------------------------------------------------------
+    // Lifecycle
+    // -----------------------------------------------------------------------
+
+    /**
+     * @throws IOException if the transport cannot start or stored tombstones
+     *                     cannot be read (running without them could replay culls)
+     */
+    public void start() throws IOException {
+        loadTombstones();
+        storage.setChangeListener(this);
+        transport.start(this::receive);
+    }
+
+    /**
+     * Send what is left synchronously, then stop.
+     */
+    public void close() {
+        storage.setChangeListener(null);
+        saveTombstones();
+        for (DeltaBatch batch : drainBatches()) {
+            send(batch);
+        }
+        transport.close();
+    }
+
+    /**
+     * Publish queued local changes (main thread); the transport call runs on
+     * {@code asyncExecutor}.
+     */
+    public void flush() {
+        // Before the cull goes out, so it is never sent without being remembered
+        saveTombstones();
+        for (DeltaBatch batch : drainBatches()) {
+            asyncExecutor.execute(() -> send(batch));
+        }
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    // -----------------------------------------------------------------------
+    // Local changes
+    // -----------------------------------------------------------------------
+
+    @Override
+    public void visited(UUID playerId, String worldName) {
+        queue(StateDelta.Kind.VISIT, playerId, worldName);
+    }
+
+    @Override
+    public void died(UUID playerId, String worldName) {
+        queue(StateDelta.Kind.DEATH, playerId, worldName);
+    }
+
+    @Override
+    public void worldRemoved(String worldName) {
+        if (applyingRemote) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        addTombstone(worldName, now);
+        pending.add(new StateDelta(StateDelta.Kind.REMOVE_WORLD, null, worldName, now));
+    }
+
+    private void queue(StateDelta.Kind kind, UUID playerId, String worldName) {
+        // Changes we are applying from another server are not sent back out
+        if (!applyingRemote) {
+            pending.add(new StateDelta(kind, playerId, worldName, System.currentTimeMillis()));
+        }
+    }
+
+    private List<DeltaBatch> drainBatches() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<DeltaBatch> batches = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += MAX_BATCH_DELTAS) {
+            int to = Math.min(pending.size(), from + MAX_BATCH_DELTAS);
+            batches.add(new DeltaBatch(origin, nextSequence++, List.copyOf(pending.subList(from, to))));
+        }
+        pending.clear();
+        return batches;
+    }
+
+    private void send(DeltaBatch batch) {
+        try {
+            transport.publish(batch.encode());
+            metrics.counter("sync_batches_sent").increment();
+        } catch (IOException | RuntimeException e) {
+            metrics.counter("sync_publish_failures").increment();
+            logger.log(Level.WARNING, "Could not publish hardcore sync batch " + batch.sequence()
+                    + " (" + batch.deltas().size() + " changes)", e);
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Remote changes
+    // -----------------------------------------------------------------------
+
+    /**
+     * Transport thread: decode, then apply on the main thread.
+     */
+    private void receive(byte[] payload) {
+        DeltaBatch batch;
+        try {
+            batch = DeltaBatch.decode(payload);
+        } catch (IOException e) {
+            metrics.counter("sync_batches_invalid").increment();
+            logger.log(Level.WARNING, "Ignoring unreadable hardcore sync batch", e);
+            return;
+        }
+        if (sameServer(batch.origin())) {
+            // Our own, possibly from an earlier run
+            return;
+        }
+        mainThreadExecutor.execute(() -> apply(batch));
+    }
+
+    private void apply(DeltaBatch batch) {
+        if (!applied.markSeen(batch.origin(), batch.sequence())) {
+            metrics.counter("sync_batches_duplicate").increment();
+            return;
+        }
+        metrics.counter("sync_batches_received").increment();
+
+        boolean removedWorld = false;
+        applyingRemote = true;
+        try {
+            for (StateDelta delta : batch.deltas()) {
+                removedWorld |= applyDelta(delta);
+            }
+        } finally {
+            applyingRemote = false;
+        }
+
+        if (removedWorld) {
+            // Culls are rare; recount rather than patch population and index per player
+            registry.rebuildPlayerIndexes(storage);
+        }
+        saveTombstones();
+    }
+
+    /**
+     * @return true if the delta removed a dimension's data
+     */
+    private boolean applyDelta(StateDelta delta) {
+        String worldName = delta.worldName();
+        Long removedAt = tombstones.get(worldName);
+
+        if (delta.kind() == StateDelta.Kind.REMOVE_WORLD) {
+            addTombstone(worldName, delta.timestampMillis());
+            if (removedAt != null && removedAt >= delta.timestampMillis()) {
+                return false;
+            }
+            if (registeredAfter(worldName, delta.timestampMillis())) {
+                metrics.counter("sync_deltas_skipped").increment();
+                return false;
+            }
+            storage.removeWorldData(worldName);
+            metrics.counter("sync_deltas_applied").increment();
+            return true;
+        }
+
+        if ((removedAt != null && delta.timestampMillis() <= removedAt)
+                || !registry.isHardcoreDimension(worldName)) {
+            metrics.counter("sync_deltas_skipped").increment();
+            return false;
+        }
+
+        // Through the registry so population counts and the query index follow
+        if (delta.kind() == StateDelta.Kind.DEATH) {
+            registry.markDeadInWorld(storage, delta.player(), worldName);
+        } else {
+            registry.markVisitedWorld(storage, delta.player(), worldName);
+        }
+        metrics.counter("sync_deltas_applied").increment();
+        return false;
+    }
+
+    /**
+     * A world re-created here under a culled world's name is a different world.
+     */
+    private boolean registeredAfter(String worldName, long millis) {
+        HardcoreWorldSettings settings = registry.getSettings(worldName);
+        return settings != null && settings.getCreatedMillis() > millis;
+    }
+
+    /**
+     * Origins are {@code <server-id>@<run start>}.
+     */
+    private boolean sameServer(String otherOrigin) {
+        return serverId(origin).equals(serverId(otherOrigin));
+    }
+
+    private static String serverId(String origin) {
+        int at = origin.lastIndexOf('@');
+        return at >= 0 ? origin.substring(0, at) : origin;
+    }
+
+    // -----------------------------------------------------------------------
+    // Tombstone file
+    // -----------------------------------------------------------------------
+
+    private void addTombstone(String worldName, long millis) {
+        Long previous = tombstones.get(worldName);
+        if (previous == null || previous < millis) {
+            tombstones.put(worldName, millis);
+            tombstonesChanged = true;
+        }
+    }
+
+    private void loadTombstones() throws IOException {
+        if (tombstoneFile == null || !Files.exists(tombstoneFile)) {
+            return;
+        }
+        Properties stored = new Properties();
+        try (Reader in = Files.newBufferedReader(tombstoneFile, StandardCharsets.UTF_8)) {
+            stored.load(in);
+        }
+        for (String worldName : stored.stringPropertyNames()) {
+            try {
+                tombstones.merge(worldName, Long.parseLong(stored.getProperty(worldName).trim()), Math::max);
+            } catch (NumberFormatException e) {
+                logger.warning("Ignoring bad sync tombstone for '" + worldName + "' in " + tombstoneFile);
+            }
+        }
+    }
+
+    /**
+     * Written on the main thread: culls are rare and the file is a few lines.
+     */
+    private void saveTombstones() {
+        if (!tombstonesChanged || tombstoneFile == null) {
+            return;
+        }
+        Properties stored = new Properties();
+        for (Map.Entry<String, Long> entry : tombstones.entrySet()) {
+            stored.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        Path temp = tombstoneFile.resolveSibling(tombstoneFile.getFileName() + ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                stored.store(out, "Hardcore world culls seen by sync (dimension=epoch millis)");
+            }
+            Files.move(temp, tombstoneFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tombstonesChanged = false;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not save sync tombstones to " + tombstoneFile, e);
+        }
+    }
+}
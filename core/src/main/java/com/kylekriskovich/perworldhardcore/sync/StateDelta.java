@@ -0,0 +1,20 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import java.util.UUID;
+
+/**
+ * One replicated change, at dimension (Bukkit world name) level like
+ * {@code HardcoreDataStorage}.
+ *
+ * @param player null for {@link Kind#REMOVE_WORLD}
+ * @param timestampMillis wall clock of the origin server when the change was made
+ */
+public record StateDelta(Kind kind, UUID player, String worldName, long timestampMillis) {
+
+    public enum Kind {
+        VISIT,
+        DEATH,
+        /** World culled: drop its data and ignore older marks for it. */
+        REMOVE_WORLD
+    }
+}
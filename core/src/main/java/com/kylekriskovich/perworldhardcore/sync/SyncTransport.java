@@ -0,0 +1,24 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Moves encoded {@link DeltaBatch}es between servers. Delivery may be late,
+ * duplicated or out of order; {@link ReplicationService} copes with all three.
+ */
+public interface SyncTransport {
+
+    /**
+     * Start receiving. {@code receiver} may be called on any thread, and
+     * may also see this server's own batches.
+     */
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    /**
+     * Send a batch to every other server. May be called from any thread.
+     */
+    void publish(byte[] payload) throws IOException;
+
+    void close();
+}
@@ -0,0 +1,38 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Batches applied so far, per origin: every sequence up to {@code floor}
+ * plus any seen out of order above it. Lets duplicates be dropped while
+ * late batches are still applied.
+ */
+final class VersionVector {
+
+    private static final class Seen {
+        long floor;
+        final TreeSet<Long> above = new TreeSet<>();
+    }
+
+    private final Map<String, Seen> origins = new HashMap<>();
+
+    /**
+     * @return true if this batch had not been seen yet
+     */
+    boolean markSeen(String origin, long sequence) {
+        Seen seen = origins.computeIfAbsent(origin, k -> new Seen());
+        if (sequence <= seen.floor || !seen.above.add(sequence)) {
+            return false;
+        }
+        while (!seen.above.isEmpty() && seen.above.first() == seen.floor + 1) {
+            seen.floor = seen.above.pollFirst();
+        }
+        return true;
+    }
+
+    int origins() {
+        return origins.size();
+    }
+}
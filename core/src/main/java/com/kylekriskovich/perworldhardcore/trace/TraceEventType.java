@@ -0,0 +1,50 @@
+package com.kylekriskovich.perworldhardcore.trace;
+
+/**
+ * Kinds of events in the binary trace. Codes are part of the file format:
+ * never renumber, only append.
+ */
+public enum TraceEventType {
+    /** Player logged in; world = dimension, detail = hardcore world id or null. */
+    JOIN(1),
+    /** Player logged out; world = dimension. */
+    QUIT(2),
+    /** Player entered a world (a visit); world = dimension, detail = hardcore world id or null. */
+    CHANGE_WORLD(3),
+    /** Player died in a hardcore world; world = dimension, detail = hardcore world id. */
+    DEATH(4),
+    /** Dead player kept in the hardcore world as spectator (respawn or re-entry); world = hardcore world id. */
+    RESPAWN_SPECTATE(5),
+    /** Dead player sent back to the hub (respawn or re-entry); world = hardcore world id. */
+    RESPAWN_HUB(6),
+    /** Living player queued by admission control; world = hardcore world id. */
+    ENTER_QUEUED(7),
+    /** Hardcore world registered; world = hardcore world id, detail = comma-separated dimensions. */
+    WORLD_CREATE(8),
+    /** Hardcore world culled; world = hardcore world id, detail = comma-separated dimensions. */
+    WORLD_CULL(9),
+    /** /hardcore command; detail = arguments. */
+    ADMIN_COMMAND(10);
+
+    private static final TraceEventType[] BY_CODE = new TraceEventType[64];
+
+    static {
+        for (TraceEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    TraceEventType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static TraceEventType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.kylekriskovich.perworldhardcore.trace;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * On-disk layout of a trace segment ({@code trace-NNNNNN.pwht}).
+ * <pre>
+ * header   int magic "PWHT", short version, short reserved, long base time (epoch ms)
+ * entries  0x00                       end of data (rest of the file is zero-filled)
+ *          0x7F id len utf8           define string #id for the rest of the segment
+ *          type|0x40? delta [uuid] world detail
+ *                                     event: type code, 0x40 set when a player UUID
+ *                                     (16 bytes) follows; delta = ms since previous
+ *                                     event; world/detail = string ids, 0 = none
+ * </pre>
+ * Numbers after the tag byte are unsigned LEB128 varints. Every segment
+ * starts a fresh string table and time base, so segments read independently.
+ */
+final class TraceFormat {
+
+    static final int MAGIC = 0x50574854; // "PWHT"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    static final int TAG_END = 0x00;
+    static final int TAG_STRING = 0x7F;
+    static final int FLAG_PLAYER = 0x40;
+    static final int TYPE_MASK = 0x3F;
+
+    static final int MAX_STRING_BYTES = 1024;
+    static final int MAX_VARINT_BYTES = 10;
+
+    static final String SEGMENT_PREFIX = "trace-";
+    static final String SEGMENT_SUFFIX = ".pwht";
+
+    private TraceFormat() {
+    }
+
+    static String segmentName(long sequence) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Sequence number of a segment file, or -1 if the name is not a segment.
+     */
+    static long segmentSequence(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in trace segment");
+    }
+}
@@ -0,0 +1,111 @@
+package com.kylekriskovich.perworldhardcore.trace;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams records from a trace segment file or a directory of segments
+ * (oldest first). Never holds more than one segment's string table.
+ */
+public final class TraceReader {
+
+    private TraceReader() {
+    }
+
+    /**
+     * Segment files under {@code path} in write order; a single file is returned as-is.
+     */
+    public static List<Path> segments(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        List<Path> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(path)) {
+            files.filter(p -> TraceFormat.segmentSequence(p) >= 0).forEach(result::add);
+        }
+        result.sort(Comparator.comparingLong(TraceFormat::segmentSequence));
+        return result;
+    }
+
+    /**
+     * Feed every record under {@code path} to {@code consumer}, in order.
+     *
+     * @return number of records read
+     */
+    public static long read(Path path, Consumer<TraceRecord> consumer) throws IOException {
+        long count = 0;
+        for (Path segment : segments(path)) {
+            count += readSegment(segment, consumer);
+        }
+        return count;
+    }
+
+    public static long readSegment(Path segment, Consumer<TraceRecord> consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < TraceFormat.HEADER_BYTES || buffer.getInt() != TraceFormat.MAGIC) {
+            throw new IOException("Not a trace segment: " + segment);
+        }
+        short version = buffer.getShort();
+        if (version != TraceFormat.VERSION) {
+            throw new IOException("Unsupported trace version " + version + " in " + segment);
+        }
+        buffer.getShort(); // reserved
+        long millis = buffer.getLong();
+
+        List<String> strings = new ArrayList<>();
+        strings.add(null); // id 0 = none
+        long count = 0;
+
+        while (buffer.hasRemaining()) {
+            int tag = buffer.get() & 0xFF;
+            if (tag == TraceFormat.TAG_END) {
+                break;
+            }
+
+            if (tag == TraceFormat.TAG_STRING) {
+                int id = (int) TraceFormat.getVarLong(buffer);
+                int length = (int) TraceFormat.getVarLong(buffer);
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                while (strings.size() <= id) {
+                    strings.add(null);
+                }
+                strings.set(id, new String(bytes, StandardCharsets.UTF_8));
+                continue;
+            }
+
+            TraceEventType type = TraceEventType.fromCode(tag & TraceFormat.TYPE_MASK);
+            if (type == null) {
+                throw new IOException("Unknown event type " + (tag & TraceFormat.TYPE_MASK) + " in " + segment);
+            }
+
+            millis += TraceFormat.getVarLong(buffer);
+            UUID player = null;
+            if ((tag & TraceFormat.FLAG_PLAYER) != 0) {
+                player = new UUID(buffer.getLong(), buffer.getLong());
+            }
+            String world = lookup(strings, TraceFormat.getVarLong(buffer));
+            String detail = lookup(strings, TraceFormat.getVarLong(buffer));
+
+            consumer.accept(new TraceRecord(millis, type, player, world, detail));
+            count++;
+        }
+        return count;
+    }
+
+    private static String lookup(List<String> strings, long id) {
+        return id > 0 && id < strings.size() ? strings.get((int) id) : null;
+    }
+}
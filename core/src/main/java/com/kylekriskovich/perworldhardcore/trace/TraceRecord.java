@@ -0,0 +1,13 @@
+package com.kylekriskovich.perworldhardcore.trace;
+
+import java.util.UUID;
+
+/**
+ * One traced event. {@code player}, {@code world} and {@code detail} may be null.
+ */
+public record TraceRecord(long timestampMillis,
+                          TraceEventType type,
+                          UUID player,
+                          String world,
+                          String detail) {
+}
@@ -0,0 +1,129 @@
+package com.kylekriskovich.perworldhardcore.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Rolling binary event log. {@link #record} only enqueues (no I/O on the
+ * caller's thread); a daemon thread drains the queue into memory-mapped
+ * segments. When the queue is full, events are dropped and counted rather
+ * than blocking the server.
+ */
+public class TraceRecorder implements AutoCloseable {
+
+    private static final int DRAIN_BATCH = 512;
+    private static final long POLL_MILLIS = 250L;
+
+    private final TraceSegmentWriter writer;
+    private final BlockingQueue<TraceRecord> queue;
+    private final Logger logger;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public TraceRecorder(Path directory, int segmentBytes, int maxSegments, int queueCapacity, Logger logger) {
+        this.writer = new TraceSegmentWriter(directory, segmentBytes, maxSegments);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.logger = logger;
+    }
+
+    public void start() throws IOException {
+        writer.open();
+        running = true;
+        thread = new Thread(this::drainLoop, "PerWorldHardcore-trace");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void record(TraceEventType type, UUID player, String world, String detail) {
+        if (!running) {
+            return;
+        }
+        TraceRecord record = new TraceRecord(System.currentTimeMillis(), type, player, world, detail);
+        if (!queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting events, write whatever is queued and flush the segment.
+     */
+    @Override
+    public void close() {
+        // No interrupt: it would close the FileChannel of a segment being rolled.
+        // The writer notices within one poll interval.
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    private void drainLoop() {
+        List<TraceRecord> batch = new ArrayList<>(DRAIN_BATCH);
+        try {
+            while (running) {
+                TraceRecord first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_BATCH - 1);
+                writeBatch(batch);
+            }
+
+            // Shutting down: write the rest
+            queue.drainTo(batch);
+            writeBatch(batch);
+        } catch (IOException | RuntimeException e) {
+            running = false;
+            logger.log(Level.SEVERE, "Event trace stopped after a write error", e);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void writeBatch(List<TraceRecord> batch) throws IOException {
+        for (TraceRecord record : batch) {
+            if (writer.write(record)) {
+                written.incrementAndGet();
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+        batch.clear();
+    }
+}
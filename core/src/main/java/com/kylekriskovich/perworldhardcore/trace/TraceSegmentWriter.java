@@ -0,0 +1,158 @@
+package com.kylekriskovich.perworldhardcore.trace;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Appends encoded records to memory-mapped, fixed-size segment files in a
+ * directory, rolling to a new segment when the current one is full and
+ * deleting the oldest beyond {@code maxSegments}. Single-threaded.
+ */
+final class TraceSegmentWriter implements AutoCloseable {
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private long nextSequence;
+    private MappedByteBuffer buffer;
+    private long lastMillis;
+
+    TraceSegmentWriter(Path directory, int segmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+    }
+
+    void open() throws IOException {
+        Files.createDirectories(directory);
+
+        List<Path> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> TraceFormat.segmentSequence(p) >= 0).forEach(existing::add);
+        }
+        existing.sort(Comparator.comparingLong(TraceFormat::segmentSequence));
+        segments.addAll(existing);
+        nextSequence = existing.isEmpty() ? 0 : TraceFormat.segmentSequence(existing.get(existing.size() - 1)) + 1;
+    }
+
+    /**
+     * @return false if the record can never fit in a segment and was skipped
+     */
+    boolean write(TraceRecord record) throws IOException {
+        String world = truncate(record.world());
+        String detail = truncate(record.detail());
+
+        if (buffer == null || buffer.remaining() < maxEncodedSize(world, detail)) {
+            roll(record.timestampMillis());
+            if (buffer.remaining() < maxEncodedSize(world, detail)) {
+                return false;
+            }
+        }
+
+        int worldId = stringId(world);
+        int detailId = stringId(detail);
+
+        int tag = record.type().getCode();
+        if (record.player() != null) {
+            tag |= TraceFormat.FLAG_PLAYER;
+        }
+        buffer.put((byte) tag);
+        TraceFormat.putVarLong(buffer, Math.max(0L, record.timestampMillis() - lastMillis));
+        lastMillis = Math.max(lastMillis, record.timestampMillis());
+
+        if (record.player() != null) {
+            buffer.putLong(record.player().getMostSignificantBits());
+            buffer.putLong(record.player().getLeastSignificantBits());
+        }
+        TraceFormat.putVarLong(buffer, worldId);
+        TraceFormat.putVarLong(buffer, detailId);
+        return true;
+    }
+
+    void force() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        buffer = null;
+    }
+
+    private void roll(long baseMillis) throws IOException {
+        force();
+
+        Path file = directory.resolve(TraceFormat.segmentName(nextSequence++));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+
+        buffer.putInt(TraceFormat.MAGIC);
+        buffer.putShort(TraceFormat.VERSION);
+        buffer.putShort((short) 0);
+        buffer.putLong(baseMillis);
+
+        strings.clear();
+        lastMillis = baseMillis;
+
+        segments.addLast(file);
+        while (segments.size() > maxSegments) {
+            Files.deleteIfExists(segments.removeFirst());
+        }
+    }
+
+    /**
+     * Id of the string in this segment, writing its definition first if new.
+     */
+    private int stringId(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = strings.get(value);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = strings.size() + 1;
+        strings.put(value, newId);
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.put((byte) TraceFormat.TAG_STRING);
+        TraceFormat.putVarLong(buffer, newId);
+        TraceFormat.putVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+        return newId;
+    }
+
+    private int maxEncodedSize(String world, String detail) {
+        int size = 1 + TraceFormat.MAX_VARINT_BYTES + 16 + 2 * TraceFormat.MAX_VARINT_BYTES;
+        size += stringDefinitionSize(world) + stringDefinitionSize(detail);
+        return size + 1; // keep room for the end marker
+    }
+
+    private int stringDefinitionSize(String value) {
+        if (value == null || strings.containsKey(value)) {
+            return 0;
+        }
+        return 1 + 2 * TraceFormat.MAX_VARINT_BYTES + value.length() * 3;
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() * 3 <= TraceFormat.MAX_STRING_BYTES) {
+            return value;
+        }
+        return value.substring(0, TraceFormat.MAX_STRING_BYTES / 3);
+    }
+}
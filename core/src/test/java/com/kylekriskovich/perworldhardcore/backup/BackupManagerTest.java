@@ -0,0 +1,150 @@
+package com.kylekriskovich.perworldhardcore.backup;
+
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.storage.MemoryBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackupManagerTest {
+
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+    private static final UUID CAROL = new UUID(0L, 3L);
+
+    /**
+     * Runs everything inline, so a backup is written by the time tick returns.
+     */
+    private static final Executor DIRECT = Runnable::run;
+
+    @TempDir
+    Path directory;
+
+    private HardcoreDataStorage storage;
+    private BackupManager backups;
+
+    @BeforeEach
+    void setUp() {
+        Logger logger = Logger.getLogger(BackupManagerTest.class.getName());
+        storage = new HardcoreDataStorage(new MemoryBackend(), DIRECT, DIRECT, logger);
+        storage.init(() -> {
+        });
+        // keep 2, every 3rd generation full
+        backups = new BackupManager(directory, storage, 2, 3, 0L, Long.MAX_VALUE,
+                DIRECT, DIRECT, () -> {
+        }, logger, new MetricsRegistry());
+        backups.init(0L);
+    }
+
+    @Test
+    void writesDeltasBetweenFullGenerations() {
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+        BackupManager.BackupInfo first = backup();
+        storage.markPlayerDeadInWorld(ALICE, "hc-1");
+        BackupManager.BackupInfo second = backup();
+        storage.markPlayerVisitedWorld(BOB, "hc-1");
+        BackupManager.BackupInfo third = backup();
+        BackupManager.BackupInfo fourth = backup();
+
+        assertTrue(first.full());
+        assertFalse(second.full());
+        assertFalse(third.full());
+        assertTrue(fourth.full());
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequences());
+    }
+
+    @Test
+    void restoresThroughDeltaChain() {
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+        storage.markPlayerVisitedWorld(CAROL, "hc-1");
+        backup();
+        storage.markPlayerDeadInWorld(ALICE, "hc-1");
+        storage.removePlayer(CAROL);
+        backup();
+        storage.markPlayerVisitedWorld(BOB, "hc-2");
+        String target = backup().name();
+
+        // Changes after the target must be rolled back
+        storage.markPlayerDeadInWorld(BOB, "hc-2");
+        storage.markPlayerVisitedWorld(CAROL, "hc-3");
+
+        int restored = backups.restore(target).join();
+        assertEquals(2, restored);
+        assertTrue(storage.isPlayerDeadInWorld(ALICE, "hc-1"));
+        assertTrue(storage.hasPlayerVisitedWorld(BOB, "hc-2"));
+        assertFalse(storage.isPlayerDeadInWorld(BOB, "hc-2"));
+        assertNull(storage.getPlayerState(CAROL));
+        assertTrue(backups.verify(target).join().ok());
+    }
+
+    @Test
+    void rotationKeepsTheFullGenerationKeptDeltasNeed() {
+        for (int i = 0; i < 4; i++) {
+            storage.markPlayerVisitedWorld(new UUID(1L, i), "hc-1");
+            backup();
+        }
+        // Keeping 3 (delta) and 4 (full) needs 1 and 2 as 3's base
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequences());
+
+        backup();
+        assertEquals(List.of(4L, 5L), sequences());
+        assertTrue(backups.verify(null).join().ok());
+    }
+
+    @Test
+    void verifyReportsMissingBase() throws Exception {
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+        BackupManager.BackupInfo full = backup();
+        storage.markPlayerDeadInWorld(ALICE, "hc-1");
+        BackupManager.BackupInfo delta = backup();
+
+        Files.delete(directory.resolve(full.name()));
+
+        BackupManager.VerifyResult result = backups.verify(delta.name()).join();
+        assertFalse(result.ok());
+    }
+
+    @Test
+    void sequenceContinuesAfterRestart() {
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+        backup();
+        backup();
+
+        Logger logger = Logger.getLogger(BackupManagerTest.class.getName());
+        backups = new BackupManager(directory, storage, 2, 3, 0L, Long.MAX_VALUE,
+                DIRECT, DIRECT, () -> {
+        }, logger, new MetricsRegistry());
+        backups.init(0L);
+
+        BackupManager.BackupInfo next = backup();
+        assertEquals(3L, next.sequence());
+        // A restarted manager has no delta base of its own
+        assertTrue(next.full());
+        assertEquals(Set.of("hc-1"), storage.getPlayerState(ALICE).getVisitedWorlds());
+    }
+
+    private BackupManager.BackupInfo backup() {
+        CompletableFuture<BackupManager.BackupInfo> future = backups.requestBackup();
+        backups.tick(0L);
+        return future.join();
+    }
+
+    private List<Long> sequences() {
+        return backups.list().join().stream().map(BackupManager.BackupInfo::sequence).toList();
+    }
+}
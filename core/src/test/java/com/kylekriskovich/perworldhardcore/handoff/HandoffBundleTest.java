@@ -0,0 +1,156 @@
+package com.kylekriskovich.perworldhardcore.handoff;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HandoffBundleTest {
+
+    private static final HandoffManifest MANIFEST = new HandoffManifest("hc-1", 1_000L,
+            List.of(new HandoffManifest.Dimension("overworld", "hc_1"),
+                    new HandoffManifest.Dimension("nether", "hc_1_nether")),
+            Map.of("difficulty", "HARD"),
+            List.of(new HandoffManifest.PlayerMarks(new UUID(1L, 2L), 0b11, 0b10)));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndExtractRoundTrip() throws IOException {
+        Path source = directory.resolve("source");
+        write(source.resolve("hc_1/level.dat"), "level");
+        write(source.resolve("hc_1/region/r.0.0.mca"), "region");
+        write(source.resolve("hc_1/uid.dat"), "uid");
+        write(source.resolve("hc_1/session.lock"), "lock");
+        write(source.resolve("hc_1_nether/level.dat"), "nether");
+
+        Path bundle = directory.resolve("hc-1" + HandoffBundle.EXTENSION);
+        assertEquals(3, HandoffBundle.write(bundle, MANIFEST, source));
+        assertFalse(Files.exists(directory.resolve("hc-1" + HandoffBundle.EXTENSION + ".tmp")));
+        assertEquals(MANIFEST, HandoffBundle.readManifest(bundle));
+
+        Path target = directory.resolve("target");
+        assertEquals(3, HandoffBundle.extract(bundle, MANIFEST, target));
+        assertEquals("region", Files.readString(target.resolve("hc_1/region/r.0.0.mca")));
+        assertEquals("nether", Files.readString(target.resolve("hc_1_nether/level.dat")));
+        assertFalse(Files.exists(target.resolve("hc_1/uid.dat")));
+        assertFalse(Files.exists(target.resolve("hc_1/session.lock")));
+    }
+
+    @Test
+    void writeFailsWithoutLeavingTempFile() {
+        Path bundle = directory.resolve("hc-1" + HandoffBundle.EXTENSION);
+
+        assertThrows(IOException.class, () -> HandoffBundle.write(bundle, MANIFEST, directory.resolve("missing")));
+        assertFalse(Files.exists(bundle));
+        assertFalse(Files.exists(directory.resolve("hc-1" + HandoffBundle.EXTENSION + ".tmp")));
+    }
+
+    @Test
+    void refusesExistingWorldFolder() throws IOException {
+        Path bundle = zip("worlds/hc_1/level.dat");
+        Path target = directory.resolve("target");
+        write(target.resolve("hc_1_nether/level.dat"), "existing");
+
+        assertThrows(FileAlreadyExistsException.class, () -> HandoffBundle.extract(bundle, MANIFEST, target));
+        assertEquals("existing", Files.readString(target.resolve("hc_1_nether/level.dat")));
+        assertFalse(Files.exists(target.resolve("hc_1")));
+    }
+
+    @Test
+    void rejectsInvalidDimensionNames() throws IOException {
+        Path bundle = zip("worlds/hc_1/level.dat");
+        Path target = directory.resolve("target");
+
+        for (String name : List.of("../escape", "nested/world", "..")) {
+            HandoffManifest manifest = new HandoffManifest("hc-1", 0L,
+                    List.of(new HandoffManifest.Dimension("overworld", name)), Map.of(), List.of());
+            assertThrows(IOException.class, () -> HandoffBundle.extract(bundle, manifest, target));
+        }
+        assertFalse(Files.exists(directory.resolve("escape")));
+    }
+
+    @Test
+    void rejectsZipSlipAndCleansUp() throws IOException {
+        Path bundle = zip("worlds/hc_1/level.dat", "worlds/hc_1/../../evil.txt");
+        Path target = directory.resolve("target");
+
+        assertThrows(IOException.class, () -> HandoffBundle.extract(bundle, MANIFEST, target));
+        assertFalse(Files.exists(directory.resolve("evil.txt")));
+        assertFalse(Files.exists(target.resolve("evil.txt")));
+        // The file unpacked before the bad entry is gone again
+        assertFalse(Files.exists(target.resolve("hc_1")));
+    }
+
+    @Test
+    void rejectsEntriesForOtherWorlds() throws IOException {
+        Path bundle = zip("worlds/hc_1/level.dat", "worlds/other/level.dat");
+        Path target = directory.resolve("target");
+
+        assertThrows(IOException.class, () -> HandoffBundle.extract(bundle, MANIFEST, target));
+        assertFalse(Files.exists(target.resolve("hc_1")));
+        assertFalse(Files.exists(target.resolve("other")));
+    }
+
+    @Test
+    void partialFoldersAreRemovedWhenTheBundleIsTruncated() throws IOException {
+        Path source = directory.resolve("source");
+        byte[] region = new byte[64 * 1024];
+        new Random(1L).nextBytes(region);
+        write(source.resolve("hc_1/region/r.0.0.mca"), region);
+        write(source.resolve("hc_1_nether/level.dat"), "nether");
+        Path bundle = directory.resolve("hc-1" + HandoffBundle.EXTENSION);
+        HandoffBundle.write(bundle, MANIFEST, source);
+
+        byte[] bytes = Files.readAllBytes(bundle);
+        Files.write(bundle, Arrays.copyOf(bytes, bytes.length / 2));
+        Path target = directory.resolve("target");
+
+        assertThrows(IOException.class, () -> HandoffBundle.extract(bundle, MANIFEST, target));
+        assertFalse(Files.exists(target.resolve("hc_1")));
+        assertFalse(Files.exists(target.resolve("hc_1_nether")));
+    }
+
+    private Path zip(String... entries) throws IOException {
+        Path bundle = directory.resolve("crafted" + HandoffBundle.EXTENSION);
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(bundle))) {
+            zip.putNextEntry(new ZipEntry("manifest"));
+            MANIFEST.writeTo(zip);
+            zip.closeEntry();
+            for (String entry : entries) {
+                zip.putNextEntry(new ZipEntry(entry));
+                zip.write(entry.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bundle;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(content);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.kylekriskovich.perworldhardcore.handoff;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HandoffManifestTest {
+
+    @Test
+    void roundTrip() throws IOException {
+        HandoffManifest manifest = new HandoffManifest("hc-1", 1_700_000_000_000L,
+                List.of(new HandoffManifest.Dimension("overworld", "hc_1"),
+                        new HandoffManifest.Dimension("nether", "hc_1_nether")),
+                Map.of("difficulty", "HARD"),
+                List.of(new HandoffManifest.PlayerMarks(new UUID(1L, 2L), 0b11, 0b01),
+                        new HandoffManifest.PlayerMarks(new UUID(3L, 4L), 0b10, 0)));
+
+        assertEquals(manifest, read(write(manifest)));
+    }
+
+    @Test
+    void keepsSettingOrder() throws IOException {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("z", "1");
+        settings.put("a", "2");
+        HandoffManifest manifest = new HandoffManifest("hc-1", 0L, List.of(), settings, List.of());
+
+        assertEquals(List.of("z", "a"), new ArrayList<>(read(write(manifest)).settings().keySet()));
+    }
+
+    @Test
+    void rejectsForeignData() {
+        assertThrows(IOException.class, () -> read("PK\3\4 not a manifest".getBytes()));
+    }
+
+    @Test
+    void rejectsTooManyDimensions() {
+        List<HandoffManifest.Dimension> dimensions = new ArrayList<>();
+        for (int i = 0; i <= HandoffManifest.MAX_DIMENSIONS; i++) {
+            dimensions.add(new HandoffManifest.Dimension("d" + i, "world" + i));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new HandoffManifest("hc-1", 0L, dimensions, Map.of(), List.of()));
+    }
+
+    private static byte[] write(HandoffManifest manifest) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        manifest.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static HandoffManifest read(byte[] bytes) throws IOException {
+        return HandoffManifest.readFrom(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,115 @@
+package com.kylekriskovich.perworldhardcore.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HistoryFileTest {
+
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void missingFileReadsAsEmpty() throws IOException {
+        assertEquals(0L, HistoryFile.read(directory.resolve("history.bin"), new HistoryColumns(10)));
+    }
+
+    @Test
+    void roundTripsEveryRecordKind() throws IOException {
+        HistoryColumns written = sample();
+        Path file = write(HistoryFile.encode(written, 0, 0, 0, 0, true));
+
+        HistoryColumns read = new HistoryColumns(10);
+        assertEquals(Files.size(file), HistoryFile.read(file, read));
+        assertEquals(written.stringCount(), read.stringCount());
+        assertEquals(2, read.visitCount());
+        assertEquals(1, read.deathCount());
+        assertEquals(1, read.cullCount());
+        assertEquals(BOB, read.deathPlayer(0));
+        assertEquals("lava", read.string(read.deathCause(0)));
+        assertEquals(500L, read.cullTime(0));
+    }
+
+    @Test
+    void dropsTornTail() throws IOException {
+        HistoryColumns columns = sample();
+        Path file = write(HistoryFile.encode(columns, 0, 0, 0, 0, true));
+        long complete = Files.size(file);
+
+        // A crash during the next flush: a new cause string and the death using it, cut short
+        int strings = columns.stringCount();
+        int deaths = columns.deathCount();
+        columns.appendDeath(ALICE, columns.intern("hc-1"), 100L, 900L, columns.intern("fall"));
+        ByteBuffer next = HistoryFile.encode(columns, strings, columns.visitCount(), deaths, columns.cullCount(), false);
+        append(file, next, next.remaining() - 5);
+
+        HistoryColumns read = new HistoryColumns(10);
+        long valid = HistoryFile.read(file, read);
+        assertEquals(complete + 3 + "fall".length(), valid);
+        assertEquals(strings + 1, read.stringCount());
+        assertEquals(1, read.deathCount());
+    }
+
+    @Test
+    void dropsTornString() throws IOException {
+        HistoryColumns columns = sample();
+        Path file = write(HistoryFile.encode(columns, 0, 0, 0, 0, true));
+        long complete = Files.size(file);
+
+        int strings = columns.stringCount();
+        columns.intern("suffocation");
+        ByteBuffer next = HistoryFile.encode(columns, strings, columns.visitCount(), columns.deathCount(),
+                columns.cullCount(), false);
+        append(file, next, 6);
+
+        HistoryColumns read = new HistoryColumns(10);
+        assertEquals(complete, HistoryFile.read(file, read));
+        assertEquals(strings, read.stringCount());
+    }
+
+    @Test
+    void rejectsForeignFile() throws IOException {
+        Path file = directory.resolve("history.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        assertThrows(IOException.class, () -> HistoryFile.read(file, new HistoryColumns(10)));
+    }
+
+    private static HistoryColumns sample() {
+        HistoryColumns columns = new HistoryColumns(10);
+        int group = columns.intern("hc-1");
+        columns.appendVisit(ALICE, group, 100L);
+        columns.appendVisit(BOB, group, 200L);
+        columns.appendDeath(BOB, group, 200L, 400L, columns.intern("lava"));
+        columns.appendCull(group, 500L);
+        return columns;
+    }
+
+    private Path write(ByteBuffer buffer) throws IOException {
+        Path file = directory.resolve("history.bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(buffer);
+        }
+        return file;
+    }
+
+    private static void append(Path file, ByteBuffer buffer, int length) throws IOException {
+        buffer.limit(buffer.position() + length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.kylekriskovich.perworldhardcore.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesGetTheirOwnBucket() {
+        for (long value = 0; value < 8; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.upperBound((int) value));
+        }
+    }
+
+    @Test
+    void powersOfTwoStartABucket() {
+        for (int bit = 3; bit < 63; bit++) {
+            long power = 1L << bit;
+            int bucket = LatencyHistogram.bucketOf(power);
+            assertEquals(bucket - 1, LatencyHistogram.bucketOf(power - 1));
+            assertEquals(power - 1, LatencyHistogram.upperBound(bucket - 1));
+        }
+    }
+
+    @Test
+    void everyValueIsWithinItsBucket() {
+        long previousBound = -1L;
+        for (int bucket = 0; bucket <= LatencyHistogram.bucketOf(Long.MAX_VALUE); bucket++) {
+            long bound = LatencyHistogram.upperBound(bucket);
+            assertTrue(bound > previousBound, "bounds increase");
+            assertEquals(bucket, LatencyHistogram.bucketOf(bound));
+            assertEquals(bucket, LatencyHistogram.bucketOf(previousBound + 1));
+            previousBound = bound;
+        }
+        assertEquals(Long.MAX_VALUE, previousBound);
+    }
+
+    @Test
+    void resolutionIsAboutTwelvePercent() {
+        for (long value = 8; value < 1_000_000_000L; value = value * 3 / 2 + 1) {
+            long bound = LatencyHistogram.upperBound(LatencyHistogram.bucketOf(value));
+            assertTrue(bound >= value && bound - value <= value / 8, "value " + value);
+        }
+    }
+
+    @Test
+    void largestValuesFitTheLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5L);
+
+        assertEquals(2, histogram.count());
+        assertEquals(Long.MAX_VALUE, histogram.max());
+        assertEquals(0L, histogram.percentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(100));
+    }
+
+    @Test
+    void percentilesAreMonotonicAndCappedAtMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.percentile(99));
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000L);
+        }
+
+        long previous = 0L;
+        for (double p = 0; p <= 100; p += 0.5) {
+            long value = histogram.percentile(p);
+            assertTrue(value >= previous, "p" + p);
+            previous = value;
+        }
+        assertEquals(10_000_000L, histogram.percentile(100));
+
+        long median = histogram.percentile(50);
+        assertTrue(median >= 5_000_000L && median <= 5_000_000L * 9 / 8, "median " + median);
+    }
+}
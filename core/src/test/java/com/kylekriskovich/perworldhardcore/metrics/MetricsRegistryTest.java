@@ -0,0 +1,49 @@
+package com.kylekriskovich.perworldhardcore.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsRegistryTest {
+
+    @Test
+    void prometheusTextHasSummariesCountersAndGauges() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.timer("storage_load").record(1_000_000L);
+        metrics.counter("storage_saves").add(3);
+        metrics.sampledCounter("filter_hits").set(5);
+        metrics.gauge("players_tracked").set(7);
+
+        assertEquals("""
+                # TYPE perworldhardcore_storage_load_seconds summary
+                perworldhardcore_storage_load_seconds{quantile="0.5"} 0.001
+                perworldhardcore_storage_load_seconds{quantile="0.9"} 0.001
+                perworldhardcore_storage_load_seconds{quantile="0.99"} 0.001
+                perworldhardcore_storage_load_seconds{quantile="0.999"} 0.001
+                perworldhardcore_storage_load_seconds_sum 0.001
+                perworldhardcore_storage_load_seconds_count 1
+                # TYPE perworldhardcore_filter_hits_total counter
+                perworldhardcore_filter_hits_total 5
+                # TYPE perworldhardcore_storage_saves_total counter
+                perworldhardcore_storage_saves_total 3
+                # TYPE perworldhardcore_players_tracked gauge
+                perworldhardcore_players_tracked 7
+                """, metrics.toPrometheusText());
+    }
+
+    @Test
+    void emptyTimerReportsZero() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.timer("enter_world");
+
+        assertEquals("""
+                # TYPE perworldhardcore_enter_world_seconds summary
+                perworldhardcore_enter_world_seconds{quantile="0.5"} 0.0
+                perworldhardcore_enter_world_seconds{quantile="0.9"} 0.0
+                perworldhardcore_enter_world_seconds{quantile="0.99"} 0.0
+                perworldhardcore_enter_world_seconds{quantile="0.999"} 0.0
+                perworldhardcore_enter_world_seconds_sum 0.0
+                perworldhardcore_enter_world_seconds_count 0
+                """, metrics.toPrometheusText());
+    }
+}
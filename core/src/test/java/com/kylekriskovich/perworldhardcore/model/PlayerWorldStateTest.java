@@ -0,0 +1,62 @@
+package com.kylekriskovich.perworldhardcore.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerWorldStateTest {
+
+    private static final UUID PLAYER = new UUID(0L, 1L);
+
+    @Test
+    void tracksVisitsAndDeathsPerDimension() {
+        PlayerWorldState state = new PlayerWorldState(PLAYER);
+        assertTrue(state.isEmpty());
+
+        state.markVisited("hc-1");
+        state.markDeadIn("hc-1_nether");
+        state.markVisited(null);
+
+        assertTrue(state.hasVisited("hc-1"));
+        assertFalse(state.hasVisited("hc-1_nether"));
+        assertTrue(state.isDeadIn("hc-1_nether"));
+        assertFalse(state.isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> state.getVisitedWorlds().add("hc-2"));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        PlayerWorldState state = new PlayerWorldState(PLAYER);
+        state.markVisited("hc-1");
+        state.setLastSeenMillis(42L);
+
+        PlayerWorldState copy = state.copy();
+        state.markDeadIn("hc-1");
+        state.setLastSeenMillis(43L);
+
+        assertEquals(PLAYER, copy.getPlayerId());
+        assertEquals(Set.of("hc-1"), copy.getVisitedWorlds());
+        assertEquals(Set.of(), copy.getDeadWorlds());
+        assertEquals(42L, copy.getLastSeenMillis());
+    }
+
+    @Test
+    void removesMatchingWorlds() {
+        PlayerWorldState state = new PlayerWorldState(PLAYER);
+        state.markVisited("hc-1");
+        state.markDeadIn("hc-1");
+        state.markVisited("hc-2");
+
+        assertEquals(2, state.removeWorldsIf("hc-1"::equals));
+        assertEquals(Set.of("hc-2"), state.getVisitedWorlds());
+
+        state.removeWorld("hc-2");
+        assertTrue(state.isEmpty());
+    }
+}
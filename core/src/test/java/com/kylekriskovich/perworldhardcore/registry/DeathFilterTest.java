@@ -0,0 +1,98 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeathFilterTest {
+
+    @Test
+    void emptyFilterIsSizedForMinimumCapacity() {
+        DeathFilter filter = new DeathFilter();
+
+        assertPowerOfTwo(filter.getBitCount());
+        // At least ~9.6 bits per player for 1024 players at 1%
+        assertTrue(filter.getBitCount() >= 9_600, "bits: " + filter.getBitCount());
+        assertTrue(filter.getHashCount() >= 7, "probes: " + filter.getHashCount());
+        assertEquals(0, filter.getInsertions());
+        assertFalse(filter.isOverCapacity());
+    }
+
+    @Test
+    void rebuildSizesForTwiceThePlayers() {
+        DeathFilter filter = new DeathFilter();
+        List<UUID> players = players(50_000, 1);
+        filter.rebuild(players);
+
+        assertPowerOfTwo(filter.getBitCount());
+        assertTrue(filter.getBitCount() >= 100_000 * 9.6, "bits: " + filter.getBitCount());
+        assertEquals(players.size(), filter.getInsertions());
+        assertFalse(filter.isOverCapacity());
+        assertTrue(filter.getExpectedFalsePositiveRate() < 0.01,
+                "expected fpp: " + filter.getExpectedFalsePositiveRate());
+    }
+
+    @Test
+    void neverRejectsAddedPlayers() {
+        DeathFilter filter = new DeathFilter();
+        List<UUID> players = players(5_000, 2);
+        players.forEach(filter::add);
+
+        for (UUID player : players) {
+            assertTrue(filter.mightContain(player));
+        }
+        assertEquals(0, filter.getRejected());
+        assertTrue(filter.isOverCapacity());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTargetAtCapacity() {
+        DeathFilter filter = new DeathFilter();
+        filter.rebuild(players(10_000, 3));
+        // Fill up to the capacity it was sized for
+        players(10_000, 4).forEach(filter::add);
+
+        int passed = 0;
+        List<UUID> strangers = players(100_000, 5);
+        for (UUID stranger : strangers) {
+            if (filter.mightContain(stranger)) {
+                passed++;
+                filter.recordFalsePositive();
+            }
+        }
+
+        double rate = (double) passed / strangers.size();
+        assertTrue(rate < 0.02, "observed fpp: " + rate);
+        assertEquals(rate, filter.getObservedFalsePositiveRate(), 1e-9);
+    }
+
+    @Test
+    void countersSurviveRebuild() {
+        DeathFilter filter = new DeathFilter();
+        filter.mightContain(new UUID(1L, 1L));
+        filter.rebuild(List.of());
+
+        assertEquals(1, filter.getRejected());
+        assertEquals(2, filter.getRebuilds());
+    }
+
+    private static List<UUID> players(int count, long seed) {
+        Random random = new Random(seed);
+        List<UUID> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return players;
+    }
+
+    private static void assertPowerOfTwo(int value) {
+        assertEquals(1, Integer.bitCount(value), value + " is not a power of two");
+    }
+}
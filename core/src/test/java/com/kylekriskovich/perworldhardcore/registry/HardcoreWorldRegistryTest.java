@@ -0,0 +1,151 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.storage.MemoryBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HardcoreWorldRegistryTest {
+
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+    private static final Executor DIRECT = Runnable::run;
+
+    private static final List<String> HC1 = List.of("hc-1", "hc-1_nether", "hc-1_the_end");
+
+    private final MemoryBackend backend = new MemoryBackend();
+    private HardcoreDataStorage storage;
+    private HardcoreWorldRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        storage = new HardcoreDataStorage(backend, DIRECT, DIRECT,
+                Logger.getLogger(HardcoreWorldRegistryTest.class.getName()));
+        storage.init(() -> {
+        });
+        registry = new HardcoreWorldRegistry();
+        registry.register("hc-1", HC1, new HardcoreWorldSettings("hc-1"));
+        registry.register("hc-2", List.of(), new HardcoreWorldSettings("hc-2"));
+    }
+
+    @Test
+    void mapsDimensionsBothWays() {
+        assertEquals("hc-1", registry.getWorldId("hc-1_nether"));
+        assertEquals(HC1, registry.getDimensionNames("hc-1"));
+        // No dimensions given: the world id is its only dimension
+        assertEquals(List.of("hc-2"), registry.getDimensionNames("hc-2"));
+        assertEquals(Set.of("hc-1", "hc-2"), registry.getWorldIds());
+        assertNull(registry.getWorldId("lobby"));
+        assertFalse(registry.isHardcoreDimension("lobby"));
+        // Unknown ids are treated as a legacy single-dimension world
+        assertEquals(List.of("old"), registry.getDimensionNames("old"));
+    }
+
+    @Test
+    void dimensionCannotBelongToTwoWorlds() {
+        HardcoreWorldRegistry.Layout layout = HardcoreWorldRegistry.Layout.builder()
+                .add("hc-1", HC1, new HardcoreWorldSettings("hc-1"))
+                .add("hc-3", List.of("hc-3", "hc-1_nether"), new HardcoreWorldSettings("hc-3"))
+                .build();
+
+        assertEquals(Set.of("hc-3"), layoutDimensions(layout, "hc-3"));
+        assertEquals(1, layout.getProblems().size());
+    }
+
+    @Test
+    void deathFansOutToEveryDimension() {
+        registry.markVisitedWorld(storage, ALICE, "hc-1");
+        registry.markDeadInWorld(storage, ALICE, "hc-1_nether");
+
+        for (String dimension : HC1) {
+            assertTrue(storage.isPlayerDeadInWorld(ALICE, dimension), dimension);
+            assertTrue(storage.hasPlayerVisitedWorld(ALICE, dimension), dimension);
+        }
+        assertTrue(registry.hasDiedInWorld(storage, ALICE, "hc-1_the_end"));
+        assertFalse(registry.hasDiedInWorld(storage, ALICE, "hc-2"));
+        assertFalse(registry.hasDiedInWorld(storage, BOB, "hc-1"));
+
+        assertEquals(0, registry.getPopulation().getAlive("hc-1"));
+        assertEquals(1, registry.getPopulation().getDead("hc-1"));
+    }
+
+    @Test
+    void marksOutsideHardcoreWorldsAreIgnored() {
+        registry.markVisitedWorld(storage, ALICE, "lobby");
+        registry.markDeadInWorld(storage, ALICE, "lobby");
+
+        assertNull(storage.getPlayerState(ALICE));
+    }
+
+    @Test
+    void fullyDeadOnceEveryVisitorDied() {
+        registry.markVisitedWorld(storage, ALICE, "hc-1");
+        registry.markVisitedWorld(storage, BOB, "hc-1_nether");
+        registry.markDeadInWorld(storage, ALICE, "hc-1");
+
+        assertFalse(registry.isFullyDead(storage, "hc-1", "lobby"));
+        assertEquals(Set.of(), registry.findCullableWorlds(storage, "lobby"));
+
+        registry.markDeadInWorld(storage, BOB, "hc-1_the_end");
+        assertTrue(registry.isFullyDead(storage, "hc-1", "lobby"));
+        assertEquals(Set.of("hc-1"), registry.findCullableWorlds(storage, "lobby"));
+        // Never visited is not dead
+        assertFalse(registry.isFullyDead(storage, "hc-2", "lobby"));
+    }
+
+    @Test
+    void hubIsNeverCullable() {
+        registry.markVisitedWorld(storage, ALICE, "hc-2");
+        registry.markDeadInWorld(storage, ALICE, "hc-2");
+
+        assertEquals(Set.of(), registry.findCullableWorlds(storage, "hc-2"));
+    }
+
+    @Test
+    void rebuildCountsFromStorage() {
+        PlayerWorldState alice = new PlayerWorldState(ALICE);
+        alice.markVisited("hc-1_nether");
+        alice.markDeadIn("hc-1_nether");
+        PlayerWorldState bob = new PlayerWorldState(BOB);
+        bob.markVisited("hc-1");
+        bob.markVisited("hc-2");
+        bob.markVisited("gone");
+        storage.restore(Map.of(ALICE, alice, BOB, bob));
+
+        registry.rebuildPlayerIndexes(storage);
+
+        assertEquals(1, registry.getPopulation().getAlive("hc-1"));
+        assertEquals(1, registry.getPopulation().getDead("hc-1"));
+        assertEquals(1, registry.getPopulation().getAlive("hc-2"));
+        assertTrue(registry.hasDiedInWorld(storage, ALICE, "hc-1"));
+    }
+
+    @Test
+    void unregisterForgetsTheWorld() {
+        registry.markVisitedWorld(storage, ALICE, "hc-1");
+        registry.unregister("hc-1");
+
+        assertNull(registry.getWorldId("hc-1_nether"));
+        assertEquals(0, registry.getPopulation().getAlive("hc-1"));
+    }
+
+    private static Set<String> layoutDimensions(HardcoreWorldRegistry.Layout layout, String worldId) {
+        HardcoreWorldRegistry registry = new HardcoreWorldRegistry();
+        registry.replaceLayout(layout);
+        return Set.copyOf(registry.getDimensionNames(worldId));
+    }
+}
@@ -0,0 +1,135 @@
+package com.kylekriskovich.perworldhardcore.registry;
+
+import com.kylekriskovich.perworldhardcore.api.WorldStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerStatusIndexTest {
+
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+
+    @Test
+    void readsLatestMarks() {
+        PlayerStatusIndex index = new PlayerStatusIndex();
+        index.setWorldIds(Set.of("hc-1", "hc-2"));
+        index.markVisited(ALICE, "hc-1");
+        index.markVisited(ALICE, "hc-2");
+        index.markDead(ALICE, "hc-2");
+
+        assertEquals(WorldStatus.ALIVE, index.status(ALICE, "hc-1"));
+        assertEquals(WorldStatus.DEAD, index.status(ALICE, "hc-2"));
+        assertEquals(WorldStatus.NEVER_VISITED, index.status(BOB, "hc-1"));
+        assertEquals(WorldStatus.NEVER_VISITED, index.status(null, "hc-1"));
+        assertEquals(Set.of("hc-1"), index.aliveWorlds(ALICE));
+    }
+
+    @Test
+    void aliveWorldsOnlyListsRegisteredWorlds() {
+        PlayerStatusIndex index = new PlayerStatusIndex();
+        index.setWorldIds(Set.of("hc-1"));
+        index.markVisited(ALICE, "hc-1");
+        index.markVisited(ALICE, "gone");
+
+        assertEquals(Set.of("hc-1"), index.aliveWorlds(ALICE));
+    }
+
+    @Test
+    void forgottenWorldReadsAsNeverVisited() {
+        PlayerStatusIndex index = new PlayerStatusIndex();
+        index.markVisited(ALICE, "hc-1");
+        index.markDead(ALICE, "hc-1");
+        index.forgetWorld("hc-1");
+
+        assertEquals(WorldStatus.NEVER_VISITED, index.status(ALICE, "hc-1"));
+    }
+
+    @Test
+    void rebuildCompletesReadyAndReplacesEntries() {
+        PlayerStatusIndex index = new PlayerStatusIndex();
+        index.markVisited(ALICE, "hc-1");
+
+        index.replaceAll(Map.of(BOB, Set.of("hc-1")), Map.of());
+        assertTrue(index.ready().isDone());
+        assertEquals(WorldStatus.NEVER_VISITED, index.status(ALICE, "hc-1"));
+        assertEquals(WorldStatus.ALIVE, index.status(BOB, "hc-1"));
+    }
+
+    // ------------------------------------------------------------------------
+    // Snapshots
+    // ------------------------------------------------------------------------
+
+    @Test
+    void snapshotKeepsStateAsOfPin() {
+        PlayerStatusIndex index = new PlayerStatusIndex();
+        index.setWorldIds(Set.of("hc-1"));
+        index.markVisited(ALICE, "hc-1");
+
+        try (StateSnapshot snapshot = index.snapshot()) {
+            index.markDead(ALICE, "hc-1");
+            index.markVisited(BOB, "hc-1");
+            // A second change keeps the entry the snapshot sees, not the intermediate one
+            index.markVisited(ALICE, "hc-2");
+
+            Map<UUID, Set<String>> visited = new HashMap<>();
+            Map<UUID, Set<String>> dead = new HashMap<>();
+            snapshot.forEachPlayer((playerId, v, d) -> {
+                visited.put(playerId, v);
+                dead.put(playerId, d);
+            });
+
+            assertEquals(Map.of(ALICE, Set.of("hc-1")), visited);
+            assertEquals(Map.of(ALICE, Set.of()), dead);
+        }
+
+        assertEquals(WorldStatus.DEAD, index.status(ALICE, "hc-1"));
+        assertEquals(WorldStatus.ALIVE, index.status(BOB, "hc-1"));
+    }
+
+    @Test
+    void snapshotSurvivesRebuild() {
+        PlayerStatusIndex index = new PlayerStatusIndex();
+        index.markVisited(ALICE, "hc-1");
+
+        try (StateSnapshot snapshot = index.snapshot()) {
+            index.replaceAll(Map.of(BOB, Set.of("hc-1")), Map.of(BOB, Set.of("hc-1")));
+
+            Map<UUID, Set<String>> seen = new HashMap<>();
+            snapshot.forEachPlayer((playerId, visited, dead) -> seen.put(playerId, visited));
+            assertEquals(Map.of(ALICE, Set.of("hc-1")), seen);
+        }
+    }
+
+    @Test
+    void onlyOneSnapshotAtATime() {
+        PlayerStatusIndex index = new PlayerStatusIndex();
+        StateSnapshot first = index.snapshot();
+        assertThrows(IllegalStateException.class, index::snapshot);
+
+        first.close();
+        index.markDead(ALICE, "hc-1");
+        try (StateSnapshot second = index.snapshot()) {
+            Map<UUID, Set<String>> dead = new HashMap<>();
+            second.forEachPlayer((playerId, visited, d) -> dead.put(playerId, d));
+            assertEquals(Map.of(ALICE, Set.of("hc-1")), dead);
+        }
+    }
+
+    @Test
+    void countsOnlyRealChanges() {
+        PlayerStatusIndex index = new PlayerStatusIndex();
+        index.markVisited(ALICE, "hc-1");
+        index.markVisited(ALICE, "hc-1");
+        index.forgetWorld("hc-2");
+
+        assertEquals(1, index.changeCount());
+    }
+}
@@ -0,0 +1,87 @@
+package com.kylekriskovich.perworldhardcore.season;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CronScheduleTest {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    /**
+     * Wednesday.
+     */
+    private static final ZonedDateTime WEDNESDAY = ZonedDateTime.of(2025, 1, 1, 12, 30, 0, 0, UTC);
+
+    @Test
+    void weeklyFridayEvening() {
+        CronSchedule schedule = CronSchedule.parse("0 18 * * 5");
+
+        ZonedDateTime next = schedule.next(WEDNESDAY);
+        assertEquals(at(2025, 1, 3, 18, 0), next);
+        assertEquals(at(2025, 1, 10, 18, 0), schedule.next(next));
+    }
+
+    @Test
+    void nextIsStrictlyAfter() {
+        CronSchedule schedule = CronSchedule.parse("30 12 * * *");
+
+        assertEquals(at(2025, 1, 2, 12, 30), schedule.next(WEDNESDAY));
+        assertEquals(at(2025, 1, 2, 12, 30), schedule.next(WEDNESDAY.plusSeconds(59)));
+    }
+
+    @Test
+    void stepsRangesAndLists() {
+        assertEquals(at(2025, 1, 1, 12, 45), CronSchedule.parse("*/15 * * * *").next(WEDNESDAY));
+        assertEquals(at(2025, 1, 1, 13, 10), CronSchedule.parse("10-50/20 13 * * *").next(WEDNESDAY));
+        assertEquals(at(2025, 1, 15, 0, 0), CronSchedule.parse("0 0 1,15 * *").next(WEDNESDAY));
+    }
+
+    @Test
+    void sundayIsZeroOrSeven() {
+        ZonedDateTime sunday = at(2025, 1, 5, 0, 0);
+
+        assertEquals(sunday, CronSchedule.parse("0 0 * * 0").next(WEDNESDAY));
+        assertEquals(sunday, CronSchedule.parse("0 0 * * 7").next(WEDNESDAY));
+        assertEquals(sunday, CronSchedule.parse("@weekly").next(WEDNESDAY));
+    }
+
+    @Test
+    void restrictedDayFieldsMatchEither() {
+        // The 22nd or any Monday, whichever comes first
+        CronSchedule schedule = CronSchedule.parse("0 0 22 * 1");
+
+        assertEquals(at(2025, 1, 6, 0, 0), schedule.next(WEDNESDAY));
+        assertEquals(at(2025, 1, 22, 0, 0), schedule.next(at(2025, 1, 20, 0, 0)));
+    }
+
+    @Test
+    void monthBoundaries() {
+        assertEquals(at(2025, 2, 1, 0, 0), CronSchedule.parse("@monthly").next(WEDNESDAY));
+        assertEquals(at(2025, 3, 31, 0, 0), CronSchedule.parse("0 0 31 * *").next(at(2025, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void rejectsMalformedExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> CronSchedule.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> CronSchedule.parse("0 18 * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronSchedule.parse("60 * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronSchedule.parse("0 5-1 * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronSchedule.parse("0 x * * *"));
+    }
+
+    @Test
+    void impossibleScheduleNeverFires() {
+        CronSchedule schedule = CronSchedule.parse("0 0 30 2 *");
+
+        assertThrows(IllegalStateException.class, () -> schedule.next(WEDNESDAY));
+    }
+
+    private static ZonedDateTime at(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, UTC);
+    }
+}
@@ -0,0 +1,145 @@
+package com.kylekriskovich.perworldhardcore.season;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeasonRotationTest {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final long HOUR = 3_600_000L;
+
+    /**
+     * Fridays 18:00, off-peak 02:00-06:00, keep 2, prepare up to a day ahead.
+     */
+    private static SeasonRotation rotation(SeasonRotation.State state) {
+        return new SeasonRotation(CronSchedule.parse("0 18 * * 5"), "season-{n}", 2, 24 * HOUR,
+                SeasonRotation.Window.parse("02:00-06:00"), UTC, state);
+    }
+
+    @Test
+    void firstSeasonStartsRightAway() {
+        SeasonRotation rotation = rotation(SeasonRotation.State.INITIAL);
+        long now = millis(2025, 1, 1, 12, 0);
+
+        assertEquals(new SeasonRotation.Action(SeasonRotation.Step.PREPARE, "season-1"), rotation.next(now));
+        rotation.prepared("season-1");
+        assertEquals(new SeasonRotation.Action(SeasonRotation.Step.ACTIVATE, "season-1"), rotation.next(now));
+
+        rotation.activated("season-1", now);
+        SeasonRotation.State state = rotation.getState();
+        assertEquals(1, state.season());
+        assertEquals("season-1", state.active());
+        assertNull(state.prepared());
+        assertEquals(millis(2025, 1, 3, 18, 0), state.nextBoundary());
+    }
+
+    @Test
+    void preparesOffPeakOrAtTheLastChance() {
+        long boundary = millis(2025, 1, 3, 18, 0);
+        SeasonRotation rotation = rotation(new SeasonRotation.State(1, "season-1", null, boundary,
+                List.of("season-1")));
+
+        // Too early, then within the day ahead but on-peak
+        assertNull(rotation.next(millis(2025, 1, 2, 3, 0)));
+        assertNull(rotation.next(millis(2025, 1, 3, 12, 0)));
+        // Off-peak within the day ahead
+        assertEquals(new SeasonRotation.Action(SeasonRotation.Step.PREPARE, "season-2"),
+                rotation.next(millis(2025, 1, 3, 3, 0)));
+        // Half an hour before the boundary, off-peak or not
+        assertEquals(new SeasonRotation.Action(SeasonRotation.Step.PREPARE, "season-2"),
+                rotation.next(boundary - HOUR / 2));
+    }
+
+    @Test
+    void activatesOnlyAtTheBoundary() {
+        long boundary = millis(2025, 1, 3, 18, 0);
+        SeasonRotation rotation = rotation(new SeasonRotation.State(1, "season-1", "season-2", boundary,
+                List.of("season-1", "season-2")));
+
+        assertNull(rotation.next(boundary - 1));
+        assertEquals(new SeasonRotation.Action(SeasonRotation.Step.ACTIVATE, "season-2"), rotation.next(boundary));
+    }
+
+    @Test
+    void missedBoundariesCollapseIntoOne() {
+        long boundary = millis(2025, 1, 3, 18, 0);
+        SeasonRotation rotation = rotation(new SeasonRotation.State(1, "season-1", "season-2", boundary,
+                List.of("season-1", "season-2")));
+
+        // Server was offline for two weeks
+        long now = millis(2025, 1, 15, 9, 0);
+        rotation.activated("season-2", now);
+        assertEquals(2, rotation.getState().season());
+        assertEquals(millis(2025, 1, 17, 18, 0), rotation.getState().nextBoundary());
+    }
+
+    @Test
+    void retiresOldestBeyondKeepLastOffPeak() {
+        long boundary = millis(2025, 1, 10, 18, 0);
+        SeasonRotation rotation = rotation(new SeasonRotation.State(3, "season-3", null, boundary,
+                List.of("season-1", "season-2", "season-3")));
+
+        assertNull(rotation.next(millis(2025, 1, 4, 12, 0)));
+        assertEquals(new SeasonRotation.Action(SeasonRotation.Step.RETIRE, "season-1"),
+                rotation.next(millis(2025, 1, 4, 3, 0)));
+
+        rotation.retired("season-1");
+        assertNull(rotation.next(millis(2025, 1, 4, 3, 0)));
+        assertEquals(List.of("season-2", "season-3"), rotation.getState().seasons());
+    }
+
+    @Test
+    void preparedWorldDoesNotCountTowardsKeepLast() {
+        long boundary = millis(2025, 1, 10, 18, 0);
+        SeasonRotation rotation = rotation(new SeasonRotation.State(2, "season-2", "season-3", boundary,
+                List.of("season-1", "season-2", "season-3")));
+
+        assertNull(rotation.next(millis(2025, 1, 10, 3, 0)));
+    }
+
+    @Test
+    void advanceNowMovesTheBoundaryForward() {
+        long boundary = millis(2025, 1, 10, 18, 0);
+        SeasonRotation rotation = rotation(new SeasonRotation.State(1, "season-1", null, boundary,
+                List.of("season-1")));
+        long now = millis(2025, 1, 6, 12, 0);
+
+        rotation.advanceNow(now);
+        assertEquals(new SeasonRotation.Action(SeasonRotation.Step.PREPARE, "season-2"), rotation.next(now));
+    }
+
+    @Test
+    void dateInWorldName() {
+        SeasonRotation rotation = new SeasonRotation(CronSchedule.parse("@weekly"), "hc-{date}", 1, 0L,
+                SeasonRotation.Window.ALWAYS, UTC,
+                new SeasonRotation.State(1, "hc-2024-12-29", null, millis(2025, 1, 5, 0, 0), List.of()));
+
+        assertEquals("hc-2025-01-05", rotation.nextWorldId());
+        assertThrows(IllegalArgumentException.class, () -> new SeasonRotation(CronSchedule.parse("@weekly"),
+                "hc", 1, 0L, SeasonRotation.Window.ALWAYS, UTC, SeasonRotation.State.INITIAL));
+    }
+
+    @Test
+    void offPeakWindowMayWrapMidnight() {
+        SeasonRotation.Window window = SeasonRotation.Window.parse("22:00-04:00");
+
+        assertTrue(window.contains(LocalTime.of(23, 0)));
+        assertTrue(window.contains(LocalTime.of(3, 59)));
+        assertFalse(window.contains(LocalTime.of(4, 0)));
+        assertThrows(IllegalArgumentException.class, () -> SeasonRotation.Window.parse("22:00"));
+    }
+
+    private static long millis(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, UTC).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,227 @@
+package com.kylekriskovich.perworldhardcore.storage;
+
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HardcoreDataStorageTest {
+
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+
+    private final Queue<Runnable> asyncTasks = new ArrayDeque<>();
+    private final Queue<Runnable> mainTasks = new ArrayDeque<>();
+    private final MemoryBackend backend = new MemoryBackend();
+
+    private HardcoreDataStorage storage() {
+        return new HardcoreDataStorage(backend, asyncTasks::add, mainTasks::add,
+                Logger.getLogger(HardcoreDataStorageTest.class.getName()));
+    }
+
+    @Test
+    void loadMergesWithMarksRecordedMeanwhile() {
+        PlayerWorldState stored = new PlayerWorldState(ALICE);
+        stored.markVisited("hc-1");
+        stored.markDeadIn("hc-1");
+        stored.setLastSeenMillis(1_000L);
+        backend.put(stored);
+
+        HardcoreDataStorage storage = storage();
+        boolean[] loaded = new boolean[1];
+        storage.init(() -> loaded[0] = true);
+
+        // A join before the load finished
+        storage.markPlayerVisitedWorld(ALICE, "hc-2");
+        storage.markPlayerVisitedWorld(BOB, "hc-1");
+        assertFalse(storage.isLoaded());
+
+        run(asyncTasks);
+        assertFalse(loaded[0], "merged on the main thread only");
+        run(mainTasks);
+
+        assertTrue(loaded[0]);
+        assertTrue(storage.isLoaded());
+        assertTrue(storage.isPlayerDeadInWorld(ALICE, "hc-1"));
+        assertEquals(Set.of("hc-1", "hc-2"), storage.getPlayerState(ALICE).getVisitedWorlds());
+        assertTrue(storage.hasPlayerVisitedWorld(BOB, "hc-1"));
+    }
+
+    @Test
+    void nothingIsSavedBeforeTheLoad() {
+        HardcoreDataStorage storage = storage();
+        storage.init(() -> {
+        });
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+
+        storage.flush();
+        assertEquals(0, backend.getSaves());
+    }
+
+    @Test
+    void failedLoadSavesNothingUntilARetrySucceeds() {
+        PlayerWorldState stored = new PlayerWorldState(ALICE);
+        stored.markDeadIn("hc-1");
+        backend.put(stored);
+        backend.setFailLoad(true);
+
+        HardcoreDataStorage storage = storage();
+        int[] calls = new int[2];
+        storage.init(() -> calls[0]++, () -> calls[1]++);
+        run(asyncTasks);
+        run(mainTasks);
+
+        assertFalse(storage.isLoaded());
+        assertTrue(storage.isLoadFailed());
+        assertEquals(0, calls[0]);
+        assertEquals(1, calls[1]);
+
+        storage.markPlayerDeadInWorld(BOB, "hc-1");
+        storage.flush();
+        storage.shutdown();
+        assertEquals(0, backend.getSaves());
+
+        backend.setFailLoad(false);
+        storage.init(() -> calls[0]++, () -> calls[1]++);
+        assertFalse(storage.isLoadFailed());
+        run(asyncTasks);
+        run(mainTasks);
+
+        assertTrue(storage.isLoaded());
+        assertEquals(1, calls[0]);
+        assertEquals(1, calls[1]);
+        assertTrue(storage.isPlayerDeadInWorld(ALICE, "hc-1"));
+        assertTrue(storage.isPlayerDeadInWorld(BOB, "hc-1"));
+        storage.flush();
+        assertEquals(1, backend.getSaves());
+    }
+
+    @Test
+    void shutdownMergesALoadStillInFlight() {
+        PlayerWorldState stored = new PlayerWorldState(ALICE);
+        stored.markDeadIn("hc-1");
+        backend.put(stored);
+
+        HardcoreDataStorage storage = storage();
+        storage.init(() -> {
+        });
+        run(asyncTasks);
+        storage.markPlayerVisitedWorld(BOB, "hc-1");
+
+        storage.shutdown();
+        assertEquals(1, backend.getSaves());
+        assertEquals(Set.of(ALICE, BOB), backend.getStored().keySet());
+    }
+
+    @Test
+    void flushWritesOnlyWhenDirty() {
+        HardcoreDataStorage storage = loadedStorage();
+
+        storage.flush();
+        assertEquals(0, backend.getSaves());
+
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+        assertTrue(storage.isDirty());
+        storage.flush();
+        assertEquals(1, backend.getSaves());
+        assertFalse(storage.isDirty());
+
+        // Repeated marks are no change
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+        storage.touchPlayer(ALICE, 5_000L);
+        storage.flush();
+        assertEquals(1, backend.getSaves());
+    }
+
+    @Test
+    void onlyDeathsAskForAnImmediateWrite() {
+        HardcoreDataStorage storage = storage();
+        storage.markPlayerDeadInWorld(ALICE, "hc-1");
+        // Not before the load: it would overwrite the stored data
+        assertFalse(storage.hasUnsavedDeaths());
+
+        storage.init(() -> {
+        });
+        run(asyncTasks);
+        run(mainTasks);
+        assertTrue(storage.hasUnsavedDeaths());
+        storage.flush();
+        assertFalse(storage.hasUnsavedDeaths());
+
+        storage.markPlayerVisitedWorld(BOB, "hc-1");
+        assertTrue(storage.isDirty());
+        assertFalse(storage.hasUnsavedDeaths());
+
+        storage.markPlayerDeadInWorld(BOB, "hc-1");
+        assertTrue(storage.hasUnsavedDeaths());
+        // Already dead: nothing new to write
+        storage.flush();
+        storage.markPlayerDeadInWorld(BOB, "hc-1");
+        assertFalse(storage.hasUnsavedDeaths());
+    }
+
+    @Test
+    void cullableDimensionsAreThoseWhereEveryVisitorDied() {
+        HardcoreDataStorage storage = loadedStorage();
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+        storage.markPlayerDeadInWorld(ALICE, "hc-1");
+        storage.markPlayerVisitedWorld(ALICE, "hc-2");
+        storage.markPlayerDeadInWorld(ALICE, "hc-2");
+        storage.markPlayerVisitedWorld(BOB, "hc-2");
+        storage.markPlayerVisitedWorld(ALICE, "lobby");
+        storage.markPlayerDeadInWorld(ALICE, "lobby");
+
+        assertEquals(Set.of("hc-1"),
+                storage.findCullableWorlds(Set.of("hc-1", "hc-2", "hc-3", "lobby"), "lobby"));
+    }
+
+    @Test
+    void removedWorldDataIsReported() {
+        HardcoreDataStorage storage = loadedStorage();
+        String[] removed = new String[1];
+        storage.setChangeListener(new StorageChangeListener() {
+            @Override
+            public void visited(UUID playerId, String worldName) {
+            }
+
+            @Override
+            public void died(UUID playerId, String worldName) {
+            }
+
+            @Override
+            public void worldRemoved(String worldName) {
+                removed[0] = worldName;
+            }
+        });
+        storage.markPlayerVisitedWorld(ALICE, "hc-1");
+        storage.markPlayerDeadInWorld(ALICE, "hc-1");
+
+        storage.removeWorldData("hc-1");
+        assertFalse(storage.hasPlayerVisitedWorld(ALICE, "hc-1"));
+        assertFalse(storage.isPlayerDeadInWorld(ALICE, "hc-1"));
+        assertEquals("hc-1", removed[0]);
+    }
+
+    private HardcoreDataStorage loadedStorage() {
+        HardcoreDataStorage storage = storage();
+        storage.init(() -> {
+        });
+        run(asyncTasks);
+        run(mainTasks);
+        return storage;
+    }
+
+    private static void run(Queue<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+}
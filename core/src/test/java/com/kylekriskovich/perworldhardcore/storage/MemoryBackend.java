@@ -0,0 +1,56 @@
+package com.kylekriskovich.perworldhardcore.storage;
+
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link PlayerDataBackend} kept in memory, storing copies like a file would.
+ */
+public final class MemoryBackend implements PlayerDataBackend {
+
+    private final Map<UUID, PlayerWorldState> stored = new HashMap<>();
+    private int saves;
+    private boolean failLoad;
+
+    public MemoryBackend put(PlayerWorldState state) {
+        stored.put(state.getPlayerId(), state.copy());
+        return this;
+    }
+
+    public Map<UUID, PlayerWorldState> getStored() {
+        return stored;
+    }
+
+    public int getSaves() {
+        return saves;
+    }
+
+    public void setFailLoad(boolean failLoad) {
+        this.failLoad = failLoad;
+    }
+
+    @Override
+    public Map<UUID, PlayerWorldState> load() throws IOException {
+        if (failLoad) {
+            throw new IOException("Simulated load failure");
+        }
+        Map<UUID, PlayerWorldState> copies = new HashMap<>();
+        stored.forEach((id, state) -> copies.put(id, state.copy()));
+        return copies;
+    }
+
+    @Override
+    public long save(Collection<PlayerWorldState> players) {
+        stored.clear();
+        for (PlayerWorldState state : players) {
+            put(state);
+        }
+        saves++;
+        return -1;
+    }
+}
@@ -0,0 +1,161 @@
+package com.kylekriskovich.perworldhardcore.storage;
+
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetentionCompactorTest {
+
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+    private static final Executor DIRECT = Runnable::run;
+    private static final Logger LOGGER = Logger.getLogger(RetentionCompactorTest.class.getName());
+
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final MemoryBackend backend = new MemoryBackend();
+    private final Set<String> live = new HashSet<>(Set.of("hc-1"));
+    private final Set<UUID> online = new HashSet<>();
+    private int rebuilds;
+
+    @Test
+    void deletedWorldIsDroppedOnlyAfterGrace() {
+        HardcoreDataStorage storage = storage(player(ALICE, T0, "hc-1", "old"));
+        RetentionCompactor compactor = compactor(storage, DAY, 0L, Long.MAX_VALUE);
+
+        compactor.tick(T0);
+        compactor.tick(T0 + 23 * HOUR);
+        assertTrue(storage.hasPlayerVisitedWorld(ALICE, "old"));
+
+        compactor.tick(T0 + DAY);
+        assertFalse(storage.hasPlayerVisitedWorld(ALICE, "old"));
+        assertTrue(storage.hasPlayerVisitedWorld(ALICE, "hc-1"));
+    }
+
+    @Test
+    void registeringAgainRestartsGrace() {
+        HardcoreDataStorage storage = storage(player(ALICE, T0, "hc-1", "hc-2"));
+        RetentionCompactor compactor = compactor(storage, DAY, 0L, Long.MAX_VALUE);
+
+        compactor.tick(T0);
+        // Briefly back, e.g. a config edit reverted
+        live.add("hc-2");
+        compactor.tick(T0 + 12 * HOUR);
+        live.remove("hc-2");
+
+        compactor.tick(T0 + 30 * HOUR);
+        assertTrue(storage.hasPlayerVisitedWorld(ALICE, "hc-2"));
+        compactor.tick(T0 + 54 * HOUR);
+        assertFalse(storage.hasPlayerVisitedWorld(ALICE, "hc-2"));
+    }
+
+    @Test
+    void playerLeftWithoutWorldsIsRemoved() {
+        HardcoreDataStorage storage = storage(player(ALICE, T0, "old"), player(BOB, T0, "hc-1"));
+        RetentionCompactor compactor = compactor(storage, 0L, 0L, Long.MAX_VALUE);
+
+        compactor.tick(T0);
+        assertNull(storage.getPlayerState(ALICE));
+        assertNotNull(storage.getPlayerState(BOB));
+        assertEquals(1, rebuilds);
+    }
+
+    @Test
+    void emptyRegistryKeepsEverything() {
+        HardcoreDataStorage storage = storage(player(ALICE, T0, "hc-1"));
+        live.clear();
+        RetentionCompactor compactor = compactor(storage, 0L, 0L, Long.MAX_VALUE);
+
+        compactor.tick(T0);
+        compactor.tick(T0 + 10 * DAY);
+        assertTrue(storage.hasPlayerVisitedWorld(ALICE, "hc-1"));
+        assertEquals(0, rebuilds);
+    }
+
+    @Test
+    void inactivePlayersAreRemovedUnlessOnline() {
+        HardcoreDataStorage storage = storage(player(ALICE, T0, "hc-1"), player(BOB, T0, "hc-1"));
+        online.add(BOB);
+        RetentionCompactor compactor = compactor(storage, DAY, 30 * DAY, Long.MAX_VALUE);
+
+        compactor.tick(T0 + 29 * DAY);
+        assertNotNull(storage.getPlayerState(ALICE));
+
+        compactor.requestPass();
+        compactor.tick(T0 + 31 * DAY);
+        assertNull(storage.getPlayerState(ALICE));
+        assertNotNull(storage.getPlayerState(BOB));
+        assertEquals(1, rebuilds);
+    }
+
+    @Test
+    void legacyRecordsCountFromLoadNotFromEpoch() {
+        // Stored before last-seen was tracked
+        HardcoreDataStorage storage = storage(player(ALICE, 0L, "hc-1"), player(BOB, 1_000L, "hc-1"));
+        RetentionCompactor compactor = compactor(storage, DAY, 30 * DAY, Long.MAX_VALUE);
+
+        compactor.tick(System.currentTimeMillis() + DAY);
+        assertNotNull(storage.getPlayerState(ALICE));
+        assertNull(storage.getPlayerState(BOB));
+    }
+
+    @Test
+    void passRunsInSlicesAcrossTicks() {
+        PlayerWorldState[] players = new PlayerWorldState[200];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = player(new UUID(1L, i), T0, "old");
+        }
+        HardcoreDataStorage storage = storage(players);
+        // No budget: stop at every clock check
+        RetentionCompactor compactor = compactor(storage, 0L, 0L, 0L);
+
+        int ticks = 0;
+        do {
+            compactor.tick(T0);
+            ticks++;
+        } while (compactor.isRunning());
+
+        assertEquals(4, ticks);
+        assertTrue(storage.getPlayerIds().isEmpty());
+        assertEquals(1, rebuilds);
+    }
+
+    private HardcoreDataStorage storage(PlayerWorldState... players) {
+        for (PlayerWorldState player : players) {
+            backend.put(player);
+        }
+        HardcoreDataStorage storage = new HardcoreDataStorage(backend, DIRECT, DIRECT, LOGGER);
+        storage.init(() -> {
+        });
+        return storage;
+    }
+
+    private RetentionCompactor compactor(HardcoreDataStorage storage, long graceMillis, long maxInactiveMillis,
+                                         long budgetNanos) {
+        return new RetentionCompactor(storage, () -> Set.copyOf(live), online::contains, () -> rebuilds++,
+                true, graceMillis, maxInactiveMillis, 1L, budgetNanos, LOGGER, new MetricsRegistry());
+    }
+
+    private static PlayerWorldState player(UUID playerId, long lastSeenMillis, String... visited) {
+        PlayerWorldState state = new PlayerWorldState(playerId);
+        for (String world : visited) {
+            state.markVisited(world);
+        }
+        state.setLastSeenMillis(lastSeenMillis);
+        return state;
+    }
+}
@@ -0,0 +1,56 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DeltaBatchTest {
+
+    private static final UUID PLAYER = UUID.fromString("3f1c2a4e-7b5d-4c1e-9a2b-6d8e0f1a2b3c");
+
+    @Test
+    void roundTrips() throws IOException {
+        DeltaBatch batch = new DeltaBatch("lobby@1700000000000", 42, List.of(
+                new StateDelta(StateDelta.Kind.VISIT, PLAYER, "hc-1", 1_000L),
+                new StateDelta(StateDelta.Kind.DEATH, PLAYER, "hc-1_nether", 2_000L),
+                new StateDelta(StateDelta.Kind.REMOVE_WORLD, null, "hc-0", 3_000L)));
+
+        assertEquals(batch, DeltaBatch.decode(batch.encode()));
+    }
+
+    @Test
+    void roundTripsEmptyBatch() throws IOException {
+        DeltaBatch batch = new DeltaBatch("lobby", 1, List.of());
+        assertEquals(batch, DeltaBatch.decode(batch.encode()));
+    }
+
+    @Test
+    void rejectsForeignPayload() {
+        assertThrows(IOException.class, () -> DeltaBatch.decode(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    void rejectsUnknownDeltaKind() {
+        byte[] payload = new DeltaBatch("lobby", 1, List.of(
+                new StateDelta(StateDelta.Kind.VISIT, null, "hc-1", 1_000L))).encode();
+        // magic, version, UTF origin (2 + 5 bytes), sequence, count, then the kind
+        payload[4 + 1 + 2 + 5 + 8 + 4] = 99;
+
+        assertThrows(IOException.class, () -> DeltaBatch.decode(payload));
+    }
+
+    @Test
+    void rejectsTruncatedPayload() {
+        byte[] payload = new DeltaBatch("lobby", 1, List.of(
+                new StateDelta(StateDelta.Kind.DEATH, PLAYER, "hc-1", 1_000L))).encode();
+        byte[] truncated = Arrays.copyOf(payload, payload.length - 4);
+
+        assertThrows(IOException.class, () -> DeltaBatch.decode(truncated));
+    }
+}
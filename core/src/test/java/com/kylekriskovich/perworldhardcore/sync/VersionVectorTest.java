@@ -0,0 +1,41 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionVectorTest {
+
+    @Test
+    void dropsDuplicates() {
+        VersionVector vector = new VersionVector();
+        assertTrue(vector.markSeen("a", 1));
+        assertTrue(vector.markSeen("a", 2));
+        assertFalse(vector.markSeen("a", 1));
+        assertFalse(vector.markSeen("a", 2));
+    }
+
+    @Test
+    void appliesLateBatchesOnce() {
+        VersionVector vector = new VersionVector();
+        assertTrue(vector.markSeen("a", 3));
+        assertTrue(vector.markSeen("a", 1));
+        assertFalse(vector.markSeen("a", 3));
+        assertTrue(vector.markSeen("a", 2));
+
+        // 1-3 are now below the floor
+        assertFalse(vector.markSeen("a", 2));
+        assertTrue(vector.markSeen("a", 4));
+    }
+
+    @Test
+    void tracksOriginsSeparately() {
+        VersionVector vector = new VersionVector();
+        assertTrue(vector.markSeen("a", 1));
+        assertTrue(vector.markSeen("b", 1));
+        assertFalse(vector.markSeen("b", 1));
+        assertEquals(2, vector.origins());
+    }
+}
@@ -0,0 +1,83 @@
+package com.kylekriskovich.perworldhardcore.trace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceSegmentWriterTest {
+
+    private static final int SEGMENT_BYTES = 512;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsAndKeepsNewestSegments() throws IOException {
+        List<TraceRecord> written = new ArrayList<>();
+        try (TraceSegmentWriter writer = new TraceSegmentWriter(directory, SEGMENT_BYTES, 3)) {
+            writer.open();
+            for (int i = 0; i < 500; i++) {
+                TraceRecord record = record(i);
+                assertTrue(writer.write(record));
+                written.add(record);
+            }
+        }
+
+        List<Path> segments = TraceReader.segments(directory);
+        assertEquals(3, segments.size());
+
+        List<TraceRecord> read = new ArrayList<>();
+        TraceReader.read(directory, read::add);
+        assertFalse(read.isEmpty());
+        // The oldest segments are gone; what is left is the tail, in order
+        assertEquals(written.subList(written.size() - read.size(), written.size()), read);
+    }
+
+    @Test
+    void continuesNumberingAfterReopen() throws IOException {
+        try (TraceSegmentWriter writer = new TraceSegmentWriter(directory, SEGMENT_BYTES, 10)) {
+            writer.open();
+            writer.write(record(0));
+        }
+        try (TraceSegmentWriter writer = new TraceSegmentWriter(directory, SEGMENT_BYTES, 10)) {
+            writer.open();
+            writer.write(record(1));
+        }
+
+        List<Path> segments = TraceReader.segments(directory);
+        assertEquals(List.of(TraceFormat.segmentName(0), TraceFormat.segmentName(1)),
+                segments.stream().map(p -> p.getFileName().toString()).toList());
+
+        List<TraceRecord> read = new ArrayList<>();
+        TraceReader.read(directory, read::add);
+        assertEquals(List.of(record(0), record(1)), read);
+    }
+
+    @Test
+    void skipsRecordThatCanNeverFit() throws IOException {
+        try (TraceSegmentWriter writer = new TraceSegmentWriter(directory, 128, 10)) {
+            writer.open();
+            assertFalse(writer.write(new TraceRecord(1_000L, TraceEventType.DEATH, null, "hc-1", "x".repeat(200))));
+            assertTrue(writer.write(record(1)));
+        }
+
+        List<TraceRecord> read = new ArrayList<>();
+        TraceReader.read(directory, read::add);
+        assertEquals(List.of(record(1)), read);
+    }
+
+    private static TraceRecord record(int i) {
+        UUID player = i % 2 == 0 ? new UUID(0L, i) : null;
+        return new TraceRecord(1_700_000_000_000L + i * 50L, TraceEventType.CHANGE_WORLD, player,
+                "hc-" + (i % 3), i % 5 == 0 ? "hc" : null);
+    }
+}
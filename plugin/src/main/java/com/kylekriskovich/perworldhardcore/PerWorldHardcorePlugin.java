@@ -0,0 +1,963 @@
+package com.kylekriskovich.perworldhardcore;
+
+import com.kylekriskovich.perworldhardcore.api.HardcoreQueryService;
+import com.kylekriskovich.perworldhardcore.backup.BackupManager;
+import com.kylekriskovich.perworldhardcore.command.HardcoreCommands;
+import com.kylekriskovich.perworldhardcore.config.ConfigReloader;
+import com.kylekriskovich.perworldhardcore.config.HardcoreWorldLayoutReader;
+import com.kylekriskovich.perworldhardcore.export.SnapshotFormat;
+import com.kylekriskovich.perworldhardcore.export.StateExporter;
+import com.kylekriskovich.perworldhardcore.history.DeathHistory;
+import com.kylekriskovich.perworldhardcore.jfr.ConfigReloadEvent;
+import com.kylekriskovich.perworldhardcore.jfr.EnforcementEvent;
+import com.kylekriskovich.perworldhardcore.listener.HardcorePlayerListener;
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.metrics.PluginMetrics;
+import com.kylekriskovich.perworldhardcore.model.HardcoreDimension;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import com.kylekriskovich.perworldhardcore.registry.IndexedQueryService;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.storage.RetentionCompactor;
+import com.kylekriskovich.perworldhardcore.storage.YamlPlayerDataBackend;
+import com.kylekriskovich.perworldhardcore.sync.DirectorySyncTransport;
+import com.kylekriskovich.perworldhardcore.sync.PluginMessagingSyncTransport;
+import com.kylekriskovich.perworldhardcore.sync.ReplicationService;
+import com.kylekriskovich.perworldhardcore.sync.SyncTransport;
+import com.kylekriskovich.perworldhardcore.trace.TraceEventType;
+import com.kylekriskovich.perworldhardcore.trace.TraceRecorder;
+import com.kylekriskovich.perworldhardcore.util.MessageManager;
+import com.kylekriskovich.perworldhardcore.world.AdmissionController;
+import com.kylekriskovich.perworldhardcore.world.DeadWorldFreezer;
+import com.kylekriskovich.perworldhardcore.world.PopulationBossBars;
+import com.kylekriskovich.perworldhardcore.world.SeasonScheduler;
+import com.kylekriskovich.perworldhardcore.world.SpectatorLimiter;
+import com.kylekriskovich.perworldhardcore.world.StaggeredAutosave;
+import com.kylekriskovich.perworldhardcore.world.WorldHandoff;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.Difficulty;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.logging.Level;
+
+public class PerWorldHardcorePlugin extends JavaPlugin {
+
+    /**
+     * Delay before data.yml is read again after a failed load.
+     */
+    private static final long STORAGE_RETRY_TICKS = 20L * 30;
+
+    private final HardcoreWorldRegistry registry = new HardcoreWorldRegistry();
+
+    private HardcoreDataStorage dataStorage;
+    private DeathHistory deathHistory;
+
+    private boolean hasMultiverseInventories;
+    private Plugin multiverseInventories;
+    private MessageManager messageManager;
+    private DeadWorldFreezer deadWorldFreezer;
+    private SpectatorLimiter spectatorLimiter;
+    private AdmissionController admissionController;
+    private StaggeredAutosave staggeredAutosave;
+    private PopulationBossBars populationBossBars;
+    private WorldHandoff worldHandoff;
+    private HardcorePlayerListener playerListener;
+    private PluginMetrics metrics;
+    private TraceRecorder eventTrace;
+    private ReplicationService replication;
+    private PluginMessagingSyncTransport messagingTransport;
+    private BukkitTask replicationFlushTask;
+    private StateExporter stateExporter;
+    private RetentionCompactor retention;
+    private BukkitTask retentionTask;
+    private BackupManager backups;
+    private BukkitTask backupTask;
+    private SeasonScheduler seasons;
+    private ConfigReloader configReloader;
+
+    /**
+     * Set by an async reload; replaces JavaPlugin's own config in one write.
+     */
+    private volatile FileConfiguration reloadedConfig;
+
+    /**
+     * Bumped by every in-plugin config save (main thread), so a reload parsed
+     * before it can tell it is stale.
+     */
+    private int configGeneration;
+    private BukkitTask stateExportTask;
+
+
+    @Override
+    public void onEnable() {
+        this.messageManager = new MessageManager(this);
+
+        if (!checkHardDependencies()) {
+            getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+        setHasMultiverseInventories();
+
+        saveDefaultConfig();
+
+        loadHardcoreWorlds();
+
+        configReloader = new ConfigReloader(this);
+        if (getConfig().getBoolean("config-watch.enabled", false)) {
+            configReloader.startWatching(Math.max(100L, getConfig().getLong("config-watch.debounce-ms", 1000L)));
+        }
+
+        metrics = new PluginMetrics(this);
+
+        deadWorldFreezer = new DeadWorldFreezer(this);
+
+        // data.yml is parsed off-thread; listeners ignore entries until it is merged in
+        dataStorage = new HardcoreDataStorage(
+                new YamlPlayerDataBackend(new File(getDataFolder(), "data.yml"), getLogger()),
+                task -> getServer().getScheduler().runTaskAsynchronously(this, task),
+                task -> getServer().getScheduler().runTask(this, task),
+                getLogger(),
+                metrics.getRegistry());
+        dataStorage.init(this::onStorageLoaded, this::onStorageLoadFailed);
+
+        if (getConfig().getBoolean("history.enabled", true)) {
+            deathHistory = new DeathHistory(
+                    new File(getDataFolder(), "history.pwhd").toPath(),
+                    getConfig().getInt("history.top-size", 10),
+                    task -> getServer().getScheduler().runTaskAsynchronously(this, task),
+                    task -> getServer().getScheduler().runTask(this, task),
+                    getLogger());
+            deathHistory.init();
+        }
+
+        // Run once all worlds (including Multiverse ones) are loaded
+        getServer().getScheduler().runTask(this, this::enforceHardDifficultyForAllHardcoreWorlds);
+
+        spectatorLimiter = new SpectatorLimiter(this);
+
+        admissionController = new AdmissionController(this);
+        admissionController.start();
+
+        staggeredAutosave = new StaggeredAutosave(this, dataStorage);
+        staggeredAutosave.start();
+
+        metrics.start();
+
+        populationBossBars = new PopulationBossBars(this);
+        populationBossBars.start();
+
+        worldHandoff = new WorldHandoff(this, dataStorage);
+
+        startEventTrace();
+
+        startStateExport();
+
+        startRetention();
+
+        startBackups();
+
+        startSeasons();
+
+        // Read-only API for other plugins; answers from a thread-safe index, never the main thread
+        getServer().getServicesManager().register(
+                HardcoreQueryService.class,
+                new IndexedQueryService(registry, task -> getServer().getScheduler().runTaskAsynchronously(this, task)),
+                this,
+                ServicePriority.Normal);
+
+        getLogger().info("PerWorldHardcore enabled. Hardcore worlds: " + registry.getDimensionNames());
+
+        playerListener = new HardcorePlayerListener(this);
+        getServer().getPluginManager().registerEvents(
+                playerListener,
+                this
+        );
+
+        Objects.requireNonNull(getCommand("hardcore"))
+                .setExecutor(new HardcoreCommands(this));
+    }
+
+    private void onStorageLoaded() {
+        registry.rebuildPlayerIndexes(dataStorage);
+        deadWorldFreezer.freezeAllFullyDead();
+
+        // Players who joined while data.yml was loading were not checked yet
+        if (playerListener != null) {
+            playerListener.recheckOnlinePlayers();
+        }
+
+        // Remote marks are only applied to loaded data, so replication starts here
+        startReplication();
+    }
+
+    /**
+     * Fail closed: without death marks nobody can be checked, so hardcore
+     * worlds stay shut (players inside go to the hub) and data.yml is read
+     * again until it loads.
+     */
+    private void onStorageLoadFailed() {
+        getLogger().severe("Hardcore worlds are closed until player data loads; retrying in "
+                + STORAGE_RETRY_TICKS / 20 + "s.");
+        if (playerListener != null) {
+            playerListener.recheckOnlinePlayers();
+        }
+        getServer().getScheduler().runTaskLater(this,
+                () -> dataStorage.init(this::onStorageLoaded, this::onStorageLoadFailed),
+                STORAGE_RETRY_TICKS);
+    }
+
+    private void startReplication() {
+        if (!getConfig().getBoolean("sync.enabled", false) || !isEnabled()) {
+            return;
+        }
+
+        String serverId = getConfig().getString("sync.server-id", "");
+        if (serverId == null || serverId.isBlank()) {
+            serverId = getServer().getIp() + ":" + getServer().getPort();
+        }
+        // Sequence numbers restart with the plugin, so each run is its own origin
+        String origin = serverId + "@" + System.currentTimeMillis();
+
+        String transportName = getConfig().getString("sync.transport", "directory");
+        SyncTransport transport;
+        if ("plugin-messaging".equalsIgnoreCase(transportName)) {
+            messagingTransport = new PluginMessagingSyncTransport(this);
+            transport = messagingTransport;
+        } else {
+            File directory = new File(getDataFolder(), getConfig().getString("sync.directory", "sync"));
+            transport = new DirectorySyncTransport(
+                    directory.toPath(),
+                    serverId,
+                    getConfig().getLong("sync.poll-interval-ms", 500L),
+                    getConfig().getLong("sync.retention-minutes", 60L) * 60_000L,
+                    getLogger());
+        }
+
+        ReplicationService service = new ReplicationService(
+                origin,
+                transport,
+                new File(getDataFolder(), "sync-tombstones.properties").toPath(),
+                registry,
+                dataStorage,
+                task -> getServer().getScheduler().runTaskAsynchronously(this, task),
+                task -> getServer().getScheduler().runTask(this, task),
+                getLogger(),
+                metrics.getRegistry());
+        try {
+            service.start();
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Could not start hardcore state sync over " + transportName, e);
+            messagingTransport = null;
+            return;
+        }
+        replication = service;
+
+        long interval = Math.max(1L, getConfig().getLong("sync.batch-interval-ticks", 20L));
+        replicationFlushTask = getServer().getScheduler().runTaskTimer(this, service::flush, interval, interval);
+        getLogger().info("Syncing hardcore state as " + origin + " over " + transportName);
+    }
+
+    /**
+     * Send sync batches queued while the server was empty (plugin-messaging only).
+     */
+    public void sendQueuedSyncBatches() {
+        if (messagingTransport != null) {
+            // The proxy only accepts plugin messages once the connection is fully up
+            getServer().getScheduler().runTaskLater(this, messagingTransport::sendQueued, 20L);
+        }
+    }
+
+    private void startEventTrace() {
+        if (!getConfig().getBoolean("event-trace.enabled", false)) {
+            return;
+        }
+
+        File directory = new File(getDataFolder(), getConfig().getString("event-trace.directory", "traces"));
+        int segmentBytes = Math.max(64, getConfig().getInt("event-trace.segment-size-kb", 4096)) * 1024;
+        int maxSegments = Math.max(1, getConfig().getInt("event-trace.max-segments", 16));
+        int queueCapacity = Math.max(1024, getConfig().getInt("event-trace.queue-capacity", 65536));
+
+        TraceRecorder recorder = new TraceRecorder(directory.toPath(), segmentBytes, maxSegments, queueCapacity, getLogger());
+        try {
+            recorder.start();
+            eventTrace = recorder;
+            getLogger().info("Recording hardcore event trace to " + directory.getPath());
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Could not start event trace in " + directory.getPath(), e);
+        }
+    }
+
+    private void startStateExport() {
+        if (!getConfig().getBoolean("state-export.enabled", false)) {
+            return;
+        }
+
+        SnapshotFormat format = SnapshotFormat.fromName(getConfig().getString("state-export.format", "json"));
+        File file = new File(getDataFolder(), getConfig().getString("state-export.file", "state." + format.getExtension()));
+        stateExporter = new StateExporter(
+                registry,
+                file.toPath(),
+                format,
+                Math.max(0L, getConfig().getLong("state-export.interval-seconds", 30L)) * 1000L,
+                Math.max(0L, getConfig().getLong("state-export.after-changes", 0L)),
+                task -> getServer().getScheduler().runTaskAsynchronously(this, task),
+                getLogger(),
+                metrics.getRegistry());
+
+        // Checking is a couple of field reads; the snapshot itself is O(1) and the write is async
+        stateExportTask = getServer().getScheduler().runTaskTimer(this, () -> {
+            if (isStorageLoaded()) {
+                stateExporter.tick(System.currentTimeMillis());
+            }
+        }, 20L, 20L);
+    }
+
+    private void startRetention() {
+        if (!getConfig().getBoolean("retention.enabled", true)) {
+            return;
+        }
+
+        retention = new RetentionCompactor(
+                dataStorage,
+                registry::getDimensionNames,
+                playerId -> getServer().getPlayer(playerId) != null,
+                () -> registry.rebuildPlayerIndexes(dataStorage),
+                getConfig().getBoolean("retention.drop-deleted-worlds", true),
+                Math.max(0L, getConfig().getLong("retention.deleted-world-grace-hours", 24L)) * 3_600_000L,
+                Math.max(0L, getConfig().getLong("retention.max-inactive-days", 0L)) * 86_400_000L,
+                Math.max(1L, getConfig().getLong("retention.interval-minutes", 60L)) * 60_000L,
+                (long) (Math.max(0.1, getConfig().getDouble("retention.budget-ms", 1.0)) * 1_000_000L),
+                getLogger(),
+                metrics.getRegistry());
+
+        // A pass is spread over as many ticks as its budget needs; idle ticks only compare a timestamp
+        retentionTask = getServer().getScheduler().runTaskTimer(this, () -> {
+            if (isStorageLoaded()) {
+                retention.tick(System.currentTimeMillis());
+            }
+        }, 200L, 1L);
+    }
+
+    /**
+     * Null when retention is disabled in config.yml.
+     */
+    public RetentionCompactor getRetention() {
+        return retention;
+    }
+
+    private void startBackups() {
+        if (!getConfig().getBoolean("backup.enabled", true)) {
+            return;
+        }
+
+        backups = new BackupManager(
+                new File(getDataFolder(), getConfig().getString("backup.directory", "backups")).toPath(),
+                dataStorage,
+                getConfig().getInt("backup.keep", 24),
+                getConfig().getInt("backup.full-every", 6),
+                Math.max(0L, getConfig().getLong("backup.interval-minutes", 60L)) * 60_000L,
+                (long) (Math.max(0.1, getConfig().getDouble("backup.budget-ms", 1.0)) * 1_000_000L),
+                task -> getServer().getScheduler().runTaskAsynchronously(this, task),
+                task -> getServer().getScheduler().runTask(this, task),
+                () -> registry.rebuildPlayerIndexes(dataStorage),
+                getLogger(),
+                metrics.getRegistry());
+        backups.init(System.currentTimeMillis());
+
+        // Like retention: a full capture takes as many ticks as its budget needs
+        backupTask = getServer().getScheduler().runTaskTimer(this, () -> {
+            if (isStorageLoaded()) {
+                backups.tick(System.currentTimeMillis());
+            }
+        }, 200L, 1L);
+    }
+
+    /**
+     * Null when backups are disabled in config.yml.
+     */
+    public BackupManager getBackups() {
+        return backups;
+    }
+
+    private void startSeasons() {
+        if (!getConfig().getBoolean("seasons.enabled", false)) {
+            return;
+        }
+
+        SeasonScheduler scheduler = new SeasonScheduler(this, worldHandoff);
+        if (scheduler.start()) {
+            seasons = scheduler;
+        }
+    }
+
+    /**
+     * Null when season rotation is disabled in config.yml.
+     */
+    public SeasonScheduler getSeasons() {
+        return seasons;
+    }
+
+    /**
+     * Append to the event trace if it is enabled. Never blocks or does I/O.
+     */
+    public void trace(TraceEventType type, UUID playerId, String world, String detail) {
+        if (eventTrace != null) {
+            eventTrace.record(type, playerId, world, detail);
+        }
+    }
+
+    public TraceRecorder getEventTrace() {
+        return eventTrace;
+    }
+
+    /**
+     * Null when history is disabled in config.yml.
+     */
+    public DeathHistory getDeathHistory() {
+        return deathHistory;
+    }
+
+    public boolean isStorageLoaded() {
+        return dataStorage != null && dataStorage.isLoaded();
+    }
+
+    /**
+     * True while the last attempt to read data.yml failed.
+     */
+    public boolean isStorageLoadFailed() {
+        return dataStorage != null && dataStorage.isLoadFailed();
+    }
+
+    /**
+     * Run a command as the console, echoing it to {@code feedbackTarget}
+     * (null for none). Multiverse commands are followed by {@code mv confirm}
+     * for confirm-mode setups; it is harmless if nothing is pending.
+     */
+    public void dispatchConsole(CommandSender feedbackTarget, String command) {
+        if (feedbackTarget != null) {
+            messageManager.send(feedbackTarget, "hardcore.dispatch", "command", command);
+        }
+        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+        if (command.startsWith("mv ")) {
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "mv confirm");
+        }
+    }
+
+    @Override
+    public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+        if (configReloader != null) {
+            configReloader.stopWatching();
+        }
+        if (metrics != null) {
+            metrics.stop();
+        }
+        if (populationBossBars != null) {
+            populationBossBars.stop();
+        }
+        if (admissionController != null) {
+            admissionController.stop();
+        }
+        if (deadWorldFreezer != null) {
+            deadWorldFreezer.thawAll();
+        }
+        if (spectatorLimiter != null) {
+            spectatorLimiter.restoreAll();
+        }
+        if (staggeredAutosave != null) {
+            staggeredAutosave.stop();
+        }
+        if (retentionTask != null) {
+            retentionTask.cancel();
+            retentionTask = null;
+        }
+        if (backupTask != null) {
+            // A capture in progress is dropped; data.yml is still saved below
+            backupTask.cancel();
+            backupTask = null;
+        }
+        backups = null;
+        if (seasons != null) {
+            seasons.stop();
+            seasons = null;
+        }
+        if (stateExportTask != null) {
+            stateExportTask.cancel();
+            stateExportTask = null;
+        }
+        if (stateExporter != null && isStorageLoaded()) {
+            stateExporter.exportNow();
+        }
+        stateExporter = null;
+        if (replicationFlushTask != null) {
+            replicationFlushTask.cancel();
+            replicationFlushTask = null;
+        }
+        if (replication != null) {
+            replication.close();
+            replication = null;
+            messagingTransport = null;
+        }
+        if (dataStorage != null) {
+            dataStorage.shutdown();
+        }
+        if (deathHistory != null) {
+            deathHistory.shutdown();
+        }
+        if (eventTrace != null) {
+            eventTrace.close();
+            eventTrace = null;
+        }
+        getLogger().info("PerWorldHardcore disabled.");
+    }
+
+    // Hardcore world registry
+
+    /**
+     * Rebuild the hardcore worlds from the config in memory (startup, and
+     * after the plugin edits it).
+     */
+    public void loadHardcoreWorlds() {
+        HardcoreWorldRegistry.Layout layout = HardcoreWorldLayoutReader.read(getConfig());
+        for (String problem : layout.getProblems()) {
+            getLogger().warning(problem);
+        }
+        applyHardcoreWorlds(layout);
+    }
+
+    /**
+     * Publish a config.yml that {@link ConfigReloader} parsed and validated
+     * off-thread, together with its hardcore worlds (main thread).
+     */
+    public void applyReloadedConfig(FileConfiguration newConfig, HardcoreWorldRegistry.Layout layout) {
+        reloadedConfig = newConfig;
+        applyHardcoreWorlds(layout);
+    }
+
+    private void applyHardcoreWorlds(HardcoreWorldRegistry.Layout layout) {
+        ConfigReloadEvent event = new ConfigReloadEvent();
+        event.begin();
+
+        if (layout.getWorldIds().isEmpty()) {
+            getLogger().warning("No hardcore-worlds defined in config.yml");
+        }
+        registry.replaceLayout(layout);
+
+        // Worlds may have been added or removed; recount them
+        if (isStorageLoaded()) {
+            registry.rebuildPlayerIndexes(dataStorage);
+        }
+
+        getLogger().info("PerWorldHardcore loaded hardcore worlds: " + registry.getDimensionNames());
+        event.worlds = registry.getWorldIds().size();
+        event.dimensions = registry.getDimensionNames().size();
+        event.commit();
+    }
+
+    /**
+     * The config last published by {@link ConfigReloader}, if any, else the
+     * one Bukkit loaded at startup.
+     */
+    @Override
+    public FileConfiguration getConfig() {
+        FileConfiguration config = reloadedConfig;
+        return config != null ? config : super.getConfig();
+    }
+
+    @Override
+    public void reloadConfig() {
+        super.reloadConfig();
+        reloadedConfig = null;
+    }
+
+    @Override
+    public void saveConfig() {
+        configGeneration++;
+        super.saveConfig();
+    }
+
+    public int getConfigGeneration() {
+        return configGeneration;
+    }
+
+    public ConfigReloader getConfigReloader() {
+        return configReloader;
+    }
+
+    public int getHardcoreWorldCount() {
+        ConfigurationSection worldsSection = getConfig().getConfigurationSection("hardcore-worlds");
+        if (worldsSection == null) {
+            return 0;
+        }
+        return worldsSection.getKeys(false).size();
+    }
+
+    public String getHardcoreWorldId(World world) {
+        if (world == null) return null;
+
+        // HardcoreWorldSettings.worldName is your hardcore world id / group name
+        return registry.getWorldId(world.getName());
+    }
+
+    public void addHardcoreWorld(String worldName,
+                                 Map<HardcoreDimension, String> dimensionNames,
+                                 Boolean allowSpectatorOverride,
+                                 Boolean allowTpAfterDeathOverride) {
+        if (worldName == null || worldName.isBlank()) return;
+
+        ConfigurationSection worldsSection =
+                getConfig().getConfigurationSection("hardcore-worlds");
+        if (worldsSection == null) {
+            worldsSection = getConfig().createSection("hardcore-worlds");
+        }
+
+        ConfigurationSection worldSection =
+                worldsSection.getConfigurationSection(worldName);
+        if (worldSection == null) {
+            worldSection = worldsSection.createSection(worldName);
+        }
+        if (!worldSection.isSet("created")) {
+            // Lets sync tell this world apart from an earlier one with the same name
+            worldSection.set("created", System.currentTimeMillis());
+        }
+
+        ConfigurationSection dimSection =
+                worldSection.getConfigurationSection("dimensions");
+        if (dimSection == null) {
+            dimSection = worldSection.createSection("dimensions");
+        }
+
+        for (HardcoreDimension dim : HardcoreDimension.values()) {
+            String dimensionName = dimensionNames.get(dim);
+            if (dimensionName != null && !dimensionName.isBlank()) {
+                dimSection.set(dim.getConfigKey(), dimensionName);
+            }
+        }
+
+        ConfigurationSection defaults =
+                getConfig().getConfigurationSection("defaults_settings");
+        boolean defaultSpectator =
+                defaults != null && defaults.getBoolean("allow-spectator-on-death", true);
+        boolean defaultTp =
+                defaults != null && defaults.getBoolean("allow-tp-after-death", false);
+
+        boolean spectator =
+                allowSpectatorOverride != null ? allowSpectatorOverride : defaultSpectator;
+        boolean tpAfterDeath =
+                allowTpAfterDeathOverride != null ? allowTpAfterDeathOverride : defaultTp;
+
+        ConfigurationSection settingsSection =
+                worldSection.getConfigurationSection("settings");
+        if (settingsSection == null) {
+            settingsSection = worldSection.createSection("settings");
+        }
+        settingsSection.set("allow-spectator-on-death", spectator);
+        settingsSection.set("allow-tp-after-death", tpAfterDeath);
+
+        saveConfig();
+
+        loadHardcoreWorlds();
+    }
+
+    public void removeHardcoreWorld(String worldName) {
+        if (worldName == null || worldName.isBlank()) return;
+
+        List<String> dimensionNames = getDimensionNamesForWorld(worldName);
+
+        if (deadWorldFreezer != null) {
+            deadWorldFreezer.forget(worldName);
+        }
+
+        for (String dimensionName : dimensionNames) {
+            removeDimensionData(dimensionName);
+        }
+        registry.unregister(worldName);
+        if (deathHistory != null) {
+            // A world re-created under this name measures survival from scratch
+            deathHistory.recordCull(worldName, System.currentTimeMillis());
+        }
+
+        ConfigurationSection worldsSection =
+                getConfig().getConfigurationSection("hardcore-worlds");
+        if (worldsSection != null) {
+            worldsSection.set(worldName, null);
+        } else {
+            getConfig().set("hardcore-worlds." + worldName, null);
+        }
+
+        saveConfig();
+
+        loadHardcoreWorlds();
+    }
+
+    public Set<String> findCullableWorlds() {
+        if (dataStorage == null) {
+            return Collections.emptySet();
+        }
+
+        return registry.findCullableWorlds(dataStorage, getHubWorldName());
+    }
+
+    /**
+     * A hardcore world is fully dead when at least one of its dimensions has
+     * visitors and all of them have died (same rule as the cull command).
+     */
+    public boolean isHardcoreWorldFullyDead(String worldId) {
+        if (dataStorage == null || worldId == null || worldId.isBlank()) {
+            return false;
+        }
+
+        return registry.isFullyDead(dataStorage, worldId, getHubWorldName());
+    }
+
+    public boolean hardcoreWorldExists(String worldName) {
+        if (worldName == null || worldName.isBlank()) {
+            return false;
+        }
+
+        ConfigurationSection worldsSection = getConfig().getConfigurationSection("hardcore-worlds");
+        if (worldsSection == null) {
+            return false;
+        }
+
+        return worldsSection.isConfigurationSection(worldName);
+    }
+
+    // Player state helpers
+
+    public boolean hasDiedInWorld(UUID playerId, World anyDimension) {
+        if (dataStorage == null || anyDimension == null) return false;
+
+        // Dimension → hardcore world id (e.g. "hc-2_nether" → "hc-2") → all its dimensions
+        return registry.hasDiedInWorld(dataStorage, playerId, anyDimension.getName());
+    }
+
+
+    public void markPlayerDeadInWorld(UUID playerId, World bukkitWorld) {
+        if (dataStorage == null || bukkitWorld == null) return;
+
+        registry.markDeadInWorld(dataStorage, playerId, bukkitWorld.getName());
+    }
+
+    /**
+     * Record that a player with hardcore state was online now (retention).
+     */
+    public void touchPlayer(UUID playerId) {
+        if (dataStorage != null) {
+            dataStorage.touchPlayer(playerId, System.currentTimeMillis());
+        }
+    }
+
+    public void markPlayerVisitedWorld(UUID playerId, World bukkitWorld) {
+        if (dataStorage == null || bukkitWorld == null) return;
+
+        registry.markVisitedWorld(dataStorage, playerId, bukkitWorld.getName());
+    }
+
+
+    // Config access
+
+    public boolean isHardcoreWorld(World world) {
+        if (world == null) return false;
+        return registry.isHardcoreDimension(world.getName());
+    }
+
+    public HardcoreWorldSettings getHardcoreWorldSettings(World world) {
+        if (world == null) return null;
+        return registry.getSettings(world.getName());
+    }
+
+    public HardcoreWorldSettings getHardcoreWorldSettings(String hardcoreWorldId) {
+        return registry.getWorldSettings(hardcoreWorldId);
+    }
+
+    public boolean isAllowSpectatorOnDeath() {
+        return getConfig().getBoolean("allow-spectator-on-death", true);
+    }
+
+    public boolean isAllowTpAfterDeath() {
+        return getConfig().getBoolean("allow-tp-after-death", false);
+    }
+
+    public int getMaxOpenHardcoreWorlds() {
+        return getConfig().getInt("max-open-hardcore-worlds", 3);
+    }
+
+    public String getHubWorldName() {
+        return getConfig().getString("hub-world", "world");
+    }
+
+    public World getHubWorld() {
+        return Bukkit.getWorld(getHubWorldName());
+    }
+
+    // Dependency / integration helpers
+
+    public boolean checkHardDependencies() {
+        PluginManager pm = getServer().getPluginManager();
+
+        if (pm.getPlugin("Multiverse-Core") == null) {
+            getLogger().severe("Multiverse-Core not found. Disabling plugin.");
+            return false;
+        }
+
+        if (pm.getPlugin("Multiverse-NetherPortals") == null) {
+            getLogger().severe("Multiverse-NetherPortals not found. Disabling plugin.");
+            return false;
+        }
+        return true;
+    }
+
+    public void setHasMultiverseInventories() {
+        PluginManager pm = getServer().getPluginManager();
+
+        Plugin inventoriesPlugin = pm.getPlugin("Multiverse-Inventories");
+        if (inventoriesPlugin != null && inventoriesPlugin.isEnabled()) {
+            this.multiverseInventories = inventoriesPlugin;
+            this.hasMultiverseInventories = true;
+            getLogger().info("Hooked into Multiverse-Inventories.");
+        } else {
+            this.hasMultiverseInventories = false;
+            getLogger().info("Multiverse-Inventories not found; inventory features disabled.");
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public boolean hasMultiverseInventories() {
+        return hasMultiverseInventories;
+    }
+
+    @SuppressWarnings("unused")
+    public Plugin getMultiverseInventories() {
+        return multiverseInventories;
+    }
+
+    public MessageManager getMessageManager() {
+        return messageManager;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics.getRegistry();
+    }
+
+    public DeadWorldFreezer getDeadWorldFreezer() {
+        return deadWorldFreezer;
+    }
+
+    public SpectatorLimiter getSpectatorLimiter() {
+        return spectatorLimiter;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public PopulationBossBars getPopulationBossBars() {
+        return populationBossBars;
+    }
+
+    public WorldHandoff getWorldHandoff() {
+        return worldHandoff;
+    }
+
+    /**
+     * Null unless sync is enabled and running.
+     */
+    public ReplicationService getReplication() {
+        return replication;
+    }
+
+    public void enforceHardDifficultyForWorld(String hardcoreWorldId) {
+        if (hardcoreWorldId == null || hardcoreWorldId.isBlank()) {
+            return;
+        }
+
+        enforceHardDifficulty(getDimensionNamesForWorld(hardcoreWorldId));
+    }
+
+    public void enforceHardDifficultyForAllHardcoreWorlds() {
+        enforceHardDifficulty(registry.getDimensionNames());
+    }
+
+    // Private helpers (dimensions / storage)
+
+    public Set<String> getHardcoreDimensions() {
+        return new HashSet<>(registry.getDimensionNames());
+    }
+
+    // Given a hardcore world id, return all its backing dimension names
+    public List<String> getDimensionNamesForWorld(String worldId) {
+        return registry.getDimensionNames(worldId);
+    }
+
+    public HardcoreWorldRegistry getRegistry() {
+        return registry;
+    }
+
+    private void removeDimensionData(String dimensionName) {
+        if (dataStorage != null) {
+            dataStorage.removeWorldData(dimensionName);
+        }
+    }
+
+    /**
+     * Set HARD difficulty on the given dimensions, skipping loaded worlds that
+     * are already HARD and unloaded ones (Multiverse keeps the value set at
+     * creation). Logs one summary line for the whole batch.
+     */
+    private void enforceHardDifficulty(Collection<String> worldNames) {
+        List<String> changed = new ArrayList<>();
+
+        Plugin mv = getServer().getPluginManager().getPlugin("Multiverse-Core");
+        boolean viaMultiverse = mv != null && mv.isEnabled();
+
+        for (String worldName : worldNames) {
+            if (worldName == null || worldName.isBlank()) {
+                continue;
+            }
+
+            World w = Bukkit.getWorld(worldName);
+            if (w == null || w.getDifficulty() == Difficulty.HARD) {
+                continue;
+            }
+
+            EnforcementEvent event = new EnforcementEvent();
+            event.begin();
+
+            if (viaMultiverse) {
+                // Correct console syntax: /mv modify <world> set difficulty hard
+                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "mv modify " + worldName + " set difficulty hard");
+            } else {
+                // Fallback: just use Bukkit difficulty if MV isn't around
+                w.setDifficulty(Difficulty.HARD);
+            }
+            changed.add(worldName);
+
+            if (event.shouldCommit()) {
+                event.action = EnforcementEvent.DIFFICULTY;
+                event.worldGroup = registry.getWorldId(worldName);
+                event.playersOnline = getServer().getOnlinePlayers().size();
+                event.commit();
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            getLogger().info("Set difficulty to HARD for " + changed
+                    + (viaMultiverse ? " via Multiverse." : " via Bukkit (Multiverse not available)."));
+        }
+    }
+
+
+}
@@ -0,0 +1,761 @@
+package com.kylekriskovich.perworldhardcore.command;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.backup.BackupManager;
+import com.kylekriskovich.perworldhardcore.event.HardcoreWorldCreatedEvent;
+import com.kylekriskovich.perworldhardcore.event.HardcoreWorldCulledEvent;
+import com.kylekriskovich.perworldhardcore.history.DeathHistory;
+import com.kylekriskovich.perworldhardcore.history.DeathRecord;
+import com.kylekriskovich.perworldhardcore.jfr.WorldStageEvent;
+import com.kylekriskovich.perworldhardcore.metrics.LatencyHistogram;
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.model.HardcoreDimension;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.season.SeasonRotation;
+import com.kylekriskovich.perworldhardcore.trace.TraceEventType;
+import com.kylekriskovich.perworldhardcore.util.MessageManager;
+import com.kylekriskovich.perworldhardcore.world.SeasonScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+
+public class HardcoreCommands implements CommandExecutor {
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm", Locale.ROOT).withZone(ZoneId.systemDefault());
+
+    private final PerWorldHardcorePlugin plugin;
+    private final MessageManager messages;
+
+    public HardcoreCommands(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+        this.messages = plugin.getMessageManager();
+
+        Plugin mv = Bukkit.getPluginManager().getPlugin("Multiverse-Core");
+        if (mv == null || !mv.isEnabled()) {
+            plugin.getLogger().severe("Multiverse-Core Dependency not found or not enabled!");
+        }
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender,
+                             @NotNull Command command,
+                             @NotNull String label,
+                             @NotNull String[] args) {
+        if (!sender.hasPermission("hardcore.admin")) {
+            messages.send(sender, "no-permission");
+            return true;
+        }
+
+        if (args.length == 0) {
+            messages.send(sender, "hardcore.usage");
+            return true;
+        }
+
+        plugin.trace(TraceEventType.ADMIN_COMMAND,
+                sender instanceof Player player ? player.getUniqueId() : null,
+                null,
+                String.join(" ", args));
+
+        switch (args[0].toLowerCase()) {
+            case "reload":
+                // Parsed off-thread; the reply comes once it is validated and swapped in
+                plugin.getConfigReloader().reload(true).whenComplete((result, error) -> {
+                    if (error != null) {
+                        messages.send(sender, "hardcore.reload.failed", "problem", errorMessage(error));
+                    } else if (result.applied()) {
+                        messages.send(sender, "hardcore.reload.success");
+                    } else {
+                        for (String problem : result.problems()) {
+                            messages.send(sender, "hardcore.reload.failed", "problem", problem);
+                        }
+                    }
+                });
+                return true;
+
+            case "status":
+                if (args.length < 2) {
+                    messages.send(sender, "hardcore.status.usage");
+                    return true;
+                }
+                statusWorld(sender, args[1]);
+                return true;
+
+            case "cull":
+                boolean delete = args.length >= 2 && args[1].equalsIgnoreCase("delete");
+                long cullStart = System.nanoTime();
+                try {
+                    cullWorlds(sender, delete);
+                } finally {
+                    plugin.getMetrics().timer("cull_command").recordSince(cullStart);
+                }
+                return true;
+
+            case "create":
+                if (args.length < 2) {
+                    messages.send(sender, "hardcore.create.usage");
+                    return true;
+                }
+                long createStart = System.nanoTime();
+                try {
+                    createHardcoreWorld(sender, args);
+                } finally {
+                    plugin.getMetrics().timer("create_command").recordSince(createStart);
+                }
+                return true;
+
+            case "metrics":
+                showMetrics(sender);
+                return true;
+
+            case "top":
+                if (args.length < 2) {
+                    messages.send(sender, "hardcore.top.usage");
+                    return true;
+                }
+                showTop(sender, args[1], args.length >= 3 ? args[2] : null);
+                return true;
+
+            case "history":
+                if (args.length < 2) {
+                    messages.send(sender, "hardcore.history.usage");
+                    return true;
+                }
+                showHistory(sender, args[1]);
+                return true;
+
+            case "export":
+                if (args.length < 2) {
+                    messages.send(sender, "hardcore.export.usage");
+                    return true;
+                }
+                boolean keep = args.length > 2 && args[2].equalsIgnoreCase("--keep");
+                plugin.getWorldHandoff().export(sender, args[1], keep);
+                return true;
+
+            case "import":
+                if (args.length < 2) {
+                    messages.send(sender, "hardcore.import.usage");
+                    return true;
+                }
+                plugin.getWorldHandoff().importBundle(sender, args[1]);
+                return true;
+
+            case "compact":
+                if (plugin.getRetention() == null) {
+                    messages.send(sender, "hardcore.compact.disabled");
+                    return true;
+                }
+                plugin.getRetention().requestPass();
+                messages.send(sender, "hardcore.compact.started");
+                return true;
+
+            case "backup":
+                backup(sender, args);
+                return true;
+
+            case "season":
+                season(sender, args);
+                return true;
+
+            default:
+                messages.send(sender, "hardcore.usage");
+                return true;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Subcommands
+    // ------------------------------------------------------------------------
+
+    private void statusWorld(CommandSender sender, String worldName) {
+        World world = Bukkit.getWorld(worldName);
+        boolean exists = world != null;
+        boolean hardcore = plugin.isHardcoreWorld(world);
+
+        messages.send(sender, "hardcore.status.header", "world", worldName);
+        messages.send(sender, "hardcore.status.exists", "exists", String.valueOf(exists));
+        messages.send(sender, "hardcore.status.hardcore", "hardcore", String.valueOf(hardcore));
+    }
+
+    private void showMetrics(CommandSender sender) {
+        MetricsRegistry metrics = plugin.getMetrics();
+        messages.send(sender, "hardcore.metrics.header");
+
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.getTimers().entrySet()) {
+            LatencyHistogram timer = entry.getValue();
+            messages.send(sender, "hardcore.metrics.timer",
+                    "name", entry.getKey(),
+                    "count", String.valueOf(timer.count()),
+                    "p50", millis(timer.percentile(50)),
+                    "p99", millis(timer.percentile(99)),
+                    "max", millis(timer.max()));
+        }
+
+        Map<String, Long> values = new TreeMap<>(metrics.getCounters());
+        values.putAll(metrics.getGauges());
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            messages.send(sender, "hardcore.metrics.value",
+                    "name", entry.getKey(),
+                    "value", String.valueOf(entry.getValue()));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private void showTop(CommandSender sender, String worldId, String limitArg) {
+        DeathHistory history = plugin.getDeathHistory();
+        if (history == null) {
+            messages.send(sender, "hardcore.history.disabled");
+            return;
+        }
+
+        int limit = history.getTopSize();
+        if (limitArg != null) {
+            try {
+                limit = Math.min(limit, Math.max(1, Integer.parseInt(limitArg)));
+            } catch (NumberFormatException e) {
+                messages.send(sender, "hardcore.top.usage");
+                return;
+            }
+        }
+
+        List<DeathRecord> top = history.getTop(worldId, limit);
+        if (top.isEmpty()) {
+            messages.send(sender, "hardcore.top.empty", "world", worldId);
+            return;
+        }
+
+        messages.send(sender, "hardcore.top.header", "world", worldId);
+        int rank = 1;
+        for (DeathRecord record : top) {
+            messages.send(sender, "hardcore.top.entry",
+                    "rank", String.valueOf(rank++),
+                    "player", playerName(record.player()),
+                    "time", duration(record.survivalMillis()),
+                    "cause", record.cause());
+        }
+    }
+
+    private void showHistory(CommandSender sender, String playerName) {
+        DeathHistory history = plugin.getDeathHistory();
+        if (history == null) {
+            messages.send(sender, "hardcore.history.disabled");
+            return;
+        }
+
+        OfflinePlayer target = Bukkit.getPlayerExact(playerName);
+        if (target == null) {
+            // Only players who have joined before; never blocks on a profile lookup
+            target = Bukkit.getOfflinePlayerIfCached(playerName);
+        }
+        if (target == null) {
+            messages.send(sender, "hardcore.history.unknown-player", "player", playerName);
+            return;
+        }
+
+        UUID playerId = target.getUniqueId();
+        List<DeathRecord> deaths = history.getDeaths(playerId);
+        Map<String, Long> firstVisits = new LinkedHashMap<>(history.getFirstVisits(playerId));
+        if (deaths.isEmpty() && firstVisits.isEmpty()) {
+            messages.send(sender, "hardcore.history.empty", "player", playerName(playerId));
+            return;
+        }
+
+        messages.send(sender, "hardcore.history.header", "player", playerName(playerId));
+        long now = System.currentTimeMillis();
+        for (DeathRecord record : deaths) {
+            firstVisits.remove(record.worldGroup());
+            messages.send(sender, "hardcore.history.death",
+                    "world", record.worldGroup(),
+                    "date", DATE_FORMAT.format(Instant.ofEpochMilli(record.deathMillis())),
+                    "time", duration(record.survivalMillis()),
+                    "cause", record.cause());
+        }
+        for (Map.Entry<String, Long> entry : firstVisits.entrySet()) {
+            messages.send(sender, "hardcore.history.alive",
+                    "world", entry.getKey(),
+                    "time", duration(now - entry.getValue()));
+        }
+    }
+
+    /**
+     * /hardcore backup [list | verify [name] | restore &lt;name&gt;]. Results arrive
+     * asynchronously and are sent back on the main thread.
+     */
+    private void backup(CommandSender sender, String[] args) {
+        BackupManager backups = plugin.getBackups();
+        if (backups == null) {
+            messages.send(sender, "hardcore.backup.disabled");
+            return;
+        }
+
+        String action = args.length > 1 ? args[1].toLowerCase(Locale.ROOT) : "now";
+        switch (action) {
+            case "now":
+                messages.send(sender, "hardcore.backup.started");
+                backups.requestBackup().whenComplete((info, error) -> onMainThread(() -> {
+                    if (error != null) {
+                        messages.send(sender, "hardcore.backup.failed", "error", errorMessage(error));
+                        return;
+                    }
+                    messages.send(sender, "hardcore.backup.success",
+                            "file", info.name(),
+                            "kind", info.full() ? "full" : "incremental",
+                            "size", String.valueOf(Math.max(1, info.sizeBytes() / 1024)));
+                }));
+                return;
+
+            case "list":
+                backups.list().whenComplete((list, error) -> onMainThread(() -> {
+                    if (error != null) {
+                        messages.send(sender, "hardcore.backup.failed", "error", errorMessage(error));
+                        return;
+                    }
+                    if (list.isEmpty()) {
+                        messages.send(sender, "hardcore.backup.list-empty");
+                        return;
+                    }
+                    messages.send(sender, "hardcore.backup.list-header", "count", String.valueOf(list.size()));
+                    for (BackupManager.BackupInfo info : list) {
+                        messages.send(sender, "hardcore.backup.list-entry",
+                                "file", info.name(),
+                                "date", DATE_FORMAT.format(Instant.ofEpochMilli(info.modifiedMillis())),
+                                "size", String.valueOf(Math.max(1, info.sizeBytes() / 1024)));
+                    }
+                }));
+                return;
+
+            case "verify":
+                String name = args.length > 2 ? args[2] : null;
+                backups.verify(name).whenComplete((result, error) -> onMainThread(() -> {
+                    if (error != null) {
+                        messages.send(sender, "hardcore.backup.failed", "error", errorMessage(error));
+                        return;
+                    }
+                    if (result.ok()) {
+                        messages.send(sender, "hardcore.backup.verify-ok",
+                                "count", String.valueOf(result.generationsChecked()),
+                                "players", result.playerCount() >= 0 ? String.valueOf(result.playerCount()) : "-");
+                        return;
+                    }
+                    for (String problem : result.problems()) {
+                        messages.send(sender, "hardcore.backup.verify-problem", "problem", problem);
+                    }
+                }));
+                return;
+
+            case "restore":
+                if (args.length < 3) {
+                    messages.send(sender, "hardcore.backup.usage");
+                    return;
+                }
+                if (!plugin.isStorageLoaded()) {
+                    messages.send(sender, "hardcore.handoff.storage-loading");
+                    return;
+                }
+                messages.send(sender, "hardcore.backup.restore-start", "file", args[2]);
+                backups.restore(args[2])
+                        .whenComplete((players, error) -> onMainThread(() -> {
+                            if (error != null) {
+                                messages.send(sender, "hardcore.backup.failed", "error", errorMessage(error));
+                                return;
+                            }
+                            plugin.getLogger().info(sender.getName() + " restored hardcore player data from backup "
+                                    + args[2] + ".");
+                            messages.send(sender, "hardcore.backup.restored",
+                                    "file", args[2], "players", String.valueOf(players));
+                        }));
+                return;
+
+            default:
+                messages.send(sender, "hardcore.backup.usage");
+        }
+    }
+
+    /**
+     * /hardcore season [rotate]: show the rotation, or start the next season
+     * as soon as its world is ready.
+     */
+    private void season(CommandSender sender, String[] args) {
+        SeasonScheduler seasons = plugin.getSeasons();
+        if (seasons == null) {
+            messages.send(sender, "hardcore.season.disabled");
+            return;
+        }
+
+        if (args.length > 1) {
+            if (!args[1].equalsIgnoreCase("rotate")) {
+                messages.send(sender, "hardcore.season.usage");
+                return;
+            }
+            seasons.rotateNow();
+            plugin.getLogger().info(sender.getName() + " started the next hardcore season early.");
+            messages.send(sender, "hardcore.season.rotating", "world", seasons.getNextWorldId());
+            return;
+        }
+
+        SeasonRotation.State state = seasons.getState();
+        messages.send(sender, "hardcore.season.status",
+                "season", String.valueOf(state.season()),
+                "world", state.active() != null ? state.active() : "-");
+        messages.send(sender, "hardcore.season.next",
+                "world", seasons.getNextWorldId(),
+                "date", state.nextBoundary() > 0L
+                        ? DATE_FORMAT.format(Instant.ofEpochMilli(state.nextBoundary()))
+                        : "-",
+                "ready", String.valueOf(state.prepared() != null));
+        messages.send(sender, "hardcore.season.kept",
+                "worlds", state.seasons().isEmpty() ? "-" : String.join(", ", state.seasons()));
+    }
+
+    private void onMainThread(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    private static String errorMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private static String playerName(UUID playerId) {
+        String name = Bukkit.getOfflinePlayer(playerId).getName();
+        return name != null ? name : playerId.toString();
+    }
+
+    /**
+     * Two largest units, e.g. "3d 4h" or "12m 5s"; "?" if unknown.
+     */
+    private static String duration(long millis) {
+        if (millis < 0) {
+            return "?";
+        }
+        long seconds = millis / 1000;
+        long days = seconds / 86400;
+        long hours = seconds / 3600 % 24;
+        long minutes = seconds / 60 % 60;
+        if (days > 0) {
+            return days + "d " + hours + "h";
+        }
+        if (hours > 0) {
+            return hours + "h " + minutes + "m";
+        }
+        if (minutes > 0) {
+            return minutes + "m " + seconds % 60 + "s";
+        }
+        return seconds + "s";
+    }
+
+    private void cullWorlds(CommandSender sender, boolean delete) {
+        // World-level (hardcore world id) candidates
+        WorldStageEvent scan = beginStage();
+        Set<String> worldCandidates = plugin.findCullableWorlds();
+        commitStage(scan, WorldStageEvent.CULL, "find-candidates", null, null, worldCandidates.size());
+
+        if (worldCandidates.isEmpty()) {
+            messages.send(sender, "hardcore.cull.none");
+            return;
+        }
+
+        messages.send(sender, "hardcore.cull.candidates", "worlds", String.join(", ", worldCandidates));
+
+        if (!delete) {
+            messages.send(sender, "hardcore.cull.hint");
+            return;
+        }
+
+        // Split into: safe to delete vs blocked (players online)
+        List<String> blocked = new ArrayList<>();
+        List<String> toCull = new ArrayList<>();
+
+        for (String worldId : worldCandidates) {
+            boolean hasPlayers = false;
+
+            // Check all backing dimensions for online players
+            for (String dimensionName : plugin.getDimensionNamesForWorld(worldId)) {
+                World dimWorld = Bukkit.getWorld(dimensionName);
+                if (dimWorld != null && !dimWorld.getPlayers().isEmpty()) {
+                    hasPlayers = true;
+                    break;
+                }
+            }
+
+            if (hasPlayers) {
+                blocked.add(worldId);
+            } else {
+                toCull.add(worldId);
+            }
+        }
+
+        if (!blocked.isEmpty()) {
+            messages.send(sender, "hardcore.cull.blocked", "worlds", String.join(", ", blocked));
+        }
+
+        if (toCull.isEmpty()) {
+            messages.send(sender, "hardcore.cull.none-safe");
+            return;
+        }
+
+        messages.send(sender, "hardcore.cull.deleting");
+
+        // Actually delete each safe hardcore world (all dimensions) via Multiverse
+        for (String worldId : toCull) {
+            List<String> dimensionNames = plugin.getDimensionNamesForWorld(worldId);
+            HardcoreWorldSettings settings = plugin.getHardcoreWorldSettings(worldId);
+
+            for (String dimensionName : dimensionNames) {
+                WorldStageEvent delete = beginStage();
+                plugin.dispatchConsole(
+                        Bukkit.getConsoleSender(),
+                        "mv delete " + dimensionName
+                );
+                commitStage(delete, WorldStageEvent.CULL, "mv-delete", worldId, dimensionName, 1);
+            }
+
+            WorldStageEvent unregister = beginStage();
+            plugin.removeHardcoreWorld(worldId);
+            commitStage(unregister, WorldStageEvent.CULL, "remove-data", worldId, null, 1);
+            plugin.trace(TraceEventType.WORLD_CULL, null, worldId, String.join(",", dimensionNames));
+            Bukkit.getPluginManager().callEvent(new HardcoreWorldCulledEvent(worldId, dimensionNames, settings));
+        }
+
+        messages.send(sender, "hardcore.cull.finished", "count", String.valueOf(toCull.size()));
+    }
+
+    private void createHardcoreWorld(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            messages.send(sender, "hardcore.create.usage");
+            return;
+        }
+
+        String worldId = args[1]; // player-facing hardcore world name
+
+        int maxWorlds = plugin.getMaxOpenHardcoreWorlds();
+        int currentWorlds = plugin.getHardcoreWorldCount();
+        if (currentWorlds >= maxWorlds) {
+            messages.send(sender, "hardcore.create.limit", "max", String.valueOf(maxWorlds));
+            return;
+        }
+
+        // Ensure this hardcore world doesn't already exist in config
+        if (plugin.hardcoreWorldExists(worldId)) {
+            messages.send(sender, "hardcore.create.exists", "name", worldId);
+            return;
+        }
+
+        Boolean allowSpectatorOverride = null;
+        Boolean allowTpAfterDeathOverride = null;
+
+        // mvArgsOverworld: all mv create args for overworld
+        // mvArgsOtherDims: same args but with any seed-related flags stripped; we will inject -s <seed>
+        List<String> mvArgsOverworld = new ArrayList<>();
+        List<String> mvArgsOtherDims = new ArrayList<>();
+
+        // Parse flags after <WorldName>
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i];
+
+            // Plugin-specific flags (not forwarded to mv create)
+            if (arg.startsWith("--allow-spectator-on-death=")) {
+                String value = arg.substring("--allow-spectator-on-death=".length());
+                allowSpectatorOverride = parseBooleanFlag(value);
+                continue;
+            }
+
+            if (arg.startsWith("--allow-spectator=")) {
+                String value = arg.substring("--allow-spectator=".length());
+                allowSpectatorOverride = parseBooleanFlag(value);
+                continue;
+            }
+
+            if (arg.startsWith("--allow-tp-after-death=")) {
+                String value = arg.substring("--allow-tp-after-death=".length());
+                allowTpAfterDeathOverride = parseBooleanFlag(value);
+                continue;
+            }
+
+            // Seed flags: pass to overworld only (we inject real seed for nether/end)
+            if (arg.equalsIgnoreCase("-s") && i + 1 < args.length) {
+                String seedValue = args[++i]; // consume next token
+                mvArgsOverworld.add("-s");
+                mvArgsOverworld.add(seedValue);
+                // Don't add to mvArgsOtherDims
+                continue;
+            }
+
+            if (arg.startsWith("--seed=")) {
+                mvArgsOverworld.add(arg);
+                // Don't add to mvArgsOtherDims
+                continue;
+            }
+
+            // Generator flags: handle NORMAL specially to avoid "Plugin 'NORMAL' does not exist"
+            if (arg.equalsIgnoreCase("-g") && i + 1 < args.length) {
+                String gen = args[++i]; // consume next token
+
+                if (gen.equalsIgnoreCase("NORMAL")) {
+                    // Ignore this – Multiverse "environment" already handles NORMAL.
+                    messages.send(sender, "hardcore.create.ignore-generator", "flag", "-g NORMAL");
+                    continue;
+                }
+
+                // Custom generator plugin – forward to both overworld and other dims
+                mvArgsOverworld.add("-g");
+                mvArgsOverworld.add(gen);
+                mvArgsOtherDims.add("-g");
+                mvArgsOtherDims.add(gen);
+                continue;
+            }
+
+            if (arg.startsWith("--generator=")) {
+                String gen = arg.substring("--generator=".length());
+
+                if (gen.equalsIgnoreCase("NORMAL")) {
+                    messages.send(sender, "hardcore.create.ignore-generator", "flag", "--generator=NORMAL");
+                    continue;
+                }
+
+                mvArgsOverworld.add(arg);
+                mvArgsOtherDims.add(arg);
+                continue;
+            }
+
+            // All other mv args get forwarded to both overworld and other dimensions
+            mvArgsOverworld.add(arg);
+            mvArgsOtherDims.add(arg);
+        }
+
+
+        // Build dimension names for this hardcore world
+        Map<HardcoreDimension, String> dimensionNames = new EnumMap<>(HardcoreDimension.class);
+        for (HardcoreDimension dim : HardcoreDimension.values()) {
+            String dimensionWorldName = dim.worldNameForWorld(worldId);
+            dimensionNames.put(dim, dimensionWorldName);
+        }
+
+        // Ensure Multiverse-Core is present
+        Plugin mv = Bukkit.getPluginManager().getPlugin("Multiverse-Core");
+        if (mv == null || !mv.isEnabled()) {
+            messages.send(sender, "hardcore.create.no-multiverse");
+            return;
+        }
+
+        // Create OVERWORLD first -----------------------------------------------
+        String overworldName = dimensionNames.get(HardcoreDimension.OVERWORLD);
+        String overworldEnv = HardcoreDimension.OVERWORLD.getMultiverseEnvironment();
+
+        String overworldExtraArgs = mvArgsOverworld.isEmpty()
+                ? ""
+                : " " + String.join(" ", mvArgsOverworld);
+
+        messages.send(sender, "hardcore.create.start", "name", worldId);
+        messages.send(sender, "hardcore.create.dimension",
+                "dimension", HardcoreDimension.OVERWORLD.name(), "world", overworldName);
+
+        WorldStageEvent createOverworld = beginStage();
+        plugin.dispatchConsole(sender, "mv create " + overworldName + " " + overworldEnv + overworldExtraArgs);
+        commitStage(createOverworld, WorldStageEvent.CREATE, "mv-create", worldId, overworldName, 1);
+
+        Boolean finalAllowSpectatorOverride = allowSpectatorOverride;
+        Boolean finalAllowTpAfterDeathOverride = allowTpAfterDeathOverride;
+
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            World overworld = Bukkit.getWorld(overworldName);
+            if (overworld == null) {
+                messages.send(sender, "hardcore.create.overworld-missing", "world", overworldName);
+                return;
+            }
+
+            long seed = overworld.getSeed();
+            messages.send(sender, "hardcore.create.seed", "seed", String.valueOf(seed));
+
+            String otherDimsBaseArgs = mvArgsOtherDims.isEmpty()
+                    ? ""
+                    : " " + String.join(" ", mvArgsOtherDims);
+            String seedArg = " -s " + seed;
+
+            for (HardcoreDimension dim : HardcoreDimension.values()) {
+                if (dim == HardcoreDimension.OVERWORLD) continue;
+
+                String dimName = dimensionNames.get(dim);
+                String env = dim.getMultiverseEnvironment();
+
+                messages.send(sender, "hardcore.create.dimension", "dimension", dim.name(), "world", dimName);
+                String cmd = "mv create " + dimName + " " + env + otherDimsBaseArgs + seedArg;
+                WorldStageEvent createDimension = beginStage();
+                plugin.dispatchConsole(sender, cmd);
+                commitStage(createDimension, WorldStageEvent.CREATE, "mv-create", worldId, dimName, 1);
+            }
+
+            WorldStageEvent register = beginStage();
+            plugin.addHardcoreWorld(
+                    worldId,
+                    dimensionNames,
+                    finalAllowSpectatorOverride,
+                    finalAllowTpAfterDeathOverride
+            );
+
+            plugin.enforceHardDifficultyForWorld(worldId);
+            commitStage(register, WorldStageEvent.CREATE, "register", worldId, null, 1);
+            plugin.trace(TraceEventType.WORLD_CREATE, null, worldId,
+                    String.join(",", dimensionNames.values()));
+            Bukkit.getPluginManager().callEvent(new HardcoreWorldCreatedEvent(worldId,
+                    plugin.getDimensionNamesForWorld(worldId), plugin.getHardcoreWorldSettings(worldId)));
+
+            messages.send(sender, "hardcore.create.success", "name", worldId);
+
+        }, 1L); // 1 tick later
+    }
+
+
+    // ------------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------------
+
+    private static WorldStageEvent beginStage() {
+        WorldStageEvent event = new WorldStageEvent();
+        event.begin();
+        return event;
+    }
+
+    private static void commitStage(WorldStageEvent event, String operation, String stage,
+                                    String worldGroup, String dimension, int worlds) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.stage = stage;
+            event.worldGroup = worldGroup;
+            event.dimension = dimension;
+            event.worlds = worlds;
+            event.commit();
+        }
+    }
+
+    /**
+     * true / yes / y or false / no / n, any case; null for anything else.
+     */
+    public static Boolean parseBooleanFlag(String value) {
+        if (value == null) return null;
+        String v = value.trim().toLowerCase();
+        if (v.equals("true") || v.equals("yes") || v.equals("y")) return true;
+        if (v.equals("false") || v.equals("no") || v.equals("n")) return false;
+        return null;
+    }
+}
@@ -0,0 +1,245 @@
+package com.kylekriskovich.perworldhardcore.config;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Reloads config.yml without blocking the main thread: the file is read,
+ * parsed and turned into a registry layout on an async task, and only the
+ * finished config and layout are published on the main thread, in one step.
+ * A file that fails to parse or validate is rejected and the current config
+ * stays in place. If the plugin saved its own config edits (new or removed
+ * worlds) while a file was being parsed, the parse is thrown away and done
+ * again, so a stale file never replaces them.
+ * <p>
+ * Optionally watches the plugin folder and reloads when config.yml changes,
+ * once it has been quiet for the debounce time. Automatic reloads skip
+ * files whose content matches the config already in use (including the
+ * plugin's own saves).
+ */
+public class ConfigReloader {
+
+    /**
+     * @param applied   the new config is in use
+     * @param unchanged skipped, the file matches the current config
+     * @param problems  why it was rejected (empty if applied or unchanged)
+     */
+    public record Result(boolean applied, boolean unchanged, int worlds, int dimensions, List<String> problems) {
+    }
+
+    private record Parsed(YamlConfiguration config, HardcoreWorldRegistry.Layout layout, boolean unchanged) {
+    }
+
+    private final PerWorldHardcorePlugin plugin;
+    private final File configFile;
+
+    // Main thread only
+    private boolean inFlight;
+    private CompletableFuture<Result> queued;
+    private boolean queuedForce;
+
+    private WatchService watchService;
+
+    public ConfigReloader(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+        this.configFile = new File(plugin.getDataFolder(), "config.yml");
+    }
+
+    // ------------------------------------------------------------------------
+    // Reload
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reload config.yml (main thread). The future completes on the main
+     * thread. A reload requested while one is running runs after it.
+     *
+     * @param force apply even if the content matches the current config
+     */
+    public CompletableFuture<Result> reload(boolean force) {
+        if (inFlight) {
+            if (queued == null) {
+                queued = new CompletableFuture<>();
+            }
+            queuedForce |= force;
+            return queued;
+        }
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        start(result, force);
+        return result;
+    }
+
+    private void start(CompletableFuture<Result> result, boolean force) {
+        inFlight = true;
+        int generation = plugin.getConfigGeneration();
+        // Serialized here because the live config may only be touched on the main thread
+        String current = force ? null : plugin.getConfig().saveToString();
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            Parsed parsed;
+            List<String> problems;
+            try {
+                parsed = parse(current);
+                problems = parsed.layout().getProblems();
+            } catch (IOException | InvalidConfigurationException e) {
+                parsed = null;
+                problems = List.of("config.yml: " + e.getMessage());
+            }
+
+            Parsed done = parsed;
+            List<String> rejected = problems;
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (plugin.getConfigGeneration() != generation) {
+                    // The plugin saved config.yml meanwhile; parse the file again
+                    start(result, force);
+                    return;
+                }
+                finish(result, done, rejected);
+            });
+        });
+    }
+
+    /**
+     * Off the main thread: everything {@code JavaPlugin#reloadConfig} does,
+     * plus building the registry layout.
+     */
+    private Parsed parse(String current) throws IOException, InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.load(configFile);
+
+        if (current != null && current.equals(config.saveToString())) {
+            return new Parsed(config, null, true);
+        }
+
+        try (InputStream defaults = plugin.getResource("config.yml")) {
+            if (defaults != null) {
+                config.setDefaults(YamlConfiguration.loadConfiguration(
+                        new InputStreamReader(defaults, StandardCharsets.UTF_8)));
+            }
+        }
+        return new Parsed(config, HardcoreWorldLayoutReader.read(config), false);
+    }
+
+    private void finish(CompletableFuture<Result> result, Parsed parsed, List<String> problems) {
+        try {
+            if (parsed != null && parsed.unchanged()) {
+                result.complete(new Result(false, true, 0, 0, List.of()));
+            } else if (parsed == null || !problems.isEmpty()) {
+                for (String problem : problems) {
+                    plugin.getLogger().warning("config.yml not reloaded: " + problem);
+                }
+                result.complete(new Result(false, false, 0, 0, problems));
+            } else {
+                plugin.applyReloadedConfig(parsed.config(), parsed.layout());
+                result.complete(new Result(true, false,
+                        parsed.layout().getWorldIds().size(),
+                        parsed.layout().getDimensionNames().size(),
+                        List.of()));
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not apply reloaded config.yml", e);
+            result.completeExceptionally(e);
+        } finally {
+            inFlight = false;
+        }
+
+        if (queued != null) {
+            CompletableFuture<Result> next = queued;
+            boolean force = queuedForce;
+            queued = null;
+            queuedForce = false;
+            start(next, force);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // File watching
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reload whenever config.yml is created or modified, after
+     * {@code debounceMillis} without further changes.
+     */
+    public void startWatching(long debounceMillis) {
+        Path folder = plugin.getDataFolder().toPath();
+        try {
+            watchService = folder.getFileSystem().newWatchService();
+            folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not watch config.yml for changes", e);
+            return;
+        }
+
+        WatchService service = watchService;
+        Thread thread = new Thread(() -> watch(service, debounceMillis), "PerWorldHardcore-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stopWatching() {
+        if (watchService != null) {
+            try {
+                // Wakes the watcher thread with ClosedWatchServiceException
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+            watchService = null;
+        }
+    }
+
+    private void watch(WatchService service, long debounceMillis) {
+        try {
+            while (true) {
+                if (!touchesConfig(service.take())) {
+                    continue;
+                }
+                // Editors often write in several steps; wait until it settles
+                long quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+                long remaining;
+                while ((remaining = quietUntil - System.nanoTime()) > 0) {
+                    WatchKey key = service.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (key != null && touchesConfig(key)) {
+                        quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+                    }
+                }
+
+                if (!plugin.isEnabled()) {
+                    return;
+                }
+                plugin.getServer().getScheduler().runTask(plugin, () -> reload(false).thenAccept(result -> {
+                    if (result.applied()) {
+                        plugin.getLogger().info("config.yml changed on disk and was reloaded.");
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // stopWatching()
+        }
+    }
+
+    private boolean touchesConfig(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || configFile.getName().equals(String.valueOf(event.context()))) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+}
@@ -0,0 +1,56 @@
+package com.kylekriskovich.perworldhardcore.config;
+
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the registry {@link HardcoreWorldRegistry.Layout} from
+ * hardcore-worlds in config.yml. Touches nothing but {@code config}, so it
+ * can run off the main thread on a freshly parsed file.
+ */
+public final class HardcoreWorldLayoutReader {
+
+    private HardcoreWorldLayoutReader() {
+    }
+
+    public static HardcoreWorldRegistry.Layout read(FileConfiguration config) {
+        HardcoreWorldRegistry.Builder builder = HardcoreWorldRegistry.Layout.builder();
+
+        ConfigurationSection worldsSection = config.getConfigurationSection("hardcore-worlds");
+        if (worldsSection == null) {
+            return builder.build();
+        }
+
+        for (String worldName : worldsSection.getKeys(false)) {
+            if (worldName == null || worldName.isBlank()) {
+                continue;
+            }
+
+            ConfigurationSection worldSection = worldsSection.getConfigurationSection(worldName);
+            if (worldSection == null) {
+                continue;
+            }
+
+            List<String> dimensionNames = new ArrayList<>();
+
+            ConfigurationSection dimSection = worldSection.getConfigurationSection("dimensions");
+            if (dimSection != null && !dimSection.getKeys(false).isEmpty()) {
+                for (String dimKey : dimSection.getKeys(false)) {
+                    String dimensionName = dimSection.getString(dimKey);
+                    if (dimensionName != null && !dimensionName.isBlank()) {
+                        dimensionNames.add(dimensionName);
+                    }
+                }
+            } else {
+                dimensionNames.add(worldName);
+            }
+
+            builder.add(worldName, dimensionNames, HardcoreWorldSettingsReader.read(worldName, config));
+        }
+        return builder.build();
+    }
+}
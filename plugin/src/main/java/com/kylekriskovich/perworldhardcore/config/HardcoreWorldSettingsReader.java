@@ -0,0 +1,79 @@
+package com.kylekriskovich.perworldhardcore.config;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Builds {@link HardcoreWorldSettings} for one hardcore world from config.yml:
+ * values under hardcore-worlds.&lt;world&gt;.settings, falling back to defaults_settings.
+ */
+public final class HardcoreWorldSettingsReader {
+
+    private HardcoreWorldSettingsReader() {
+    }
+
+    public static HardcoreWorldSettings read(String worldName, FileConfiguration config) {
+        HardcoreWorldSettings settings = new HardcoreWorldSettings(worldName);
+
+        ConfigurationSection defaults =
+                config.getConfigurationSection("defaults_settings");
+        if (defaults == null) {
+            defaults = config.getConfigurationSection("defaults_Settings");
+        }
+
+        boolean defaultSpectator =
+                defaults != null && defaults.getBoolean("allow-spectator-on-death", true);
+        boolean defaultTp =
+                defaults != null && defaults.getBoolean("allow-tp-after-death", false);
+        int defaultSpectatorViewDistance =
+                defaults != null ? defaults.getInt("spectator-view-distance", 0) : 0;
+        int defaultMaxSpectators =
+                defaults != null ? defaults.getInt("max-spectators", 0) : 0;
+        boolean defaultBlockSpectatorChunkGeneration =
+                defaults != null && defaults.getBoolean("block-spectator-chunk-generation", false);
+        double defaultAdmissionMaxMspt =
+                defaults != null ? defaults.getDouble("admission-max-mspt", 0.0) : 0.0;
+
+        // World-specific settings under hardcore-worlds.<worldName>
+        ConfigurationSection worldsSection = config.getConfigurationSection("hardcore-worlds");
+        ConfigurationSection worldSection =
+                worldsSection != null ? worldsSection.getConfigurationSection(worldName) : null;
+
+        if (worldSection != null) {
+            settings.setCreatedMillis(worldSection.getLong("created", 0L));
+        }
+
+        ConfigurationSection settingsSection = null;
+        if (worldSection != null) {
+            settingsSection = worldSection.getConfigurationSection("settings");
+            if (settingsSection == null) {
+                settingsSection = worldSection;
+            }
+        }
+
+        if (settingsSection == null) {
+            settings.setAllowSpectatorOnDeath(defaultSpectator);
+            settings.setAllowTpAfterDeath(defaultTp);
+            settings.setSpectatorViewDistance(defaultSpectatorViewDistance);
+            settings.setMaxSpectators(defaultMaxSpectators);
+            settings.setBlockSpectatorChunkGeneration(defaultBlockSpectatorChunkGeneration);
+            settings.setAdmissionMaxMspt(defaultAdmissionMaxMspt);
+            return settings;
+        }
+
+        settings.setAllowSpectatorOnDeath(
+                settingsSection.getBoolean("allow-spectator-on-death", defaultSpectator));
+        settings.setAllowTpAfterDeath(
+                settingsSection.getBoolean("allow-tp-after-death", defaultTp));
+        settings.setSpectatorViewDistance(
+                settingsSection.getInt("spectator-view-distance", defaultSpectatorViewDistance));
+        settings.setMaxSpectators(
+                settingsSection.getInt("max-spectators", defaultMaxSpectators));
+        settings.setBlockSpectatorChunkGeneration(
+                settingsSection.getBoolean("block-spectator-chunk-generation", defaultBlockSpectatorChunkGeneration));
+        settings.setAdmissionMaxMspt(
+                settingsSection.getDouble("admission-max-mspt", defaultAdmissionMaxMspt));
+        return settings;
+    }
+}
@@ -0,0 +1,56 @@
+package com.kylekriskovich.perworldhardcore.event;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A player has been marked dead in a hardcore world.
+ */
+public class HardcorePlayerDeathEvent extends HardcoreWorldEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Player player;
+    private final String deathDimension;
+    private final long survivalMillis;
+
+    public HardcorePlayerDeathEvent(Player player, String deathDimension, long survivalMillis, String worldId,
+                                    List<String> dimensionNames, HardcoreWorldSettings settings) {
+        super(worldId, dimensionNames, settings);
+        this.player = player;
+        this.deathDimension = deathDimension;
+        this.survivalMillis = survivalMillis;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Bukkit world name of the dimension the player died in.
+     */
+    public String getDeathDimension() {
+        return deathDimension;
+    }
+
+    /**
+     * Time since the player first entered the world, or -1 if unknown
+     * (history disabled or first visit not recorded).
+     */
+    public long getSurvivalMillis() {
+        return survivalMillis;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kylekriskovich.perworldhardcore.event;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A player died in a hardcore world and is about to be marked dead in it.
+ * Cancelling keeps them alive there: nothing is recorded and they respawn
+ * normally.
+ */
+public class HardcorePreDeathMarkEvent extends HardcoreWorldEvent implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Player player;
+    private final String deathDimension;
+    private boolean cancelled;
+
+    public HardcorePreDeathMarkEvent(Player player, String deathDimension, String worldId,
+                                     List<String> dimensionNames, HardcoreWorldSettings settings) {
+        super(worldId, dimensionNames, settings);
+        this.player = player;
+        this.deathDimension = deathDimension;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Bukkit world name of the dimension the player died in.
+     */
+    public String getDeathDimension() {
+        return deathDimension;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
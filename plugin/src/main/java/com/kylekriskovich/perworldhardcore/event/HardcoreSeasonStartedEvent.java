@@ -0,0 +1,46 @@
+package com.kylekriskovich.perworldhardcore.event;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * The season rotation switched the active hardcore world at a season
+ * boundary, e.g. for portals, signs or menus that send players to it.
+ */
+public class HardcoreSeasonStartedEvent extends HardcoreWorldEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final int season;
+    private final String previousWorldId;
+
+    public HardcoreSeasonStartedEvent(String worldId, List<String> dimensionNames, HardcoreWorldSettings settings,
+                                      int season, String previousWorldId) {
+        super(worldId, dimensionNames, settings);
+        this.season = season;
+        this.previousWorldId = previousWorldId;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    /**
+     * The previously active world, or null for the first season.
+     */
+    public String getPreviousWorldId() {
+        return previousWorldId;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
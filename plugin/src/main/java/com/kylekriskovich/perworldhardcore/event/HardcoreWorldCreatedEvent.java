@@ -0,0 +1,28 @@
+package com.kylekriskovich.perworldhardcore.event;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A hardcore world has been created with /hardcore create and registered.
+ */
+public class HardcoreWorldCreatedEvent extends HardcoreWorldEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public HardcoreWorldCreatedEvent(String worldId, List<String> dimensionNames, HardcoreWorldSettings settings) {
+        super(worldId, dimensionNames, settings);
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,30 @@
+package com.kylekriskovich.perworldhardcore.event;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A hardcore world has been removed from this server and its player data
+ * removed: deleted by /hardcore cull delete or season rotation, or handed
+ * off to another server by /hardcore export.
+ */
+public class HardcoreWorldCulledEvent extends HardcoreWorldEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public HardcoreWorldCulledEvent(String worldId, List<String> dimensionNames, HardcoreWorldSettings settings) {
+        super(worldId, dimensionNames, settings);
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,49 @@
+package com.kylekriskovich.perworldhardcore.event;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A player joined into, or moved into, a hardcore world from outside it and
+ * was let in (not queued by admission control). Moves between dimensions of
+ * the same hardcore world do not fire it.
+ */
+public class HardcoreWorldEnterEvent extends HardcoreWorldEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Player player;
+    private final boolean dead;
+
+    public HardcoreWorldEnterEvent(Player player, boolean dead, String worldId,
+                                   List<String> dimensionNames, HardcoreWorldSettings settings) {
+        super(worldId, dimensionNames, settings);
+        this.player = player;
+        this.dead = dead;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * True if the player already died here; they will be made a spectator
+     * or sent back to the hub.
+     */
+    public boolean isDead() {
+        return dead;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,44 @@
+package com.kylekriskovich.perworldhardcore.event;
+
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.event.Event;
+
+import java.util.List;
+
+/**
+ * Base for the plugin's events: the hardcore world (group) involved, its
+ * dimensions and settings. All of them are fired on the server thread.
+ */
+public abstract class HardcoreWorldEvent extends Event {
+
+    private final String worldId;
+    private final List<String> dimensionNames;
+    private final HardcoreWorldSettings settings;
+
+    protected HardcoreWorldEvent(String worldId, List<String> dimensionNames, HardcoreWorldSettings settings) {
+        this.worldId = worldId;
+        this.dimensionNames = List.copyOf(dimensionNames);
+        this.settings = settings;
+    }
+
+    /**
+     * Hardcore world id as in config.yml.
+     */
+    public String getWorldId() {
+        return worldId;
+    }
+
+    /**
+     * Bukkit world names of the world's dimensions.
+     */
+    public List<String> getDimensionNames() {
+        return dimensionNames;
+    }
+
+    /**
+     * May be null for a world that is no longer registered.
+     */
+    public HardcoreWorldSettings getSettings() {
+        return settings;
+    }
+}
@@ -0,0 +1,390 @@
+package com.kylekriskovich.perworldhardcore.listener;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.event.HardcorePlayerDeathEvent;
+import com.kylekriskovich.perworldhardcore.event.HardcorePreDeathMarkEvent;
+import com.kylekriskovich.perworldhardcore.event.HardcoreWorldEnterEvent;
+import com.kylekriskovich.perworldhardcore.event.HardcoreWorldFullyDeadEvent;
+import com.kylekriskovich.perworldhardcore.history.DeathRecord;
+import com.kylekriskovich.perworldhardcore.history.DeathHistory;
+import com.kylekriskovich.perworldhardcore.jfr.EnforcementEvent;
+import com.kylekriskovich.perworldhardcore.metrics.MetricsRegistry;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.registry.WorldPopulation;
+import com.kylekriskovich.perworldhardcore.trace.TraceEventType;
+import com.kylekriskovich.perworldhardcore.util.MessageManager;
+import com.kylekriskovich.perworldhardcore.world.AdmissionController;
+import com.kylekriskovich.perworldhardcore.world.SpectatorLimiter;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class HardcorePlayerListener implements Listener {
+
+    private final PerWorldHardcorePlugin plugin;
+    private final MessageManager messages;
+    private final MetricsRegistry metrics;
+
+    /**
+     * Tracks the Bukkit world name (dimension) in which the player last died.
+     * Used so respawn logic can reason about the correct hardcore world even if
+     * the respawn happens in another dimension (e.g. die in nether, respawn in overworld).
+     */
+    private final Map<UUID, String> lastDeathDimension = new ConcurrentHashMap<>();
+
+    public HardcorePlayerListener(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+        this.messages = plugin.getMessageManager();
+        this.metrics = plugin.getMetrics();
+    }
+
+    // ------------------------------------------------------------------------
+    // Death
+    // ------------------------------------------------------------------------
+
+    @EventHandler
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        long start = System.nanoTime();
+        try {
+            handleDeath(event);
+        } finally {
+            metrics.timer("death").recordSince(start);
+        }
+    }
+
+    private void handleDeath(PlayerDeathEvent event) {
+        Player player = event.getEntity();
+        World world = player.getWorld();
+        if (world == null) return;
+
+        // Only care if this dimension belongs to a hardcore world
+        if (!plugin.isHardcoreWorld(world)) {
+            return;
+        }
+
+        UUID playerId = player.getUniqueId();
+        String dimensionName = plugin.getHardcoreWorldId(world);
+        List<String> dimensionNames = plugin.getDimensionNamesForWorld(dimensionName);
+        HardcoreWorldSettings settings = plugin.getHardcoreWorldSettings(world);
+
+        // Integrations may veto the death mark (e.g. a second life); then nothing is recorded
+        HardcorePreDeathMarkEvent preMark = new HardcorePreDeathMarkEvent(
+                player, world.getName(), dimensionName, dimensionNames, settings);
+        plugin.getServer().getPluginManager().callEvent(preMark);
+        if (preMark.isCancelled()) {
+            return;
+        }
+
+        // Remember which dimension they died in for respawn logic
+        lastDeathDimension.put(playerId, dimensionName);
+
+        WorldPopulation population = plugin.getRegistry().getPopulation();
+        int aliveBefore = population.getAlive(dimensionName);
+
+        // Mark death & visit at hardcore-world level (plugin handles dimension fan-out)
+        plugin.markPlayerDeadInWorld(playerId, world);
+        plugin.markPlayerVisitedWorld(playerId, world);
+        metrics.counter("hardcore_deaths").increment();
+        plugin.trace(TraceEventType.DEATH, playerId, world.getName(), dimensionName);
+        DeathRecord record = recordDeathHistory(player, dimensionName);
+
+        plugin.getServer().getPluginManager().callEvent(new HardcorePlayerDeathEvent(
+                player, world.getName(), record != null ? record.survivalMillis() : -1L,
+                dimensionName, dimensionNames, settings));
+        if (plugin.isStorageLoaded() && aliveBefore > 0 && population.getAlive(dimensionName) == 0) {
+            plugin.getServer().getPluginManager().callEvent(
+                    new HardcoreWorldFullyDeadEvent(dimensionName, dimensionNames, settings));
+        }
+
+        // Last visitor down → drop the world into low-cost mode until it is culled
+        if (plugin.isStorageLoaded()) {
+            plugin.getDeadWorldFreezer().freezeIfFullyDead(dimensionName);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Respawn
+    // ------------------------------------------------------------------------
+
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        long start = System.nanoTime();
+        try {
+            handleRespawn(event);
+        } finally {
+            metrics.timer("respawn").recordSince(start);
+        }
+    }
+
+    private void handleRespawn(PlayerRespawnEvent event) {
+        Player player = event.getPlayer();
+        UUID playerId = player.getUniqueId();
+
+        // Prefer the dimension they actually died in
+        String deathDimensionName = lastDeathDimension.remove(playerId);
+        World basisWorld = null;
+
+        if (deathDimensionName != null) {
+            basisWorld = Bukkit.getWorld(deathDimensionName);
+        }
+
+        // Fallback: use the world they are respawning into if we couldn't resolve death world
+        if (basisWorld == null) {
+            basisWorld = event.getRespawnLocation().getWorld();
+        }
+
+        if (basisWorld == null || !plugin.isHardcoreWorld(basisWorld)) {
+            // Not in any hardcore world -> normal behaviour
+            return;
+        }
+
+        HardcoreWorldSettings settings = plugin.getHardcoreWorldSettings(basisWorld);
+        if (settings == null) {
+            return;
+        }
+
+        // Has this player died in this hardcore world (across all its dimensions)?
+        if (!plugin.hasDiedInWorld(playerId, basisWorld)) {
+            return;
+        }
+
+        World hub = plugin.getHubWorld();
+        if (hub == null) {
+            plugin.getLogger().warning("Hub world not found; cannot redirect respawn.");
+            return;
+        }
+
+        String hardcoreName = plugin.getHardcoreWorldId(basisWorld);
+        SpectatorLimiter spectatorLimiter = plugin.getSpectatorLimiter();
+
+        if (settings.isAllowSpectatorOnDeath()
+                && spectatorLimiter.hasSpectatorSlot(player, basisWorld, settings)) {
+            // Respawn inside the hardcore world, but as spectator.
+            // If respawn location is outside a hardcore world for some reason,
+            // nudge them into the basisWorld spawn.
+            World respawnWorld = event.getRespawnLocation().getWorld();
+            if (respawnWorld == null || !plugin.isHardcoreWorld(respawnWorld)) {
+                event.setRespawnLocation(basisWorld.getSpawnLocation());
+            }
+
+            World spectateWorld = basisWorld;
+            recordEnforcement(EnforcementEvent.SPECTATE, TraceEventType.RESPAWN_SPECTATE, hardcoreName, player);
+            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+                spectatorLimiter.makeSpectator(player, spectateWorld, settings);
+                messages.send(player, "death.spectate", "world", hardcoreName);
+            }, 2L); // 2 ticks later
+
+        } else {
+            // No spectator allowed (or no spectator slot left): force respawn at hub in survival
+            event.setRespawnLocation(hub.getSpawnLocation());
+            recordEnforcement(EnforcementEvent.RETURN_TO_HUB, TraceEventType.RESPAWN_HUB, hardcoreName, player);
+            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+                player.setGameMode(GameMode.SURVIVAL);
+                messages.send(player, "death.returned-to-hub", "world", hardcoreName);
+            }, 2L);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Join / World change → enforce restrictions + track visits
+    // ------------------------------------------------------------------------
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        traceWorld(TraceEventType.JOIN, player, player.getWorld());
+        plugin.getPopulationBossBars().update(player, player.getWorld());
+        plugin.sendQueuedSyncBatches();
+        plugin.touchPlayer(player.getUniqueId());
+        handleEnterWorld(player, null, player.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        Player player = event.getPlayer();
+        plugin.getSpectatorLimiter().release(player);
+        traceWorld(TraceEventType.CHANGE_WORLD, player, player.getWorld());
+        plugin.getPopulationBossBars().update(player, player.getWorld());
+        handleEnterWorld(player, event.getFrom(), player.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        traceWorld(TraceEventType.QUIT, event.getPlayer(), event.getPlayer().getWorld());
+        plugin.getSpectatorLimiter().forget(playerId);
+        plugin.getAdmissionController().forget(playerId);
+        plugin.getPopulationBossBars().hide(event.getPlayer());
+        plugin.touchPlayer(playerId);
+    }
+
+    /**
+     * Level.dat is written after this, so it must not keep our spectator gamerule.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        plugin.getSpectatorLimiter().restoreChunkGeneration(event.getWorld());
+    }
+
+    /**
+     * Common logic when a player is in some world after join/world-change.
+     * Marks visit and enforces admission control and post-death restrictions
+     * if applicable. {@code from} is null on join.
+     */
+    private void handleEnterWorld(Player player, World from, World world) {
+        long start = System.nanoTime();
+        try {
+            enterWorld(player, from, world);
+        } finally {
+            metrics.timer("enter_world").recordSince(start);
+        }
+    }
+
+    private void enterWorld(Player player, World from, World world) {
+        if (world == null) return;
+
+        // Death state is still loading; recheckOnlinePlayers() handles this player later
+        if (!plugin.isStorageLoaded()) {
+            // Could not be loaded at all: keep everyone out rather than let the dead back in
+            if (plugin.isStorageLoadFailed() && plugin.isHardcoreWorld(world)) {
+                World hub = plugin.getHubWorld();
+                if (hub == null) {
+                    plugin.getLogger().warning("Hub world not found; cannot close hardcore worlds.");
+                } else {
+                    redirectToHub(player, hub, messages.get(player, "enter.storage-unavailable"));
+                }
+            }
+            return;
+        }
+
+        // Ignore non-hardcore worlds
+        if (!plugin.isHardcoreWorld(world)) {
+            return;
+        }
+
+        UUID playerId = player.getUniqueId();
+        HardcoreWorldSettings settings = plugin.getHardcoreWorldSettings(world);
+        if (settings == null) {
+            return;
+        }
+
+        boolean dead = plugin.hasDiedInWorld(playerId, world);
+        String hardcoreName = plugin.getHardcoreWorldId(world);
+
+        // Living players entering an overloaded hardcore world wait in the hub
+        AdmissionController admissionController = plugin.getAdmissionController();
+        if (!dead && !admissionController.tryAdmit(player, from, world, settings)) {
+            World hub = plugin.getHubWorld();
+            if (hub == null) {
+                plugin.getLogger().warning("Hub world not found; cannot queue join/world-change.");
+            } else {
+                int position = admissionController.enqueue(player, hardcoreName, player.getLocation());
+                metrics.counter("admission_queued").increment();
+                recordEnforcement(EnforcementEvent.QUEUE, TraceEventType.ENTER_QUEUED, hardcoreName, player);
+                long eta = admissionController.estimateWaitSeconds(position);
+                redirectToHub(player, hub, messages.get(player, "enter.queued",
+                        "world", hardcoreName,
+                        "position", String.valueOf(position),
+                        "eta", String.valueOf(eta)));
+                return;
+            }
+        }
+
+        // Mark visited at hardcore-world level
+        plugin.markPlayerVisitedWorld(playerId, world);
+
+        if (from == null || !hardcoreName.equals(plugin.getHardcoreWorldId(from))) {
+            plugin.getServer().getPluginManager().callEvent(new HardcoreWorldEnterEvent(
+                    player, dead, hardcoreName, plugin.getDimensionNamesForWorld(hardcoreName), settings));
+        }
+
+        // A living player brings a frozen (fully dead) world back to normal
+        if (!dead) {
+            DeathHistory history = plugin.getDeathHistory();
+            if (history != null) {
+                history.recordVisit(playerId, hardcoreName, System.currentTimeMillis());
+            }
+            plugin.getDeadWorldFreezer().thawIfFrozen(hardcoreName);
+            return;
+        }
+
+        // They've died in this hardcore world, enforce settings
+        World hub = plugin.getHubWorld();
+        if (hub == null) {
+            plugin.getLogger().warning("Hub world not found; cannot redirect join/world-change.");
+            return;
+        }
+        SpectatorLimiter spectatorLimiter = plugin.getSpectatorLimiter();
+
+        if (settings.isAllowSpectatorOnDeath()
+                && spectatorLimiter.hasSpectatorSlot(player, world, settings)) {
+            recordEnforcement(EnforcementEvent.SPECTATE, TraceEventType.RESPAWN_SPECTATE, hardcoreName, player);
+            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+                spectatorLimiter.makeSpectator(player, world, settings);
+                messages.send(player, "death.spectate", "world", hardcoreName);
+            }, 2L);
+
+        } else {
+            recordEnforcement(EnforcementEvent.RETURN_TO_HUB, TraceEventType.RESPAWN_HUB, hardcoreName, player);
+            redirectToHub(player, hub, messages.get(player, "enter.already-dead", "world", hardcoreName));
+        }
+    }
+
+    /**
+     * Run the entry checks for everyone online, once player data has loaded.
+     */
+    public void recheckOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            // Already inside: treat as a move within the same world for admission control
+            handleEnterWorld(player, player.getWorld(), player.getWorld());
+        }
+    }
+
+    private void recordEnforcement(String action, TraceEventType traceType, String hardcoreName, Player player) {
+        EnforcementEvent.emit(action, hardcoreName, player.getName(),
+                plugin.getServer().getOnlinePlayers().size());
+        plugin.trace(traceType, player.getUniqueId(), hardcoreName, null);
+    }
+
+    private DeathRecord recordDeathHistory(Player player, String hardcoreName) {
+        DeathHistory history = plugin.getDeathHistory();
+        if (history == null) {
+            return null;
+        }
+        EntityDamageEvent lastDamage = player.getLastDamageCause();
+        String cause = lastDamage != null
+                ? lastDamage.getCause().name().toLowerCase(Locale.ROOT)
+                : DeathHistory.UNKNOWN_CAUSE;
+        return history.recordDeath(player.getUniqueId(), hardcoreName, System.currentTimeMillis(), cause);
+    }
+
+    private void traceWorld(TraceEventType type, Player player, World world) {
+        plugin.trace(type, player.getUniqueId(), world.getName(), plugin.getHardcoreWorldId(world));
+    }
+
+    private void redirectToHub(Player player, World hub, String message) {
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            player.teleport(hub.getSpawnLocation());
+            player.setGameMode(GameMode.SURVIVAL);
+            player.sendMessage(message);
+        }, 2L);
+    }
+}
\ No newline at end of file
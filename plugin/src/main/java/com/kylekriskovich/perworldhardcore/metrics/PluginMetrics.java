@@ -0,0 +1,98 @@
+package com.kylekriskovich.perworldhardcore.metrics;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.registry.DeathFilter;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.util.logging.Level;
+
+/**
+ * Owns the plugin's {@link MetricsRegistry}: samples gauges and totals that
+ * read main-thread state once a second, and runs the optional Prometheus
+ * endpoint (metrics.prometheus in config.yml).
+ */
+public class PluginMetrics {
+
+    private static final long SAMPLE_INTERVAL_TICKS = 20L;
+
+    private final PerWorldHardcorePlugin plugin;
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    private BukkitTask sampleTask;
+    private PrometheusExporter exporter;
+
+    public PluginMetrics(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    public void start() {
+        sampleTask = plugin.getServer().getScheduler()
+                .runTaskTimer(plugin, this::sampleGauges, SAMPLE_INTERVAL_TICKS, SAMPLE_INTERVAL_TICKS);
+
+        if (!plugin.getConfig().getBoolean("metrics.prometheus.enabled", false)) {
+            return;
+        }
+
+        String bindAddress = plugin.getConfig().getString("metrics.prometheus.bind-address", "127.0.0.1");
+        int port = plugin.getConfig().getInt("metrics.prometheus.port", 9464);
+        exporter = new PrometheusExporter(registry, bindAddress, port);
+        try {
+            exporter.start();
+            plugin.getLogger().info("Prometheus metrics on http://" + bindAddress + ":" + port + "/metrics");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not start Prometheus endpoint on "
+                    + bindAddress + ":" + port, e);
+            exporter = null;
+        }
+    }
+
+    public void stop() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        if (exporter != null) {
+            exporter.stop();
+            exporter = null;
+        }
+    }
+
+    /**
+     * Main thread: copy queue depths and counts into gauges so readers on
+     * other threads never touch plugin state.
+     */
+    private void sampleGauges() {
+        registry.gauge("hardcore_worlds").set(plugin.getRegistry().getWorldIds().size());
+        registry.gauge("players_online").set(plugin.getServer().getOnlinePlayers().size());
+
+        if (plugin.getAdmissionController() != null) {
+            registry.gauge("admission_queue_depth").set(plugin.getAdmissionController().getQueuedCount());
+        }
+        if (plugin.getDeadWorldFreezer() != null) {
+            registry.gauge("frozen_worlds").set(plugin.getDeadWorldFreezer().getFrozenCount());
+        }
+        if (plugin.getEventTrace() != null) {
+            registry.gauge("trace_queue_depth").set(plugin.getEventTrace().getQueueDepth());
+            registry.sampledCounter("trace_events_written").set(plugin.getEventTrace().getWritten());
+            registry.sampledCounter("trace_events_dropped").set(plugin.getEventTrace().getDropped());
+        }
+
+        // Rates as parts per million; gauges are integers
+        DeathFilter deathFilter = plugin.getRegistry().getDeathFilter();
+        registry.sampledCounter("death_filter_rejected").set(deathFilter.getRejected());
+        registry.sampledCounter("death_filter_passed").set(deathFilter.getPassed());
+        registry.sampledCounter("death_filter_false_positives").set(deathFilter.getFalsePositives());
+        registry.gauge("death_filter_false_positive_ppm").set(
+                Math.round(deathFilter.getObservedFalsePositiveRate() * 1_000_000));
+        registry.gauge("death_filter_expected_false_positive_ppm").set(
+                Math.round(deathFilter.getExpectedFalsePositiveRate() * 1_000_000));
+        registry.gauge("death_filter_players").set(deathFilter.getInsertions());
+        registry.gauge("death_filter_bits").set(deathFilter.getBitCount());
+        registry.sampledCounter("death_filter_rebuilds").set(deathFilter.getRebuilds());
+    }
+}
@@ -0,0 +1,119 @@
+package com.kylekriskovich.perworldhardcore.storage;
+
+import com.kylekriskovich.perworldhardcore.model.PlayerWorldState;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * data.yml layout:
+ * <pre>
+ * players:
+ *   &lt;uuid&gt;:
+ *     dead-worlds: [...]
+ *     visited-worlds: [...]
+ *     last-seen: &lt;epoch millis&gt;
+ * </pre>
+ */
+public class YamlPlayerDataBackend implements PlayerDataBackend {
+
+    private final File dataFile;
+    private final Logger logger;
+
+    /**
+     * Kept from the load so anything else in data.yml survives a save.
+     */
+    private volatile YamlConfiguration dataConfig;
+
+    public YamlPlayerDataBackend(File dataFile, Logger logger) {
+        this.dataFile = dataFile;
+        this.logger = logger;
+    }
+
+    @Override
+    public Map<UUID, PlayerWorldState> load() {
+        setupDataFile();
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
+        Map<UUID, PlayerWorldState> result = new HashMap<>();
+
+        ConfigurationSection playersSection = config.getConfigurationSection("players");
+        if (playersSection != null) {
+            for (String uuidStr : playersSection.getKeys(false)) {
+                try {
+                    UUID uuid = UUID.fromString(uuidStr);
+                    PlayerWorldState state = new PlayerWorldState(uuid);
+
+                    ConfigurationSection playerSection = playersSection.getConfigurationSection(uuidStr);
+                    if (playerSection != null) {
+                        for (String w : playerSection.getStringList("dead-worlds")) {
+                            state.markDeadIn(w);
+                        }
+                        for (String w : playerSection.getStringList("visited-worlds")) {
+                            state.markVisited(w);
+                        }
+                        state.setLastSeenMillis(playerSection.getLong("last-seen", 0L));
+                    }
+
+                    result.put(uuid, state);
+                } catch (IllegalArgumentException ex) {
+                    logger.warning("Invalid UUID in data.yml: " + uuidStr);
+                }
+            }
+        }
+
+        dataConfig = config;
+        return result;
+    }
+
+    @Override
+    public long save(Collection<PlayerWorldState> players) throws IOException {
+        YamlConfiguration config = dataConfig;
+        if (config == null) {
+            config = new YamlConfiguration();
+            dataConfig = config;
+        }
+
+        config.set("players", null); // clear section
+
+        for (PlayerWorldState state : players) {
+            String uuidStr = state.getPlayerId().toString();
+            config.set("players." + uuidStr + ".dead-worlds",
+                    new ArrayList<>(state.getDeadWorlds()));
+            config.set("players." + uuidStr + ".visited-worlds",
+                    new ArrayList<>(state.getVisitedWorlds()));
+            if (state.getLastSeenMillis() > 0) {
+                config.set("players." + uuidStr + ".last-seen", state.getLastSeenMillis());
+            }
+        }
+
+        // Same as YamlConfiguration#save(File), but we need the size
+        byte[] data = config.saveToString().getBytes(StandardCharsets.UTF_8);
+        Files.write(dataFile.toPath(), data);
+        return data.length;
+    }
+
+    private void setupDataFile() {
+        File folder = dataFile.getParentFile();
+        if (folder != null && !folder.exists() && !folder.mkdirs()) {
+            logger.warning("Could not create plugin data folder: " + folder.getAbsolutePath());
+        }
+
+        if (!dataFile.exists()) {
+            try {
+                if (!dataFile.createNewFile()) {
+                    logger.warning("data.yml file already existed or could not be created.");
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not create data.yml", e);
+            }
+        }
+    }
+}
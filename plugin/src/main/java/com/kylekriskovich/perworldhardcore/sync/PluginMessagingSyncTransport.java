@@ -0,0 +1,146 @@
+package com.kylekriskovich.perworldhardcore.sync;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * {@link SyncTransport} over the BungeeCord / Velocity plugin-messaging
+ * channel: batches are sent with {@code Forward ALL}, so the proxy relays
+ * them to every other backend server.
+ * <p>
+ * Plugin messages ride on a player connection. While nobody is online,
+ * batches are queued (up to {@link #MAX_QUEUED}, oldest dropped first) and
+ * sent once someone is; a server with no players also receives nothing, so
+ * use the directory transport if that matters.
+ */
+public class PluginMessagingSyncTransport implements SyncTransport, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "PerWorldHardcoreSync";
+
+    /**
+     * Forward payloads are length-prefixed with an unsigned short.
+     */
+    private static final int MAX_PAYLOAD = 0xFFFF;
+
+    private static final int MAX_QUEUED = 256;
+
+    private final PerWorldHardcorePlugin plugin;
+
+    /**
+     * Batches waiting for an online player; main thread only.
+     */
+    private final Deque<byte[]> queued = new ArrayDeque<>();
+
+    private Consumer<byte[]> receiver;
+
+    public PluginMessagingSyncTransport(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public void publish(byte[] payload) throws IOException {
+        if (payload.length > MAX_PAYLOAD) {
+            throw new IOException("Sync batch of " + payload.length + " bytes is too large for plugin messaging");
+        }
+        byte[] message = encodeForward(payload);
+
+        if (Bukkit.isPrimaryThread()) {
+            send(message);
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, () -> send(message));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!queued.isEmpty()) {
+            plugin.getLogger().warning("Dropping " + queued.size()
+                    + " hardcore sync batches; no player was online to send them.");
+            queued.clear();
+        }
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin, CHANNEL, this);
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin, CHANNEL);
+        receiver = null;
+    }
+
+    /**
+     * Send anything queued while the server was empty (main thread, e.g. on join).
+     */
+    public void sendQueued() {
+        Player carrier = anyPlayer();
+        while (carrier != null && !queued.isEmpty()) {
+            carrier.sendPluginMessage(plugin, CHANNEL, queued.pollFirst());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Sending / receiving
+    // ------------------------------------------------------------------------
+
+    private void send(byte[] message) {
+        Player carrier = anyPlayer();
+        if (carrier == null) {
+            if (queued.size() >= MAX_QUEUED) {
+                queued.pollFirst();
+            }
+            queued.addLast(message);
+            return;
+        }
+        sendQueued();
+        carrier.sendPluginMessage(plugin, CHANNEL, message);
+    }
+
+    @Override
+    public void onPluginMessageReceived(@NotNull String channel, @NotNull Player player, byte @NotNull [] message) {
+        Consumer<byte[]> target = receiver;
+        if (target == null || !CHANNEL.equals(channel)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!SUBCHANNEL.equals(in.readUTF())) {
+                return;
+            }
+            byte[] payload = new byte[in.readUnsignedShort()];
+            in.readFully(payload);
+            target.accept(payload);
+        } catch (IOException e) {
+            // Another plugin's message on the shared channel that isn't a Forward reply
+        }
+    }
+
+    private static byte[] encodeForward(byte[] payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(payload.length);
+            out.write(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Player anyPlayer() {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            return player;
+        }
+        return null;
+    }
+}
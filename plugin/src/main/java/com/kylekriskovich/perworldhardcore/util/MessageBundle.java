@@ -0,0 +1,90 @@
+package com.kylekriskovich.perworldhardcore.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.ChatColor;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled messages of one locale. Keys missing here are resolved through
+ * the parent bundle (language-only, then the default locale).
+ */
+final class MessageBundle {
+
+    private final String locale;
+    private final Properties messages;
+    private final MessageBundle parent;
+
+    /**
+     * Every message (prefix included) compiled once; missing keys are
+     * compiled on first use so they still render as the key itself.
+     */
+    private final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Messages without placeholders, already converted to Adventure components.
+     */
+    private final Map<String, Component> constantComponents = new ConcurrentHashMap<>();
+
+    /**
+     * Messages without the chat prefix, for boss bars and other non-chat
+     * text; compiled on first use.
+     */
+    private final Map<String, MessageTemplate> plainTemplates = new ConcurrentHashMap<>();
+
+    MessageBundle(String locale, Properties messages, MessageBundle parent) {
+        this.locale = locale;
+        this.messages = messages;
+        this.parent = parent;
+
+        for (String key : messages.stringPropertyNames()) {
+            compile(key);
+        }
+    }
+
+    String getLocale() {
+        return locale;
+    }
+
+    MessageTemplate template(String key) {
+        MessageTemplate template = templates.get(key);
+        return template != null ? template : compile(key);
+    }
+
+    MessageTemplate plainTemplate(String key) {
+        return plainTemplates.computeIfAbsent(key, k -> MessageTemplate.compile(color(raw(k, k))));
+    }
+
+    Component component(String key) {
+        Component cached = constantComponents.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return LegacyComponentSerializer.legacySection().deserialize(template(key).render());
+    }
+
+    private String raw(String key, String fallback) {
+        String value = messages.getProperty(key);
+        if (value != null) {
+            return value;
+        }
+        return parent != null ? parent.raw(key, fallback) : fallback;
+    }
+
+    private MessageTemplate compile(String key) {
+        MessageTemplate template = MessageTemplate.compile(color(raw("prefix", "")) + color(raw(key, key)));
+        templates.put(key, template);
+        if (template.isConstant()) {
+            constantComponents.put(key, LegacyComponentSerializer.legacySection().deserialize(template.render()));
+        }
+        return template;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static String color(String input) {
+        return ChatColor.translateAlternateColorCodes('&', input);
+    }
+}
@@ -0,0 +1,284 @@
+package com.kylekriskovich.perworldhardcore.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+
+public class MessageManager {
+
+    private static final String FILE_PREFIX = "perworldhardcore_";
+    private static final String FILE_SUFFIX = ".properties";
+    private static final String DEFAULT_LOCALE = "en";
+
+    /**
+     * Upper bound for rendered (locale, key, placeholders) entries kept around
+     * for broadcast-style sends.
+     */
+    private static final int RENDER_CACHE_SIZE = 512;
+
+    private final Plugin plugin;
+
+    /**
+     * Locale tag ("en", "de", "pt_br") → compiled messages.
+     */
+    private final Map<String, MessageBundle> bundles = new HashMap<>();
+    private final MessageBundle defaultBundle;
+
+    /**
+     * Client locale → best matching bundle, resolved once per locale.
+     */
+    private final Map<Locale, MessageBundle> resolvedLocales = new ConcurrentHashMap<>();
+
+    private final Map<String, Component> renderCache =
+            Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Component> eldest) {
+                    return size() > RENDER_CACHE_SIZE;
+                }
+            });
+
+    public MessageManager(Plugin plugin) {
+        this.plugin = plugin;
+
+        Map<String, Properties> sources = new TreeMap<>(Comparator.comparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder()));
+        loadBundledFiles(sources);
+        loadDataFolderFiles(sources);
+
+        Properties defaults = sources.remove(DEFAULT_LOCALE);
+        if (defaults == null) {
+            plugin.getLogger().warning("Could not find " + FILE_PREFIX + DEFAULT_LOCALE + FILE_SUFFIX
+                    + " in jar resources.");
+            defaults = new Properties();
+        }
+        this.defaultBundle = new MessageBundle(DEFAULT_LOCALE, defaults, null);
+        bundles.put(DEFAULT_LOCALE, defaultBundle);
+
+        // Shorter tags first, so "de" exists before "de_de" needs it as parent
+        for (Map.Entry<String, Properties> entry : sources.entrySet()) {
+            String tag = entry.getKey();
+            int underscore = tag.indexOf('_');
+            MessageBundle parent = underscore > 0
+                    ? bundles.getOrDefault(tag.substring(0, underscore), defaultBundle)
+                    : defaultBundle;
+            bundles.put(tag, new MessageBundle(tag, entry.getValue(), parent));
+        }
+
+        plugin.getLogger().info("Loaded message locales: " + bundles.keySet());
+    }
+
+    // ------------------------------------------------------------------------
+    // Default-locale rendering (console, logs)
+    // ------------------------------------------------------------------------
+
+    @SuppressWarnings("unused")
+    public String get(String key) {
+        return defaultBundle.template(key).render();
+    }
+
+    @SuppressWarnings("unused")
+    public String get(String key, Map<String, String> placeholders) {
+        return defaultBundle.template(key).render(placeholders);
+    }
+
+    /**
+     * Render a message with placeholders given as alternating name/value
+     * pairs, e.g. {@code get("hardcore.create.exists", "name", worldId)}.
+     */
+    public String get(String key, String... placeholderPairs) {
+        return defaultBundle.template(key).render(placeholderPairs);
+    }
+
+    @SuppressWarnings("unused")
+    public Component component(String key) {
+        return defaultBundle.component(key);
+    }
+
+    // ------------------------------------------------------------------------
+    // Per-recipient rendering
+    // ------------------------------------------------------------------------
+
+    /**
+     * Render a message in the recipient's client locale (default locale for
+     * the console and other non-player senders).
+     */
+    public String get(CommandSender target, String key, String... placeholderPairs) {
+        return bundleFor(target).template(key).render(placeholderPairs);
+    }
+
+    public void send(CommandSender target, String key) {
+        target.sendMessage(bundleFor(target).component(key));
+    }
+
+    public void send(CommandSender target, String key, String... placeholderPairs) {
+        MessageBundle bundle = bundleFor(target);
+        if (placeholderPairs.length == 0) {
+            target.sendMessage(bundle.component(key));
+            return;
+        }
+        target.sendMessage(rendered(bundle, key, placeholderPairs));
+    }
+
+    /**
+     * Send the same message to many recipients; it is rendered at most once
+     * per locale.
+     */
+    public void broadcast(Iterable<? extends CommandSender> targets, String key, String... placeholderPairs) {
+        for (CommandSender target : targets) {
+            send(target, key, placeholderPairs);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Non-chat text (boss bars, titles): no chat prefix
+    // ------------------------------------------------------------------------
+
+    /**
+     * Locale tag of the messages the recipient gets, so text shared by
+     * several viewers can be rendered once per locale with {@link #text}.
+     */
+    public String localeOf(CommandSender target) {
+        return bundleFor(target).getLocale();
+    }
+
+    /**
+     * Render a message without the chat prefix in a locale from
+     * {@link #localeOf}.
+     */
+    public Component text(String locale, String key, String... placeholderPairs) {
+        MessageBundle bundle = bundles.getOrDefault(locale, defaultBundle);
+        return LegacyComponentSerializer.legacySection()
+                .deserialize(bundle.plainTemplate(key).render(placeholderPairs));
+    }
+
+    private Component rendered(MessageBundle bundle, String key, String[] placeholderPairs) {
+        StringBuilder cacheKey = new StringBuilder(bundle.getLocale()).append('\0').append(key);
+        for (String part : placeholderPairs) {
+            cacheKey.append('\0').append(part);
+        }
+
+        return renderCache.computeIfAbsent(cacheKey.toString(), k ->
+                LegacyComponentSerializer.legacySection()
+                        .deserialize(bundle.template(key).render(placeholderPairs)));
+    }
+
+    private MessageBundle bundleFor(CommandSender target) {
+        if (!(target instanceof Player player) || bundles.size() == 1) {
+            return defaultBundle;
+        }
+        return resolvedLocales.computeIfAbsent(player.locale(), this::resolve);
+    }
+
+    private MessageBundle resolve(Locale locale) {
+        String language = locale.getLanguage().toLowerCase(Locale.ROOT);
+        String country = locale.getCountry().toLowerCase(Locale.ROOT);
+
+        if (!country.isEmpty()) {
+            MessageBundle exact = bundles.get(language + "_" + country);
+            if (exact != null) {
+                return exact;
+            }
+        }
+        return bundles.getOrDefault(language, defaultBundle);
+    }
+
+    // ------------------------------------------------------------------------
+    // Loading
+    // ------------------------------------------------------------------------
+
+    /**
+     * Every perworldhardcore_&lt;locale&gt;.properties at the root of the plugin jar.
+     */
+    private void loadBundledFiles(Map<String, Properties> sources) {
+        File jar = null;
+        try {
+            CodeSource codeSource = plugin.getClass().getProtectionDomain().getCodeSource();
+            if (codeSource != null) {
+                jar = new File(codeSource.getLocation().toURI());
+            }
+        } catch (URISyntaxException | SecurityException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not locate plugin jar; only the default locale is bundled", e);
+        }
+
+        if (jar == null || !jar.isFile()) {
+            loadResource(FILE_PREFIX + DEFAULT_LOCALE + FILE_SUFFIX, sources);
+            return;
+        }
+
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (localeTag(name) != null) {
+                    loadResource(name, sources);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to scan plugin jar for message files", e);
+        }
+    }
+
+    private void loadResource(String fileName, Map<String, Properties> sources) {
+        try (InputStream in = plugin.getResource(fileName)) {
+            if (in != null) {
+                load(localeTag(fileName), new InputStreamReader(in, StandardCharsets.UTF_8), sources);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load messages file " + fileName, e);
+        }
+    }
+
+    /**
+     * Files in the data folder add locales or override bundled keys.
+     */
+    private void loadDataFolderFiles(Map<String, Properties> sources) {
+        File[] files = plugin.getDataFolder().listFiles((dir, name) -> localeTag(name) != null);
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                load(localeTag(file.getName()), reader, sources);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load messages file " + file.getName(), e);
+            }
+        }
+    }
+
+    private static void load(String tag, Reader reader, Map<String, Properties> sources) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        sources.computeIfAbsent(tag, k -> new Properties()).putAll(properties);
+    }
+
+    /**
+     * "perworldhardcore_pt_BR.properties" → "pt_br"; null for other files.
+     */
+    private static String localeTag(String fileName) {
+        if (fileName.indexOf('/') >= 0
+                || !fileName.startsWith(FILE_PREFIX)
+                || !fileName.endsWith(FILE_SUFFIX)) {
+            return null;
+        }
+        String tag = fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length());
+        return tag.isEmpty() ? null : tag.toLowerCase(Locale.ROOT);
+    }
+}
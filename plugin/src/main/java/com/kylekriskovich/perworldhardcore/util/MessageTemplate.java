@@ -0,0 +1,110 @@
+package com.kylekriskovich.perworldhardcore.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message parsed once at load time: literal segments (colour codes already
+ * translated) interleaved with placeholder slots, so rendering is a single
+ * pass over the parts with no string searching.
+ * <p>
+ * Layout: {@code literals[0] slot[0] literals[1] slot[1] ... literals[n]}.
+ */
+public final class MessageTemplate {
+
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, String[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Split an already colour-translated message on {@code {name}} placeholders.
+     */
+    public static MessageTemplate compile(String message) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+
+        int start = 0;
+        int open = message.indexOf('{');
+        while (open >= 0) {
+            int close = message.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            literals.add(message.substring(start, open));
+            slots.add(message.substring(open + 1, close));
+            start = close + 1;
+            open = message.indexOf('{', start);
+        }
+        literals.add(message.substring(start));
+
+        return new MessageTemplate(literals.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    public boolean isConstant() {
+        return slots.length == 0;
+    }
+
+    /**
+     * Render with placeholders given as alternating name/value pairs,
+     * e.g. {@code render("world", "hc-1", "count", "3")}.
+     * Unknown placeholders are kept as {@code {name}}.
+     */
+    public String render(String... placeholderPairs) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder sb = new StringBuilder(literalLength + 16 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]);
+            String value = lookup(placeholderPairs, slots[i]);
+            if (value != null) {
+                sb.append(value);
+            } else {
+                sb.append('{').append(slots[i]).append('}');
+            }
+        }
+        sb.append(literals[slots.length]);
+        return sb.toString();
+    }
+
+    public String render(Map<String, String> placeholders) {
+        if (slots.length == 0 || placeholders == null) {
+            return render();
+        }
+
+        StringBuilder sb = new StringBuilder(literalLength + 16 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]);
+            String value = placeholders.get(slots[i]);
+            if (value != null) {
+                sb.append(value);
+            } else {
+                sb.append('{').append(slots[i]).append('}');
+            }
+        }
+        sb.append(literals[slots.length]);
+        return sb.toString();
+    }
+
+    private static String lookup(String[] pairs, String name) {
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            if (pairs[i].equals(name)) {
+                return pairs[i + 1];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,217 @@
+package com.kylekriskovich.perworldhardcore.world;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * MSPT-aware admission control for hardcore worlds.
+ * <p>
+ * Paper does not expose per-world tick times (all worlds share the main
+ * thread), so the sampled value is the server's average MSPT and each
+ * hardcore world compares it against its own {@code admission-max-mspt}
+ * budget. Living players entering an over-budget world are queued and sent
+ * to the hub; the queue is drained a few players at a time once the tick
+ * time is back under budget.
+ */
+public class AdmissionController {
+
+    public static final String BYPASS_PERMISSION = "hardcore.admission.bypass";
+
+    private final PerWorldHardcorePlugin plugin;
+
+    /**
+     * Hardcore world id → players waiting to enter it, in arrival order.
+     */
+    private final Map<String, LinkedHashMap<UUID, Location>> queues = new HashMap<>();
+
+    /**
+     * Players released from a queue whose next entry must not be gated again.
+     */
+    private final Set<UUID> admitted = new HashSet<>();
+
+    private BukkitTask drainTask;
+
+    public AdmissionController(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // ------------------------------------------------------------------------
+    // Lifecycle
+    // ------------------------------------------------------------------------
+
+    public void start() {
+        long interval = getCheckIntervalTicks();
+        drainTask = plugin.getServer().getScheduler()
+                .runTaskTimer(plugin, this::drainQueues, interval, interval);
+    }
+
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        queues.clear();
+        admitted.clear();
+    }
+
+    // ------------------------------------------------------------------------
+    // Admission
+    // ------------------------------------------------------------------------
+
+    /**
+     * Whether a living player may enter the given hardcore world dimension now.
+     * Moving between dimensions of the same hardcore world is never gated.
+     */
+    public boolean tryAdmit(Player player, World from, World to, HardcoreWorldSettings settings) {
+        if (admitted.remove(player.getUniqueId())) {
+            return true;
+        }
+
+        double budget = settings.getAdmissionMaxMspt();
+        if (budget <= 0) {
+            return true;
+        }
+
+        String worldId = settings.getWorldName();
+        if (from != null && worldId.equals(plugin.getHardcoreWorldId(from))) {
+            return true;
+        }
+
+        if (player.hasPermission(BYPASS_PERMISSION)) {
+            return true;
+        }
+
+        // Keep arrival order: nobody jumps a non-empty queue
+        LinkedHashMap<UUID, Location> queue = queues.get(worldId);
+        return (queue == null || queue.isEmpty()) && sampleMspt() <= budget;
+    }
+
+    /**
+     * Queue the player for the hardcore world and return their 1-based position.
+     */
+    public int enqueue(Player player, String worldId, Location target) {
+        LinkedHashMap<UUID, Location> queue = queues.computeIfAbsent(worldId, k -> new LinkedHashMap<>());
+        queue.remove(player.getUniqueId());
+        queue.put(player.getUniqueId(), target);
+        return queue.size();
+    }
+
+    /**
+     * Best-case wait for the given queue position, assuming the world is
+     * back under budget at the next check.
+     */
+    public long estimateWaitSeconds(int position) {
+        int perCheck = getAdmitPerCheck();
+        long checks = (position + perCheck - 1) / perCheck;
+        return Math.max(1, checks * getCheckIntervalTicks() / 20);
+    }
+
+    public void forget(UUID playerId) {
+        admitted.remove(playerId);
+        for (LinkedHashMap<UUID, Location> queue : queues.values()) {
+            queue.remove(playerId);
+        }
+    }
+
+    /**
+     * Players waiting across all hardcore world queues.
+     */
+    public int getQueuedCount() {
+        int total = 0;
+        for (LinkedHashMap<UUID, Location> queue : queues.values()) {
+            total += queue.size();
+        }
+        return total;
+    }
+
+    public double sampleMspt() {
+        return Bukkit.getServer().getAverageTickTime();
+    }
+
+    // ------------------------------------------------------------------------
+    // Queue draining
+    // ------------------------------------------------------------------------
+
+    private void drainQueues() {
+        if (queues.isEmpty()) {
+            return;
+        }
+
+        double mspt = sampleMspt();
+        int perCheck = getAdmitPerCheck();
+        World hub = plugin.getHubWorld();
+
+        Iterator<Map.Entry<String, LinkedHashMap<UUID, Location>>> it = queues.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, LinkedHashMap<UUID, Location>> entry = it.next();
+            LinkedHashMap<UUID, Location> queue = entry.getValue();
+
+            HardcoreWorldSettings settings = getSettingsForWorldId(entry.getKey());
+            if (settings == null) {
+                // Hardcore world was removed while players were waiting
+                it.remove();
+                continue;
+            }
+
+            if (mspt > settings.getAdmissionMaxMspt() && settings.getAdmissionMaxMspt() > 0) {
+                continue;
+            }
+
+            int released = 0;
+            Iterator<Map.Entry<UUID, Location>> waiting = queue.entrySet().iterator();
+            while (waiting.hasNext() && released < perCheck) {
+                Map.Entry<UUID, Location> next = waiting.next();
+                waiting.remove();
+
+                Player player = Bukkit.getPlayer(next.getKey());
+                if (player == null || (hub != null && !player.getWorld().equals(hub))) {
+                    // Went offline or moved on elsewhere; drop silently
+                    continue;
+                }
+
+                // Only for this teleport: tryAdmit consumes it while the teleport
+                // runs; a failed or cancelled teleport must not leave it behind
+                admitted.add(player.getUniqueId());
+                boolean teleported = player.teleport(next.getValue());
+                admitted.remove(player.getUniqueId());
+                if (teleported) {
+                    released++;
+                }
+            }
+
+            if (queue.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private HardcoreWorldSettings getSettingsForWorldId(String worldId) {
+        for (String dimensionName : plugin.getDimensionNamesForWorld(worldId)) {
+            World world = Bukkit.getWorld(dimensionName);
+            HardcoreWorldSettings settings = plugin.getHardcoreWorldSettings(world);
+            if (settings != null) {
+                return settings;
+            }
+        }
+        return null;
+    }
+
+    // ------------------------------------------------------------------------
+    // Config
+    // ------------------------------------------------------------------------
+
+    private long getCheckIntervalTicks() {
+        return Math.max(1, plugin.getConfig().getLong("admission-control.check-interval-ticks", 40L));
+    }
+
+    private int getAdmitPerCheck() {
+        return Math.max(1, plugin.getConfig().getInt("admission-control.admit-per-check", 2));
+    }
+}
@@ -0,0 +1,213 @@
+package com.kylekriskovich.perworldhardcore.world;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.jfr.EnforcementEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.GameRule;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Puts fully-dead hardcore worlds (every visitor has died) into a low-cost
+ * mode while they wait to be culled: no autosave, no spawn chunks held in
+ * memory and minimal view / simulation distance for the spectators left inside.
+ * The original values are restored if a living player ever enters again.
+ */
+public class DeadWorldFreezer {
+
+    private static final int MIN_DISTANCE = 2;
+    private static final int MAX_DISTANCE = 32;
+
+    private final PerWorldHardcorePlugin plugin;
+
+    /**
+     * Hardcore world id → original settings of each of its dimensions,
+     * keyed by Bukkit world name.
+     */
+    private final Map<String, Map<String, FrozenDimension>> frozenWorlds = new HashMap<>();
+
+    public DeadWorldFreezer(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // ------------------------------------------------------------------------
+    // Config
+    // ------------------------------------------------------------------------
+
+    public boolean isEnabled() {
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("dead-world-freeze");
+        return section == null || section.getBoolean("enabled", true);
+    }
+
+    private int getFrozenViewDistance() {
+        return clampDistance(plugin.getConfig().getInt("dead-world-freeze.view-distance", MIN_DISTANCE));
+    }
+
+    private int getFrozenSimulationDistance() {
+        return clampDistance(plugin.getConfig().getInt("dead-world-freeze.simulation-distance", MIN_DISTANCE));
+    }
+
+    // ------------------------------------------------------------------------
+    // Freeze / thaw
+    // ------------------------------------------------------------------------
+
+    public boolean isFrozen(String hardcoreWorldId) {
+        return hardcoreWorldId != null && frozenWorlds.containsKey(hardcoreWorldId);
+    }
+
+    public int getFrozenCount() {
+        return frozenWorlds.size();
+    }
+
+    /**
+     * Freeze the given hardcore world if every player who visited it is dead.
+     */
+    public void freezeIfFullyDead(String hardcoreWorldId) {
+        if (hardcoreWorldId == null || !isEnabled() || isFrozen(hardcoreWorldId)) {
+            return;
+        }
+        if (!plugin.isHardcoreWorldFullyDead(hardcoreWorldId)) {
+            return;
+        }
+        freeze(hardcoreWorldId);
+    }
+
+    /**
+     * Check every registered hardcore world, e.g. after startup or a reload.
+     */
+    public void freezeAllFullyDead() {
+        if (!isEnabled()) {
+            return;
+        }
+        for (String hardcoreWorldId : plugin.findCullableWorlds()) {
+            if (!isFrozen(hardcoreWorldId)) {
+                freeze(hardcoreWorldId);
+            }
+        }
+    }
+
+    public void thawIfFrozen(String hardcoreWorldId) {
+        Map<String, FrozenDimension> dimensions =
+                hardcoreWorldId != null ? frozenWorlds.remove(hardcoreWorldId) : null;
+        if (dimensions == null) {
+            return;
+        }
+
+        EnforcementEvent event = new EnforcementEvent();
+        event.begin();
+
+        for (Map.Entry<String, FrozenDimension> entry : dimensions.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world != null) {
+                entry.getValue().restore(world);
+            }
+        }
+
+        commitEvent(event, EnforcementEvent.THAW, hardcoreWorldId);
+
+        plugin.getLogger().info("Hardcore world '" + hardcoreWorldId + "' revived; restored normal world settings.");
+    }
+
+    /**
+     * Drop any remembered state for a hardcore world that is being removed,
+     * without touching its (soon to be deleted) dimensions.
+     */
+    public void forget(String hardcoreWorldId) {
+        if (hardcoreWorldId != null) {
+            frozenWorlds.remove(hardcoreWorldId);
+        }
+    }
+
+    /**
+     * Restore every frozen world, e.g. on plugin disable.
+     */
+    public void thawAll() {
+        for (String hardcoreWorldId : new HashMap<>(frozenWorlds).keySet()) {
+            thawIfFrozen(hardcoreWorldId);
+        }
+    }
+
+    private void freeze(String hardcoreWorldId) {
+        EnforcementEvent event = new EnforcementEvent();
+        event.begin();
+
+        int viewDistance = getFrozenViewDistance();
+        int simulationDistance = getFrozenSimulationDistance();
+
+        Map<String, FrozenDimension> dimensions = new HashMap<>();
+
+        for (String dimensionName : plugin.getDimensionNamesForWorld(hardcoreWorldId)) {
+            World world = Bukkit.getWorld(dimensionName);
+            if (world == null) {
+                continue;
+            }
+
+            dimensions.put(dimensionName, FrozenDimension.capture(world));
+
+            // Only spectators are left, so the world-wide distances are theirs
+            world.setAutoSave(false);
+            world.setGameRule(GameRule.SPAWN_CHUNK_RADIUS, 0);
+            world.setViewDistance(Math.min(world.getViewDistance(), viewDistance));
+            world.setSimulationDistance(Math.min(world.getSimulationDistance(), simulationDistance));
+        }
+
+        if (dimensions.isEmpty()) {
+            return;
+        }
+
+        frozenWorlds.put(hardcoreWorldId, dimensions);
+        commitEvent(event, EnforcementEvent.FREEZE, hardcoreWorldId);
+        plugin.getLogger().info("Hardcore world '" + hardcoreWorldId
+                + "' is fully dead; froze " + dimensions.keySet() + " pending cull.");
+    }
+
+    private void commitEvent(EnforcementEvent event, String action, String hardcoreWorldId) {
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.worldGroup = hardcoreWorldId;
+            event.playersOnline = plugin.getServer().getOnlinePlayers().size();
+            event.commit();
+        }
+    }
+
+    private static int clampDistance(int distance) {
+        return Math.max(MIN_DISTANCE, Math.min(MAX_DISTANCE, distance));
+    }
+
+    // ------------------------------------------------------------------------
+    // Captured world settings
+    // ------------------------------------------------------------------------
+
+    private record FrozenDimension(boolean autoSave,
+                                   Integer spawnChunkRadius,
+                                   int viewDistance,
+                                   int simulationDistance) {
+
+        static FrozenDimension capture(World world) {
+            // The gamerule is persisted in level.dat, so a world frozen before a
+            // restart already reports 0 here; restore the default in that case.
+            Integer radius = world.getGameRuleValue(GameRule.SPAWN_CHUNK_RADIUS);
+            return new FrozenDimension(
+                    world.isAutoSave(),
+                    radius != null && radius == 0 ? null : radius,
+                    world.getViewDistance(),
+                    world.getSimulationDistance()
+            );
+        }
+
+        void restore(World world) {
+            Integer radius = spawnChunkRadius != null
+                    ? spawnChunkRadius
+                    : world.getGameRuleDefault(GameRule.SPAWN_CHUNK_RADIUS);
+            if (radius != null) {
+                world.setGameRule(GameRule.SPAWN_CHUNK_RADIUS, radius);
+            }
+            world.setViewDistance(viewDistance);
+            world.setSimulationDistance(simulationDistance);
+            world.setAutoSave(autoSave);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.kylekriskovich.perworldhardcore.world;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.registry.WorldPopulation;
+import com.kylekriskovich.perworldhardcore.util.MessageManager;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Boss bar with the alive / dead count of the hardcore world a player is in.
+ * <p>
+ * Counts come from {@link WorldPopulation}, which is updated incrementally on
+ * visits and deaths. Once per tick the worlds whose counts changed are
+ * re-rendered, and a bar is only touched (and a packet sent) if its text
+ * or fill actually differs from what viewers already have.
+ * <p>
+ * Each world has one bar per viewer locale, so the title is rendered once
+ * per locale rather than once per player. A bar is dropped when its last
+ * viewer leaves.
+ */
+public class PopulationBossBars {
+
+    private final PerWorldHardcorePlugin plugin;
+    private final MessageManager messages;
+
+    /**
+     * Hardcore world id → its bars, created when the first viewer enters and
+     * removed when the last one leaves.
+     */
+    private final Map<String, WorldBar> bars = new HashMap<>();
+
+    /**
+     * Player → the bar they are shown.
+     */
+    private final Map<UUID, Viewer> viewing = new HashMap<>();
+
+    private BukkitTask task;
+
+    public PopulationBossBars(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+        this.messages = plugin.getMessageManager();
+    }
+
+    public boolean isEnabled() {
+        return plugin.getConfig().getBoolean("population-display.enabled", true);
+    }
+
+    // ------------------------------------------------------------------------
+    // Lifecycle
+    // ------------------------------------------------------------------------
+
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            update(player, player.getWorld());
+        }
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            hide(player);
+        }
+        bars.clear();
+        viewing.clear();
+    }
+
+    // ------------------------------------------------------------------------
+    // Viewers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Show the bar of the hardcore world the player is now in (or none).
+     */
+    public void update(Player player, World world) {
+        if (task == null) {
+            return;
+        }
+
+        String worldId = plugin.getHardcoreWorldId(world);
+        Viewer current = viewing.get(player.getUniqueId());
+        if (current != null && current.worldId().equals(worldId)) {
+            return;
+        }
+
+        hide(player);
+        if (worldId == null) {
+            return;
+        }
+
+        WorldBar worldBar = bars.computeIfAbsent(worldId, this::createBar);
+        String locale = messages.localeOf(player);
+        BossBar bar = worldBar.byLocale.computeIfAbsent(locale, l -> createLocaleBar(worldId, worldBar, l));
+        worldBar.viewers.merge(locale, 1, Integer::sum);
+        player.showBossBar(bar);
+        viewing.put(player.getUniqueId(), new Viewer(worldId, locale, bar));
+    }
+
+    public void hide(Player player) {
+        Viewer viewer = viewing.remove(player.getUniqueId());
+        if (viewer != null) {
+            player.hideBossBar(viewer.bar());
+            release(viewer);
+        }
+    }
+
+    /**
+     * Forget the viewer's locale bar once nobody sees it, and the world's
+     * bars once none are left.
+     */
+    private void release(Viewer viewer) {
+        WorldBar worldBar = bars.get(viewer.worldId());
+        if (worldBar == null) {
+            return;
+        }
+        Integer left = worldBar.viewers.computeIfPresent(viewer.locale(),
+                (locale, count) -> count > 1 ? count - 1 : null);
+        if (left == null) {
+            worldBar.byLocale.remove(viewer.locale());
+            if (worldBar.byLocale.isEmpty()) {
+                bars.remove(viewer.worldId());
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Updates
+    // ------------------------------------------------------------------------
+
+    private void tick() {
+        WorldPopulation population = plugin.getRegistry().getPopulation();
+        for (String worldId : population.drainChanged()) {
+            WorldBar bar = bars.get(worldId);
+            if (bar == null) {
+                // Nobody is looking at this world; the bar is built from current counts later
+                continue;
+            }
+            if (!plugin.getRegistry().getWorldIds().contains(worldId)) {
+                removeBar(worldId);
+                continue;
+            }
+            render(worldId, bar);
+        }
+    }
+
+    private WorldBar createBar(String worldId) {
+        WorldBar bar = new WorldBar();
+        WorldPopulation population = plugin.getRegistry().getPopulation();
+        bar.alive = population.getAlive(worldId);
+        bar.dead = population.getDead(worldId);
+        return bar;
+    }
+
+    private BossBar createLocaleBar(String worldId, WorldBar worldBar, String locale) {
+        BossBar bar = BossBar.bossBar(Component.empty(), 1.0f, BossBar.Color.GREEN, BossBar.Overlay.PROGRESS);
+        apply(worldId, worldBar, locale, bar);
+        return bar;
+    }
+
+    private void render(String worldId, WorldBar worldBar) {
+        WorldPopulation population = plugin.getRegistry().getPopulation();
+        int alive = population.getAlive(worldId);
+        int dead = population.getDead(worldId);
+        if (alive == worldBar.alive && dead == worldBar.dead) {
+            return;
+        }
+        worldBar.alive = alive;
+        worldBar.dead = dead;
+
+        for (Map.Entry<String, BossBar> entry : worldBar.byLocale.entrySet()) {
+            apply(worldId, worldBar, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void apply(String worldId, WorldBar worldBar, String locale, BossBar bar) {
+        int alive = worldBar.alive;
+        int dead = worldBar.dead;
+        int total = alive + dead;
+        bar.name(messages.text(locale, "population.bossbar",
+                "world", worldId,
+                "alive", String.valueOf(alive),
+                "dead", String.valueOf(dead)));
+        bar.progress(total > 0 ? (float) alive / total : 1.0f);
+        bar.color(alive > 0 ? BossBar.Color.GREEN : BossBar.Color.RED);
+    }
+
+    private void removeBar(String worldId) {
+        bars.remove(worldId);
+        for (Iterator<Map.Entry<UUID, Viewer>> it = viewing.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<UUID, Viewer> entry = it.next();
+            if (!entry.getValue().worldId().equals(worldId)) {
+                continue;
+            }
+            Player player = plugin.getServer().getPlayer(entry.getKey());
+            if (player != null) {
+                player.hideBossBar(entry.getValue().bar());
+            }
+            it.remove();
+        }
+    }
+
+    private static final class WorldBar {
+        /**
+         * Locale tag → the bar shown to viewers with that locale.
+         */
+        private final Map<String, BossBar> byLocale = new HashMap<>();
+        /**
+         * Locale tag → how many players see that bar.
+         */
+        private final Map<String, Integer> viewers = new HashMap<>();
+        private int alive;
+        private int dead;
+    }
+
+    private record Viewer(String worldId, String locale, BossBar bar) {
+    }
+}
@@ -0,0 +1,343 @@
+package com.kylekriskovich.perworldhardcore.world;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.event.HardcoreSeasonStartedEvent;
+import com.kylekriskovich.perworldhardcore.event.HardcoreWorldCulledEvent;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.season.CronSchedule;
+import com.kylekriskovich.perworldhardcore.season.SeasonRotation;
+import com.kylekriskovich.perworldhardcore.trace.TraceEventType;
+import com.kylekriskovich.perworldhardcore.util.MessageManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Runs weekly (or any cron schedule) hardcore "seasons" from the seasons
+ * section of config.yml, following {@link SeasonRotation}:
+ * <ul>
+ *   <li>the next season's world is created ahead of the boundary, off-peak
+ *   if possible, through the same path as /hardcore create;</li>
+ *   <li>at the boundary it becomes the active world: announced to online
+ *   players and published as a {@link HardcoreSeasonStartedEvent};</li>
+ *   <li>seasons beyond keep-last are retired off-peak, one at a time, one
+ *   dimension every few seconds, optionally archived as a handoff bundle
+ *   first.</li>
+ * </ul>
+ * Progress is kept in seasons.yml so restarts resume where they left off.
+ */
+public class SeasonScheduler {
+
+    /**
+     * Give up on a pre-creation that has not registered the world by then.
+     */
+    private static final long CREATE_TIMEOUT_MILLIS = 5 * 60_000L;
+
+    /**
+     * Wait before retrying a step that failed or was blocked by players.
+     */
+    private static final long RETRY_MILLIS = 10 * 60_000L;
+
+    private final PerWorldHardcorePlugin plugin;
+    private final WorldHandoff worldHandoff;
+    private final MessageManager messages;
+    private final File stateFile;
+
+    private SeasonRotation rotation;
+    private String createArgs;
+    private boolean archive;
+    private long retireStepTicks;
+    private long retireIntervalMillis;
+
+    private BukkitTask task;
+
+    // Step in progress; main thread only
+    private String preparing;
+    private long preparingSince;
+    private String retiring;
+    private String archived;
+    private long retryAt;
+    private long nextRetireAt;
+
+    public SeasonScheduler(PerWorldHardcorePlugin plugin, WorldHandoff worldHandoff) {
+        this.plugin = plugin;
+        this.worldHandoff = worldHandoff;
+        this.messages = plugin.getMessageManager();
+        this.stateFile = new File(plugin.getDataFolder(), "seasons.yml");
+    }
+
+    // ------------------------------------------------------------------------
+    // Lifecycle
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return false if the seasons section is invalid (logged)
+     */
+    public boolean start() {
+        FileConfiguration config = plugin.getConfig();
+        try {
+            String zone = config.getString("seasons.time-zone", "");
+            rotation = new SeasonRotation(
+                    CronSchedule.parse(config.getString("seasons.schedule", "0 18 * * 5")),
+                    config.getString("seasons.name-pattern", "season-{n}"),
+                    config.getInt("seasons.keep-last", 2),
+                    Math.max(0L, config.getLong("seasons.prepare-ahead-hours", 24L)) * 3_600_000L,
+                    SeasonRotation.Window.parse(config.getString("seasons.off-peak", "")),
+                    zone == null || zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone),
+                    loadState());
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Season rotation disabled, invalid seasons config: " + e.getMessage());
+            return false;
+        }
+        createArgs = config.getString("seasons.create-args", "");
+        archive = config.getString("seasons.retire-mode", "delete").equalsIgnoreCase("archive");
+        retireStepTicks = Math.max(1L, config.getLong("seasons.retire-step-seconds", 10L)) * 20L;
+        retireIntervalMillis = Math.max(0L, config.getLong("seasons.retire-interval-minutes", 30L)) * 60_000L;
+
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 100L, 20L);
+        return true;
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        if (rotation != null) {
+            // Async tasks no longer run during shutdown
+            writeState(serializeState());
+        }
+    }
+
+    public SeasonRotation.State getState() {
+        return rotation.getState();
+    }
+
+    public String getNextWorldId() {
+        return rotation.nextWorldId();
+    }
+
+    /**
+     * Start the next season as soon as its world is ready.
+     */
+    public void rotateNow() {
+        rotation.advanceNow(System.currentTimeMillis());
+        retryAt = 0;
+        saveState();
+    }
+
+    // ------------------------------------------------------------------------
+    // Steps
+    // ------------------------------------------------------------------------
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        if (!plugin.isStorageLoaded() || retiring != null || now < retryAt) {
+            return;
+        }
+
+        SeasonRotation.Action action = rotation.next(now);
+        if (action == null) {
+            return;
+        }
+        switch (action.step()) {
+            case PREPARE:
+                prepare(action.worldId(), now);
+                break;
+            case ACTIVATE:
+                activate(action.worldId(), now);
+                break;
+            case RETIRE:
+                if (now >= nextRetireAt) {
+                    retire(action.worldId(), now);
+                }
+                break;
+        }
+    }
+
+    private void prepare(String worldId, long now) {
+        if (plugin.getRegistry().getWorldIds().contains(worldId)) {
+            preparing = null;
+            rotation.prepared(worldId);
+            saveState();
+            plugin.getLogger().info("Next season's hardcore world '" + worldId + "' is ready.");
+            return;
+        }
+
+        if (worldId.equals(preparing)) {
+            if (now - preparingSince > CREATE_TIMEOUT_MILLIS) {
+                plugin.getLogger().warning("Hardcore world '" + worldId + "' for the next season was not created"
+                        + " (see the console above; is max-open-hardcore-worlds high enough?). Retrying later.");
+                preparing = null;
+                retryAt = now + RETRY_MILLIS;
+            }
+            return;
+        }
+
+        preparing = worldId;
+        preparingSince = now;
+        plugin.getLogger().info("Creating next season's hardcore world '" + worldId + "'.");
+        String command = ("hardcore create " + worldId + " " + createArgs).trim();
+        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+    }
+
+    private void activate(String worldId, long now) {
+        if (!plugin.getRegistry().getWorldIds().contains(worldId)) {
+            // Removed by hand since it was prepared; prepare a new one
+            rotation.retired(worldId);
+            saveState();
+            return;
+        }
+
+        String previous = rotation.getState().active();
+        rotation.activated(worldId, now);
+        saveState();
+
+        int season = rotation.getState().season();
+        plugin.getLogger().info("Season " + season + " started; active hardcore world is now '" + worldId + "'.");
+        messages.broadcast(plugin.getServer().getOnlinePlayers(), "hardcore.season.started",
+                "season", String.valueOf(season), "world", worldId);
+        Bukkit.getPluginManager().callEvent(new HardcoreSeasonStartedEvent(worldId,
+                plugin.getDimensionNamesForWorld(worldId), plugin.getHardcoreWorldSettings(worldId),
+                season, previous));
+    }
+
+    private void retire(String worldId, long now) {
+        if (!plugin.getRegistry().getWorldIds().contains(worldId)) {
+            rotation.retired(worldId);
+            saveState();
+            return;
+        }
+        for (String dimensionName : plugin.getDimensionNamesForWorld(worldId)) {
+            World world = Bukkit.getWorld(dimensionName);
+            if (world != null && !world.getPlayers().isEmpty()) {
+                retryAt = now + RETRY_MILLIS;
+                return;
+            }
+        }
+
+        retiring = worldId;
+        // A retry after players interrupted the deletion must not export a half-deleted world
+        boolean exportFirst = archive && !worldId.equals(archived);
+        plugin.getLogger().info("Retiring season world '" + worldId + "'"
+                + (exportFirst ? " (archiving first)." : "."));
+        if (!exportFirst) {
+            deleteStaggered(worldId);
+            return;
+        }
+        // Kept so the dimensions are loaded again and deleted like in delete mode
+        worldHandoff.export(Bukkit.getConsoleSender(), worldId, true, exported -> {
+            if (exported) {
+                archived = worldId;
+                deleteStaggered(worldId);
+            } else {
+                retiring = null;
+                retryAt = System.currentTimeMillis() + RETRY_MILLIS;
+            }
+        });
+    }
+
+    /**
+     * Delete one dimension every retire-step-seconds, then drop the world's
+     * config and player data.
+     */
+    private void deleteStaggered(String worldId) {
+        List<String> dimensionNames = plugin.getDimensionNamesForWorld(worldId);
+        HardcoreWorldSettings settings = plugin.getHardcoreWorldSettings(worldId);
+        plugin.getServer().getScheduler().runTaskLater(plugin,
+                () -> deleteStep(worldId, dimensionNames, settings, 0), 1L);
+    }
+
+    private void deleteStep(String worldId, List<String> dimensionNames, HardcoreWorldSettings settings, int index) {
+        if (index < dimensionNames.size()) {
+            String dimensionName = dimensionNames.get(index);
+            World world = Bukkit.getWorld(dimensionName);
+            // Someone got in since the last step: back off like retire() does
+            if (world != null && !world.getPlayers().isEmpty()) {
+                plugin.getLogger().info("Players entered '" + dimensionName + "'; retiring season world '"
+                        + worldId + "' later.");
+                retiring = null;
+                retryAt = System.currentTimeMillis() + RETRY_MILLIS;
+                return;
+            }
+            plugin.dispatchConsole(null, "mv delete " + dimensionName);
+            plugin.getServer().getScheduler().runTaskLater(plugin,
+                    () -> deleteStep(worldId, dimensionNames, settings, index + 1), retireStepTicks);
+            return;
+        }
+
+        plugin.removeHardcoreWorld(worldId);
+        plugin.trace(TraceEventType.WORLD_CULL, null, worldId, String.join(",", dimensionNames));
+        Bukkit.getPluginManager().callEvent(new HardcoreWorldCulledEvent(worldId, dimensionNames, settings));
+
+        rotation.retired(worldId);
+        saveState();
+        retiring = null;
+        archived = null;
+        nextRetireAt = System.currentTimeMillis() + retireIntervalMillis;
+        plugin.getLogger().info("Retired season world '" + worldId + "'.");
+    }
+
+    // ------------------------------------------------------------------------
+    // seasons.yml
+    // ------------------------------------------------------------------------
+
+    private SeasonRotation.State loadState() {
+        if (!stateFile.exists()) {
+            return SeasonRotation.State.INITIAL;
+        }
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(stateFile);
+        return new SeasonRotation.State(
+                yaml.getInt("season", 0),
+                yaml.getString("active"),
+                yaml.getString("prepared"),
+                yaml.getLong("next-boundary", 0L),
+                yaml.getStringList("seasons"));
+    }
+
+    /**
+     * Serialize on the main thread, write off it.
+     */
+    private void saveState() {
+        String text = serializeState();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> writeState(text));
+    }
+
+    private String serializeState() {
+        SeasonRotation.State state = rotation.getState();
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("season", state.season());
+        yaml.set("active", state.active());
+        yaml.set("prepared", state.prepared());
+        yaml.set("next-boundary", state.nextBoundary());
+        yaml.set("seasons", state.seasons());
+        return yaml.saveToString();
+    }
+
+    /**
+     * Temp file + atomic rename, so a crash never leaves half a file.
+     */
+    private synchronized void writeState(String text) {
+        Path target = stateFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            Files.writeString(temp, text, StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not save seasons.yml", e);
+        }
+    }
+}
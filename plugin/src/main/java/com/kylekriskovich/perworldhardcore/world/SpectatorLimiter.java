@@ -0,0 +1,147 @@
+package com.kylekriskovich.perworldhardcore.world;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.GameRule;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps dead players spectating a hardcore world within the per-world
+ * spectator budget: capped view distance, a cap on concurrent spectators
+ * per hardcore world and optionally no chunk generation caused by spectators.
+ * The chunk generation gamerule is persisted in level.dat, so its original
+ * value is put back before a dimension is unloaded or the plugin disabled.
+ */
+public class SpectatorLimiter {
+
+    private static final int MIN_VIEW_DISTANCE = 2;
+
+    private final PerWorldHardcorePlugin plugin;
+
+    /**
+     * Players whose view distance was capped by us and must be reset
+     * when they leave the hardcore world.
+     */
+    private final Set<UUID> cappedPlayers = new HashSet<>();
+
+    /**
+     * Bukkit world name → spectatorsGenerateChunks value before we turned it off.
+     */
+    private final Map<String, Boolean> chunkGenerationRules = new HashMap<>();
+
+    public SpectatorLimiter(PerWorldHardcorePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Whether the player may (still) spectate the hardcore world that owns
+     * the given dimension. Only players who died in that world count towards
+     * the cap (staff in spectator mode do not); those already spectating
+     * there keep their slot.
+     */
+    public boolean hasSpectatorSlot(Player player, World anyDimension, HardcoreWorldSettings settings) {
+        int max = settings.getMaxSpectators();
+        if (max <= 0) {
+            return true;
+        }
+
+        String worldId = plugin.getHardcoreWorldId(anyDimension);
+        int spectators = 0;
+
+        for (String dimensionName : plugin.getDimensionNamesForWorld(worldId)) {
+            World dimension = Bukkit.getWorld(dimensionName);
+            if (dimension == null) continue;
+
+            for (Player other : dimension.getPlayers()) {
+                if (other.getGameMode() != GameMode.SPECTATOR) continue;
+                if (!plugin.hasDiedInWorld(other.getUniqueId(), dimension)) continue;
+                if (other.getUniqueId().equals(player.getUniqueId())) {
+                    return true;
+                }
+                spectators++;
+            }
+        }
+
+        return spectators < max;
+    }
+
+    /**
+     * Switch the player to spectator and apply the world's spectator budget.
+     * This is the only place dead players are put into spectator mode.
+     */
+    public void makeSpectator(Player player, World world, HardcoreWorldSettings settings) {
+        player.setGameMode(GameMode.SPECTATOR);
+
+        int viewDistance = settings.getSpectatorViewDistance();
+        if (viewDistance > 0) {
+            int capped = Math.max(MIN_VIEW_DISTANCE, Math.min(viewDistance, world.getViewDistance()));
+            player.setViewDistance(capped);
+            player.setSendViewDistance(capped);
+            cappedPlayers.add(player.getUniqueId());
+        }
+
+        if (settings.isBlockSpectatorChunkGeneration()) {
+            for (String dimensionName : plugin.getDimensionNamesForWorld(settings.getWorldName())) {
+                World dimension = Bukkit.getWorld(dimensionName);
+                if (dimension == null) continue;
+
+                Boolean current = dimension.getGameRuleValue(GameRule.SPECTATORS_GENERATE_CHUNKS);
+                if (!Boolean.FALSE.equals(current)) {
+                    chunkGenerationRules.putIfAbsent(dimensionName, current);
+                    dimension.setGameRule(GameRule.SPECTATORS_GENERATE_CHUNKS, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Undo the view distance cap once the player is no longer spectating
+     * a hardcore world (world change to another hardcore world re-applies it).
+     */
+    public void release(Player player) {
+        if (!cappedPlayers.remove(player.getUniqueId())) {
+            return;
+        }
+        World world = player.getWorld();
+        player.setViewDistance(world.getViewDistance());
+        player.setSendViewDistance(world.getSendViewDistance());
+    }
+
+    public void forget(UUID playerId) {
+        cappedPlayers.remove(playerId);
+    }
+
+    /**
+     * Put back the chunk generation gamerule of a dimension we changed,
+     * e.g. before it is unloaded and level.dat is written.
+     */
+    public void restoreChunkGeneration(World world) {
+        Boolean original = chunkGenerationRules.remove(world.getName());
+        if (original != null) {
+            world.setGameRule(GameRule.SPECTATORS_GENERATE_CHUNKS, original);
+        }
+    }
+
+    /**
+     * Restore every dimension we changed, e.g. on plugin disable.
+     */
+    public void restoreAll() {
+        for (String dimensionName : new HashMap<>(chunkGenerationRules).keySet()) {
+            World world = Bukkit.getWorld(dimensionName);
+            if (world != null) {
+                restoreChunkGeneration(world);
+            } else {
+                chunkGenerationRules.remove(dimensionName);
+            }
+        }
+    }
+}
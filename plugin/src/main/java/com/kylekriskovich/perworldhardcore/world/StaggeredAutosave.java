@@ -0,0 +1,177 @@
+package com.kylekriskovich.perworldhardcore.world;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.history.DeathHistory;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Takes over autosave for hardcore dimensions so a server-wide autosave does
+ * not flush every hardcore world in the same tick.
+ * <p>
+ * Every {@code interval-ticks} all registered dimensions are queued and saved
+ * round-robin, at most {@code worlds-per-tick} per tick. The plugin's own
+ * data.yml flush and death history append run from the same task, only on
+ * ticks without world saves; new death marks are written on the next tick
+ * regardless, so only visits are batched.
+ */
+public class StaggeredAutosave {
+
+    private final PerWorldHardcorePlugin plugin;
+    private final HardcoreDataStorage dataStorage;
+
+    /**
+     * Dimensions whose autosave we switched off and must switch back on.
+     */
+    private final Set<String> takenOver = new HashSet<>();
+    private final Deque<String> pendingSaves = new ArrayDeque<>();
+
+    private BukkitTask task;
+    private long ticksUntilCycle;
+    private long ticksSinceFlush;
+
+    public StaggeredAutosave(PerWorldHardcorePlugin plugin, HardcoreDataStorage dataStorage) {
+        this.plugin = plugin;
+        this.dataStorage = dataStorage;
+    }
+
+    // ------------------------------------------------------------------------
+    // Lifecycle
+    // ------------------------------------------------------------------------
+
+    public void start() {
+        ticksUntilCycle = getIntervalTicks();
+        if (isEnabled()) {
+            takeOverAutosave();
+        }
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        pendingSaves.clear();
+
+        for (String dimensionName : takenOver) {
+            World world = Bukkit.getWorld(dimensionName);
+            if (world != null) {
+                world.setAutoSave(true);
+            }
+        }
+        takenOver.clear();
+    }
+
+    // ------------------------------------------------------------------------
+    // Scheduling
+    // ------------------------------------------------------------------------
+
+    private void tick() {
+        if (isEnabled() && --ticksUntilCycle <= 0) {
+            ticksUntilCycle = getIntervalTicks();
+            startCycle();
+        }
+
+        ticksSinceFlush++;
+
+        // Deaths cannot wait for a quiet tick: a lost mark lets the player back in
+        if (dataStorage.hasUnsavedDeaths()) {
+            dataStorage.flush();
+            ticksSinceFlush = 0;
+        }
+
+        if (!pendingSaves.isEmpty()) {
+            saveNextWorlds();
+            return;
+        }
+
+        // Only flush player data on ticks that did not save a world
+        if (ticksSinceFlush < getDataFlushIntervalTicks()) {
+            return;
+        }
+        DeathHistory history = plugin.getDeathHistory();
+        if (history != null && history.isDirty()) {
+            history.flush();
+            ticksSinceFlush = 0;
+        }
+        if (dataStorage.isDirty()) {
+            dataStorage.flush();
+            ticksSinceFlush = 0;
+        }
+    }
+
+    /**
+     * Switch off vanilla autosave for every hardcore dimension not yet handled
+     * (new worlds, revived worlds) so only this scheduler saves them.
+     */
+    private void takeOverAutosave() {
+        for (String dimensionName : plugin.getHardcoreDimensions()) {
+            World world = Bukkit.getWorld(dimensionName);
+            if (world != null && !isFrozen(world) && world.isAutoSave()) {
+                world.setAutoSave(false);
+                takenOver.add(dimensionName);
+            }
+        }
+    }
+
+    private void startCycle() {
+        takeOverAutosave();
+
+        for (String dimensionName : takenOver) {
+            World world = Bukkit.getWorld(dimensionName);
+            // Frozen worlds deliberately skip saving until they are culled or revived
+            if (world != null && !isFrozen(world) && !pendingSaves.contains(dimensionName)) {
+                pendingSaves.addLast(dimensionName);
+            }
+        }
+    }
+
+    private boolean isFrozen(World world) {
+        DeadWorldFreezer freezer = plugin.getDeadWorldFreezer();
+        return freezer != null && freezer.isFrozen(plugin.getHardcoreWorldId(world));
+    }
+
+    private void saveNextWorlds() {
+        int budget = getWorldsPerTick();
+
+        while (budget > 0 && !pendingSaves.isEmpty()) {
+            String dimensionName = pendingSaves.pollFirst();
+            World world = Bukkit.getWorld(dimensionName);
+            if (world == null || !plugin.isHardcoreWorld(world)) {
+                // Culled or unloaded since the cycle started
+                takenOver.remove(dimensionName);
+                continue;
+            }
+            world.save();
+            budget--;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Config
+    // ------------------------------------------------------------------------
+
+    private boolean isEnabled() {
+        return plugin.getConfig().getBoolean("staggered-autosave.enabled", true);
+    }
+
+    private long getIntervalTicks() {
+        return Math.max(20L, plugin.getConfig().getLong("staggered-autosave.interval-ticks", 6000L));
+    }
+
+    private long getDataFlushIntervalTicks() {
+        return Math.max(1L, plugin.getConfig().getLong("staggered-autosave.data-flush-interval-ticks", 20L));
+    }
+
+    private int getWorldsPerTick() {
+        return Math.max(1, plugin.getConfig().getInt("staggered-autosave.worlds-per-tick", 1));
+    }
+}
@@ -0,0 +1,391 @@
+package com.kylekriskovich.perworldhardcore.world;
+
+import com.kylekriskovich.perworldhardcore.PerWorldHardcorePlugin;
+import com.kylekriskovich.perworldhardcore.command.HardcoreCommands;
+import com.kylekriskovich.perworldhardcore.event.HardcoreWorldCreatedEvent;
+import com.kylekriskovich.perworldhardcore.event.HardcoreWorldCulledEvent;
+import com.kylekriskovich.perworldhardcore.handoff.HandoffBundle;
+import com.kylekriskovich.perworldhardcore.handoff.HandoffManifest;
+import com.kylekriskovich.perworldhardcore.model.HardcoreDimension;
+import com.kylekriskovich.perworldhardcore.model.HardcoreWorldSettings;
+import com.kylekriskovich.perworldhardcore.registry.HardcoreWorldRegistry;
+import com.kylekriskovich.perworldhardcore.storage.HardcoreDataStorage;
+import com.kylekriskovich.perworldhardcore.trace.TraceEventType;
+import com.kylekriskovich.perworldhardcore.util.MessageManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Moves a whole hardcore world group between servers as one
+ * {@link HandoffBundle} in plugins/PerWorldHardcore/handoff.
+ * <p>
+ * Export unloads the group's dimensions (saving them) so their folders hold
+ * still, snapshots settings and player marks on the main thread and packs
+ * the bundle asynchronously. If anything fails the dimensions are loaded
+ * again through Multiverse. On success the bundle owns the group: it is
+ * removed here (Multiverse forgets the dimensions, their folders stay on
+ * disk) unless kept with --keep, which reloads it instead, so two nodes
+ * never both own it. Import unpacks asynchronously, then on the main
+ * thread loads the dimensions through Multiverse, registers the group via
+ * {@link PerWorldHardcorePlugin#addHardcoreWorld} and merges the marks into
+ * storage through the registry.
+ */
+public class WorldHandoff {
+
+    private final PerWorldHardcorePlugin plugin;
+    private final HardcoreDataStorage dataStorage;
+    private final MessageManager messages;
+
+    /**
+     * Groups with an export or import in flight; main thread only.
+     */
+    private final Set<String> busy = new HashSet<>();
+
+    public WorldHandoff(PerWorldHardcorePlugin plugin, HardcoreDataStorage dataStorage) {
+        this.plugin = plugin;
+        this.dataStorage = dataStorage;
+        this.messages = plugin.getMessageManager();
+    }
+
+    public Path getDirectory() {
+        return new File(plugin.getDataFolder(), "handoff").toPath();
+    }
+
+    // ------------------------------------------------------------------------
+    // Export
+    // ------------------------------------------------------------------------
+
+    public void export(CommandSender sender, String worldId, boolean keep) {
+        export(sender, worldId, keep, exported -> { });
+    }
+
+    /**
+     * @param keep   keep the group on this server (dimensions reloaded) instead of removing it
+     * @param onDone told on the main thread whether the bundle was written
+     */
+    public void export(CommandSender sender, String worldId, boolean keep, Consumer<Boolean> onDone) {
+        if (!plugin.getRegistry().getWorldIds().contains(worldId)) {
+            messages.send(sender, "hardcore.export.unknown", "world", worldId);
+            onDone.accept(false);
+            return;
+        }
+        if (!plugin.isStorageLoaded()) {
+            messages.send(sender, "hardcore.handoff.storage-loading");
+            onDone.accept(false);
+            return;
+        }
+        if (busy.contains(worldId)) {
+            messages.send(sender, "hardcore.handoff.busy", "world", worldId);
+            onDone.accept(false);
+            return;
+        }
+
+        List<String> dimensionNames = plugin.getDimensionNamesForWorld(worldId);
+        for (String dimensionName : dimensionNames) {
+            World world = Bukkit.getWorld(dimensionName);
+            if (world != null && !world.getPlayers().isEmpty()) {
+                messages.send(sender, "hardcore.export.players-online", "world", worldId);
+                onDone.accept(false);
+                return;
+            }
+        }
+
+        // Unloading saves the world and guarantees nothing writes the region files during the copy
+        List<String> unloaded = new ArrayList<>();
+        for (String dimensionName : dimensionNames) {
+            World world = Bukkit.getWorld(dimensionName);
+            if (world == null) {
+                continue;
+            }
+            if (!Bukkit.unloadWorld(world, true)) {
+                messages.send(sender, "hardcore.export.unload-failed", "world", dimensionName);
+                reload(sender, unloaded);
+                onDone.accept(false);
+                return;
+            }
+            unloaded.add(dimensionName);
+        }
+
+        HandoffManifest manifest = new HandoffManifest(
+                worldId,
+                System.currentTimeMillis(),
+                readDimensions(worldId, dimensionNames),
+                readSettings(worldId),
+                HandoffManifest.collectMarks(dataStorage, dimensionNames));
+        Path target = getDirectory().resolve(worldId + HandoffBundle.EXTENSION);
+        Path worldContainer = Bukkit.getWorldContainer().toPath();
+
+        busy.add(worldId);
+        messages.send(sender, "hardcore.export.start", "world", worldId);
+        long start = System.nanoTime();
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            IOException failure = null;
+            int files = 0;
+            long bytes = 0;
+            try {
+                files = HandoffBundle.write(target, manifest, worldContainer);
+                bytes = Files.size(target);
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            IOException error = failure;
+            int fileCount = files;
+            long size = bytes;
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                busy.remove(worldId);
+                plugin.getMetrics().timer("handoff_export").recordSince(start);
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Could not export hardcore world " + worldId, error);
+                    messages.send(sender, "hardcore.export.failed", "world", worldId, "error", String.valueOf(error.getMessage()));
+                    reload(sender, unloaded);
+                    onDone.accept(false);
+                    return;
+                }
+                messages.send(sender, "hardcore.export.success",
+                        "world", worldId,
+                        "file", target.getFileName().toString(),
+                        "files", String.valueOf(fileCount),
+                        "players", String.valueOf(manifest.players().size()),
+                        "size", String.valueOf(size / (1024 * 1024)));
+                if (keep) {
+                    messages.send(sender, "hardcore.export.kept", "world", worldId);
+                    reload(sender, unloaded);
+                } else {
+                    retire(sender, worldId, dimensionNames);
+                }
+                onDone.accept(true);
+            });
+        });
+    }
+
+    /**
+     * Load dimensions unloaded for an export again, through Multiverse like
+     * every other world operation.
+     */
+    private void reload(CommandSender sender, List<String> dimensionNames) {
+        for (String dimensionName : dimensionNames) {
+            plugin.dispatchConsole(sender, "mv load " + dimensionName);
+        }
+    }
+
+    /**
+     * The bundle now owns the group: unregister it here, from Multiverse
+     * (folders stay on disk) and from config.yml, and drop its player marks.
+     * Sync peers ignore the replicated removal for a group imported after it.
+     */
+    private void retire(CommandSender sender, String worldId, List<String> dimensionNames) {
+        HardcoreWorldSettings settings = plugin.getHardcoreWorldSettings(worldId);
+        for (String dimensionName : dimensionNames) {
+            plugin.dispatchConsole(sender, "mv remove " + dimensionName);
+        }
+        plugin.removeHardcoreWorld(worldId);
+        plugin.trace(TraceEventType.WORLD_CULL, null, worldId, String.join(",", dimensionNames));
+        Bukkit.getPluginManager().callEvent(new HardcoreWorldCulledEvent(worldId, dimensionNames, settings));
+        messages.send(sender, "hardcore.export.retired", "world", worldId);
+    }
+
+    private List<HandoffManifest.Dimension> readDimensions(String worldId, List<String> dimensionNames) {
+        ConfigurationSection dimSection =
+                plugin.getConfig().getConfigurationSection("hardcore-worlds." + worldId + ".dimensions");
+
+        List<HandoffManifest.Dimension> result = new ArrayList<>();
+        for (String dimensionName : dimensionNames) {
+            String key = HardcoreDimension.OVERWORLD.getConfigKey();
+            if (dimSection != null) {
+                for (String dimKey : dimSection.getKeys(false)) {
+                    if (dimensionName.equals(dimSection.getString(dimKey))) {
+                        key = dimKey;
+                        break;
+                    }
+                }
+            }
+            result.add(new HandoffManifest.Dimension(key, dimensionName));
+        }
+        return result;
+    }
+
+    private Map<String, String> readSettings(String worldId) {
+        Map<String, String> result = new LinkedHashMap<>();
+        ConfigurationSection settings =
+                plugin.getConfig().getConfigurationSection("hardcore-worlds." + worldId + ".settings");
+        if (settings != null) {
+            for (String key : settings.getKeys(false)) {
+                Object value = settings.get(key);
+                if (value != null && !(value instanceof ConfigurationSection)) {
+                    result.put(key, String.valueOf(value));
+                }
+            }
+        }
+        return result;
+    }
+
+    // ------------------------------------------------------------------------
+    // Import
+    // ------------------------------------------------------------------------
+
+    public void importBundle(CommandSender sender, String fileName) {
+        if (!plugin.isStorageLoaded()) {
+            messages.send(sender, "hardcore.handoff.storage-loading");
+            return;
+        }
+
+        Path directory = getDirectory().toAbsolutePath().normalize();
+        String name = fileName.endsWith(HandoffBundle.EXTENSION) ? fileName : fileName + HandoffBundle.EXTENSION;
+        Path bundle = directory.resolve(name).normalize();
+        if (!directory.equals(bundle.getParent()) || !Files.isRegularFile(bundle)) {
+            messages.send(sender, "hardcore.import.missing", "file", name);
+            return;
+        }
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                HandoffManifest manifest = HandoffBundle.readManifest(bundle);
+                plugin.getServer().getScheduler().runTask(plugin, () -> beginImport(sender, bundle, manifest));
+            } catch (IOException e) {
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    plugin.getLogger().log(Level.WARNING, "Could not read handoff bundle " + bundle, e);
+                    messages.send(sender, "hardcore.import.failed", "file", name, "error", String.valueOf(e.getMessage()));
+                });
+            }
+        });
+    }
+
+    private void beginImport(CommandSender sender, Path bundle, HandoffManifest manifest) {
+        String worldId = manifest.worldId();
+
+        if (plugin.hardcoreWorldExists(worldId) || busy.contains(worldId)) {
+            messages.send(sender, "hardcore.create.exists", "name", worldId);
+            return;
+        }
+        int maxWorlds = plugin.getMaxOpenHardcoreWorlds();
+        if (plugin.getHardcoreWorldCount() >= maxWorlds) {
+            messages.send(sender, "hardcore.create.limit", "max", String.valueOf(maxWorlds));
+            return;
+        }
+        for (String dimensionName : manifest.dimensionNames()) {
+            if (Bukkit.getWorld(dimensionName) != null || plugin.getRegistry().isHardcoreDimension(dimensionName)) {
+                messages.send(sender, "hardcore.create.exists", "name", dimensionName);
+                return;
+            }
+        }
+
+        busy.add(worldId);
+        messages.send(sender, "hardcore.import.start", "world", worldId);
+        Path worldContainer = Bukkit.getWorldContainer().toPath();
+        long start = System.nanoTime();
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                int files = HandoffBundle.extract(bundle, manifest, worldContainer);
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    busy.remove(worldId);
+                    finishImport(sender, manifest, files);
+                    plugin.getMetrics().timer("handoff_import").recordSince(start);
+                });
+            } catch (IOException e) {
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    busy.remove(worldId);
+                    plugin.getLogger().log(Level.WARNING, "Could not unpack handoff bundle " + bundle, e);
+                    messages.send(sender, "hardcore.import.failed",
+                            "file", bundle.getFileName().toString(), "error", String.valueOf(e.getMessage()));
+                });
+            }
+        });
+    }
+
+    private void finishImport(CommandSender sender, HandoffManifest manifest, int files) {
+        String worldId = manifest.worldId();
+
+        Map<HardcoreDimension, String> dimensionNames = new EnumMap<>(HardcoreDimension.class);
+        for (HandoffManifest.Dimension dimension : manifest.dimensions()) {
+            HardcoreDimension dim = dimensionFor(dimension.key());
+            dimensionNames.put(dim, dimension.worldName());
+
+            plugin.dispatchConsole(sender, "mv import " + dimension.worldName() + " " + dim.getMultiverseEnvironment());
+        }
+
+        Map<String, String> settings = manifest.settings();
+        plugin.addHardcoreWorld(worldId, dimensionNames,
+                HardcoreCommands.parseBooleanFlag(settings.get("allow-spectator-on-death")),
+                HardcoreCommands.parseBooleanFlag(settings.get("allow-tp-after-death")));
+        if (settings.size() > 2) {
+            // Spectator budget, admission limit, ...: copied verbatim
+            ConfigurationSection section =
+                    plugin.getConfig().getConfigurationSection("hardcore-worlds." + worldId + ".settings");
+            if (section != null) {
+                settings.forEach((key, value) -> section.set(key, configValue(value)));
+                plugin.saveConfig();
+                plugin.loadHardcoreWorlds();
+            }
+        }
+
+        // Through the registry so population counts, the query index and sync follow
+        HardcoreWorldRegistry registry = plugin.getRegistry();
+        List<String> names = manifest.dimensionNames();
+        for (HandoffManifest.PlayerMarks marks : manifest.players()) {
+            for (int i = 0; i < names.size(); i++) {
+                if ((marks.visitedMask() & (1 << i)) != 0) {
+                    registry.markVisitedWorld(dataStorage, marks.player(), names.get(i));
+                }
+            }
+            for (int i = 0; i < names.size(); i++) {
+                if ((marks.deadMask() & (1 << i)) != 0) {
+                    registry.markDeadInWorld(dataStorage, marks.player(), names.get(i));
+                    break;
+                }
+            }
+        }
+
+        plugin.enforceHardDifficultyForWorld(worldId);
+        plugin.getDeadWorldFreezer().freezeIfFullyDead(worldId);
+        plugin.trace(TraceEventType.WORLD_CREATE, null, worldId, String.join(",", names));
+        Bukkit.getPluginManager().callEvent(new HardcoreWorldCreatedEvent(worldId,
+                plugin.getDimensionNamesForWorld(worldId), plugin.getHardcoreWorldSettings(worldId)));
+
+        messages.send(sender, "hardcore.import.success",
+                "world", worldId,
+                "files", String.valueOf(files),
+                "players", String.valueOf(manifest.players().size()));
+    }
+
+    private static HardcoreDimension dimensionFor(String configKey) {
+        for (HardcoreDimension dim : HardcoreDimension.values()) {
+            if (dim.getConfigKey().equalsIgnoreCase(configKey)) {
+                return dim;
+            }
+        }
+        return HardcoreDimension.OVERWORLD;
+    }
+
+    /**
+     * Undo the String conversion of {@link #readSettings} so config.yml keeps its types.
+     */
+    private static Object configValue(String value) {
+        Boolean flag = HardcoreCommands.parseBooleanFlag(value);
+        if (flag != null) {
+            return flag;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException ignored) {
+            // not an int
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException ignored) {
+            return value;
+        }
+    }
+}